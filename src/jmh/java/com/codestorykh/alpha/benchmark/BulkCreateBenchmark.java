@@ -0,0 +1,137 @@
+package com.codestorykh.alpha.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk entity creation with the JDBC traffic Hibernate produces for each id strategy, per row created:
+ * <ul>
+ *   <li>{@code identity}: what {@code GenerationType.IDENTITY} forces, one {@code INSERT} executed
+ *       immediately per entity to read the generated key back, no batching</li>
+ *   <li>{@code pooledSequence}: what {@code BaseEntity} does now, one {@code nextval} per 50 entities
+ *       (pooled-lo) and the inserts sent as JDBC batches of {@code hibernate.jdbc.batch_size} = 50</li>
+ * </ul>
+ * Rows are user-shaped and created {@value #ROWS} per transaction. {@code rewriteBatchedInserts=true} shows
+ * what the driver's multi-row rewrite adds on top; it only changes anything for the batched case.
+ * <p>
+ * Needs PostgreSQL like {@link GroupClosureBenchmark}; tables live in a throwaway
+ * {@code jmh_bulk_create} schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkCreateBenchmark {
+
+    private static final String SCHEMA = "jmh_bulk_create";
+    private static final int ROWS = 500;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String COLUMNS = "(username, email, password, status, enabled, created_at, updated_at, version, active)";
+    private static final String VALUES = "(?, ?, ?, 'ACTIVE', true, now(), now(), 0, true)";
+
+    @Param({"false", "true"})
+    public boolean rewriteBatchedInserts;
+
+    private Connection connection;
+    private PreparedStatement identityInsert;
+    private PreparedStatement sequenceInsert;
+    private PreparedStatement nextBlock;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("jmh.jdbc.url", "jdbc:postgresql://localhost:5432/alpha_core");
+        connection = DriverManager.getConnection(
+                url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=" + rewriteBatchedInserts,
+                System.getProperty("jmh.jdbc.user", "codestorykh"),
+                System.getProperty("jmh.jdbc.password", "password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            String body = " username VARCHAR(50) NOT NULL UNIQUE, email VARCHAR(100) NOT NULL UNIQUE,"
+                    + " password VARCHAR(255) NOT NULL, status VARCHAR(255) NOT NULL, enabled BOOLEAN NOT NULL,"
+                    + " created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP, version BIGINT, active BOOLEAN NOT NULL)";
+            statement.execute("CREATE TABLE identity_users (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY," + body);
+            statement.execute("CREATE SEQUENCE sequence_users_id_seq INCREMENT BY " + BATCH_SIZE);
+            statement.execute("CREATE TABLE sequence_users (id BIGINT PRIMARY KEY," + body);
+        }
+        connection.setAutoCommit(false);
+
+        identityInsert = connection.prepareStatement(
+                "INSERT INTO identity_users " + COLUMNS + " VALUES " + VALUES, Statement.RETURN_GENERATED_KEYS);
+        sequenceInsert = connection.prepareStatement(
+                "INSERT INTO sequence_users (id, " + COLUMNS.substring(1) + " VALUES (?, " + VALUES.substring(1));
+        nextBlock = connection.prepareStatement("SELECT nextval('sequence_users_id_seq')");
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE identity_users, sequence_users");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long lastId = 0;
+        for (int i = 0; i < ROWS; i++) {
+            bindUser(identityInsert, 1, counter++);
+            identityInsert.executeUpdate();
+            try (ResultSet keys = identityInsert.getGeneratedKeys()) {
+                keys.next();
+                lastId = keys.getLong(1);
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledSequence() throws SQLException {
+        long nextId = 0;
+        long blockEnd = 0;
+        for (int i = 0; i < ROWS; i++) {
+            if (nextId == blockEnd) {
+                try (ResultSet resultSet = nextBlock.executeQuery()) {
+                    resultSet.next();
+                    nextId = resultSet.getLong(1);
+                    blockEnd = nextId + BATCH_SIZE;
+                }
+            }
+            sequenceInsert.setLong(1, nextId++);
+            bindUser(sequenceInsert, 2, counter++);
+            sequenceInsert.addBatch();
+            if ((i + 1) % BATCH_SIZE == 0) {
+                sequenceInsert.executeBatch();
+            }
+        }
+        sequenceInsert.executeBatch();
+        connection.commit();
+        return nextId;
+    }
+
+    private static void bindUser(PreparedStatement statement, int firstIndex, long n) throws SQLException {
+        statement.setString(firstIndex, "bulk-user-" + n);
+        statement.setString(firstIndex + 1, "bulk-user-" + n + "@example.com");
+        // Shape of a BCrypt hash; hashing itself is not what is measured here
+        statement.setString(firstIndex + 2, "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z0Zt2zZ1j3pQ9uM8c3aZ1n2e");
+    }
+}
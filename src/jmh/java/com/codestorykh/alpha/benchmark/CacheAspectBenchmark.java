@@ -0,0 +1,85 @@
+package com.codestorykh.alpha.benchmark;
+
+import com.codestorykh.alpha.cache.annotation.DynamicCache;
+import com.codestorykh.alpha.cache.aspect.CacheAspect;
+import com.codestorykh.alpha.cache.metrics.CacheMetrics;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.codestorykh.alpha.cache.service.impl.CacheServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code @DynamicCache} around a trivial method: key generation plus the cache service, with an
+ * in-memory cache manager so Redis round trips don't drown the aspect's own cost
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheAspectBenchmark {
+
+    public static class Lookups {
+
+        @DynamicCache(cacheName = "users", keyPrefix = "user")
+        public String byParameters(String username) {
+            return "user:" + username;
+        }
+
+        @DynamicCache(cacheName = "users", key = "#username")
+        public String byExpression(String username) {
+            return "user:" + username;
+        }
+
+        /** Skips the lookup, so this is key generation, the call and the cache write */
+        @DynamicCache(cacheName = "users", keyPrefix = "user", refresh = true)
+        public String refreshed(String username) {
+            return "user:" + username;
+        }
+    }
+
+    private Lookups lookups;
+
+    @Setup
+    public void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        RedisGuard redisGuard = new RedisGuard(CircuitBreakerRegistry.ofDefaults());
+        redisGuard.init();
+        CacheMetrics cacheMetrics = new CacheMetrics(new SimpleMeterRegistry(), cacheManager);
+        cacheMetrics.init();
+        CacheServiceImpl cacheService = new CacheServiceImpl(cacheManager, new RedisTemplate<>(), new ObjectMapper(),
+                redisGuard, cacheMetrics);
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Lookups());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new CacheAspect(cacheService));
+        lookups = proxyFactory.getProxy();
+
+        // Prime the entries the hit benchmarks read
+        lookups.byParameters("alice");
+        lookups.byExpression("alice");
+    }
+
+    @Benchmark
+    public String hitByParameters() {
+        return lookups.byParameters("alice");
+    }
+
+    @Benchmark
+    public String hitByExpression() {
+        return lookups.byExpression("alice");
+    }
+
+    @Benchmark
+    public String refresh() {
+        return lookups.refreshed("alice");
+    }
+}
@@ -0,0 +1,183 @@
+package com.codestorykh.alpha.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ancestor and descendant lookups on a deep group tree: the closure table queries
+ * {@code GroupClosureRepository} runs against a recursive walk of the parent links, the way the
+ * hierarchy was queried before the closure table existed.
+ * <p>
+ * Needs PostgreSQL ({@code -Djmh.jdbc.url}, {@code -Djmh.jdbc.user}, {@code -Djmh.jdbc.password},
+ * defaulting to the docker-compose database). Everything lives in a throwaway
+ * {@code jmh_group_closure} schema that is dropped afterwards. With the default 100k groups and a
+ * fan-out of 3 the tree is 11 levels deep.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GroupClosureBenchmark {
+
+    private static final String SCHEMA = "jmh_group_closure";
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"100000"})
+    public int groups;
+
+    @Param({"3"})
+    public int fanOut;
+
+    private Connection connection;
+    private long deepestGroup;
+    private long midLevelGroup;
+
+    private PreparedStatement closureAncestors;
+    private PreparedStatement recursiveAncestors;
+    private PreparedStatement closureDescendants;
+    private PreparedStatement recursiveDescendants;
+    private PreparedStatement closureIsAncestor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("jmh.jdbc.url", "jdbc:postgresql://localhost:5432/alpha_core?reWriteBatchedInserts=true"),
+                System.getProperty("jmh.jdbc.user", "codestorykh"),
+                System.getProperty("jmh.jdbc.password", "password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("CREATE TABLE groups (id BIGINT PRIMARY KEY, parent_group_id BIGINT)");
+            statement.execute("CREATE TABLE group_closure (ancestor_id BIGINT NOT NULL, descendant_id BIGINT NOT NULL, "
+                    + "depth INT NOT NULL, PRIMARY KEY (ancestor_id, descendant_id))");
+        }
+        populate();
+        try (Statement statement = connection.createStatement()) {
+            // Same indexes as the entities declare
+            statement.execute("CREATE INDEX idx_groups_parent ON groups (parent_group_id)");
+            statement.execute("CREATE INDEX idx_group_closure_descendant ON group_closure (descendant_id, depth)");
+            statement.execute("ANALYZE");
+        }
+
+        deepestGroup = groups;
+        midLevelGroup = 2 + fanOut + fanOut * fanOut; // first group on the fourth level
+
+        closureAncestors = connection.prepareStatement(
+                "SELECT ancestor_id FROM group_closure WHERE descendant_id = ? AND depth > 0 ORDER BY depth");
+        recursiveAncestors = connection.prepareStatement(
+                "WITH RECURSIVE up(id, parent_group_id, depth) AS ("
+                        + " SELECT id, parent_group_id, 0 FROM groups WHERE id = ?"
+                        + " UNION ALL"
+                        + " SELECT g.id, g.parent_group_id, up.depth + 1 FROM groups g JOIN up ON g.id = up.parent_group_id)"
+                        + " SELECT id FROM up WHERE depth > 0 ORDER BY depth");
+        closureDescendants = connection.prepareStatement(
+                "SELECT descendant_id FROM group_closure WHERE ancestor_id = ? AND depth > 0");
+        recursiveDescendants = connection.prepareStatement(
+                "WITH RECURSIVE down(id) AS ("
+                        + " SELECT id FROM groups WHERE parent_group_id = ?"
+                        + " UNION ALL"
+                        + " SELECT g.id FROM groups g JOIN down ON g.parent_group_id = down.id)"
+                        + " SELECT id FROM down");
+        closureIsAncestor = connection.prepareStatement(
+                "SELECT 1 FROM group_closure WHERE ancestor_id = ? AND descendant_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void ancestorsFromClosure(Blackhole blackhole) throws SQLException {
+        consume(closureAncestors, deepestGroup, blackhole);
+    }
+
+    @Benchmark
+    public void ancestorsByRecursiveWalk(Blackhole blackhole) throws SQLException {
+        consume(recursiveAncestors, deepestGroup, blackhole);
+    }
+
+    @Benchmark
+    public void descendantsFromClosure(Blackhole blackhole) throws SQLException {
+        consume(closureDescendants, midLevelGroup, blackhole);
+    }
+
+    @Benchmark
+    public void descendantsByRecursiveWalk(Blackhole blackhole) throws SQLException {
+        consume(recursiveDescendants, midLevelGroup, blackhole);
+    }
+
+    @Benchmark
+    public boolean isAncestorFromClosure() throws SQLException {
+        closureIsAncestor.setLong(1, midLevelGroup);
+        closureIsAncestor.setLong(2, deepestGroup);
+        try (ResultSet resultSet = closureIsAncestor.executeQuery()) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Complete tree in heap order: group i's parent is (i - 2) / fanOut + 1, so ids grow level by level
+     */
+    private void populate() throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement insertGroup = connection.prepareStatement(
+                     "INSERT INTO groups (id, parent_group_id) VALUES (?, ?)");
+             PreparedStatement insertPath = connection.prepareStatement(
+                     "INSERT INTO group_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)")) {
+            int pendingPaths = 0;
+            for (long id = 1; id <= groups; id++) {
+                insertGroup.setLong(1, id);
+                if (id == 1) {
+                    insertGroup.setNull(2, Types.BIGINT);
+                } else {
+                    insertGroup.setLong(2, parentOf(id));
+                }
+                insertGroup.addBatch();
+
+                int depth = 0;
+                for (long ancestor = id; ancestor > 0; ancestor = ancestor == 1 ? 0 : parentOf(ancestor)) {
+                    insertPath.setLong(1, ancestor);
+                    insertPath.setLong(2, id);
+                    insertPath.setInt(3, depth++);
+                    insertPath.addBatch();
+                    pendingPaths++;
+                }
+                if (id % BATCH_SIZE == 0) {
+                    insertGroup.executeBatch();
+                }
+                if (pendingPaths >= BATCH_SIZE) {
+                    insertPath.executeBatch();
+                    pendingPaths = 0;
+                }
+            }
+            insertGroup.executeBatch();
+            insertPath.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private long parentOf(long id) {
+        return (id - 2) / fanOut + 1;
+    }
+
+    private static void consume(PreparedStatement query, long groupId, Blackhole blackhole) throws SQLException {
+        query.setLong(1, groupId);
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.codestorykh.alpha.benchmark;
+
+import com.codestorykh.alpha.benchmark.support.BenchmarkFixtures;
+import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.filter.JwtAuthenticationFilter;
+import com.codestorykh.alpha.security.principal.AuthenticatedUser;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.service.JwtService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The JWT filter end to end on one request, with the user service and revocation watermarks
+ * stubbed so only the filter, the JWT parsing and the security context are measured
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        AuthenticatedUser user = BenchmarkFixtures.user("alice", 20);
+
+        UserService userService = mock(UserService.class);
+        when(userService.loadUserByUsername("alice")).thenReturn(user);
+        // Never revoked: isRevoked answers false
+        RevocationWatermarks revocationWatermarks = mock(RevocationWatermarks.class);
+
+        filter = new JwtAuthenticationFilter(jwtService, userService, revocationWatermarks);
+        authorizationHeader = "Bearer " + jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/health");
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,73 @@
+package com.codestorykh.alpha.benchmark;
+
+import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.Permission;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code User.getAuthorities()} on a detached entity with roles and groups already loaded
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserAuthoritiesBenchmark {
+
+    @Param({"10", "100"})
+    public int permissionsPerRole;
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < 3; r++) {
+            roles.add(Role.builder()
+                    .name("ROLE" + r)
+                    .enabled(true)
+                    .permissions(permissions("role" + r, permissionsPerRole))
+                    .build());
+        }
+        Set<Group> groups = new HashSet<>();
+        for (int g = 0; g < 5; g++) {
+            groups.add(Group.builder()
+                    .name("group" + g)
+                    .enabled(true)
+                    .permissions(permissions("group" + g, permissionsPerRole / 2))
+                    .build());
+        }
+        user = User.builder()
+                .username("alice")
+                .roles(roles)
+                .groups(groups)
+                .build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+
+    private static Set<Permission> permissions(String owner, int count) {
+        Set<Permission> permissions = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            permissions.add(Permission.builder()
+                    .name(owner + ":resource" + (i % 10) + ":action" + i)
+                    .resource("resource" + (i % 10))
+                    .action("action" + i)
+                    .enabled(true)
+                    .build());
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,95 @@
+package com.codestorykh.alpha.benchmark;
+
+import com.codestorykh.alpha.utils.date.DateUtils;
+import com.codestorykh.alpha.utils.encryption.EncryptionUtils;
+import com.codestorykh.alpha.utils.string.StringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The string, date and encryption helpers used on request paths
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilsBenchmark {
+
+    private static final String SENTENCE = "the quick brown fox jumps over the lazy dog";
+    private static final String EMAIL = "alice.smith@example.com";
+
+    private LocalDateTime dateTime;
+    private String formattedDateTime;
+    private String aesKey;
+    private String encrypted;
+    private String salt;
+
+    @Setup
+    public void setUp() {
+        dateTime = LocalDateTime.of(2024, 5, 17, 13, 45, 30);
+        formattedDateTime = DateUtils.formatDateTime(dateTime);
+        aesKey = EncryptionUtils.generateAESKeyAsString();
+        encrypted = EncryptionUtils.encryptAES(SENTENCE, aesKey);
+        salt = EncryptionUtils.generateSalt();
+    }
+
+    // ==================== StringUtils ====================
+
+    @Benchmark
+    public String toCamelCase() {
+        return StringUtils.toCamelCase(SENTENCE);
+    }
+
+    @Benchmark
+    public String toSnakeCase() {
+        return StringUtils.toSnakeCase("theQuickBrownFoxJumpsOverTheLazyDog");
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return StringUtils.isValidEmail(EMAIL);
+    }
+
+    @Benchmark
+    public String mask() {
+        return StringUtils.mask(EMAIL, 2, 4);
+    }
+
+    // ==================== DateUtils ====================
+
+    @Benchmark
+    public String formatDateTime() {
+        return DateUtils.formatDateTime(dateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return DateUtils.parseDateTime(formattedDateTime);
+    }
+
+    // ==================== EncryptionUtils ====================
+
+    @Benchmark
+    public String sha256() {
+        return EncryptionUtils.generateSHA256(SENTENCE);
+    }
+
+    @Benchmark
+    public String hashWithSalt() {
+        return EncryptionUtils.generateHashWithSalt(SENTENCE, salt);
+    }
+
+    @Benchmark
+    public String encryptAes() {
+        return EncryptionUtils.encryptAES(SENTENCE, aesKey);
+    }
+
+    @Benchmark
+    public String decryptAes() {
+        return EncryptionUtils.decryptAES(encrypted, aesKey);
+    }
+}
@@ -0,0 +1,70 @@
+package com.codestorykh.alpha.benchmark.support;
+
+import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.security.authority.AuthoritySet;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.principal.AuthenticatedUser;
+import com.codestorykh.alpha.security.service.JwtService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Objects shared by the benchmarks, built without a Spring context or a database
+ */
+public final class BenchmarkFixtures {
+
+    public static final long ACCESS_EXPIRATION = 3_600_000;
+    public static final long REFRESH_EXPIRATION = 86_400_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    /** Configuration as the database would hand it out, without the database */
+    public static ConfigurationService configurationService() {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getJwtExpiration()).thenReturn(ACCESS_EXPIRATION);
+        when(configurationService.getJwtRefreshExpiration()).thenReturn(REFRESH_EXPIRATION);
+        when(configurationService.getJwtIssuer()).thenReturn("alpha-identity-server");
+        when(configurationService.getJwtAudience()).thenReturn("alpha-clients");
+        return configurationService;
+    }
+
+    public static JwtService jwtService() {
+        ConfigurationService configurationService = configurationService();
+        return new JwtService(configurationService, new JwtConfigurationProperties(configurationService),
+                Keys.secretKeyFor(SignatureAlgorithm.HS256), new SecurityMetrics(new SimpleMeterRegistry()));
+    }
+
+    /**
+     * An enabled principal with a few roles and {@code permissions} permission authorities
+     */
+    public static AuthenticatedUser user(String username, int permissions) {
+        List<String> authorities = new ArrayList<>();
+        authorities.add("ROLE_USER");
+        authorities.add("ROLE_AUDITOR");
+        for (int i = 0; i < permissions; i++) {
+            authorities.add("resource" + (i % 10) + ":action" + i);
+        }
+        return AuthenticatedUser.builder()
+                .id(1L)
+                .username(username)
+                .password("{noop}secret")
+                .status(UserStatus.ACTIVE)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .version(0L)
+                .authorities(AuthoritySet.of(authorities))
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.codestorykh.alpha.benchmark.support;
+
+import com.codestorykh.alpha.cache.metrics.CacheMetrics;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.codestorykh.alpha.cache.service.impl.CacheServiceImpl;
+import com.codestorykh.alpha.config.JacksonConfig;
+import com.codestorykh.alpha.config.RedisConfig;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.security.expiry.TokenExpiryIndex;
+import com.codestorykh.alpha.security.expiry.TokenExpirySweeper;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.revocation.TokenRevocationFilter;
+import com.codestorykh.alpha.security.service.impl.TokenStorageServiceImpl;
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import com.codestorykh.alpha.security.stats.TokenUsageBuffer;
+import com.codestorykh.alpha.security.storage.LocalTokenStore;
+import com.codestorykh.alpha.security.storage.TokenHotStore;
+import com.codestorykh.alpha.security.storage.TokenIndexStore;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The token storage stack (token storage, cache service, revocation filter and their Redis
+ * stores) wired by Spring against an embedded Redis server, with no database and no web layer.
+ * <p>
+ * The server listens on {@code -Djmh.redis.port} (default 6390) and is flushed on start.
+ */
+public final class RedisBenchmarkContext implements AutoCloseable {
+
+    private static final int PORT = Integer.getInteger("jmh.redis.port", 6390);
+
+    private final RedisServer server;
+    private final AnnotationConfigApplicationContext context;
+
+    private RedisBenchmarkContext(RedisServer server, AnnotationConfigApplicationContext context) {
+        this.server = server;
+        this.context = context;
+    }
+
+    /**
+     * @param properties overrides of the application properties, e.g. {@code security.revocation.filter.enabled}
+     */
+    public static RedisBenchmarkContext start(Map<String, Object> properties) throws IOException {
+        RedisServer server = new RedisServer(PORT);
+        server.start();
+
+        Map<String, Object> environment = new HashMap<>(properties);
+        environment.put("jmh.redis.port", PORT);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", environment));
+        context.register(Infrastructure.class,
+                CacheMetrics.class, CacheServiceImpl.class, RedisGuard.class,
+                TokenRevocationFilter.class, RevocationWatermarks.class,
+                TokenStatisticsRecorder.class, TokenExpiryIndex.class, TokenExpirySweeper.class,
+                TokenUsageBuffer.class, TokenHotStore.class, TokenIndexStore.class, LocalTokenStore.class,
+                TokenStorageServiceImpl.class);
+        try {
+            context.refresh();
+            context.getBean(StringRedisTemplate.class).execute((RedisCallback<Object>) connection -> {
+                connection.serverCommands().flushAll();
+                return null;
+            });
+            // Normally started by ApplicationReadyEvent
+            context.getBean(TokenRevocationFilter.class).start();
+        } catch (RuntimeException e) {
+            context.close();
+            server.stop();
+            throw e;
+        }
+        return new RedisBenchmarkContext(server, context);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        server.stop();
+    }
+
+    @Configuration
+    @Import({JacksonConfig.class, RedisConfig.class})
+    static class Infrastructure {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory(@Value("${jmh.redis.port}") int port) {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+            return new StringRedisTemplate(connectionFactory);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CircuitBreakerRegistry circuitBreakerRegistry() {
+            return CircuitBreakerRegistry.ofDefaults();
+        }
+
+        @Bean
+        ConfigurationService configurationService() {
+            return BenchmarkFixtures.configurationService();
+        }
+    }
+}
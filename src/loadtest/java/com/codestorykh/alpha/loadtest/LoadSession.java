@@ -0,0 +1,118 @@
+package com.codestorykh.alpha.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State shared by the scenarios: the HTTP client, the admin bearer token the search endpoints need
+ * and the refresh tokens handed out by logins.
+ * <p>
+ * Refresh tokens rotate and replaying a rotated one revokes its family, so each pooled token is
+ * taken by exactly one request and only its successor goes back into the pool.
+ */
+final class LoadSession {
+
+    private static final int MAX_REFRESH_TOKENS = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI baseUri;
+    private final int users;
+    private final String clientCredentials;
+    private final Queue<String> refreshTokens = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledRefreshTokens = new AtomicInteger();
+    private String adminToken;
+
+    LoadSession(HttpClient client, URI baseUri, int users, String clientId, String clientSecret) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.users = users;
+        this.clientCredentials = "Basic " + Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Log in as the seeded admin, whose token every search request carries
+     */
+    void authenticateAdmin(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(login(username, password), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Admin login failed with HTTP " + response.statusCode());
+        }
+        adminToken = objectMapper.readTree(response.body()).path("accessToken").asText();
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(baseUri.resolve(pathAndQuery)).timeout(REQUEST_TIMEOUT);
+    }
+
+    HttpRequest login(String username, String password) {
+        String body = objectMapper.createObjectNode()
+                .put("username", username)
+                .put("password", password)
+                .toString();
+        return request("/api/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    String randomUsername() {
+        return LoadTestEnvironment.USER_PREFIX + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    String adminAuthorization() {
+        return "Bearer " + adminToken;
+    }
+
+    String clientAuthorization() {
+        return clientCredentials;
+    }
+
+    /**
+     * @return a refresh token nobody else holds, or null while no login has completed yet
+     */
+    String takeRefreshToken() {
+        String token = refreshTokens.poll();
+        if (token != null) {
+            pooledRefreshTokens.decrementAndGet();
+        }
+        return token;
+    }
+
+    /**
+     * Pool the refresh token of a successful login or refresh response
+     */
+    void offerRefreshToken(HttpResponse<String> response) {
+        if (response.statusCode() != 200 || pooledRefreshTokens.get() >= MAX_REFRESH_TOKENS) {
+            return;
+        }
+        try {
+            JsonNode token = objectMapper.readTree(response.body()).path("refreshToken");
+            if (token.isTextual()) {
+                refreshTokens.add(token.asText());
+                pooledRefreshTokens.incrementAndGet();
+            }
+        } catch (IOException e) {
+            // Not a token response; nothing to pool
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.codestorykh.alpha.loadtest;
+
+import com.codestorykh.alpha.AlphaCoreApplication;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.User;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * The application booted on embedded PostgreSQL and Redis, with the dev/test seed data plus
+ * {@code users} extra accounts to log in with. Also exposes the database statement and Redis
+ * command counters the report divides by request counts.
+ */
+@Slf4j
+final class LoadTestEnvironment implements AutoCloseable {
+
+    static final String USER_PREFIX = "load-user-";
+    static final String USER_PASSWORD = "LoadTest123!";
+
+    private static final int REDIS_PORT = Integer.getInteger("loadtest.redis.port", 6391);
+    private static final int SEED_CHUNK = 1_000;
+
+    private final EmbeddedPostgres postgres;
+    private final RedisServer redis;
+    private final ConfigurableApplicationContext context;
+    private final Statistics statistics;
+    private final StringRedisTemplate redisTemplate;
+
+    private LoadTestEnvironment(EmbeddedPostgres postgres, RedisServer redis, ConfigurableApplicationContext context) {
+        this.postgres = postgres;
+        this.redis = redis;
+        this.context = context;
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        this.redisTemplate = context.getBean(StringRedisTemplate.class);
+    }
+
+    static LoadTestEnvironment start(int users) throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        RedisServer redis = new RedisServer(REDIS_PORT);
+        redis.start();
+
+        // Command-line arguments, so they win over application.yml
+        String[] args = {
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=" + REDIS_PORT,
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.com.zaxxer.hikari=WARN",
+                "--logging.level.com.codestorykh.alpha=WARN",
+                "--logging.level.io.jsonwebtoken=WARN"
+        };
+        ConfigurableApplicationContext context;
+        try {
+            context = new SpringApplicationBuilder(AlphaCoreApplication.class).run(args);
+        } catch (RuntimeException e) {
+            redis.stop();
+            postgres.close();
+            throw e;
+        }
+
+        LoadTestEnvironment environment = new LoadTestEnvironment(postgres, redis, context);
+        try {
+            environment.seedUsers(users);
+        } catch (RuntimeException e) {
+            environment.close();
+            throw e;
+        }
+        return environment;
+    }
+
+    URI baseUri() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * JDBC statements Hibernate has prepared so far, native queries included
+     */
+    long databaseStatements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Commands the Redis server has processed so far
+     */
+    long redisCommands() {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("stats"));
+        return Long.parseLong(info.getProperty("total_commands_processed").trim());
+    }
+
+    /**
+     * Commands processed since an earlier {@link #redisCommands()} snapshot, not counting that
+     * snapshot's own INFO call (an INFO reply excludes itself but includes every earlier INFO)
+     */
+    long redisCommandsSince(long snapshot) {
+        return redisCommands() - snapshot - 1;
+    }
+
+    /**
+     * Same password for every account, so it is hashed once instead of {@code users} times. Each
+     * chunk is its own transaction: the role must be managed for the persist cascade to accept it.
+     */
+    private void seedUsers(int users) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(USER_PASSWORD);
+
+        for (int from = 0; from < users; from += SEED_CHUNK) {
+            int first = from;
+            int last = Math.min(users, from + SEED_CHUNK);
+            transaction.executeWithoutResult(status -> {
+                Role userRole = roleRepository.findByName("USER")
+                        .orElseThrow(() -> new IllegalStateException("Seed data has no USER role"));
+                List<User> chunk = new ArrayList<>(last - first);
+                for (int i = first; i < last; i++) {
+                    chunk.add(User.builder()
+                            .username(USER_PREFIX + i)
+                            .email(USER_PREFIX + i + "@loadtest.local")
+                            .password(passwordHash)
+                            .firstName("Load")
+                            .lastName("User " + i)
+                            .status(UserStatus.ACTIVE)
+                            .enabled(true)
+                            .accountNonExpired(true)
+                            .accountNonLocked(true)
+                            .credentialsNonExpired(true)
+                            .emailVerified(true)
+                            .roles(Set.of(userRole))
+                            .groups(Set.of())
+                            .build());
+                }
+                userRepository.saveAll(chunk);
+            });
+        }
+        log.info("Seeded {} load test users", users);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            context.close();
+        } finally {
+            redis.stop();
+            postgres.close();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.codestorykh.alpha.loadtest;
+
+import com.codestorykh.alpha.admin.accounting.LatencyHistogram;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Console table and JSON file of one load test run. Per-scenario database and Redis costs come
+ * from the sequential calibration pass; the totals are what the mixed run actually issued.
+ */
+final class LoadTestReport {
+
+    private final Map<String, Object> settings;
+    private final Collection<ScenarioStats> scenarios;
+    private final Duration measured;
+    private final long statements;
+    private final long redisCommands;
+
+    LoadTestReport(Map<String, Object> settings, Collection<ScenarioStats> scenarios, Duration measured,
+                   long statements, long redisCommands) {
+        this.settings = settings;
+        this.scenarios = scenarios;
+        this.measured = measured;
+        this.statements = statements;
+        this.redisCommands = redisCommands;
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%n%-14s %9s %9s %7s %7s %9s %9s %9s %9s %9s %8s %8s%n",
+                "scenario", "requests", "req/s", "errors", "drops", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms",
+                "db/req", "redis/req"));
+        for (ScenarioStats stats : scenarios) {
+            LatencyHistogram latencies = stats.latencies();
+            table.append(String.format("%-14s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %8.1f %8.1f%n",
+                    stats.scenario().label(), stats.requests(), throughput(stats.requests()), errors(stats),
+                    stats.droppedCount() + stats.skippedCount(), latencies.meanMillis(),
+                    latencies.percentileMillis(0.50), latencies.percentileMillis(0.95),
+                    latencies.percentileMillis(0.99), latencies.maxMillis(),
+                    stats.statementsPerRequest(), stats.redisCommandsPerRequest()));
+        }
+        long requests = totalRequests();
+        table.append(String.format("%-14s %9d %9.1f %7d %7d%n", "total", requests, throughput(requests),
+                scenarios.stream().mapToLong(LoadTestReport::errors).sum(),
+                scenarios.stream().mapToLong(s -> s.droppedCount() + s.skippedCount()).sum()));
+        table.append(String.format("DB statements: %d (%.1f/request), Redis commands: %d (%.1f/request)%n",
+                statements, perRequest(statements), redisCommands, perRequest(redisCommands)));
+        return table.toString();
+    }
+
+    void writeJson(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("measuredSeconds", measured.toMillis() / 1000.0);
+        report.put("requests", totalRequests());
+        report.put("throughputPerSecond", throughput(totalRequests()));
+        report.put("dbStatements", statements);
+        report.put("dbStatementsPerRequest", perRequest(statements));
+        report.put("redisCommands", redisCommands);
+        report.put("redisCommandsPerRequest", perRequest(redisCommands));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (ScenarioStats stats : scenarios) {
+            LatencyHistogram latencies = stats.latencies();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("scenario", stats.scenario().label());
+            row.put("requests", stats.requests());
+            row.put("throughputPerSecond", throughput(stats.requests()));
+            row.put("successes", stats.successes());
+            row.put("clientErrors", stats.clientErrors());
+            row.put("serverErrors", stats.serverErrors());
+            row.put("transportErrors", stats.transportErrors());
+            row.put("dropped", stats.droppedCount());
+            row.put("skipped", stats.skippedCount());
+            row.put("meanMillis", latencies.meanMillis());
+            row.put("p50Millis", latencies.percentileMillis(0.50));
+            row.put("p95Millis", latencies.percentileMillis(0.95));
+            row.put("p99Millis", latencies.percentileMillis(0.99));
+            row.put("p999Millis", latencies.percentileMillis(0.999));
+            row.put("maxMillis", latencies.maxMillis());
+            row.put("dbStatementsPerRequest", stats.statementsPerRequest());
+            row.put("redisCommandsPerRequest", stats.redisCommandsPerRequest());
+            rows.add(row);
+        }
+        report.put("scenarios", rows);
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), report);
+    }
+
+    private long totalRequests() {
+        return scenarios.stream().mapToLong(ScenarioStats::requests).sum();
+    }
+
+    private double throughput(long requests) {
+        return measured.isZero() ? 0.0 : requests * 1000.0 / measured.toMillis();
+    }
+
+    private double perRequest(long count) {
+        long requests = totalRequests();
+        return requests > 0 ? (double) count / requests : 0.0;
+    }
+
+    private static long errors(ScenarioStats stats) {
+        return stats.clientErrors() + stats.serverErrors() + stats.transportErrors();
+    }
+}
@@ -0,0 +1,126 @@
+package com.codestorykh.alpha.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Boots the application on embedded PostgreSQL and Redis and drives it with an open-model traffic
+ * mix, then reports throughput, latency percentiles and database/Redis work per request.
+ * <p>
+ * Settings (system properties): {@code loadtest.mix} (preset or {@code scenario=weight} list),
+ * {@code loadtest.rate} (arrivals per second), {@code loadtest.duration}, {@code loadtest.warmup},
+ * {@code loadtest.users} (seeded accounts), {@code loadtest.max-in-flight},
+ * {@code loadtest.calibration-requests} and {@code loadtest.report} (JSON output path).
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final String ADMIN_USERNAME = "admin";
+    private static final String ADMIN_PASSWORD = "Admin123!";
+    private static final String CLIENT_ID = "service-client";
+    private static final String CLIENT_SECRET = "service-client-secret";
+    private static final int REFRESH_POOL_PRIMING = 200;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        TrafficMix mix = TrafficMix.parse(System.getProperty("loadtest.mix", "production"));
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "200"));
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s"));
+        int users = Integer.getInteger("loadtest.users", 1_000);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2_000);
+        int calibrationRequests = Integer.getInteger("loadtest.calibration-requests", 50);
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("mix", mix.toString());
+        settings.put("ratePerSecond", rate);
+        settings.put("durationSeconds", duration.toSeconds());
+        settings.put("warmupSeconds", warmup.toSeconds());
+        settings.put("users", users);
+        settings.put("maxInFlight", maxInFlight);
+        log.info("Load test: {}", settings);
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(users);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadSession session = new LoadSession(client, environment.baseUri(), users, CLIENT_ID, CLIENT_SECRET);
+            session.authenticateAdmin(ADMIN_USERNAME, ADMIN_PASSWORD);
+            primeRefreshTokens(session);
+
+            Map<Scenario, ScenarioStats> stats = new EnumMap<>(Scenario.class);
+            for (Scenario scenario : mix.scenarios()) {
+                ScenarioStats scenarioStats = new ScenarioStats(scenario);
+                calibrate(environment, session, scenarioStats, calibrationRequests);
+                stats.put(scenario, scenarioStats);
+            }
+
+            long[] startCounters = new long[3];
+            OpenModelDriver driver = new OpenModelDriver(session, mix, rate, maxInFlight);
+            driver.run(warmup, duration, stats, () -> {
+                startCounters[0] = System.nanoTime();
+                startCounters[1] = environment.databaseStatements();
+                startCounters[2] = environment.redisCommands();
+            });
+            // Includes the drain of the last arrivals; close enough over a run of a minute or more
+            Duration measured = Duration.ofNanos(System.nanoTime() - startCounters[0]);
+
+            LoadTestReport report = new LoadTestReport(settings, stats.values(), measured,
+                    environment.databaseStatements() - startCounters[1],
+                    environment.redisCommandsSince(startCounters[2]));
+            log.info(report.toTable());
+            report.writeJson(reportFile);
+            log.info("Report written to {}", reportFile.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Logins whose refresh tokens seed the pool, so refresh traffic can start before the mix's own logins
+     */
+    private static void primeRefreshTokens(LoadSession session) throws Exception {
+        for (int i = 0; i < REFRESH_POOL_PRIMING; i++) {
+            HttpRequest login = Scenario.LOGIN.request(session);
+            Scenario.LOGIN.completed(session, session.client().send(login, HttpResponse.BodyHandlers.ofString()));
+        }
+    }
+
+    /**
+     * Send the scenario's requests one at a time on an otherwise idle server, so the counter deltas
+     * belong to that scenario alone (background jobs may add a little noise)
+     */
+    private static void calibrate(LoadTestEnvironment environment, LoadSession session, ScenarioStats stats,
+                                  int requests) throws Exception {
+        long statementsBefore = environment.databaseStatements();
+        long commandsBefore = environment.redisCommands();
+        int sent = 0;
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = stats.scenario().request(session);
+            if (request == null) {
+                continue;
+            }
+            HttpResponse<String> response = session.client().send(request, HttpResponse.BodyHandlers.ofString());
+            stats.scenario().completed(session, response);
+            sent++;
+        }
+        long commands = environment.redisCommandsSince(commandsBefore);
+        long statements = environment.databaseStatements() - statementsBefore;
+        stats.calibrated(sent > 0 ? (double) statements / sent : Double.NaN,
+                sent > 0 ? (double) commands / sent : Double.NaN);
+    }
+}
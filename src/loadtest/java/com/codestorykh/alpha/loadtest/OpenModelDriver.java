@@ -0,0 +1,117 @@
+package com.codestorykh.alpha.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests arrive as a Poisson process at a fixed rate whether or not earlier
+ * ones have completed, like independent users do. Latency is measured from the scheduled arrival,
+ * not the actual send, so a stalled server shows up in the percentiles instead of silently
+ * lowering the offered load (coordinated omission).
+ */
+@Slf4j
+final class OpenModelDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadSession session;
+    private final TrafficMix mix;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelDriver(LoadSession session, TrafficMix mix, double ratePerSecond, int maxInFlight) {
+        this.session = session;
+        this.mix = mix;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Offer load for {@code warmup + duration}; only arrivals after the warmup are recorded
+     *
+     * @param onMeasurementStart called once when the warmup ends, to snapshot counters
+     */
+    void run(Duration warmup, Duration duration, Map<Scenario, ScenarioStats> stats, Runnable onMeasurementStart) {
+        SplittableRandom random = new SplittableRandom();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        boolean measuring = false;
+
+        long arrival = start;
+        while (true) {
+            arrival += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+            if (arrival >= end) {
+                break;
+            }
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean record = arrival >= measureFrom;
+            if (record && !measuring) {
+                measuring = true;
+                onMeasurementStart.run();
+            }
+            dispatch(mix.pick(random), arrival, record ? stats : null);
+        }
+        awaitDrain();
+    }
+
+    private void dispatch(Scenario scenario, long scheduledAt, Map<Scenario, ScenarioStats> stats) {
+        ScenarioStats scenarioStats = stats != null ? stats.get(scenario) : null;
+        if (inFlight.get() >= maxInFlight) {
+            if (scenarioStats != null) {
+                scenarioStats.dropped();
+            }
+            return;
+        }
+        HttpRequest request = scenario.request(session);
+        if (request == null) {
+            if (scenarioStats != null) {
+                scenarioStats.skipped();
+            }
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        session.client().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    try {
+                        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+                        if (error != null) {
+                            if (scenarioStats != null) {
+                                scenarioStats.failed(micros);
+                            }
+                            return;
+                        }
+                        if (scenarioStats != null) {
+                            scenarioStats.completed(response.statusCode(), micros);
+                        }
+                        scenario.completed(session, response);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+    }
+
+    private void awaitDrain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} requests still in flight after {}s, left out of the report", inFlight.get(), DRAIN_TIMEOUT.toSeconds());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.codestorykh.alpha.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One kind of request in a traffic mix
+ */
+enum Scenario {
+
+    /** Password login of a random seeded user */
+    LOGIN("login") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            return session.login(session.randomUsername(), LoadTestEnvironment.USER_PASSWORD);
+        }
+
+        @Override
+        void completed(LoadSession session, HttpResponse<String> response) {
+            session.offerRefreshToken(response);
+        }
+    },
+
+    /** Refresh-token rotation; skipped while the pool is empty */
+    REFRESH("refresh") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            String refreshToken = session.takeRefreshToken();
+            if (refreshToken == null) {
+                return null;
+            }
+            return session.request("/api/auth/refresh")
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("refreshToken=" + encode(refreshToken)))
+                    .build();
+        }
+
+        @Override
+        void completed(LoadSession session, HttpResponse<String> response) {
+            session.offerRefreshToken(response);
+        }
+    },
+
+    /** Client-credentials grant at the OAuth2 token endpoint */
+    CLIENT_TOKEN("client-token") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            return session.request("/oauth2/token?grant_type=client_credentials")
+                    .header("Authorization", session.clientAuthorization())
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+    },
+
+    USER_SEARCH("user-search") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            // Prefixes of the seeded usernames, so result sizes vary from one user to a full page
+            String username = LoadTestEnvironment.USER_PREFIX + ThreadLocalRandom.current().nextInt(100);
+            return search(session, "/api/users/search?username=" + encode(username) + "&page=0&size=20");
+        }
+    },
+
+    GROUP_SEARCH("group-search") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            return search(session, "/api/groups/search?searchTerm=" + randomTerm() + "&page=0&size=20");
+        }
+    },
+
+    ROLE_SEARCH("role-search") {
+        @Override
+        HttpRequest request(LoadSession session) {
+            return search(session, "/api/roles/search?searchTerm=" + randomTerm() + "&page=0&size=20");
+        }
+    };
+
+    private static final String[] SEARCH_TERMS = {"admin", "user", "manager", "group", "system", "guest"};
+
+    private final String label;
+
+    Scenario(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /**
+     * @return the request to send, or null when the scenario cannot run right now
+     */
+    abstract HttpRequest request(LoadSession session);
+
+    void completed(LoadSession session, HttpResponse<String> response) {
+    }
+
+    static Scenario fromLabel(String label) {
+        for (Scenario scenario : values()) {
+            if (scenario.label.equals(label)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + label);
+    }
+
+    private static HttpRequest search(LoadSession session, String pathAndQuery) {
+        return session.request(pathAndQuery)
+                .header("Authorization", session.adminAuthorization())
+                .GET()
+                .build();
+    }
+
+    private static String randomTerm() {
+        return SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package com.codestorykh.alpha.loadtest;
+
+import com.codestorykh.alpha.admin.accounting.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies of one scenario during the measured phase, plus its per-request database
+ * and Redis cost from the calibration pass
+ */
+final class ScenarioStats {
+
+    private final Scenario scenario;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private double statementsPerRequest = Double.NaN;
+    private double redisCommandsPerRequest = Double.NaN;
+
+    ScenarioStats(Scenario scenario) {
+        this.scenario = scenario;
+    }
+
+    /**
+     * @param micros from the scheduled send time, so queueing behind a slow server is included
+     */
+    void completed(int status, long micros) {
+        latencies.record(micros);
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    void failed(long micros) {
+        latencies.record(micros);
+        transportErrors.increment();
+    }
+
+    /** The scenario had nothing to send, e.g. no refresh token pooled yet */
+    void skipped() {
+        skipped.increment();
+    }
+
+    /** Not sent because the in-flight limit was reached: the server is not keeping up with the rate */
+    void dropped() {
+        dropped.increment();
+    }
+
+    void calibrated(double statementsPerRequest, double redisCommandsPerRequest) {
+        this.statementsPerRequest = statementsPerRequest;
+        this.redisCommandsPerRequest = redisCommandsPerRequest;
+    }
+
+    Scenario scenario() {
+        return scenario;
+    }
+
+    LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    long requests() {
+        return latencies.count();
+    }
+
+    long successes() {
+        return successes.sum();
+    }
+
+    long clientErrors() {
+        return clientErrors.sum();
+    }
+
+    long serverErrors() {
+        return serverErrors.sum();
+    }
+
+    long transportErrors() {
+        return transportErrors.sum();
+    }
+
+    long skippedCount() {
+        return skipped.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    double statementsPerRequest() {
+        return statementsPerRequest;
+    }
+
+    double redisCommandsPerRequest() {
+        return redisCommandsPerRequest;
+    }
+}
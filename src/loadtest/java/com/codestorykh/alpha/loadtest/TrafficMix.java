@@ -0,0 +1,79 @@
+package com.codestorykh.alpha.loadtest;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Relative weights of the scenarios, either a named preset or an explicit
+ * {@code login=10,refresh=40,user-search=50} list
+ */
+final class TrafficMix {
+
+    private static final Map<String, String> PRESETS = new LinkedHashMap<>();
+
+    static {
+        // Refresh-dominated with steady logins, machine clients and a tail of admin searches
+        PRESETS.put("production", "login=15,refresh=45,client-token=25,user-search=10,group-search=3,role-search=2");
+        // Everyone logging in at once, e.g. after a deploy invalidated sessions
+        PRESETS.put("login-storm", "login=80,refresh=15,client-token=5");
+        // Back-office traffic
+        PRESETS.put("search-heavy", "login=10,refresh=10,user-search=50,group-search=20,role-search=10");
+    }
+
+    private final String description;
+    private final Scenario[] scenarios;
+    private final double[] cumulativeWeights;
+
+    private TrafficMix(String description, Map<Scenario, Double> weights) {
+        this.description = description;
+        this.scenarios = weights.keySet().toArray(Scenario[]::new);
+        this.cumulativeWeights = new double[scenarios.length];
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            cumulative += weights.get(scenarios[i]) / total;
+            cumulativeWeights[i] = cumulative;
+        }
+    }
+
+    static TrafficMix parse(String spec) {
+        String weights = PRESETS.getOrDefault(spec, spec);
+        Map<Scenario, Double> parsed = new EnumMap<>(Scenario.class);
+        for (String entry : weights.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight but got '" + entry + "'; presets: " + PRESETS.keySet());
+            }
+            double weight = Double.parseDouble(parts[1].trim());
+            if (weight > 0) {
+                parsed.merge(Scenario.fromLabel(parts[0].trim()), weight, Double::sum);
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no positive weights: " + spec);
+        }
+        String description = PRESETS.containsKey(spec) ? spec + " (" + weights + ")" : weights;
+        return new TrafficMix(description, parsed);
+    }
+
+    Scenario pick(RandomGenerator random) {
+        double sample = random.nextDouble();
+        for (int i = 0; i < scenarios.length - 1; i++) {
+            if (sample < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    Scenario[] scenarios() {
+        return scenarios.clone();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,35 @@
+package com.codestorykh.alpha.admin.accounting;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Successes, failures and latency of one kind of request. Counters are {@link LongAdder}s, so
+ * threads recording at the same time increment separate cells instead of one contended word.
+ */
+public class OutcomeStats {
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public void record(boolean success, long micros) {
+        (success ? successes : failures).increment();
+        latency.record(micros);
+    }
+
+    public long successes() {
+        return successes.sum();
+    }
+
+    public long failures() {
+        return failures.sum();
+    }
+
+    public long total() {
+        return successes.sum() + failures.sum();
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+}
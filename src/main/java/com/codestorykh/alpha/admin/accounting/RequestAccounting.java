@@ -0,0 +1,123 @@
+package com.codestorykh.alpha.admin.accounting;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory request accounting for this node, fed by {@link RequestAccountingFilter} and read by the
+ * admin statistics.
+ * <p>
+ * Endpoints are keyed by HTTP method and matched route pattern ({@code GET /api/users/{id}}), never by
+ * raw path, so the map stays as small as the route table; requests no handler matched share one
+ * entry, and so do methods outside the standard HTTP set, which any client can make up. Login and token requests are recognised by route as well and get their own success and
+ * failure counts. Nothing here touches the database or Redis.
+ */
+@Component
+public class RequestAccounting {
+
+    public static final String UNMATCHED = "UNMATCHED";
+    public static final String OTHER_METHOD = "OTHER";
+
+    private static final Set<String> STANDARD_METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    /** Window behind the error rate, in seconds */
+    private static final int RATE_WINDOW = SlidingWindowCounter.SLOTS;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final OutcomeStats all = new OutcomeStats();
+    private final SlidingWindowCounter recentRequests = new SlidingWindowCounter();
+    private final SlidingWindowCounter recentErrors = new SlidingWindowCounter();
+    private final Map<String, OutcomeStats> endpoints = new ConcurrentHashMap<>();
+    private final OutcomeStats logins = new OutcomeStats();
+    private final OutcomeStats tokenRequests = new OutcomeStats();
+
+    @Value("${security.accounting.login-paths:/api/auth/login}")
+    private Set<String> loginPaths;
+
+    @Value("${security.accounting.token-paths:/oauth2/token,/api/auth/refresh}")
+    private Set<String> tokenPaths;
+
+    // ==================== Recording ====================
+
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param pattern matched route pattern, or null when no handler matched
+     * @param status  final response status
+     */
+    public void requestCompleted(String method, String pattern, int status, long micros) {
+        inFlight.decrementAndGet();
+
+        boolean serverError = status >= 500;
+        all.record(!serverError, micros);
+        recentRequests.increment();
+        if (serverError) {
+            recentErrors.increment();
+        }
+
+        String key = (STANDARD_METHODS.contains(method) ? method : OTHER_METHOD) + " "
+                + (pattern != null ? pattern : UNMATCHED);
+        OutcomeStats endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(key, k -> new OutcomeStats());
+        }
+        endpoint.record(!serverError, micros);
+
+        if (pattern != null) {
+            boolean success = status < 400;
+            if (loginPaths.contains(pattern)) {
+                logins.record(success, micros);
+            } else if (tokenPaths.contains(pattern)) {
+                tokenRequests.record(success, micros);
+            }
+        }
+    }
+
+    // ==================== Reading ====================
+
+    public int activeRequests() {
+        return inFlight.get();
+    }
+
+    public OutcomeStats all() {
+        return all;
+    }
+
+    public OutcomeStats logins() {
+        return logins;
+    }
+
+    public OutcomeStats tokenRequests() {
+        return tokenRequests;
+    }
+
+    /** Keyed by {@code METHOD pattern} */
+    public Map<String, OutcomeStats> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Share of requests in the last minute that ended in a 5xx, as a percentage
+     */
+    public double recentErrorRate() {
+        long requests = recentRequests.sum(RATE_WINDOW);
+        return requests > 0 ? recentErrors.sum(RATE_WINDOW) * 100.0 / requests : 0.0;
+    }
+
+    /** Requests per second over the last minute */
+    public double recentRequestRate() {
+        return recentRequests.sum(RATE_WINDOW) / (double) RATE_WINDOW;
+    }
+}
@@ -0,0 +1,48 @@
+package com.codestorykh.alpha.admin.accounting;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Event count over the last {@value #SLOTS} seconds, one slot per second.
+ * <p>
+ * Each slot packs its epoch second into the high 32 bits and its count into the low 32, so a slot
+ * that belongs to an older second is reset and incremented by the same CAS and no increment is ever
+ * lost to a concurrent reset.
+ */
+public class SlidingWindowCounter {
+
+    public static final int SLOTS = 60;
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+    public void increment() {
+        long second = System.currentTimeMillis() / 1000;
+        int index = (int) (second % SLOTS);
+        while (true) {
+            long current = slots.get(index);
+            long next = (current >>> 32) == second ? current + 1 : (second << 32) | 1;
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Events in the last {@code seconds} seconds, the current one included
+     */
+    public long sum(int seconds) {
+        long now = System.currentTimeMillis() / 1000;
+        long oldest = now - Math.min(seconds, SLOTS) + 1;
+        long total = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            long slot = slots.get(i);
+            long second = slot >>> 32;
+            if (second >= oldest && second <= now) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package com.codestorykh.alpha.admin.controller;
 
+import com.codestorykh.alpha.admin.dto.EndpointStatsDTO;
 import com.codestorykh.alpha.admin.dto.SystemStatsDTO;
 import com.codestorykh.alpha.admin.dto.UserStatsDTO;
 import com.codestorykh.alpha.admin.dto.OAuth2ClientStatsDTO;
@@ -56,6 +57,13 @@ public class AdminController {
         return ResponseEntity.ok(adminService.getOAuth2ClientStats());
     }
 
+    @GetMapping("/stats/endpoints")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EndpointStatsDTO>> getEndpointStats(Authentication authentication, HttpServletRequest request) {
+        auditService.logAction(authentication.getName(), "VIEW", "ENDPOINT_STATS", "Retrieved endpoint statistics", request);
+        return ResponseEntity.ok(adminService.getEndpointStats());
+    }
+
     @GetMapping("/audit-logs")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<AuditLogDTO>> getAuditLogs(
@@ -0,0 +1,21 @@
+package com.codestorykh.alpha.admin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointStatsDTO {
+    private String endpoint;
+    private long totalRequests;
+    private long errors;
+    private double averageResponseTime;
+    private double p50ResponseTime;
+    private double p95ResponseTime;
+    private double p99ResponseTime;
+    private double maxResponseTime;
+}
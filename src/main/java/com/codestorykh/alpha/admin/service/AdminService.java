@@ -1,5 +1,6 @@
 package com.codestorykh.alpha.admin.service;
 
+import com.codestorykh.alpha.admin.dto.EndpointStatsDTO;
 import com.codestorykh.alpha.admin.dto.SystemStatsDTO;
 import com.codestorykh.alpha.admin.dto.UserStatsDTO;
 import com.codestorykh.alpha.admin.dto.OAuth2ClientStatsDTO;
@@ -16,6 +17,11 @@ public interface AdminService {
 
     OAuth2ClientStatsDTO getOAuth2ClientStats();
 
+    /**
+     * Per-endpoint request counts and latency percentiles since startup, busiest first
+     */
+    List<EndpointStatsDTO> getEndpointStats();
+
     List<AuditLogDTO> getAuditLogs(LocalDateTime from, LocalDateTime to, String username, String action);
 
     void clearAuditLogs(LocalDateTime before);
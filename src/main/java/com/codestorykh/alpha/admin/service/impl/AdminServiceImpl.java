@@ -1,5 +1,9 @@
 package com.codestorykh.alpha.admin.service.impl;
 
+import com.codestorykh.alpha.admin.accounting.LatencyHistogram;
+import com.codestorykh.alpha.admin.accounting.OutcomeStats;
+import com.codestorykh.alpha.admin.accounting.RequestAccounting;
+import com.codestorykh.alpha.admin.dto.EndpointStatsDTO;
 import com.codestorykh.alpha.admin.dto.SystemStatsDTO;
 import com.codestorykh.alpha.admin.dto.UserStatsDTO;
 import com.codestorykh.alpha.admin.dto.OAuth2ClientStatsDTO;
@@ -7,6 +11,7 @@ import com.codestorykh.alpha.admin.dto.AuditLogDTO;
 import com.codestorykh.alpha.admin.service.AdminService;
 import com.codestorykh.alpha.identity.service.UserService;
 import com.codestorykh.alpha.oauth2.service.OAuth2ClientService;
+import com.codestorykh.alpha.security.service.TokenStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.info.BuildProperties;
@@ -16,6 +21,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -26,6 +32,8 @@ public class AdminServiceImpl implements AdminService {
     private final UserService userService;
     private final OAuth2ClientService oauth2ClientService;
     private final BuildProperties buildProperties;
+    private final RequestAccounting requestAccounting;
+    private final TokenStorageService tokenStorageService;
 
     @Override
     public SystemStatsDTO getSystemStats() {
@@ -42,10 +50,10 @@ public class AdminServiceImpl implements AdminService {
                 .cpuUsage(getCpuUsage())
                 .memoryUsage(memoryUsage)
                 .diskUsage(getDiskUsage())
-                .activeConnections(0) // Would need to implement connection tracking
-                .totalRequests(0) // Would need to implement request tracking
-                .averageResponseTime(0.0) // Would need to implement response time tracking
-                .errorRate(0) // Would need to implement error tracking
+                .activeConnections(requestAccounting.activeRequests())
+                .totalRequests((int) Math.min(Integer.MAX_VALUE, requestAccounting.all().total()))
+                .averageResponseTime(requestAccounting.all().latency().meanMillis())
+                .errorRate((int) Math.round(requestAccounting.recentErrorRate()))
                 .environment(System.getProperty("spring.profiles.active", "default"))
                 .build();
     }
@@ -64,15 +72,16 @@ public class AdminServiceImpl implements AdminService {
                 .newUsersToday(0) // Would need to implement new user tracking
                 .newUsersThisWeek(0) // Would need to implement new user tracking
                 .newUsersThisMonth(0) // Would need to implement new user tracking
-                .failedLoginAttempts(0) // Would need to implement login attempt tracking
-                .successfulLogins(0) // Would need to implement login tracking
-                .averageLoginTime(0.0) // Would need to implement login time tracking
+                .failedLoginAttempts(requestAccounting.logins().failures())
+                .successfulLogins(requestAccounting.logins().successes())
+                .averageLoginTime(requestAccounting.logins().latency().meanMillis())
                 .build();
     }
 
     @Override
     public OAuth2ClientStatsDTO getOAuth2ClientStats() {
-        // These would need to be implemented with actual database queries
+        OutcomeStats tokenRequests = requestAccounting.tokenRequests();
+        TokenStorageService.TokenStatistics tokenStatistics = tokenStorageService.getTokenStatistics();
         return OAuth2ClientStatsDTO.builder()
                 .timestamp(LocalDateTime.now())
                 .totalClients(oauth2ClientService.count())
@@ -82,15 +91,35 @@ public class AdminServiceImpl implements AdminService {
                 .clientsWithClientCredentials(0) // Would need to implement grant type tracking
                 .clientsWithPasswordGrant(0) // Would need to implement grant type tracking
                 .clientsWithRefreshToken(0) // Would need to implement grant type tracking
-                .totalTokenRequests(0) // Would need to implement token request tracking
-                .successfulTokenRequests(0) // Would need to implement token request tracking
-                .failedTokenRequests(0) // Would need to implement token request tracking
-                .averageTokenResponseTime(0.0) // Would need to implement response time tracking
-                .activeTokens(0) // Would need to implement token tracking
-                .expiredTokens(0) // Would need to implement token tracking
+                .totalTokenRequests(tokenRequests.total())
+                .successfulTokenRequests(tokenRequests.successes())
+                .failedTokenRequests(tokenRequests.failures())
+                .averageTokenResponseTime(tokenRequests.latency().meanMillis())
+                .activeTokens(tokenStatistics.getActiveTokens())
+                .expiredTokens(tokenStatistics.getExpiredTokens())
                 .build();
     }
 
+    @Override
+    public List<EndpointStatsDTO> getEndpointStats() {
+        List<EndpointStatsDTO> stats = new ArrayList<>();
+        requestAccounting.endpoints().forEach((endpoint, outcomes) -> {
+            LatencyHistogram latency = outcomes.latency();
+            stats.add(EndpointStatsDTO.builder()
+                    .endpoint(endpoint)
+                    .totalRequests(outcomes.total())
+                    .errors(outcomes.failures())
+                    .averageResponseTime(latency.meanMillis())
+                    .p50ResponseTime(latency.percentileMillis(0.50))
+                    .p95ResponseTime(latency.percentileMillis(0.95))
+                    .p99ResponseTime(latency.percentileMillis(0.99))
+                    .maxResponseTime(latency.maxMillis())
+                    .build());
+        });
+        stats.sort(Comparator.comparingLong(EndpointStatsDTO::getTotalRequests).reversed());
+        return stats;
+    }
+
     @Override
     public List<AuditLogDTO> getAuditLogs(LocalDateTime from, LocalDateTime to, String username, String action) {
         // This would need to be implemented with actual audit log storage
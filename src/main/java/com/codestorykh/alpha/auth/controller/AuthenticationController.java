@@ -7,6 +7,7 @@ import com.codestorykh.alpha.auth.service.AuthenticationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -41,4 +42,10 @@ public class AuthenticationController {
         // by removing the token from storage
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/logout/all")
+    public ResponseEntity<Void> logoutEverywhere(Authentication authentication) {
+        authenticationService.logoutEverywhere(authentication.getName());
+        return ResponseEntity.ok().build();
+    }
 } 
\ No newline at end of file
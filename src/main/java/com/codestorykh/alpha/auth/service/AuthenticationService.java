@@ -6,7 +6,12 @@ import com.codestorykh.alpha.auth.dto.RegisterRequest;
 import com.codestorykh.alpha.config.service.ConfigurationService;
 import com.codestorykh.alpha.identity.domain.User;
 import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.refresh.RefreshTokenFamilies;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
 import com.codestorykh.alpha.security.service.JwtService;
+import com.codestorykh.alpha.utils.encryption.EncryptionUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,6 +21,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +33,8 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final ConfigurationService configurationService;
+    private final RevocationWatermarks revocationWatermarks;
+    private final RefreshTokenFamilies refreshTokenFamilies;
 
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
         authenticationManager.authenticate(
@@ -38,7 +46,7 @@ public class AuthenticationService {
 
         UserDetails userDetails = userService.loadUserByUsername(request.getUsername());
         String jwtToken = jwtService.generateToken(userDetails);
-        String refreshToken = jwtService.generateRefreshToken(userDetails);
+        String refreshToken = startRefreshFamily(userDetails);
 
         // Update last login
         userService.updateLastLogin(request.getUsername());
@@ -71,7 +79,7 @@ public class AuthenticationService {
         UserDetails userDetails = userService.loadUserByUsername(user.getUsername());
         
         String jwtToken = jwtService.generateToken(userDetails);
-        String refreshToken = jwtService.generateRefreshToken(userDetails);
+        String refreshToken = startRefreshFamily(userDetails);
 
         // Calculate token expiration times
         LocalDateTime now = LocalDateTime.now();
@@ -83,27 +91,90 @@ public class AuthenticationService {
         return buildAuthenticationResponse(jwtToken, refreshToken, userDetails, user, now, accessTokenExpiresAt, refreshTokenExpiresAt);
     }
 
+    /**
+     * Rotate the refresh token: the presented token is swapped for a new one of the same family in one
+     * Redis script call, and the user is only reloaded if their principal changed since the family's
+     * snapshot. Replaying an already rotated token revokes the family.
+     */
     public AuthenticationResponse refreshToken(String refreshToken) {
-        final String username = jwtService.extractUsername(refreshToken);
-        if (username != null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(refreshToken, userDetails)) {
-                String newAccessToken = jwtService.generateToken(userDetails);
-                
-                // Get user entity for additional info
-                User user = userService.findByUsername(username).orElse(null);
-                
-                // Calculate token expiration times
-                LocalDateTime now = LocalDateTime.now();
-                long jwtExpiration = configurationService.getJwtExpiration();
-                long refreshExpiration = configurationService.getJwtRefreshExpiration();
-                LocalDateTime accessTokenExpiresAt = now.plusSeconds(jwtExpiration / 1000);
-                LocalDateTime refreshTokenExpiresAt = now.plusSeconds(refreshExpiration / 1000);
-
-                return buildAuthenticationResponse(newAccessToken, refreshToken, userDetails, user, now, accessTokenExpiresAt, refreshTokenExpiresAt);
-            }
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(refreshToken);
+        } catch (JwtException e) {
+            throw new RuntimeException("Invalid refresh token");
         }
-        throw new RuntimeException("Invalid refresh token");
+        String username = claims.getSubject();
+        String familyId = claims.get(JwtService.FAMILY_CLAIM, String.class);
+        // Tokens issued before rotation existed carry no family and cannot be rotated safely
+        if (username == null || familyId == null
+                || revocationWatermarks.isRevoked(username, null, JwtService.issuedAt(claims))) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        String newRefreshToken = jwtService.generateRefreshToken(username, familyId);
+        RefreshTokenFamilies.Rotation rotation = refreshTokenFamilies.rotate(familyId, username,
+                EncryptionUtils.generateSHA256(refreshToken), EncryptionUtils.generateSHA256(newRefreshToken));
+
+        UserDetails userDetails = switch (rotation.outcome()) {
+            case ROTATED -> rotation.snapshot().toPrincipal();
+            case STALE -> reloadFamilySnapshot(familyId, username, rotation.stamp());
+            case UNVERIFIED -> loadUserAllowedToSignIn(username);
+            default -> throw new RuntimeException("Invalid refresh token");
+        };
+        String newAccessToken = jwtService.generateToken(userDetails);
+
+        // Calculate token expiration times
+        LocalDateTime now = LocalDateTime.now();
+        long jwtExpiration = configurationService.getJwtExpiration();
+        long refreshExpiration = configurationService.getJwtRefreshExpiration();
+        LocalDateTime accessTokenExpiresAt = now.plusSeconds(jwtExpiration / 1000);
+        LocalDateTime refreshTokenExpiresAt = now.plusSeconds(refreshExpiration / 1000);
+
+        // No user profile here: loading it would cost the database read rotation avoids
+        return buildAuthenticationResponse(newAccessToken, newRefreshToken, userDetails, null, now, accessTokenExpiresAt, refreshTokenExpiresAt);
+    }
+
+    /**
+     * Revoke every access and refresh token issued to the user so far
+     */
+    public void logoutEverywhere(String username) {
+        revocationWatermarks.revokeAllForUser(username);
+    }
+
+    private String startRefreshFamily(UserDetails userDetails) {
+        String familyId = UUID.randomUUID().toString();
+        String refreshToken = jwtService.generateRefreshToken(userDetails.getUsername(), familyId);
+        refreshTokenFamilies.start(familyId, RefreshTokenFamilies.Snapshot.of(userDetails),
+                EncryptionUtils.generateSHA256(refreshToken));
+        return refreshToken;
+    }
+
+    /**
+     * The user changed since the family's snapshot: reload them, and end the family if they may no longer sign in
+     */
+    private UserDetails reloadFamilySnapshot(String familyId, String username, String stamp) {
+        UserDetails userDetails = userService.loadUserByUsername(username);
+        if (!canSignIn(userDetails)) {
+            refreshTokenFamilies.revoke(familyId, username);
+            throw new RuntimeException("Invalid refresh token");
+        }
+        refreshTokenFamilies.updateSnapshot(familyId, RefreshTokenFamilies.Snapshot.of(userDetails), stamp);
+        return userDetails;
+    }
+
+    /**
+     * Redis is unavailable and the family could not be checked: the database decides alone
+     */
+    private UserDetails loadUserAllowedToSignIn(String username) {
+        UserDetails userDetails = userService.loadUserByUsername(username);
+        if (!canSignIn(userDetails)) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        return userDetails;
+    }
+
+    private static boolean canSignIn(UserDetails userDetails) {
+        return userDetails.isEnabled() && userDetails.isAccountNonLocked() && userDetails.isAccountNonExpired();
     }
 
     private AuthenticationResponse buildAuthenticationResponse(
@@ -41,7 +41,7 @@ public class CacheManagementController {
 
     @GetMapping("/keys/{cacheName}")
     public ResponseEntity<Set<String>> getKeys(@PathVariable String cacheName, @RequestParam String pattern) {
-        Set<String> keys = cacheService.getKeys(cacheName + ":" + pattern);
+        Set<String> keys = cacheService.getKeys(cacheName + "::" + pattern);
         return ResponseEntity.ok(keys);
     }
 
@@ -0,0 +1,117 @@
+package com.codestorykh.alpha.cache.invalidation;
+
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts invalidations of node-local caches over Redis pub/sub.
+ * <p>
+ * A publisher applies its own invalidation before publishing; every other node gets the payload on
+ * the channel's listener. Messages from all channels are handled one at a time in arrival order, so
+ * a listener never overtakes an earlier invalidation. Delivery is best effort: a message published
+ * while Redis is down, or while a node is not subscribed, is lost, so local copies still need a TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidationBus {
+
+    private static final char SEPARATOR = '\n';
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final RedisGuard redisGuard;
+
+    // Messages start with the publishing node, which has already applied them
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, Consumer<String>> listeners = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+    private RedisMessageListenerContainer container;
+
+    /** Listen for payloads published on the channel by other nodes */
+    public synchronized void subscribe(String channel, Consumer<String> listener) {
+        listeners.put(channel, listener);
+        if (container != null) {
+            register(channel, listener);
+        }
+    }
+
+    public void publish(String channel, String payload) {
+        if (!redisGuard.isAvailable()) {
+            return;
+        }
+        try {
+            redisGuard.run(() -> stringRedisTemplate.convertAndSend(channel, nodeId + SEPARATOR + payload));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation on {}, other nodes catch up once their copies expire: {}",
+                    channel, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        try {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "cache-invalidation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            container.setTaskExecutor(executor);
+            listeners.forEach(this::register);
+            container.afterPropertiesSet();
+            container.start();
+        } catch (Exception e) {
+            log.warn("Not subscribed to cache invalidations, changes on other nodes apply once local copies expire: {}",
+                    e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws Exception {
+        if (container != null) {
+            container.destroy();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void register(String channel, Consumer<String> listener) {
+        container.addMessageListener((message, pattern) -> deliver(message, listener), new ChannelTopic(channel));
+    }
+
+    void deliver(Message message, Consumer<String> listener) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int start = body.indexOf(SEPARATOR);
+        if (start < 0 || body.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        try {
+            listener.accept(body.substring(start + 1));
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply invalidation on {}: {}",
+                    new String(message.getChannel(), StandardCharsets.UTF_8), e.getMessage());
+        }
+    }
+}
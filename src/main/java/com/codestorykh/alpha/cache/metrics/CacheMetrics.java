@@ -0,0 +1,137 @@
+package com.codestorykh.alpha.cache.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for {@code CacheService} operations, exported as {@code cache.operation} with
+ * tags {@code cache}, {@code operation} (get, set, delete, clear) and {@code outcome} (hit, miss,
+ * success, error).
+ * <p>
+ * Every meter of a cache is built once into a {@link CacheMeters} holder, for each configured cache
+ * at startup, so recording is one map read by cache name and no registry lookup. The same timers
+ * back the admin cache statistics.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheMetrics {
+
+    private static final String TIMER_NAME = "cache.operation";
+    private static final Duration[] SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50)
+    };
+
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
+
+    private final Map<String, CacheMeters> meters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cacheManager.getCacheNames().forEach(this::forCache);
+    }
+
+    public CacheMeters forCache(String cacheName) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        return cacheMeters != null ? cacheMeters : meters.computeIfAbsent(cacheName, CacheMeters::new);
+    }
+
+    /** Meters of a cache that has been used, empty otherwise */
+    public Map<String, Object> stats(String cacheName) {
+        CacheMeters cacheMeters = meters.get(cacheName);
+        return cacheMeters != null ? cacheMeters.toStats() : new LinkedHashMap<>();
+    }
+
+    public final class CacheMeters {
+
+        private final String cacheName;
+        private final Timer hit;
+        private final Timer miss;
+        private final Timer getError;
+        private final Timer setSuccess;
+        private final Timer setError;
+        private final Timer deleteSuccess;
+        private final Timer deleteError;
+        private final Timer clearSuccess;
+        private final Timer clearError;
+
+        private CacheMeters(String cacheName) {
+            this.cacheName = cacheName;
+            hit = timer("get", "hit");
+            miss = timer("get", "miss");
+            getError = timer("get", "error");
+            setSuccess = timer("set", "success");
+            setError = timer("set", "error");
+            deleteSuccess = timer("delete", "success");
+            deleteError = timer("delete", "error");
+            clearSuccess = timer("clear", "success");
+            clearError = timer("clear", "error");
+        }
+
+        public void hit(long startNanos) {
+            record(hit, startNanos);
+        }
+
+        public void miss(long startNanos) {
+            record(miss, startNanos);
+        }
+
+        public void getError(long startNanos) {
+            record(getError, startNanos);
+        }
+
+        public void set(boolean success, long startNanos) {
+            record(success ? setSuccess : setError, startNanos);
+        }
+
+        public void delete(boolean success, long startNanos) {
+            record(success ? deleteSuccess : deleteError, startNanos);
+        }
+
+        public void clear(boolean success, long startNanos) {
+            record(success ? clearSuccess : clearError, startNanos);
+        }
+
+        private Map<String, Object> toStats() {
+            long hits = hit.count();
+            long misses = miss.count() + getError.count();
+            long totalRequests = hits + misses;
+            double hitRate = totalRequests > 0 ? (double) hits / totalRequests : 0.0;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("cacheName", cacheName);
+            result.put("hits", hits);
+            result.put("misses", misses);
+            result.put("sets", setSuccess.count() + setError.count());
+            result.put("deletes", deleteSuccess.count() + deleteError.count());
+            result.put("clears", clearSuccess.count() + clearError.count());
+            result.put("errors", getError.count() + setError.count() + deleteError.count() + clearError.count());
+            result.put("hitRate", String.format("%.2f%%", hitRate * 100));
+            return result;
+        }
+
+        private Timer timer(String operation, String outcome) {
+            return Timer.builder(TIMER_NAME)
+                    .description("Cache service operations")
+                    .tag("cache", cacheName)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .serviceLevelObjectives(SLOS)
+                    .register(meterRegistry);
+        }
+
+        private static void record(Timer timer, long startNanos) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.codestorykh.alpha.cache.resilience;
+
+/**
+ * What a check answers when the state it needs is in Redis and Redis is unavailable
+ */
+public enum FailurePolicy {
+
+    /** Allow: keep serving, accepting that a revocation may be missed */
+    FAIL_OPEN,
+
+    /** Deny: reject anything that cannot be confirmed */
+    FAIL_CLOSED;
+
+    public boolean allows() {
+        return this == FAIL_OPEN;
+    }
+}
@@ -0,0 +1,77 @@
+package com.codestorykh.alpha.cache.resilience;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.lettuce.core.RedisException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker shared by everything that talks to Redis on a request path.
+ * <p>
+ * Failures and slow calls (see {@code resilience4j.circuitbreaker.instances.redis}) open the
+ * breaker; while it is open calls fail immediately with {@link CallNotPermittedException} instead
+ * of each waiting for the command timeout, so callers switch to their degraded path at no latency
+ * cost. After the configured wait a few trial calls decide whether to close it again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisGuard {
+
+    public static final String BREAKER_NAME = "redis";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private CircuitBreaker circuitBreaker;
+
+    @PostConstruct
+    public void init() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(BREAKER_NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Redis circuit breaker {}", event.getStateTransition()));
+    }
+
+    /**
+     * Run a Redis call through the breaker.
+     *
+     * @throws CallNotPermittedException while the breaker is open
+     */
+    public <T> T execute(Supplier<T> call) {
+        return circuitBreaker.executeSupplier(call);
+    }
+
+    public void run(Runnable call) {
+        circuitBreaker.executeRunnable(call);
+    }
+
+    /** False while the breaker is open; callers should not even try Redis */
+    public boolean isAvailable() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * True for the failures a degraded path should absorb: an open breaker or Redis itself failing,
+     * possibly wrapped by the service that made the call
+     */
+    public static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CallNotPermittedException || cause instanceof DataAccessException
+                    || cause instanceof RedisException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+}
@@ -1,18 +1,25 @@
 package com.codestorykh.alpha.cache.service.impl;
 
+import com.codestorykh.alpha.cache.metrics.CacheMetrics;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
 import com.codestorykh.alpha.cache.service.CacheService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @RequiredArgsConstructor
@@ -22,9 +29,10 @@ public class CacheServiceImpl implements CacheService {
     private final CacheManager cacheManager;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper redisObjectMapper;
-    
-    // Cache statistics tracking
-    private final Map<String, CacheStats> cacheStatsMap = new ConcurrentHashMap<>();
+    private final RedisGuard redisGuard;
+    private final CacheMetrics cacheMetrics;
+
+    private static final long SCAN_BATCH_SIZE = 1000;
 
     @Override
     public <T> void set(String key, T value) {
@@ -38,19 +46,23 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public <T> void set(String cacheName, String key, T value, Duration ttl) {
+        long start = System.nanoTime();
+        CacheMetrics.CacheMeters meters = cacheMetrics.forCache(cacheName);
         try {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                cache.put(key, value);
-                updateStats(cacheName, "set", true);
+                redisGuard.run(() -> cache.put(key, value));
+                meters.set(true, start);
                 log.debug("Cached value for key: {} in cache: {}", key, cacheName);
             } else {
                 log.warn("Cache '{}' not found", cacheName);
-                updateStats(cacheName, "set", false);
+                meters.set(false, start);
             }
+        } catch (CallNotPermittedException e) {
+            meters.set(false, start);
         } catch (Exception e) {
             log.error("Error setting cache value for key: {} in cache: {}", key, cacheName, e);
-            updateStats(cacheName, "set", false);
+            meters.set(false, start);
         }
     }
 
@@ -61,16 +73,18 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public <T> Optional<T> get(String cacheName, String key, Class<T> type) {
+        long start = System.nanoTime();
+        CacheMetrics.CacheMeters meters = cacheMetrics.forCache(cacheName);
         try {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                Cache.ValueWrapper wrapper = cache.get(key);
+                Cache.ValueWrapper wrapper = redisGuard.execute(() -> cache.get(key));
                 if (wrapper != null) {
                     Object value = wrapper.get();
                     
                     // Handle direct type match
                     if (type.isInstance(value)) {
-                        updateStats(cacheName, "hit", true);
+                        meters.hit(start);
                         log.debug("Cache hit for key: {} in cache: {}", key, cacheName);
                         return Optional.of(type.cast(value));
                     }
@@ -79,7 +93,7 @@ public class CacheServiceImpl implements CacheService {
                     if (value instanceof Map) {
                         try {
                             T convertedValue = redisObjectMapper.convertValue(value, type);
-                            updateStats(cacheName, "hit", true);
+                            meters.hit(start);
                             log.debug("Cache hit for key: {} in cache: {} (converted from Map)", key, cacheName);
                             return Optional.of(convertedValue);
                         } catch (Exception e) {
@@ -87,15 +101,17 @@ public class CacheServiceImpl implements CacheService {
                         }
                     }
                 }
-                updateStats(cacheName, "miss", true);
+                meters.miss(start);
                 log.debug("Cache miss for key: {} in cache: {}", key, cacheName);
             } else {
                 log.warn("Cache '{}' not found", cacheName);
-                updateStats(cacheName, "miss", false);
+                meters.getError(start);
             }
+        } catch (CallNotPermittedException e) {
+            meters.getError(start);
         } catch (Exception e) {
             log.error("Error getting cache value for key: {} in cache: {}", key, cacheName, e);
-            updateStats(cacheName, "miss", false);
+            meters.getError(start);
         }
         return Optional.empty();
     }
@@ -116,19 +132,23 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public void delete(String cacheName, String key) {
+        long start = System.nanoTime();
+        CacheMetrics.CacheMeters meters = cacheMetrics.forCache(cacheName);
         try {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                cache.evict(key);
-                updateStats(cacheName, "delete", true);
+                redisGuard.run(() -> cache.evict(key));
+                meters.delete(true, start);
                 log.debug("Deleted cache key: {} from cache: {}", key, cacheName);
             } else {
                 log.warn("Cache '{}' not found", cacheName);
-                updateStats(cacheName, "delete", false);
+                meters.delete(false, start);
             }
+        } catch (CallNotPermittedException e) {
+            meters.delete(false, start);
         } catch (Exception e) {
             log.error("Error deleting cache key: {} from cache: {}", key, cacheName, e);
-            updateStats(cacheName, "delete", false);
+            meters.delete(false, start);
         }
     }
 
@@ -141,19 +161,24 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public void clearCache(String cacheName) {
+        long start = System.nanoTime();
+        CacheMetrics.CacheMeters meters = cacheMetrics.forCache(cacheName);
         try {
             Cache cache = cacheManager.getCache(cacheName);
             if (cache != null) {
-                cache.clear();
-                updateStats(cacheName, "clear", true);
+                redisGuard.run(cache::clear);
+                meters.clear(true, start);
                 log.info("Cleared cache: {}", cacheName);
             } else {
                 log.warn("Cache '{}' not found", cacheName);
-                updateStats(cacheName, "clear", false);
+                meters.clear(false, start);
             }
+        } catch (CallNotPermittedException e) {
+            log.warn("Redis unavailable, cache {} not cleared", cacheName);
+            meters.clear(false, start);
         } catch (Exception e) {
             log.error("Error clearing cache: {}", cacheName, e);
-            updateStats(cacheName, "clear", false);
+            meters.clear(false, start);
         }
     }
 
@@ -172,7 +197,9 @@ public class CacheServiceImpl implements CacheService {
     public boolean exists(String cacheName, String key) {
         try {
             Cache cache = cacheManager.getCache(cacheName);
-            return cache != null && cache.get(key) != null;
+            return cache != null && redisGuard.execute(() -> cache.get(key)) != null;
+        } catch (CallNotPermittedException e) {
+            return false;
         } catch (Exception e) {
             log.error("Error checking existence for key: {} in cache: {}", key, cacheName, e);
             return false;
@@ -200,10 +227,27 @@ public class CacheServiceImpl implements CacheService {
         }
     }
 
+    /**
+     * Incremental SCAN rather than KEYS, on every primary when running against a cluster. Meant for
+     * the admin API only; request paths use explicit index sets instead of enumerating keys.
+     */
     @Override
     public Set<String> getKeys(String pattern) {
         try {
-            return redisTemplate.keys(pattern);
+            return redisTemplate.execute((RedisCallback<Set<String>>) connection -> {
+                ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_BATCH_SIZE).build();
+                Set<String> keys = new HashSet<>();
+                if (connection instanceof RedisClusterConnection cluster) {
+                    for (RedisClusterNode node : cluster.clusterGetNodes()) {
+                        if (node.isMaster()) {
+                            collectKeys(cluster.scan(node, options), keys);
+                        }
+                    }
+                } else {
+                    collectKeys(connection.keyCommands().scan(options), keys);
+                }
+                return keys;
+            });
         } catch (Exception e) {
             log.error("Error getting keys for pattern: {}", pattern, e);
             return new HashSet<>();
@@ -212,24 +256,7 @@ public class CacheServiceImpl implements CacheService {
 
     @Override
     public Map<String, Object> getCacheStats(String cacheName) {
-        CacheStats stats = cacheStatsMap.get(cacheName);
-        if (stats != null) {
-            Map<String, Object> result = new HashMap<>();
-            result.put("cacheName", cacheName);
-            result.put("hits", stats.getHits());
-            result.put("misses", stats.getMisses());
-            result.put("sets", stats.getSets());
-            result.put("deletes", stats.getDeletes());
-            result.put("clears", stats.getClears());
-            result.put("errors", stats.getErrors());
-            
-            long totalRequests = stats.getHits() + stats.getMisses();
-            double hitRate = totalRequests > 0 ? (double) stats.getHits() / totalRequests : 0.0;
-            result.put("hitRate", String.format("%.2f%%", hitRate * 100));
-            
-            return result;
-        }
-        return new HashMap<>();
+        return cacheMetrics.stats(cacheName);
     }
 
     @Override
@@ -257,42 +284,9 @@ public class CacheServiceImpl implements CacheService {
         return redisObjectMapper;
     }
 
-    private void updateStats(String cacheName, String operation, boolean success) {
-        CacheStats stats = cacheStatsMap.computeIfAbsent(cacheName, k -> new CacheStats());
-        
-        switch (operation) {
-            case "hit" -> stats.incrementHits();
-            case "miss" -> stats.incrementMisses();
-            case "set" -> stats.incrementSets();
-            case "delete" -> stats.incrementDeletes();
-            case "clear" -> stats.incrementClears();
+    private static void collectKeys(Cursor<byte[]> cursor, Set<String> keys) {
+        try (cursor) {
+            cursor.forEachRemaining(key -> keys.add(new String(key, StandardCharsets.UTF_8)));
         }
-        
-        if (!success) {
-            stats.incrementErrors();
-        }
-    }
-
-    private static class CacheStats {
-        private final AtomicLong hits = new AtomicLong(0);
-        private final AtomicLong misses = new AtomicLong(0);
-        private final AtomicLong sets = new AtomicLong(0);
-        private final AtomicLong deletes = new AtomicLong(0);
-        private final AtomicLong clears = new AtomicLong(0);
-        private final AtomicLong errors = new AtomicLong(0);
-
-        public long getHits() { return hits.get(); }
-        public long getMisses() { return misses.get(); }
-        public long getSets() { return sets.get(); }
-        public long getDeletes() { return deletes.get(); }
-        public long getClears() { return clears.get(); }
-        public long getErrors() { return errors.get(); }
-
-        public void incrementHits() { hits.incrementAndGet(); }
-        public void incrementMisses() { misses.incrementAndGet(); }
-        public void incrementSets() { sets.incrementAndGet(); }
-        public void incrementDeletes() { deletes.incrementAndGet(); }
-        public void incrementClears() { clears.incrementAndGet(); }
-        public void incrementErrors() { errors.incrementAndGet(); }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,487 @@
+package com.codestorykh.alpha.cache.service.impl;
+
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SslOptions;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisConnectionDetails;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.ssl.SslBundle;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CacheService} backend with a local copy of every value read, kept coherent by Redis 6+
+ * client tracking.
+ * <p>
+ * Reads go through one dedicated RESP3 connection with {@code CLIENT TRACKING on}, so the server
+ * remembers which keys this node holds and pushes an {@code invalidate} message as soon as any
+ * client writes, expires or evicts one of them. Writes and everything else are delegated to
+ * {@link CacheServiceImpl}; the written key is also dropped locally so this node reads its own writes
+ * without waiting for the push. While the tracking connection is down the local copy is cleared and
+ * reads go straight to Redis.
+ * <p>
+ * The local copy holds the serialized bytes exactly as Redis returned them and every hit decodes its
+ * own instance, so a caller that modifies what it got cannot change what the next caller reads.
+ * <p>
+ * The local copy is bounded by {@code max-entries}. The server-side tracking table is bounded by
+ * the Redis {@code tracking-table-max-keys} setting; when Redis evicts from it, it sends the
+ * matching invalidations, so neither limit can leave a stale value behind.
+ * <p>
+ * Tracking is only switched on against a standalone Redis. On a cluster every node tracks its own
+ * slots, so it would take one tracked connection per node, each re-registered as the topology
+ * changes; with Sentinel the tracked connection would stay on a demoted master. Either way a lost
+ * invalidation means a stale read, so with {@code spring.data.redis.cluster} or
+ * {@code spring.data.redis.sentinel} configured every read is delegated and nothing is held locally.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "cache.client-tracking.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class TrackingCacheServiceImpl implements CacheService {
+
+    // Key layout of the RedisCacheManager caches, see RedisCacheConfiguration.defaultCacheConfig()
+    private static final String KEY_SEPARATOR = "::";
+    private static final String DEFAULT_CACHE = "default";
+    private static final String INVALIDATE = "invalidate";
+
+    private final CacheServiceImpl delegate;
+    private final RedisProperties redisProperties;
+    private final RedisConnectionDetails redisConnectionDetails;
+    private final ObjectMapper redisObjectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${cache.client-tracking.max-entries:50000}")
+    private long maxEntries;
+
+    // Empty means every cache is tracked
+    @Value("${cache.client-tracking.caches:}")
+    private Set<String> trackedCaches;
+
+    private RedisClient client;
+    private StatefulRedisConnection<String, byte[]> connection;
+    private GenericJackson2JsonRedisSerializer serializer;
+    private Cache<String, byte[]> local;
+
+    private volatile boolean tracking;
+    // Bumped by every invalidation; a read that raced with one does not keep what it read
+    private final AtomicLong invalidationEpoch = new AtomicLong();
+
+    private final ConcurrentMap<String, Counter> hits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> misses = new ConcurrentHashMap<>();
+    private Counter invalidations;
+    private Counter flushes;
+
+    @PostConstruct
+    public void init() {
+        serializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper);
+        local = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+
+        invalidations = Counter.builder("cache.client.invalidations")
+                .description("Keys dropped from the local cache on a server invalidation push")
+                .register(meterRegistry);
+        flushes = Counter.builder("cache.client.flushes")
+                .description("Times the whole local cache was dropped (server flush or lost tracking connection)")
+                .register(meterRegistry);
+        Gauge.builder("cache.client.size", local, Cache::size)
+                .description("Entries held in the local tracking cache")
+                .register(meterRegistry);
+        Gauge.builder("cache.client.max.entries", () -> maxEntries)
+                .description("Upper bound of the local tracking cache")
+                .register(meterRegistry);
+
+        if (!isStandalone()) {
+            log.warn("Client-side cache disabled: client tracking needs a standalone Redis, reads go to Redis");
+            return;
+        }
+
+        RedisConnectionDetails.Standalone standalone = redisConnectionDetails.getStandalone();
+        client = RedisClient.create(redisUri(standalone));
+        ClientOptions.Builder options = ClientOptions.builder()
+                .protocolVersion(ProtocolVersion.RESP3)
+                .autoReconnect(true);
+        if (standalone.getSslBundle() != null) {
+            options.sslOptions(sslOptions(standalone.getSslBundle()));
+        }
+        client.setOptions(options.build());
+        client.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> channel, SocketAddress socketAddress) {
+                // Tracking is per connection and does not survive a reconnect
+                if (connection != null) {
+                    enableTracking();
+                }
+            }
+
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> channel) {
+                tracking = false;
+                flushLocal();
+            }
+        });
+
+        connection = client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        connection.addListener(message -> {
+            if (INVALIDATE.equals(message.getType())) {
+                onInvalidate(message.getContent(StringCodec.UTF8::decodeKey));
+            }
+        });
+        enableTracking();
+        log.info("Client-side cache enabled: max {} entries, caches {}", maxEntries,
+                trackedCaches.isEmpty() ? "all" : trackedCaches);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tracking = false;
+        if (connection != null) {
+            connection.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    // ==================== Reads ====================
+
+    @Override
+    public <T> Optional<T> get(String key, Class<T> type) {
+        return get(DEFAULT_CACHE, key, type);
+    }
+
+    @Override
+    public <T> Optional<T> get(String cacheName, String key, Class<T> type) {
+        if (!tracking || !isTracked(cacheName)) {
+            return delegate.get(cacheName, key, type);
+        }
+        String redisKey = redisKey(cacheName, key);
+        byte[] cached = local.getIfPresent(redisKey);
+        if (cached != null) {
+            counter(hits, "cache.client.hits", cacheName).increment();
+            return decode(cached, type, redisKey);
+        }
+
+        counter(misses, "cache.client.misses", cacheName).increment();
+        try {
+            long epoch = invalidationEpoch.get();
+            byte[] raw = connection.sync().get(redisKey);
+            if (raw == null) {
+                return Optional.empty();
+            }
+            Optional<T> value = decode(raw, type, redisKey);
+            if (value.isEmpty()) {
+                return value;
+            }
+            local.put(redisKey, raw);
+            // An invalidation handled between the GET and the put may have been for this key
+            if (invalidationEpoch.get() != epoch || !tracking) {
+                local.invalidate(redisKey);
+            }
+            return value;
+        } catch (Exception e) {
+            log.warn("Tracked read failed for key: {}, falling back: {}", redisKey, e.getMessage());
+            return delegate.get(cacheName, key, type);
+        }
+    }
+
+    @Override
+    public <T> Map<String, T> getMultiple(List<String> keys, Class<T> type) {
+        Map<String, T> result = new HashMap<>();
+        for (String key : keys) {
+            get(key, type).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return exists(DEFAULT_CACHE, key);
+    }
+
+    @Override
+    public boolean exists(String cacheName, String key) {
+        if (tracking && local.getIfPresent(redisKey(cacheName, key)) != null) {
+            return true;
+        }
+        return delegate.exists(cacheName, key);
+    }
+
+    // ==================== Writes ====================
+
+    @Override
+    public <T> void set(String key, T value) {
+        set(DEFAULT_CACHE, key, value, Duration.ofMinutes(30));
+    }
+
+    @Override
+    public <T> void set(String key, T value, Duration ttl) {
+        set(DEFAULT_CACHE, key, value, ttl);
+    }
+
+    @Override
+    public <T> void set(String cacheName, String key, T value, Duration ttl) {
+        delegate.set(cacheName, key, value, ttl);
+        local.invalidate(redisKey(cacheName, key));
+    }
+
+    @Override
+    public void delete(String key) {
+        delete(DEFAULT_CACHE, key);
+    }
+
+    @Override
+    public void delete(String cacheName, String key) {
+        delegate.delete(cacheName, key);
+        local.invalidate(redisKey(cacheName, key));
+    }
+
+    @Override
+    public void deleteMultiple(List<String> keys) {
+        for (String key : keys) {
+            delete(key);
+        }
+    }
+
+    @Override
+    public void clearCache(String cacheName) {
+        delegate.clearCache(cacheName);
+        String prefix = cacheName + KEY_SEPARATOR;
+        local.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public void clearAllCaches() {
+        delegate.clearAllCaches();
+        local.invalidateAll();
+    }
+
+    @Override
+    public <T> void refresh(String key, T value) {
+        refresh(DEFAULT_CACHE, key, value);
+    }
+
+    @Override
+    public <T> void refresh(String cacheName, String key, T value) {
+        delegate.refresh(cacheName, key, value);
+        local.invalidate(redisKey(cacheName, key));
+    }
+
+    // ==================== Pass-through ====================
+
+    @Override
+    public Duration getTtl(String key) {
+        return delegate.getTtl(key);
+    }
+
+    @Override
+    public void setTtl(String key, Duration ttl) {
+        delegate.setTtl(key, ttl);
+    }
+
+    @Override
+    public Set<String> getKeys(String pattern) {
+        return delegate.getKeys(pattern);
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats(String cacheName) {
+        Map<String, Object> stats = new HashMap<>(delegate.getCacheStats(cacheName));
+        stats.put("clientTracking", clientTrackingStats(cacheName));
+        return stats;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getAllCacheStats() {
+        Map<String, Map<String, Object>> allStats = new HashMap<>(delegate.getAllCacheStats());
+        allStats.replaceAll((cacheName, stats) -> {
+            Map<String, Object> withTracking = new HashMap<>(stats);
+            withTracking.put("clientTracking", clientTrackingStats(cacheName));
+            return withTracking;
+        });
+        return allStats;
+    }
+
+    @Override
+    public ObjectMapper getRedisObjectMapper() {
+        return redisObjectMapper;
+    }
+
+    // ==================== Tracking ====================
+
+    private void enableTracking() {
+        // Async: this also runs on the connection's event loop after a reconnect
+        connection.async().clientTracking(TrackingArgs.Builder.enabled())
+                .whenComplete((ok, error) -> {
+                    if (error != null) {
+                        log.warn("Could not enable client tracking, serving reads from Redis: {}", error.getMessage());
+                        tracking = false;
+                    } else {
+                        tracking = true;
+                    }
+                });
+    }
+
+    private void onInvalidate(List<Object> content) {
+        invalidationEpoch.incrementAndGet();
+        // ["invalidate", [key, ...]], or ["invalidate", nil] when the server flushed everything
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (!(keys instanceof List<?> list)) {
+            flushLocal();
+            return;
+        }
+        for (Object key : list) {
+            String redisKey = key instanceof ByteBuffer buffer
+                    ? StandardCharsets.UTF_8.decode(buffer.duplicate()).toString()
+                    : String.valueOf(key);
+            local.invalidate(redisKey);
+            invalidations.increment();
+        }
+    }
+
+    private void flushLocal() {
+        invalidationEpoch.incrementAndGet();
+        local.invalidateAll();
+        flushes.increment();
+    }
+
+    // ==================== Internals ====================
+
+    private <T> Optional<T> decode(byte[] raw, Class<T> type, String redisKey) {
+        Object value = serializer.deserialize(raw);
+        if (value == null) {
+            return Optional.empty();
+        }
+        if (type.isInstance(value)) {
+            return Optional.of(type.cast(value));
+        }
+        if (value instanceof Map) {
+            try {
+                return Optional.of(redisObjectMapper.convertValue(value, type));
+            } catch (Exception e) {
+                log.warn("Failed to convert cached Map to type {} for key: {}", type.getSimpleName(), redisKey, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Map<String, Object> clientTrackingStats(String cacheName) {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", tracking);
+        stats.put("tracked", isTracked(cacheName));
+        stats.put("hits", countOf(hits, cacheName));
+        stats.put("misses", countOf(misses, cacheName));
+        stats.put("localSize", local.size());
+        stats.put("localMaxEntries", maxEntries);
+        stats.put("localEvictions", local.stats().evictionCount());
+        stats.put("invalidations", (long) invalidations.count());
+        return stats;
+    }
+
+    private boolean isTracked(String cacheName) {
+        return trackedCaches.isEmpty() || trackedCaches.contains(cacheName);
+    }
+
+    private Counter counter(ConcurrentMap<String, Counter> counters, String name, String cacheName) {
+        return counters.computeIfAbsent(cacheName, cache -> Counter.builder(name)
+                .tag("cache", cache)
+                .register(meterRegistry));
+    }
+
+    private static long countOf(ConcurrentMap<String, Counter> counters, String cacheName) {
+        Counter counter = counters.get(cacheName);
+        return counter != null ? (long) counter.count() : 0L;
+    }
+
+    private static String redisKey(String cacheName, String key) {
+        return cacheName + KEY_SEPARATOR + key;
+    }
+
+    private boolean isStandalone() {
+        RedisProperties.Cluster cluster = redisProperties.getCluster();
+        RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+        return (cluster == null || cluster.getNodes() == null || cluster.getNodes().isEmpty())
+                && (sentinel == null || sentinel.getMaster() == null);
+    }
+
+    /**
+     * Same endpoint and credentials as the main connection factory: host, port, database, username and
+     * password come from the connection details Spring Boot resolved (spring.data.redis.url wins over
+     * host/port there), SSL from spring.data.redis.ssl or a rediss:// url.
+     */
+    private RedisURI redisUri(RedisConnectionDetails.Standalone standalone) {
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(standalone.getHost())
+                .withPort(standalone.getPort())
+                .withDatabase(standalone.getDatabase())
+                .withSsl(isSslEnabled());
+        String username = redisConnectionDetails.getUsername();
+        String password = redisConnectionDetails.getPassword();
+        if (password != null && !password.isEmpty()) {
+            if (username != null && !username.isEmpty()) {
+                builder.withAuthentication(username, password.toCharArray());
+            } else {
+                builder.withPassword(password.toCharArray());
+            }
+        }
+        if (redisProperties.getTimeout() != null) {
+            builder.withTimeout(redisProperties.getTimeout());
+        }
+        if (redisProperties.getClientName() != null) {
+            builder.withClientName(redisProperties.getClientName());
+        }
+        return builder.build();
+    }
+
+    private boolean isSslEnabled() {
+        String url = redisProperties.getUrl();
+        return redisProperties.getSsl().isEnabled() || (url != null && url.startsWith("rediss://"));
+    }
+
+    private static SslOptions sslOptions(SslBundle bundle) {
+        SslOptions.Builder builder = SslOptions.builder()
+                .keyManager(bundle.getManagers().getKeyManagerFactory())
+                .trustManager(bundle.getManagers().getTrustManagerFactory());
+        if (bundle.getOptions().getCiphers() != null) {
+            builder.cipherSuites(bundle.getOptions().getCiphers());
+        }
+        if (bundle.getOptions().getEnabledProtocols() != null) {
+            builder.protocols(bundle.getOptions().getEnabledProtocols());
+        }
+        return builder.build();
+    }
+}
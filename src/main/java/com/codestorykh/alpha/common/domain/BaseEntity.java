@@ -13,8 +13,12 @@ import java.time.LocalDateTime;
 @Data
 public abstract class BaseEntity {
 
+    /**
+     * From the table's {@code <table>_id_seq} sequence (increment 50, pooled-lo), so Hibernate can
+     * assign ids without a round trip per insert and batch the inserts
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreatedDate
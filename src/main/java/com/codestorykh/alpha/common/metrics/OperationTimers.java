@@ -0,0 +1,84 @@
+package com.codestorykh.alpha.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One success and one failure {@link Timer} per constant of an operation enum, all registered up
+ * front. Recording is an array index by ordinal, so the hot path never builds a meter id or looks
+ * one up in the registry.
+ * <p>
+ * Tags: {@code operation} (the constant in lower camel case, e.g. {@code storeAccessToken}) and
+ * {@code outcome} ({@code success} or {@code failure}).
+ */
+public class OperationTimers<E extends Enum<E>> {
+
+    private final Timer[] successes;
+    private final Timer[] failures;
+
+    public OperationTimers(MeterRegistry registry, String name, String description, Class<E> operations,
+                           Duration... serviceLevelObjectives) {
+        E[] constants = operations.getEnumConstants();
+        successes = new Timer[constants.length];
+        failures = new Timer[constants.length];
+        for (E operation : constants) {
+            successes[operation.ordinal()] = timer(registry, name, description, operation, "success", serviceLevelObjectives);
+            failures[operation.ordinal()] = timer(registry, name, description, operation, "failure", serviceLevelObjectives);
+        }
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} taken when the operation started
+     */
+    public void record(E operation, boolean success, long startNanos) {
+        (success ? successes : failures)[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long totalCount(boolean success) {
+        long count = 0;
+        for (Timer timer : success ? successes : failures) {
+            count += timer.count();
+        }
+        return count;
+    }
+
+    /** Mean duration over every operation and outcome, in milliseconds */
+    public double meanMillis() {
+        double totalMillis = 0;
+        long count = 0;
+        for (Timer[] timers : new Timer[][]{successes, failures}) {
+            for (Timer timer : timers) {
+                totalMillis += timer.totalTime(TimeUnit.MILLISECONDS);
+                count += timer.count();
+            }
+        }
+        return count > 0 ? totalMillis / count : 0.0;
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String description, Enum<?> operation,
+                               String outcome, Duration[] serviceLevelObjectives) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", lowerCamel(operation.name()))
+                .tag("outcome", outcome)
+                .serviceLevelObjectives(serviceLevelObjectives)
+                .register(registry);
+    }
+
+    private static String lowerCamel(String constant) {
+        StringBuilder result = new StringBuilder(constant.length());
+        boolean upper = false;
+        for (char c : constant.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                result.append(upper ? c : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return result.toString();
+    }
+}
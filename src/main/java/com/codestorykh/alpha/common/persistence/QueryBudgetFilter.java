@@ -0,0 +1,43 @@
+package com.codestorykh.alpha.common.persistence;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each request, including the security chain's user lookups, and
+ * reports them per route pattern to {@link QueryInstrumentation}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "persistence.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryInstrumentation queryInstrumentation;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryStats stats;
+        try (QueryScope scope = QueryScope.open(request.getMethod() + " " + request.getRequestURI())) {
+            filterChain.doFilter(request, response);
+            stats = scope.stats();
+        }
+        // Only requests that completed; a failed one is already reported by its exception
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        queryInstrumentation.requestCompleted(
+                request.getMethod() + " " + (pattern != null ? pattern : "UNMATCHED"), stats);
+    }
+}
@@ -0,0 +1,216 @@
+package com.codestorykh.alpha.common.persistence;
+
+import com.codestorykh.alpha.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hooks Hibernate so every JDBC statement is counted and timed in the current {@link QueryScope},
+ * and turns finished request and transaction scopes into metrics and budget checks.
+ * <ul>
+ *   <li>{@code db.statement.execution} timer and {@code db.statement.slow} counter for single statements</li>
+ *   <li>{@code db.scope.statements}, {@code db.scope.entities} and {@code db.scope.time} per request route
+ *       or transactional method ({@code scope} tag {@code request}/{@code transaction}, {@code name} tag)</li>
+ *   <li>{@code db.scope.budget.exceeded} when a scope ran more statements than its budget; the scope is
+ *       logged with its repeated statements, which is usually the N+1</li>
+ * </ul>
+ * The hooks are installed at boot: {@code persistence.query-budget.enabled=false} leaves Hibernate untouched.
+ */
+@Component
+@Slf4j
+public class QueryInstrumentation implements HibernatePropertiesCustomizer {
+
+    static final String REQUEST = "request";
+    static final String TRANSACTION = "transaction";
+
+    /** Hibernate instantiates the session listener itself; this is how it reaches the metrics */
+    private static volatile QueryInstrumentation active;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ScopeMeters> scopeMeters = new ConcurrentHashMap<>();
+    private final Map<String, Integer> budgetOverrides = new HashMap<>();
+
+    @Value("${persistence.query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${persistence.query-budget.per-request:20}")
+    private int requestBudget;
+
+    @Value("${persistence.query-budget.per-transaction:15}")
+    private int transactionBudget;
+
+    @Value("${persistence.query-budget.overrides:}")
+    private String overrides;
+
+    @Value("${persistence.query-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Value("${persistence.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    private Timer executionTimer;
+    private Counter slowStatements;
+    private long slowQueryNanos;
+
+    public QueryInstrumentation(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String entry : overrides.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                budgetOverrides.put(entry.substring(0, separator).trim(),
+                        Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+        slowQueryNanos = slowQueryThreshold.toNanos();
+        executionTimer = Timer.builder("db.statement.execution")
+                .description("JDBC statement and batch execution time")
+                .serviceLevelObjectives(Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25),
+                        Duration.ofMillis(100), slowQueryThreshold)
+                .register(meterRegistry);
+        slowStatements = Counter.builder("db.statement.slow")
+                .description("Statements slower than persistence.slow-query-threshold")
+                .register(meterRegistry);
+        if (enabled) {
+            active = this;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (active == this) {
+            active = null;
+        }
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (!enabled) {
+            return;
+        }
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            QueryScope.statementPrepared(sql);
+            return sql;
+        });
+        hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+        hibernateProperties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(new EntityLoadCounter()));
+    }
+
+    /**
+     * @param endpoint "METHOD pattern" of the route, the key budget overrides use
+     */
+    public void requestCompleted(String endpoint, QueryStats stats) {
+        completed(REQUEST, endpoint, stats, requestBudget);
+    }
+
+    /**
+     * @param method "Class.method" of the transactional method, the key budget overrides use
+     */
+    public void transactionCompleted(String method, QueryStats stats) {
+        completed(TRANSACTION, method, stats, transactionBudget);
+    }
+
+    private void completed(String scope, String name, QueryStats stats, int defaultBudget) {
+        ScopeMeters meters = scopeMeters.computeIfAbsent(scope + ' ' + name, key -> new ScopeMeters(scope, name));
+        meters.statements.record(stats.statements());
+        meters.entities.record(stats.entitiesLoaded());
+        meters.time.record(stats.executionTime());
+
+        int budget = budgetOverrides.getOrDefault(name, defaultBudget);
+        if (stats.statements() <= budget) {
+            return;
+        }
+        meters.budgetExceeded.increment();
+        log.warn("{} {} ran {} SQL statements (budget {}) in {} ms, loading {} entities; repeated: {}",
+                scope, name, stats.statements(), budget, stats.executionTime().toMillis(), stats.entitiesLoaded(),
+                stats.repeatedStatements(3));
+        if (failOnExceed) {
+            throw new QueryBudgetExceededException(name, stats.statements(), budget, stats.repeatedStatements(3));
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        QueryInstrumentation instrumentation = active;
+        if (instrumentation == null) {
+            return;
+        }
+        instrumentation.executionTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos > instrumentation.slowQueryNanos) {
+            instrumentation.slowStatements.increment();
+            log.warn("Slow SQL ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), QueryScope.lastStatement());
+        }
+    }
+
+    private final class ScopeMeters {
+        private final DistributionSummary statements;
+        private final DistributionSummary entities;
+        private final Timer time;
+        private final Counter budgetExceeded;
+
+        private ScopeMeters(String scope, String name) {
+            statements = DistributionSummary.builder("db.scope.statements")
+                    .description("SQL statements per request or transaction")
+                    .tags("scope", scope, "name", name)
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50)
+                    .register(meterRegistry);
+            entities = DistributionSummary.builder("db.scope.entities")
+                    .description("Entities loaded per request or transaction")
+                    .tags("scope", scope, "name", name)
+                    .register(meterRegistry);
+            time = Timer.builder("db.scope.time")
+                    .description("JDBC execution time per request or transaction")
+                    .tags("scope", scope, "name", name)
+                    .register(meterRegistry);
+            budgetExceeded = Counter.builder("db.scope.budget.exceeded")
+                    .description("Requests or transactions over their statement budget")
+                    .tags("scope", scope, "name", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Counts entities materialized from result sets, including EAGER associations and lazy loads
+     */
+    private static final class EntityLoadCounter implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> QueryScope.entityLoaded());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
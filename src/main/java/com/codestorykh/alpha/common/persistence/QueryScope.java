@@ -0,0 +1,109 @@
+package com.codestorykh.alpha.common.persistence;
+
+import com.codestorykh.alpha.exception.QueryBudgetExceededException;
+
+/**
+ * A unit of work whose JDBC statements are counted: an HTTP request, a {@code @Transactional}
+ * method, or a block in a test. Scopes nest per thread; work is counted in the innermost open scope
+ * and added to the enclosing one when it closes, so a request's totals include its transactions.
+ * <pre>
+ * try (QueryScope scope = QueryScope.open("load users")) {
+ *     userService.findAll();
+ *     scope.assertAtMost(2);
+ * }
+ * </pre>
+ * The Hibernate hooks registered by {@link QueryInstrumentation} feed the counters; work done
+ * outside any scope is not counted.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> LAST_STATEMENT = new ThreadLocal<>();
+
+    private final String name;
+    private final QueryScope parent;
+    private final QueryStats stats = new QueryStats();
+    private boolean closed;
+
+    private QueryScope(String name, QueryScope parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    public static QueryScope open(String name) {
+        QueryScope scope = new QueryScope(name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Counters so far; final once the scope is closed
+     */
+    public QueryStats stats() {
+        return stats;
+    }
+
+    /**
+     * @throws QueryBudgetExceededException if more than {@code maxStatements} statements ran in this scope
+     */
+    public void assertAtMost(int maxStatements) {
+        if (stats.statements() > maxStatements) {
+            throw new QueryBudgetExceededException(name, stats.statements(), maxStatements,
+                    stats.repeatedStatements(3));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() != this) {
+            // Closed out of order: leave the stack to its owner
+            return;
+        }
+        if (parent != null) {
+            parent.stats.add(stats);
+            CURRENT.set(parent);
+        } else {
+            CURRENT.remove();
+            LAST_STATEMENT.remove();
+        }
+    }
+
+    // ==================== Hibernate hooks ====================
+
+    static void statementPrepared(String sql) {
+        LAST_STATEMENT.set(sql);
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.stats.statementPrepared(sql);
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.stats.statementExecuted(nanos);
+        }
+    }
+
+    static void entityLoaded() {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.stats.entityLoaded();
+        }
+    }
+
+    /**
+     * The SQL most recently prepared on this thread, which is the one being executed
+     */
+    static String lastStatement() {
+        return LAST_STATEMENT.get();
+    }
+}
@@ -0,0 +1,79 @@
+package com.codestorykh.alpha.common.persistence;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC work done inside one {@link QueryScope}: statements, execution time and entities loaded,
+ * plus how often each distinct SQL string ran, which is how an N+1 shows up.
+ * <p>
+ * Confined to the thread that owns the scope, so nothing here is synchronized.
+ */
+public final class QueryStats {
+
+    /** Distinct statements tracked per scope; anything past this still counts, just not by shape */
+    private static final int MAX_SHAPES = 256;
+
+    private int statements;
+    private long executionNanos;
+    private long entitiesLoaded;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    void statementPrepared(String sql) {
+        statements++;
+        if (shapes.size() < MAX_SHAPES || shapes.containsKey(sql)) {
+            shapes.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void statementExecuted(long nanos) {
+        executionNanos += nanos;
+    }
+
+    void entityLoaded() {
+        entitiesLoaded++;
+    }
+
+    void add(QueryStats other) {
+        statements += other.statements;
+        executionNanos += other.executionNanos;
+        entitiesLoaded += other.entitiesLoaded;
+        other.shapes.forEach((sql, count) -> {
+            if (shapes.size() < MAX_SHAPES || shapes.containsKey(sql)) {
+                shapes.merge(sql, count, Integer::sum);
+            }
+        });
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration executionTime() {
+        return Duration.ofNanos(executionNanos);
+    }
+
+    public long entitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    /**
+     * Statements that ran more than once, most frequent first
+     */
+    public List<Map.Entry<String, Integer>> repeatedStatements(int limit) {
+        return shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + executionTime().toMillis() + " ms, " + entitiesLoaded + " entities";
+    }
+}
@@ -0,0 +1,39 @@
+package com.codestorykh.alpha.common.persistence;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times JDBC statement and batch executions. Hibernate creates one per session from the class
+ * name (no injection), so results go through static hooks into {@link QueryScope} and
+ * {@link QueryInstrumentation}.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long executionStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        long nanos = System.nanoTime() - executionStart;
+        QueryScope.statementExecuted(nanos);
+        QueryInstrumentation.statementExecuted(nanos);
+    }
+}
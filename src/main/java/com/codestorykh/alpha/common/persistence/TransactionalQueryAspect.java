@@ -0,0 +1,45 @@
+package com.codestorykh.alpha.common.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements of each {@code @Transactional} method call and reports them to
+ * {@link QueryInstrumentation} as "Class.method".
+ * <p>
+ * Ordered just outside the transaction interceptor, so the flush at commit is counted too. Spring
+ * Data repositories are transactional as well but left out: their statements count towards the
+ * calling service method.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "persistence.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TransactionalQueryAspect {
+
+    private final QueryInstrumentation queryInstrumentation;
+
+    @Around("(@annotation(org.springframework.transaction.annotation.Transactional)"
+            + " || @within(org.springframework.transaction.annotation.Transactional))"
+            + " && !within(org.springframework.data.repository.Repository+)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        Object result;
+        QueryStats stats;
+        try (QueryScope scope = QueryScope.open(method)) {
+            result = joinPoint.proceed();
+            stats = scope.stats();
+        }
+        queryInstrumentation.transactionCompleted(method, stats);
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package com.codestorykh.alpha.common.persistence.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base for migrations that build indexes online with {@code CREATE INDEX CONCURRENTLY}: reads and writes on
+ * the table carry on while the index builds. That statement cannot run inside a transaction, so these
+ * migrations run in autocommit and every step is written to be re-runnable:
+ * <ul>
+ *   <li>an invalid index left behind by an interrupted or failed concurrent build is dropped and rebuilt</li>
+ *   <li>a valid index with the same name is kept as is</li>
+ *   <li>a build that ends up invalid (deadlock, unique violation, lock timeout) is retried up to
+ *       {@value #MAX_ATTEMPTS} times before the migration fails</li>
+ * </ul>
+ * {@code lock_timeout} bounds how long a build waits behind long-running transactions for its
+ * table locks, so a stuck build fails visibly instead of queueing application traffic behind it.
+ * {@link #obsoleteIndexes()} are dropped concurrently once every new index is in place.
+ * <p>
+ * Needs {@code spring.flyway.postgresql.transactional-lock: false}; with Flyway's default
+ * transaction-scoped lock the concurrent build waits for Flyway's own transaction forever.
+ */
+@Slf4j
+public abstract class ConcurrentIndexMigration extends BaseJavaMigration {
+
+    static final int MAX_ATTEMPTS = 3;
+    private static final String LOCK_TIMEOUT = "5s";
+
+    /**
+     * Indexes to build, in order.
+     */
+    protected abstract List<IndexDefinition> indexes();
+
+    /**
+     * Indexes the new ones replace, dropped after all of them are built.
+     */
+    protected List<String> obsoleteIndexes() {
+        return List.of();
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET lock_timeout = '" + LOCK_TIMEOUT + "'");
+            statement.execute("SET statement_timeout = 0");
+            for (IndexDefinition index : indexes()) {
+                build(connection, statement, index);
+            }
+            for (String obsolete : obsoleteIndexes()) {
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + obsolete);
+                log.info("Dropped index {}", obsolete);
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RESET lock_timeout");
+                statement.execute("RESET statement_timeout");
+            }
+        }
+    }
+
+    private void build(Connection connection, Statement statement, IndexDefinition index) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            Boolean valid = isValid(connection, index.name());
+            if (Boolean.TRUE.equals(valid)) {
+                log.info("Index {} already exists, skipping", index.name());
+                return;
+            }
+            if (valid != null) {
+                log.warn("Dropping invalid index {} left by an earlier build", index.name());
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.name());
+            }
+
+            long start = System.nanoTime();
+            try {
+                statement.execute(index.createStatement());
+                if (Boolean.TRUE.equals(isValid(connection, index.name()))) {
+                    log.info("Built index {} on {} in {} ms", index.name(), index.table(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    return;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw new IllegalStateException("Index " + index.name() + " is still invalid after "
+                            + attempt + " attempts");
+                }
+                log.warn("Index {} is invalid after attempt {}, retrying", index.name(), attempt);
+            } catch (SQLException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Building index {} failed on attempt {}: {}", index.name(), attempt, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@code null} when the index does not exist, otherwise whether PostgreSQL considers it usable.
+     */
+    private static Boolean isValid(Connection connection, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getBoolean(1) : null;
+            }
+        }
+    }
+}
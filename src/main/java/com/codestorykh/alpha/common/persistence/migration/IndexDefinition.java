@@ -0,0 +1,41 @@
+package com.codestorykh.alpha.common.persistence.migration;
+
+import lombok.Builder;
+import lombok.Singular;
+
+import java.util.List;
+
+/**
+ * One index built by a {@link ConcurrentIndexMigration}. {@code columns} are emitted as written, so they
+ * may be expressions with operator classes ({@code lower(email) gin_trgm_ops}); {@code method},
+ * {@code include} (covering columns) and {@code where} (partial index predicate) are optional.
+ */
+@Builder
+public record IndexDefinition(
+        String name,
+        String table,
+        @Singular List<String> columns,
+        String method,
+        @Singular("include") List<String> include,
+        String where,
+        boolean unique
+) {
+
+    String createStatement() {
+        StringBuilder sql = new StringBuilder("CREATE ")
+                .append(unique ? "UNIQUE " : "")
+                .append("INDEX CONCURRENTLY IF NOT EXISTS ").append(name)
+                .append(" ON ").append(table);
+        if (method != null) {
+            sql.append(" USING ").append(method);
+        }
+        sql.append(" (").append(String.join(", ", columns)).append(')');
+        if (!include.isEmpty()) {
+            sql.append(" INCLUDE (").append(String.join(", ", include)).append(')');
+        }
+        if (where != null) {
+            sql.append(" WHERE ").append(where);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.codestorykh.alpha.common.persistence.migration;
+
+import java.util.List;
+
+/**
+ * Trigram GIN indexes for the user search, which filters with {@code lower(column) LIKE '%term%'}
+ * ({@code UserSpecification}). A B-tree cannot serve a leading wildcard, so without these every
+ * search is a sequential scan of {@code users}. Built concurrently so the table stays writable.
+ */
+public class V4__User_search_trigram_indexes extends ConcurrentIndexMigration {
+
+    @Override
+    protected List<IndexDefinition> indexes() {
+        return List.of(
+                trigram("idx_user_username_trgm", "username"),
+                trigram("idx_user_email_trgm", "email"),
+                trigram("idx_user_first_name_trgm", "first_name"),
+                trigram("idx_user_last_name_trgm", "last_name"),
+                trigram("idx_user_phone_number_trgm", "phone_number"));
+    }
+
+    private static IndexDefinition trigram(String name, String column) {
+        return IndexDefinition.builder()
+                .name(name)
+                .table("users")
+                .method("gin")
+                .column("lower(" + column + ") gin_trgm_ops")
+                .build();
+    }
+}
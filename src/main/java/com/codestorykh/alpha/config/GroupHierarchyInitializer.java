@@ -0,0 +1,46 @@
+package com.codestorykh.alpha.config;
+
+import com.codestorykh.alpha.config.startup.StartupTasks;
+import com.codestorykh.alpha.identity.repository.GroupClosureRepository;
+import com.codestorykh.alpha.identity.repository.GroupRepository;
+import com.codestorykh.alpha.identity.service.GroupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure the group closure table matches the parent links once startup is done.
+ * Groups written outside {@code GroupService} (seed data, manual SQL) would otherwise be missing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GroupHierarchyInitializer {
+
+    private final GroupService groupService;
+    private final GroupRepository groupRepository;
+    private final GroupClosureRepository groupClosureRepository;
+    private final StartupTasks startupTasks;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startupTasks.run("groupHierarchy", this::verifyGroupHierarchy);
+    }
+
+    public void verifyGroupHierarchy() {
+        try {
+            long groups = groupRepository.count();
+            long selfPaths = groupClosureRepository.countSelfPaths();
+            if (groups != selfPaths) {
+                log.info("Group closure table out of sync ({} groups, {} self paths), rebuilding", groups, selfPaths);
+                groupService.rebuildHierarchy();
+            } else {
+                log.debug("Group closure table in sync with {} groups", groups);
+            }
+        } catch (Exception e) {
+            log.error("Failed to verify group hierarchy", e);
+        }
+    }
+}
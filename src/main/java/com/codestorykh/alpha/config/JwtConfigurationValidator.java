@@ -2,6 +2,7 @@ package com.codestorykh.alpha.config;
 
 import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
 import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.config.startup.StartupTasks;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
@@ -16,16 +17,23 @@ public class JwtConfigurationValidator {
     private final JwtConfigurationProperties jwtConfigurationProperties;
     private final ConfigurationService configurationService;
     private final SecretKey signingKey;
+    private final StartupTasks startupTasks;
 
     public JwtConfigurationValidator(JwtConfigurationProperties jwtConfigurationProperties,
                                      ConfigurationService configurationService,
-                                     SecretKey signingKey) {
+                                     SecretKey signingKey,
+                                     StartupTasks startupTasks) {
         this.jwtConfigurationProperties = jwtConfigurationProperties;
         this.configurationService = configurationService;
         this.signingKey = signingKey;
+        this.startupTasks = startupTasks;
     }
 
     @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        startupTasks.run("jwtConfigurationValidator", this::validateJwtConfiguration);
+    }
+
     public void validateJwtConfiguration() {
         log.info("🔐 Starting JWT configuration validation...");
         
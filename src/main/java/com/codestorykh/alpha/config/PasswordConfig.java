@@ -1,5 +1,7 @@
 package com.codestorykh.alpha.config;
 
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.metrics.TimedPasswordEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -9,7 +11,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class PasswordConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(SecurityMetrics securityMetrics) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), securityMetrics);
     }
-} 
\ No newline at end of file
+}
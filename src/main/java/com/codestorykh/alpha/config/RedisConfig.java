@@ -1,12 +1,15 @@
 package com.codestorykh.alpha.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
@@ -21,6 +24,9 @@ import java.util.Map;
 @EnableCaching
 public class RedisConfig {
 
+    // Keys per SCAN round trip when a cache is cleared
+    private static final int CLEAR_SCAN_BATCH_SIZE = 1000;
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, 
                                                       ObjectMapper redisObjectMapper) {
@@ -43,7 +49,8 @@ public class RedisConfig {
 
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory, 
-                                   ObjectMapper redisObjectMapper) {
+                                   ObjectMapper redisObjectMapper,
+                                   @Value("${jwt.refresh-expiration:86400000}") long refreshExpiration) {
         // Default cache configuration
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
@@ -69,7 +76,17 @@ public class RedisConfig {
         // JWT token cache - 15 minutes TTL
         cacheConfigurations.put("jwt-tokens", defaultConfig.entryTtl(Duration.ofMinutes(15)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        // Effective permission bitsets - 1 hour TTL, evicted explicitly on role/group/permission changes
+        cacheConfigurations.put("effective-permissions", defaultConfig.entryTtl(Duration.ofHours(1)));
+
+        // Token blacklist - must outlive the longest-lived token it can revoke
+        cacheConfigurations.put("token-blacklist", defaultConfig.entryTtl(Duration.ofMillis(refreshExpiration)));
+
+        // Clearing a cache SCANs for its keys; the default KEYS blocks Redis for the whole keyspace walk
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                BatchStrategies.scan(CLEAR_SCAN_BATCH_SIZE));
+
+        return RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
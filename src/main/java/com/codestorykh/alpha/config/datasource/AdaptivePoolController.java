@@ -0,0 +1,289 @@
+package com.codestorykh.alpha.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the Hikari pool several times a second and resizes it between
+ * {@code persistence.pool.min-size} and a ceiling derived from the database's
+ * {@code max_connections}, so the pool size follows the load instead of a guessed constant.
+ * <ul>
+ *   <li>Grows by a quarter when callers waited longer than {@code target-acquire-wait} on average,
+ *       connection requests timed out, or threads were queued in more than a tenth of the samples</li>
+ *   <li>Shrinks by one when nobody waited and at most half the connections were ever busy</li>
+ *   <li>Raises a saturation alert, shown by {@link DataSourceHealthIndicator}, once threads have been
+ *       waiting for a connection in every sample for {@code saturation-alert-after}</li>
+ * </ul>
+ * The ceiling is {@code (max_connections - db-connection-reserve) / instances}: every node sharing
+ * the database gets an equal slice, so growing here cannot starve the others.
+ * <p>
+ * Samples are taken on a dedicated thread rather than Spring's shared scheduler: a saturated pool
+ * is exactly when other scheduled jobs block on connections, and a sampler queued behind them
+ * would miss the saturation it is there to see.
+ */
+@Component
+@Slf4j
+public class AdaptivePoolController {
+
+    private static final double SATURATED_SAMPLE_SHARE = 0.1;
+
+    private final DataSource dataSource;
+    private final PoolMetricsTrackerFactory poolMetrics;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${persistence.pool.adaptive:true}")
+    private boolean adaptive;
+
+    @Value("${persistence.pool.min-size:5}")
+    private int minSize;
+
+    @Value("${persistence.pool.max-size:50}")
+    private int maxSize;
+
+    @Value("${persistence.pool.sample-interval:250}")
+    private long sampleIntervalMillis;
+
+    @Value("${persistence.pool.resize-interval:10s}")
+    private Duration resizeInterval;
+
+    @Value("${persistence.pool.target-acquire-wait:5ms}")
+    private Duration targetAcquireWait;
+
+    @Value("${persistence.pool.db-connection-reserve:10}")
+    private int dbConnectionReserve;
+
+    @Value("${persistence.pool.instances:1}")
+    private int instances;
+
+    @Value("${persistence.pool.saturation-alert-after:30s}")
+    private Duration saturationAlertAfter;
+
+    private HikariDataSource pool;
+    private ScheduledExecutorService sampler;
+    private int ceiling;
+    private Counter grown;
+    private Counter shrunk;
+    private Counter saturationAlerts;
+
+    // Sampling state: only touched by the sampler thread, published through the volatiles below
+    private long windowStart;
+    private int samples;
+    private int saturatedSamples;
+    private int peakActive;
+    private long acquisitionsAtWindowStart;
+    private long acquireNanosAtWindowStart;
+    private long timeoutsAtWindowStart;
+    private long saturatedSince;
+
+    private volatile int lastWaiting;
+    private volatile double lastMeanAcquireMillis;
+    private volatile boolean saturationAlert;
+    private volatile long saturationStartedAtMillis;
+
+    public AdaptivePoolController(DataSource dataSource, PoolMetricsTrackerFactory poolMetrics,
+                                  MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.poolMetrics = poolMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+            log.info("DataSource is not HikariCP, adaptive pool sizing disabled");
+            return;
+        }
+        pool = hikariDataSource;
+        int budget = databaseConnectionBudget();
+        ceiling = Math.max(minSize, Math.min(maxSize, budget));
+        log.info("Adaptive pool sizing {}: {}..{} connections (database budget {}), currently {}",
+                adaptive ? "enabled" : "disabled (sampling only)", minSize, ceiling, budget, pool.getMaximumPoolSize());
+        if (adaptive && pool.getMaximumPoolSize() > ceiling) {
+            pool.getHikariConfigMXBean().setMinimumIdle(Math.min(pool.getMinimumIdle(), ceiling));
+            pool.getHikariConfigMXBean().setMaximumPoolSize(ceiling);
+        }
+
+        grown = Counter.builder("datasource.pool.resize").tag("direction", "grow").register(meterRegistry);
+        shrunk = Counter.builder("datasource.pool.resize").tag("direction", "shrink").register(meterRegistry);
+        saturationAlerts = Counter.builder("datasource.pool.saturation.alerts")
+                .description("Times the pool stayed saturated for saturation-alert-after")
+                .register(meterRegistry);
+        Gauge.builder("datasource.pool.max", pool, HikariDataSource::getMaximumPoolSize)
+                .description("Current maximum pool size chosen by the adaptive controller")
+                .register(meterRegistry);
+        Gauge.builder("datasource.pool.ceiling", this, controller -> controller.ceiling)
+                .register(meterRegistry);
+        Gauge.builder("datasource.pool.saturated", this, controller -> controller.saturationAlert ? 1 : 0)
+                .register(meterRegistry);
+
+        startWindow(System.nanoTime());
+        sampler = Executors.newSingleThreadScheduledExecutor(
+                task -> Thread.ofPlatform().name("datasource-pool-sampler").daemon().unstarted(task));
+        sampler.scheduleAtFixedRate(this::sampleSafely, sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            // An exception would cancel every later run of a periodic task
+            log.warn("Connection pool sample failed: {}", e.getMessage());
+        }
+    }
+
+    void sample() {
+        HikariPoolMXBean stats = pool != null ? pool.getHikariPoolMXBean() : null;
+        if (stats == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        int waiting = stats.getThreadsAwaitingConnection();
+        lastWaiting = waiting;
+        samples++;
+        peakActive = Math.max(peakActive, stats.getActiveConnections());
+        if (waiting > 0) {
+            saturatedSamples++;
+        }
+        trackSaturation(waiting > 0, now);
+
+        if (now - windowStart >= resizeInterval.toNanos()) {
+            endWindow(now);
+        }
+    }
+
+    private void trackSaturation(boolean saturated, long now) {
+        if (!saturated) {
+            if (saturationAlert) {
+                log.info("Connection pool {} no longer saturated", pool.getPoolName());
+            }
+            saturatedSince = 0;
+            saturationAlert = false;
+            return;
+        }
+        if (saturatedSince == 0) {
+            saturatedSince = now;
+            saturationStartedAtMillis = System.currentTimeMillis();
+        } else if (!saturationAlert && now - saturatedSince >= saturationAlertAfter.toNanos()) {
+            saturationAlert = true;
+            saturationAlerts.increment();
+            log.warn("Connection pool {} saturated for {}s: {} threads waiting, max size {} of ceiling {}",
+                    pool.getPoolName(), saturationAlertAfter.toSeconds(), lastWaiting, pool.getMaximumPoolSize(), ceiling);
+        }
+    }
+
+    private void endWindow(long now) {
+        long acquisitions = poolMetrics.acquisitions() - acquisitionsAtWindowStart;
+        long acquireNanos = poolMetrics.acquireNanos() - acquireNanosAtWindowStart;
+        long timeouts = poolMetrics.timeouts() - timeoutsAtWindowStart;
+        double meanAcquireNanos = acquisitions > 0 ? (double) acquireNanos / acquisitions : 0.0;
+        lastMeanAcquireMillis = meanAcquireNanos / 1_000_000.0;
+
+        if (adaptive) {
+            resize(meanAcquireNanos, timeouts, (double) saturatedSamples / Math.max(1, samples));
+        }
+        startWindow(now);
+    }
+
+    private void resize(double meanAcquireNanos, long timeouts, double saturatedShare) {
+        int current = pool.getMaximumPoolSize();
+        long target = targetAcquireWait.toNanos();
+        int next = current;
+        if (timeouts > 0 || meanAcquireNanos > target || saturatedShare > SATURATED_SAMPLE_SHARE) {
+            next = Math.min(ceiling, current + Math.max(1, current / 4));
+        } else if (saturatedSamples == 0 && meanAcquireNanos < target / 2.0 && peakActive * 2 <= current) {
+            next = Math.max(minSize, current - 1);
+        }
+        if (next == current) {
+            return;
+        }
+
+        // Hikari rejects a minimum above the maximum, so lower the minimum first when shrinking below it
+        if (pool.getMinimumIdle() > next) {
+            pool.getHikariConfigMXBean().setMinimumIdle(next);
+        }
+        pool.getHikariConfigMXBean().setMaximumPoolSize(next);
+        (next > current ? grown : shrunk).increment();
+        log.info("Resized connection pool {} from {} to {} (mean acquire {} ms, {} timeouts, queued in {}% of samples, peak active {})",
+                pool.getPoolName(), current, next, String.format("%.2f", meanAcquireNanos / 1_000_000.0), timeouts,
+                Math.round(saturatedShare * 100), peakActive);
+    }
+
+    private void startWindow(long now) {
+        windowStart = now;
+        samples = 0;
+        saturatedSamples = 0;
+        peakActive = 0;
+        acquisitionsAtWindowStart = poolMetrics.acquisitions();
+        acquireNanosAtWindowStart = poolMetrics.acquireNanos();
+        timeoutsAtWindowStart = poolMetrics.timeouts();
+    }
+
+    /**
+     * This node's share of the database's connection limit, or the configured maximum if the
+     * database cannot tell (not PostgreSQL, or unreachable at startup)
+     */
+    private int databaseConnectionBudget() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT current_setting('max_connections')::int")) {
+            if (resultSet.next()) {
+                return Math.max(1, (resultSet.getInt(1) - dbConnectionReserve) / Math.max(1, instances));
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read max_connections, capping the pool at persistence.pool.max-size: {}", e.getMessage());
+        }
+        return maxSize;
+    }
+
+    public boolean isSaturationAlert() {
+        return saturationAlert;
+    }
+
+    /**
+     * Controller state for the health indicator and the datasource admin endpoint
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("adaptive", adaptive && pool != null);
+        if (pool == null) {
+            return status;
+        }
+        status.put("maximumPoolSize", pool.getMaximumPoolSize());
+        status.put("minSize", minSize);
+        status.put("ceiling", ceiling);
+        status.put("threadsAwaitingConnection", lastWaiting);
+        status.put("meanAcquireMillis", lastMeanAcquireMillis);
+        status.put("saturated", saturationAlert);
+        if (saturationAlert) {
+            status.put("saturatedSinceMillis", saturationStartedAtMillis);
+        }
+        return status;
+    }
+}
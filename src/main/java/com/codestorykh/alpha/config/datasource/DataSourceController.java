@@ -23,14 +23,17 @@ public class DataSourceController {
     private final DataSource dataSource;
     private final DataSourceHealthIndicator healthIndicator;
     private final DataSourceMonitoringConfig.DataSourceMetrics metrics;
+    private final AdaptivePoolController adaptivePoolController;
 
     @Autowired
     public DataSourceController(DataSource dataSource, 
                               DataSourceHealthIndicator healthIndicator,
-                              DataSourceMonitoringConfig.DataSourceMetrics metrics) {
+                              DataSourceMonitoringConfig.DataSourceMetrics metrics,
+                              AdaptivePoolController adaptivePoolController) {
         this.dataSource = dataSource;
         this.healthIndicator = healthIndicator;
         this.metrics = metrics;
+        this.adaptivePoolController = adaptivePoolController;
     }
 
     @GetMapping("/health")
@@ -60,6 +63,8 @@ public class DataSourceController {
                 status.put("autoCommit", hikariDataSource.isAutoCommit());
                 status.put("readOnly", hikariDataSource.isReadOnly());
                 status.put("initializationFailTimeout", hikariDataSource.getInitializationFailTimeout());
+                status.put("threadsAwaitingConnection", hikariDataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+                status.put("adaptivePool", adaptivePoolController.status());
                 
                 // Calculate usage percentage
                 double usagePercentage = (double) hikariDataSource.getHikariPoolMXBean().getActiveConnections() 
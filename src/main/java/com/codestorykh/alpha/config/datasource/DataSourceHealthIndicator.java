@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
@@ -14,30 +15,29 @@ import java.sql.SQLException;
 @Slf4j
 public class DataSourceHealthIndicator implements HealthIndicator {
 
+    /** Pool queueing for longer than persistence.pool.saturation-alert-after; ordered between DOWN and UP */
+    public static final Status SATURATED = new Status("SATURATED", "Threads are queueing for database connections");
+
     private final DataSource dataSource;
+    private final AdaptivePoolController adaptivePoolController;
 
-    public DataSourceHealthIndicator(DataSource dataSource) {
+    public DataSourceHealthIndicator(DataSource dataSource, AdaptivePoolController adaptivePoolController) {
         this.dataSource = dataSource;
+        this.adaptivePoolController = adaptivePoolController;
     }
 
     @Override
     public Health health() {
+        // A saturated pool would make the check below queue for a connection like everyone else
+        if (adaptivePoolController.isSaturationAlert()) {
+            return withPoolDetails(Health.status(SATURATED).withDetail("database", "Available")).build();
+        }
         try (Connection connection = dataSource.getConnection()) {
             if (connection.isValid(5)) {
                 Health.Builder builder = Health.up()
                         .withDetail("database", "Available")
                         .withDetail("connection", "Valid");
-
-                // Add HikariCP specific metrics if available
-                if (dataSource instanceof HikariDataSource hikariDataSource) {
-                    builder.withDetail("pool.active", hikariDataSource.getHikariPoolMXBean().getActiveConnections())
-                            .withDetail("pool.idle", hikariDataSource.getHikariPoolMXBean().getIdleConnections())
-                            .withDetail("pool.total", hikariDataSource.getHikariPoolMXBean().getTotalConnections())
-                            .withDetail("pool.max", hikariDataSource.getMaximumPoolSize())
-                            .withDetail("pool.min", hikariDataSource.getMinimumIdle());
-                }
-
-                return builder.build();
+                return withPoolDetails(builder).build();
             } else {
                 return Health.down()
                         .withDetail("database", "Unavailable")
@@ -52,4 +52,18 @@ public class DataSourceHealthIndicator implements HealthIndicator {
                     .build();
         }
     }
-} 
\ No newline at end of file
+
+    private Health.Builder withPoolDetails(Health.Builder builder) {
+        // Add HikariCP specific metrics if available
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            builder.withDetail("pool.active", hikariDataSource.getHikariPoolMXBean().getActiveConnections())
+                    .withDetail("pool.idle", hikariDataSource.getHikariPoolMXBean().getIdleConnections())
+                    .withDetail("pool.total", hikariDataSource.getHikariPoolMXBean().getTotalConnections())
+                    .withDetail("pool.max", hikariDataSource.getMaximumPoolSize())
+                    .withDetail("pool.min", hikariDataSource.getMinimumIdle())
+                    .withDetail("pool.waiting", hikariDataSource.getHikariPoolMXBean().getThreadsAwaitingConnection())
+                    .withDetail("pool.adaptive", adaptivePoolController.status());
+        }
+        return builder;
+    }
+}
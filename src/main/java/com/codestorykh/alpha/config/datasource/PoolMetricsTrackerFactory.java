@@ -0,0 +1,96 @@
+package com.codestorykh.alpha.config.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker: keeps the standard {@code hikaricp.*} meters and adds a
+ * {@code datasource.pool.acquire} histogram of connection acquire latency, plus the running
+ * acquire and timeout totals {@link AdaptivePoolController} sizes the pool from.
+ * <p>
+ * Has to be set on the pool configuration before the pool starts.
+ */
+@Component
+public class PoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final MicrometerMetricsTrackerFactory delegate;
+    private final Timer acquireTimer;
+    private final Counter timeoutCounter;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public PoolMetricsTrackerFactory(MeterRegistry meterRegistry) {
+        this.delegate = new MicrometerMetricsTrackerFactory(meterRegistry);
+        this.acquireTimer = Timer.builder("datasource.pool.acquire")
+                .description("Time to get a connection from the pool")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("datasource.pool.acquire.timeouts")
+                .description("Connection requests that gave up after connection-timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        IMetricsTracker tracker = delegate.create(poolName, poolStats);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                tracker.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                tracker.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+                acquireTimer.record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+                acquisitions.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                tracker.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                tracker.recordConnectionTimeout();
+                timeoutCounter.increment();
+                timeouts.increment();
+            }
+
+            @Override
+            public void close() {
+                tracker.close();
+            }
+        };
+    }
+
+    /** Connections handed out since start */
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    /** Total time callers spent waiting for those connections */
+    public long acquireNanos() {
+        return acquireNanos.sum();
+    }
+
+    /** Connection requests that timed out since start */
+    public long timeouts() {
+        return timeouts.sum();
+    }
+}
@@ -1,6 +1,8 @@
 package com.codestorykh.alpha.config.datasource.properties;
 
+import com.codestorykh.alpha.config.datasource.AdaptivePoolController;
 import com.codestorykh.alpha.config.datasource.DataSourceHealthIndicator;
+import com.codestorykh.alpha.config.datasource.PoolMetricsTrackerFactory;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
@@ -89,7 +91,7 @@ public class DataSourceProperties {
     @Bean
     @Primary
     @ConditionalOnProperty(name = "spring.datasource.type", havingValue = "com.zaxxer.hikari.HikariDataSource", matchIfMissing = true)
-    public DataSource dataSource() {
+    public DataSource dataSource(PoolMetricsTrackerFactory poolMetricsTrackerFactory) {
         log.info("Configuring HikariCP datasource for URL: {}", url);
         
         HikariConfig config = new HikariConfig();
@@ -114,6 +116,8 @@ public class DataSourceProperties {
         config.setAllowPoolSuspension(allowPoolSuspension);
         config.setReadOnly(readOnly);
         config.setInitializationFailTimeout(initializationFailTimeout);
+        // Acquire latency for the adaptive pool controller; the pool cannot take it once started
+        config.setMetricsTrackerFactory(poolMetricsTrackerFactory);
         
         // Connection test query
         if (connectionTestQuery != null && !connectionTestQuery.trim().isEmpty()) {
@@ -153,6 +157,8 @@ public class DataSourceProperties {
             config.addDataSourceProperty("cacheServerConfiguration", "true");
             config.addDataSourceProperty("elideSetAutoCommits", "true");
             config.addDataSourceProperty("maintainTimeStats", "false");
+            // pgjdbc only collapses batched INSERTs into multi-row statements with this flag
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
         }
         
         // MySQL specific optimizations
@@ -186,7 +192,8 @@ public class DataSourceProperties {
     }
 
     @Bean
-    public DataSourceHealthIndicator dataSourceHealthIndicator(DataSource dataSource) {
-        return new DataSourceHealthIndicator(dataSource);
+    public DataSourceHealthIndicator dataSourceHealthIndicator(DataSource dataSource,
+                                                               AdaptivePoolController adaptivePoolController) {
+        return new DataSourceHealthIndicator(dataSource, adaptivePoolController);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,330 @@
+package com.codestorykh.alpha.config.seed;
+
+import com.codestorykh.alpha.common.repository.SequenceIdAllocator;
+import com.codestorykh.alpha.config.seed.SeedDataset.ClientSeed;
+import com.codestorykh.alpha.config.seed.SeedDataset.GroupSeed;
+import com.codestorykh.alpha.config.seed.SeedDataset.PermissionSeed;
+import com.codestorykh.alpha.config.seed.SeedDataset.RoleSeed;
+import com.codestorykh.alpha.config.seed.SeedDataset.UserSeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Writes a {@link SeedDataset} with plain JDBC: ids are reserved from the table sequences up front, so
+ * every table and join table is filled with one batched statement instead of an insert per entity.
+ * <p>
+ * Entries are matched by natural key. Missing ones are inserted, and existing rows are left as they are,
+ * so local edits (a changed password, a disabled client) survive a changed seed file. Relationships
+ * are inserted with {@code ON CONFLICT DO NOTHING}, so links added to the file reach existing rows too.
+ * Passwords and client secrets are only hashed for rows that are actually inserted, on
+ * {@code identity.seed.hash-threads} threads. The group closure table is not written here;
+ * {@code GroupHierarchyInitializer} rebuilds it once startup is done.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeedDataWriter {
+
+    private static final String INSERT_PERMISSION_SQL =
+            "INSERT INTO permissions (id, name, description, resource, action, enabled, is_system_permission, " +
+            "created_at, updated_at, version, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, true)";
+
+    private static final String INSERT_ROLE_SQL =
+            "INSERT INTO roles (id, name, description, enabled, is_system_role, created_at, updated_at, version, active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 0, true)";
+
+    private static final String INSERT_GROUP_SQL =
+            "INSERT INTO groups (id, name, description, enabled, is_system_group, parent_group_id, " +
+            "created_at, updated_at, version, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, true)";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, username, email, password, first_name, last_name, phone_number, status, " +
+            "enabled, account_non_expired, account_non_locked, credentials_non_expired, email_verified, " +
+            "phone_verified, failed_login_attempts, created_at, updated_at, version, active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, 0, true)";
+
+    private static final String INSERT_CLIENT_SQL =
+            "INSERT INTO oauth2_clients (id, client_id, client_secret, client_name, description, enabled, " +
+            "require_proof_key, require_authorization_consent, access_token_validity_seconds, " +
+            "refresh_token_validity_seconds, token_endpoint_auth_method, usage_count, created_at, updated_at, " +
+            "version, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, 0, true)";
+
+    private static final String INSERT_CLIENT_SCOPE_SQL =
+            "INSERT INTO oauth2_client_scopes (client_id, scope) VALUES (?, ?)";
+    private static final String INSERT_CLIENT_REDIRECT_URI_SQL =
+            "INSERT INTO oauth2_client_redirect_uris (client_id, redirect_uri) VALUES (?, ?)";
+    private static final String INSERT_CLIENT_GRANT_TYPE_SQL =
+            "INSERT INTO oauth2_client_grant_types (client_id, grant_type) VALUES (?, ?)";
+
+    private static final String INSERT_ROLE_PERMISSION_SQL =
+            "INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_GROUP_PERMISSION_SQL =
+            "INSERT INTO group_permissions (group_id, permission_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_USER_ROLE_SQL =
+            "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_USER_GROUP_SQL =
+            "INSERT INTO user_groups (user_id, group_id) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator idAllocator;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${identity.seed.hash-threads:0}")
+    private int hashThreads;
+
+    /**
+     * Inserts whatever the database is missing from the dataset. Has to run inside a transaction so a
+     * failing batch leaves nothing behind.
+     *
+     * @return rows inserted per table, join tables included
+     */
+    public Map<String, Integer> apply(SeedDataset dataset) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, Integer> inserted = new LinkedHashMap<>();
+
+        Map<String, Long> permissionIds = existingIds("permissions", "name", names(dataset.permissions(), PermissionSeed::name));
+        inserted.put("permissions", insertPermissions(dataset.permissions(), permissionIds, now));
+
+        Map<String, Long> roleIds = existingIds("roles", "name", names(dataset.roles(), RoleSeed::name));
+        inserted.put("roles", insertRoles(dataset.roles(), roleIds, now));
+
+        Map<String, Long> groupIds = existingIds("groups", "name", referencedGroups(dataset.groups()));
+        inserted.put("groups", insertGroups(dataset.groups(), groupIds, now));
+
+        Map<String, Long> userIds = existingIds("users", "username", names(dataset.users(), UserSeed::username));
+        inserted.put("users", insertUsers(dataset.users(), userIds, now));
+
+        Map<String, Long> clientIds = existingIds("oauth2_clients", "client_id", names(dataset.clients(), ClientSeed::clientId));
+        inserted.put("oauth2_clients", insertClients(dataset.clients(), clientIds, now));
+
+        List<Object[]> rolePermissions = new ArrayList<>();
+        for (RoleSeed role : dataset.roles()) {
+            link(rolePermissions, roleIds.get(role.name()), role.permissions(), permissionIds, "Role " + role.name());
+        }
+        List<Object[]> groupPermissions = new ArrayList<>();
+        for (GroupSeed group : dataset.groups()) {
+            link(groupPermissions, groupIds.get(group.name()), group.permissions(), permissionIds, "Group " + group.name());
+        }
+        List<Object[]> userRoles = new ArrayList<>();
+        List<Object[]> userGroups = new ArrayList<>();
+        for (UserSeed user : dataset.users()) {
+            link(userRoles, userIds.get(user.username()), user.roles(), roleIds, "User " + user.username());
+            link(userGroups, userIds.get(user.username()), user.groups(), groupIds, "User " + user.username());
+        }
+        inserted.put("role_permissions", batchInsert(INSERT_ROLE_PERMISSION_SQL, rolePermissions));
+        inserted.put("group_permissions", batchInsert(INSERT_GROUP_PERMISSION_SQL, groupPermissions));
+        inserted.put("user_roles", batchInsert(INSERT_USER_ROLE_SQL, userRoles));
+        inserted.put("user_groups", batchInsert(INSERT_USER_GROUP_SQL, userGroups));
+        return inserted;
+    }
+
+    // ==================== Entities ====================
+
+    private int insertPermissions(List<PermissionSeed> seeds, Map<String, Long> ids, Timestamp now) {
+        List<PermissionSeed> missing = seeds.stream().filter(seed -> !ids.containsKey(seed.name())).toList();
+        long[] newIds = idAllocator.allocate("permissions", missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            PermissionSeed seed = missing.get(i);
+            ids.put(seed.name(), newIds[i]);
+            args.add(new Object[]{newIds[i], seed.name(), seed.description(), seed.resource(), seed.action(),
+                    seed.enabled(), seed.systemPermission(), now, now});
+        }
+        return batchInsert(INSERT_PERMISSION_SQL, args);
+    }
+
+    private int insertRoles(List<RoleSeed> seeds, Map<String, Long> ids, Timestamp now) {
+        List<RoleSeed> missing = seeds.stream().filter(seed -> !ids.containsKey(seed.name())).toList();
+        long[] newIds = idAllocator.allocate("roles", missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            RoleSeed seed = missing.get(i);
+            ids.put(seed.name(), newIds[i]);
+            args.add(new Object[]{newIds[i], seed.name(), seed.description(), seed.enabled(), seed.systemRole(), now, now});
+        }
+        return batchInsert(INSERT_ROLE_SQL, args);
+    }
+
+    /** Rows go in list order, so a parent listed earlier exists by the time its children are inserted */
+    private int insertGroups(List<GroupSeed> seeds, Map<String, Long> ids, Timestamp now) {
+        List<GroupSeed> missing = seeds.stream().filter(seed -> !ids.containsKey(seed.name())).toList();
+        long[] newIds = idAllocator.allocate("groups", missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            GroupSeed seed = missing.get(i);
+            Long parentId = null;
+            if (seed.parent() != null) {
+                parentId = ids.get(seed.parent());
+                if (parentId == null) {
+                    throw new IllegalArgumentException("Group " + seed.name() + ": parent " + seed.parent()
+                            + " has to exist or be listed before it");
+                }
+            }
+            ids.put(seed.name(), newIds[i]);
+            args.add(new Object[]{newIds[i], seed.name(), seed.description(), seed.enabled(), seed.systemGroup(),
+                    parentId, now, now});
+        }
+        return batchInsert(INSERT_GROUP_SQL, args);
+    }
+
+    private int insertUsers(List<UserSeed> seeds, Map<String, Long> ids, Timestamp now) {
+        List<UserSeed> missing = seeds.stream().filter(seed -> !ids.containsKey(seed.username())).toList();
+        List<String> hashes = hash(missing, UserSeed::passwordHash, UserSeed::password, UserSeed::username);
+        long[] newIds = idAllocator.allocate("users", missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            UserSeed seed = missing.get(i);
+            ids.put(seed.username(), newIds[i]);
+            args.add(new Object[]{newIds[i], seed.username(), seed.email(), hashes.get(i), seed.firstName(),
+                    seed.lastName(), seed.phoneNumber(), seed.status().name(), seed.enabled(),
+                    seed.accountNonExpired(), seed.accountNonLocked(), seed.credentialsNonExpired(),
+                    seed.emailVerified(), seed.phoneVerified(), now, now});
+        }
+        return batchInsert(INSERT_USER_SQL, args);
+    }
+
+    private int insertClients(List<ClientSeed> seeds, Map<String, Long> ids, Timestamp now) {
+        List<ClientSeed> missing = seeds.stream().filter(seed -> !ids.containsKey(seed.clientId())).toList();
+        List<String> hashes = hash(missing, ClientSeed::clientSecretHash, ClientSeed::clientSecret, ClientSeed::clientId);
+        long[] newIds = idAllocator.allocate("oauth2_clients", missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        List<Object[]> scopes = new ArrayList<>();
+        List<Object[]> redirectUris = new ArrayList<>();
+        List<Object[]> grantTypes = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i++) {
+            ClientSeed seed = missing.get(i);
+            long id = newIds[i];
+            ids.put(seed.clientId(), id);
+            args.add(new Object[]{id, seed.clientId(), hashes.get(i), seed.clientName(), seed.description(),
+                    seed.enabled(), seed.requireProofKey(), seed.requireAuthorizationConsent(),
+                    seed.accessTokenValiditySeconds(), seed.refreshTokenValiditySeconds(),
+                    seed.tokenEndpointAuthMethod().name(), now, now});
+            seed.scopes().stream().distinct().forEach(scope -> scopes.add(new Object[]{id, scope}));
+            seed.redirectUris().stream().distinct().forEach(uri -> redirectUris.add(new Object[]{id, uri}));
+            seed.grantTypes().stream().distinct().forEach(grantType -> grantTypes.add(new Object[]{id, grantType.name()}));
+        }
+        int inserted = batchInsert(INSERT_CLIENT_SQL, args);
+        // Collections only for new clients: existing ones keep whatever was configured since
+        batchInsert(INSERT_CLIENT_SCOPE_SQL, scopes);
+        batchInsert(INSERT_CLIENT_REDIRECT_URI_SQL, redirectUris);
+        batchInsert(INSERT_CLIENT_GRANT_TYPE_SQL, grantTypes);
+        return inserted;
+    }
+
+    // ==================== Helpers ====================
+
+    private static <T> List<String> names(List<T> seeds, Function<T, String> key) {
+        return seeds.stream().map(key).toList();
+    }
+
+    /** Group names defined or used as a parent, so parents outside the file are found too */
+    private static List<String> referencedGroups(List<GroupSeed> seeds) {
+        Set<String> names = new LinkedHashSet<>();
+        for (GroupSeed seed : seeds) {
+            names.add(seed.name());
+            if (seed.parent() != null) {
+                names.add(seed.parent());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /** Natural key to id for the rows that already exist, in one query per table */
+    private Map<String, Long> existingIds(String table, String keyColumn, List<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        if (keys.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + keyColumn + ", id FROM " + table + " WHERE " + keyColumn + " = ANY(?)");
+            Array array = connection.createArrayOf("varchar", keys.toArray());
+            statement.setArray(1, array);
+            return statement;
+        }, resultSet -> {
+            ids.put(resultSet.getString(1), resultSet.getLong(2));
+        });
+        return ids;
+    }
+
+    private static void link(List<Object[]> rows, Long ownerId, List<String> targets, Map<String, Long> targetIds,
+                             String owner) {
+        for (String target : new LinkedHashSet<>(targets)) {
+            Long targetId = targetIds.get(target);
+            if (targetId == null) {
+                throw new IllegalArgumentException(owner + " refers to unknown " + target);
+            }
+            rows.add(new Object[]{ownerId, targetId});
+        }
+    }
+
+    private int batchInsert(String sql, List<Object[]> args) {
+        if (args.isEmpty()) {
+            return 0;
+        }
+        int inserted = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, args)) {
+            // ON CONFLICT DO NOTHING reports 0 for rows that were already there
+            inserted += Math.max(count, 0);
+        }
+        return inserted;
+    }
+
+    /**
+     * Takes the precomputed hash where the seed has one and BCrypt-encodes the rest in parallel:
+     * at ~100 ms a hash, encoding the seed users one after the other is most of the seeding time.
+     */
+    private <T> List<String> hash(List<T> seeds, Function<T, String> precomputed, Function<T, String> raw,
+                                  Function<T, String> key) {
+        List<String> hashes = new ArrayList<>(Collections.nCopies(seeds.size(), null));
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < seeds.size(); i++) {
+            T seed = seeds.get(i);
+            if (precomputed.apply(seed) != null) {
+                hashes.set(i, precomputed.apply(seed));
+            } else if (raw.apply(seed) != null) {
+                pending.add(i);
+            } else {
+                throw new IllegalArgumentException(key.apply(seed) + " has neither a password nor a precomputed hash");
+            }
+        }
+        if (pending.isEmpty()) {
+            return hashes;
+        }
+
+        int threads = Math.min(pending.size(),
+                hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors());
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<String>> futures = new ArrayList<>(pending.size());
+            for (int index : pending) {
+                String password = raw.apply(seeds.get(index));
+                futures.add(executor.submit(() -> passwordEncoder.encode(password)));
+            }
+            for (int i = 0; i < pending.size(); i++) {
+                hashes.set(pending.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Seeding interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed while seeding", e.getCause());
+        }
+        log.debug("Hashed {} seed passwords on {} threads", pending.size(), threads);
+        return hashes;
+    }
+}
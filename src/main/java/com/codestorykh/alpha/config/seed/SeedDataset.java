@@ -0,0 +1,93 @@
+package com.codestorykh.alpha.config.seed;
+
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.oauth2.domain.GrantType;
+import com.codestorykh.alpha.oauth2.domain.TokenEndpointAuthMethod;
+
+import java.util.List;
+
+/**
+ * Declarative seed data read from {@code identity.seed.location}. Relationships refer to other entries
+ * by natural key (permission, role and group name); omitted flags take the entity defaults.
+ */
+public record SeedDataset(List<PermissionSeed> permissions,
+                          List<RoleSeed> roles,
+                          List<GroupSeed> groups,
+                          List<UserSeed> users,
+                          List<ClientSeed> clients) {
+
+    public SeedDataset {
+        permissions = permissions != null ? permissions : List.of();
+        roles = roles != null ? roles : List.of();
+        groups = groups != null ? groups : List.of();
+        users = users != null ? users : List.of();
+        clients = clients != null ? clients : List.of();
+    }
+
+    public record PermissionSeed(String name, String description, String resource, String action,
+                                 Boolean enabled, boolean systemPermission) {
+        public PermissionSeed {
+            enabled = enabled == null || enabled;
+        }
+    }
+
+    public record RoleSeed(String name, String description, Boolean enabled, boolean systemRole,
+                           List<String> permissions) {
+        public RoleSeed {
+            enabled = enabled == null || enabled;
+            permissions = permissions != null ? permissions : List.of();
+        }
+    }
+
+    /**
+     * @param parent name of the parent group, which must come earlier in the list or already exist
+     */
+    public record GroupSeed(String name, String description, Boolean enabled, boolean systemGroup,
+                            String parent, List<String> permissions) {
+        public GroupSeed {
+            enabled = enabled == null || enabled;
+            permissions = permissions != null ? permissions : List.of();
+        }
+    }
+
+    /**
+     * Either {@code password} (hashed while seeding) or a precomputed {@code passwordHash}
+     */
+    public record UserSeed(String username, String email, String password, String passwordHash,
+                           String firstName, String lastName, String phoneNumber, UserStatus status,
+                           Boolean enabled, Boolean accountNonExpired, Boolean accountNonLocked,
+                           Boolean credentialsNonExpired, boolean emailVerified, boolean phoneVerified,
+                           List<String> roles, List<String> groups) {
+        public UserSeed {
+            status = status != null ? status : UserStatus.ACTIVE;
+            enabled = enabled == null || enabled;
+            accountNonExpired = accountNonExpired == null || accountNonExpired;
+            accountNonLocked = accountNonLocked == null || accountNonLocked;
+            credentialsNonExpired = credentialsNonExpired == null || credentialsNonExpired;
+            roles = roles != null ? roles : List.of();
+            groups = groups != null ? groups : List.of();
+        }
+    }
+
+    /**
+     * Either {@code clientSecret} (hashed while seeding) or a precomputed {@code clientSecretHash}
+     */
+    public record ClientSeed(String clientId, String clientSecret, String clientSecretHash, String clientName,
+                             String description, List<String> redirectUris, List<String> scopes,
+                             List<GrantType> grantTypes, TokenEndpointAuthMethod tokenEndpointAuthMethod,
+                             boolean requireProofKey, Boolean requireAuthorizationConsent,
+                             Integer accessTokenValiditySeconds, Integer refreshTokenValiditySeconds,
+                             Boolean enabled) {
+        public ClientSeed {
+            redirectUris = redirectUris != null ? redirectUris : List.of();
+            scopes = scopes != null ? scopes : List.of();
+            grantTypes = grantTypes != null ? grantTypes : List.of();
+            tokenEndpointAuthMethod = tokenEndpointAuthMethod != null
+                    ? tokenEndpointAuthMethod : TokenEndpointAuthMethod.CLIENT_SECRET_BASIC;
+            requireAuthorizationConsent = requireAuthorizationConsent == null || requireAuthorizationConsent;
+            accessTokenValiditySeconds = accessTokenValiditySeconds != null ? accessTokenValiditySeconds : 3600;
+            refreshTokenValiditySeconds = refreshTokenValiditySeconds != null ? refreshTokenValiditySeconds : 86400;
+            enabled = enabled == null || enabled;
+        }
+    }
+}
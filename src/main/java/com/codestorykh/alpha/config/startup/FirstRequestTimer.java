@@ -0,0 +1,62 @@
+package com.codestorykh.alpha.config.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures time-to-first-request: from JVM start to the end of the first response outside
+ * {@code /actuator}, so probes and scrapes do not count. Logged once and published as the
+ * {@code application.first.request.time} gauge next to Spring Boot's {@code application.ready.time}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+    private volatile long firstRequestMillis = -1;
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return recorded.get() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (recorded.compareAndSet(false, true)) {
+                long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+                firstRequestMillis = System.currentTimeMillis() - jvmStart;
+                TimeGauge.builder("application.first.request.time", this, TimeUnit.MILLISECONDS,
+                                timer -> timer.firstRequestMillis)
+                        .description("Time from JVM start until the first request was served")
+                        .register(meterRegistry);
+                log.info("First request ({} {} -> {}) served {} ms after JVM start", request.getMethod(),
+                        request.getRequestURI(), response.getStatus(), firstRequestMillis);
+            }
+        }
+    }
+}
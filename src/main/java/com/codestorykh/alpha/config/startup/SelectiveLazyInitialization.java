@@ -0,0 +1,54 @@
+package com.codestorykh.alpha.config.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * With {@code startup.lazy-admin-controllers=true}, leaves the admin, cache, configuration and
+ * datasource controllers uninstantiated until their first request. Spring MVC still registers their
+ * mappings at startup from the bean type; only the controller and the services it alone pulls in
+ * are created late. The token and identity endpoints stay eager so the first real request does not
+ * pay for them.
+ */
+@Component
+@Slf4j
+public class SelectiveLazyInitialization implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final List<String> LAZY_PREFIXES = List.of(
+            "com.codestorykh.alpha.admin.controller.",
+            "com.codestorykh.alpha.cache.controller.",
+            "com.codestorykh.alpha.config.controller.",
+            "com.codestorykh.alpha.config.datasource.DataSourceController");
+
+    private boolean enabled;
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        enabled = environment.getProperty("startup.lazy-admin-controllers", Boolean.class, false);
+    }
+
+    @Override
+    public void postProcessBeanFactory(@NonNull ConfigurableListableBeanFactory beanFactory) {
+        if (!enabled) {
+            return;
+        }
+        int lazy = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            String className = definition.getBeanClassName();
+            if (className != null && LAZY_PREFIXES.stream().anyMatch(className::startsWith)) {
+                definition.setLazyInit(true);
+                lazy++;
+            }
+        }
+        log.info("Deferred creation of {} admin controllers to their first request", lazy);
+    }
+}
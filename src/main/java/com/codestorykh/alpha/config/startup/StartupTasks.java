@@ -0,0 +1,108 @@
+package com.codestorykh.alpha.config.startup;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the startup work (seeding, JWT self-test, group hierarchy check) either inline, as before,
+ * or with {@code startup.defer-initialization=true} one after the other on a background thread.
+ * <p>
+ * Deferred tasks no longer hold up startup; instead this indicator, part of the readiness group,
+ * reports {@code OUT_OF_SERVICE} until they are done and {@code DOWN} if one of them failed, so no
+ * traffic is routed here before the data is in place.
+ */
+@Component("startupTasks")
+@Slf4j
+public class StartupTasks implements HealthIndicator {
+
+    private final boolean deferred;
+    private final ExecutorService executor;
+    private final Map<String, TaskState> tasks = new LinkedHashMap<>();
+
+    public StartupTasks(@Value("${startup.defer-initialization:false}") boolean deferred) {
+        this.deferred = deferred;
+        // One thread, so tasks run in submission order: the hierarchy check must see the seeded groups
+        this.executor = deferred
+                ? Executors.newSingleThreadExecutor(task -> Thread.ofPlatform().name("startup-tasks").daemon().unstarted(task))
+                : null;
+    }
+
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Runs the task now, or queues it when startup work is deferred. Inline, exceptions propagate to
+     * the caller; deferred, they mark the task failed.
+     */
+    public void run(String name, Runnable task) {
+        if (!deferred) {
+            task.run();
+            return;
+        }
+        TaskState state = new TaskState();
+        synchronized (tasks) {
+            tasks.put(name, state);
+        }
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+                state.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                log.info("Startup task {} finished in {} ms", name, state.durationMillis);
+            } catch (RuntimeException e) {
+                state.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+                log.error("Startup task {} failed, instance stays out of the readiness group", name, e);
+            } finally {
+                state.done = true;
+            }
+        });
+        log.info("Startup task {} deferred", name);
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        boolean pending = false;
+        boolean failed = false;
+        synchronized (tasks) {
+            for (Map.Entry<String, TaskState> entry : tasks.entrySet()) {
+                TaskState state = entry.getValue();
+                if (!state.done) {
+                    pending = true;
+                    details.put(entry.getKey(), "pending");
+                } else if (state.error != null) {
+                    failed = true;
+                    details.put(entry.getKey(), "failed: " + state.error);
+                } else {
+                    details.put(entry.getKey(), "done in " + state.durationMillis + " ms");
+                }
+            }
+        }
+        Health.Builder builder = failed ? Health.down() : pending ? Health.outOfService() : Health.up();
+        return builder.withDetail("deferred", deferred).withDetails(details).build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class TaskState {
+        private volatile boolean done;
+        private volatile long durationMillis;
+        private volatile String error;
+    }
+}
@@ -0,0 +1,35 @@
+package com.codestorykh.alpha.exception;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exception thrown when a request, transaction or test scope ran more SQL statements than its budget
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private final String scope;
+    private final int statements;
+    private final int budget;
+
+    public QueryBudgetExceededException(String scope, int statements, int budget,
+                                        List<Map.Entry<String, Integer>> repeatedStatements) {
+        super(String.format("%s ran %d SQL statements, budget is %d%s", scope, statements, budget,
+                repeatedStatements.isEmpty() ? "" : "; repeated: " + repeatedStatements));
+        this.scope = scope;
+        this.statements = statements;
+        this.budget = budget;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getBudget() {
+        return budget;
+    }
+}
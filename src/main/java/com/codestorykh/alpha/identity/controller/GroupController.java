@@ -1,6 +1,7 @@
 package com.codestorykh.alpha.identity.controller;
 
 import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.Permission;
 import com.codestorykh.alpha.identity.dto.GroupDTO;
 import com.codestorykh.alpha.identity.service.GroupService;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/groups")
@@ -107,6 +109,31 @@ public class GroupController {
         return ResponseEntity.ok(groupService.findChildGroups(parentId));
     }
 
+    @GetMapping("/{id}/ancestors")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER')")
+    public ResponseEntity<List<Group>> getAncestors(@PathVariable Long id) {
+        return ResponseEntity.ok(groupService.findAncestors(id));
+    }
+
+    @GetMapping("/{id}/descendants")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER')")
+    public ResponseEntity<List<Group>> getDescendants(@PathVariable Long id,
+                                                      @RequestParam(required = false) Integer maxDepth) {
+        return ResponseEntity.ok(groupService.findDescendants(id, maxDepth));
+    }
+
+    @GetMapping("/{id}/permissions/inherited")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER')")
+    public ResponseEntity<List<Permission>> getInheritedPermissions(@PathVariable Long id) {
+        return ResponseEntity.ok(groupService.findInheritedPermissions(id));
+    }
+
+    @PostMapping("/hierarchy/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildHierarchy() {
+        return ResponseEntity.ok(Map.of("paths", groupService.rebuildHierarchy()));
+    }
+
     @PostMapping("/{groupId}/permissions/{permissionId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> addPermissionToGroup(@PathVariable Long groupId, @PathVariable Long permissionId) {
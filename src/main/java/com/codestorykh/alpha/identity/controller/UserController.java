@@ -2,17 +2,27 @@ package com.codestorykh.alpha.identity.controller;
 
 import com.codestorykh.alpha.identity.domain.User;
 import com.codestorykh.alpha.identity.dto.UserDTO;
+import com.codestorykh.alpha.identity.dto.UserImportResult;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
+import com.codestorykh.alpha.identity.service.UserImportService;
 import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.service.TokenStorageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,6 +30,9 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final EffectivePermissionService effectivePermissionService;
+    private final TokenStorageService tokenStorageService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER')")
@@ -56,6 +69,17 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/sessions/revoke")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeAllSessions(@PathVariable Long id) {
+        return userService.findById(id)
+                .map(user -> {
+                    tokenStorageService.revokeAllTokensForUser(user.getUsername(), "revoked by administrator");
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{id}/enable")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> enableUser(@PathVariable Long id) {
@@ -102,6 +126,12 @@ public class UserController {
         return ResponseEntity.ok(userService.findByGroupName(groupName));
     }
 
+    @GetMapping("/{id}/effective-permissions")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER') or #id == authentication.principal.id")
+    public ResponseEntity<Set<String>> getEffectivePermissions(@PathVariable Long id) {
+        return ResponseEntity.ok(effectivePermissionService.getPermissionNames(id));
+    }
+
     @GetMapping("/{username}/account-status")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER_MANAGER') or #username == authentication.principal.username")
     public ResponseEntity<Object> getUserAccountStatus(@PathVariable String username) {
@@ -119,4 +149,36 @@ public class UserController {
         boolean isLocked = userService.isUserLocked(username);
         return ResponseEntity.ok(Map.of("username", username, "locked", isLocked));
     }
-} 
\ No newline at end of file
+
+    @PostMapping(value = "/import", consumes = "multipart/form-data")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResult> importUsers(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "USER") String defaultRole,
+            @RequestParam(defaultValue = "true") boolean async) throws IOException {
+        if (!async) {
+            try (InputStream inputStream = file.getInputStream()) {
+                return ResponseEntity.ok(userImportService.importUsers(inputStream, file.getOriginalFilename(), defaultRole));
+            }
+        }
+
+        // Spool to a temp file so the import can outlive the request
+        Path spooled = Files.createTempFile("user-import-", ".csv");
+        file.transferTo(spooled);
+        return ResponseEntity.accepted().body(userImportService.submitImport(spooled, file.getOriginalFilename(), defaultRole));
+    }
+
+    @GetMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserImportResult>> getRecentImports() {
+        return ResponseEntity.ok(userImportService.getRecentImports());
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResult> getImportStatus(@PathVariable String jobId) {
+        return userImportService.getImportStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,43 @@
+package com.codestorykh.alpha.identity.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Closure table of the group tree: one row per (ancestor, descendant) pair, including
+ * the zero-depth self row. Maintained by {@code GroupServiceImpl} on create, reparent
+ * and delete so ancestor/descendant lookups are a single indexed query.
+ */
+@Entity
+@Table(name = "group_closure", indexes = {
+    @Index(name = "idx_group_closure_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(GroupClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupClosure {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -1,6 +1,8 @@
 package com.codestorykh.alpha.identity.domain;
 
 import com.codestorykh.alpha.common.domain.BaseEntity;
+import com.codestorykh.alpha.security.authority.AuthorityCatalog;
+import com.codestorykh.alpha.security.authority.AuthoritySet;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -9,14 +11,14 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users", indexes = {
@@ -110,30 +112,27 @@ public class User extends BaseEntity implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Set<GrantedAuthority> authorities = new HashSet<>();
+        // Interned names, so the set is a bitset over shared authority instances
+        List<String> names = new ArrayList<>();
         
         // Add roles (roles are EAGER loaded, so this should be safe)
         if (roles != null) {
-            authorities.addAll(roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
-                .collect(Collectors.toSet()));
-            
-            // Add permissions from roles
-            authorities.addAll(roles.stream()
-                .filter(role -> role.getPermissions() != null)
-                .flatMap(role -> role.getPermissions().stream())
-                .map(permission -> new SimpleGrantedAuthority(permission.getName()))
-                .collect(Collectors.toSet()));
+            for (Role role : roles) {
+                names.add(AuthorityCatalog.ROLE_PREFIX + role.getName());
+                // Add permissions from roles
+                if (role.getPermissions() != null) {
+                    role.getPermissions().forEach(permission -> names.add(permission.getName()));
+                }
+            }
         }
         
         // Add permissions from groups (handle lazy loading carefully)
         if (groups != null) {
             try {
-                authorities.addAll(groups.stream()
+                groups.stream()
                     .filter(group -> group.getPermissions() != null)
                     .flatMap(group -> group.getPermissions().stream())
-                    .map(permission -> new SimpleGrantedAuthority(permission.getName()))
-                    .collect(Collectors.toSet()));
+                    .forEach(permission -> names.add(permission.getName()));
             } catch (Exception e) {
                 // If groups are not loaded (lazy loading issue), skip them
                 // This should not happen with the new repository method, but just in case
@@ -141,7 +140,7 @@ public class User extends BaseEntity implements UserDetails {
             }
         }
         
-        return authorities;
+        return AuthoritySet.of(names);
     }
 
     @Override
@@ -0,0 +1,43 @@
+package com.codestorykh.alpha.identity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.BitSet;
+
+/**
+ * Flattened permissions of a single user (roles, groups and inherited parent groups), stored as a
+ * bitset over the permission index: every permission gets a dense bit position in id order, so the
+ * bitset grows with the number of permissions rather than with gaps in the id sequence. A bitset
+ * is only meaningful against the index it was built with, identified by {@code indexVersion}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EffectivePermissions {
+
+    private Long userId;
+    private long[] bits;
+    private long indexVersion;
+    private long computedAt;
+
+    public static EffectivePermissions of(Long userId, BitSet bitSet, long indexVersion) {
+        return new EffectivePermissions(userId, bitSet.toLongArray(), indexVersion, System.currentTimeMillis());
+    }
+
+    /** Test a single permission bit */
+    public boolean has(int index) {
+        if (index < 0 || bits == null) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    public BitSet toBitSet() {
+        return bits != null ? BitSet.valueOf(bits) : new BitSet();
+    }
+}
@@ -0,0 +1,70 @@
+package com.codestorykh.alpha.identity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+
+    private String jobId;
+    private String fileName;
+    private ImportStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private long rowsRead;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private String errorMessage;
+
+    @Builder.Default
+    private List<ChunkReport> chunks = new ArrayList<>();
+
+    public enum ImportStatus {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        COMPLETED_WITH_ERRORS,
+        FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkReport {
+        private int chunkIndex;
+        private long firstLine;
+        private long lastLine;
+        private int rowsRead;
+        private int inserted;
+        private int duplicates;
+        private int invalid;
+        private int failed;
+        private long hashTimeMs;
+        private long insertTimeMs;
+
+        @Builder.Default
+        private List<RowError> errors = new ArrayList<>();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String username;
+        private String reason;
+    }
+}
@@ -0,0 +1,102 @@
+package com.codestorykh.alpha.identity.repository;
+
+import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.GroupClosure;
+import com.codestorykh.alpha.identity.domain.Permission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GroupClosureRepository extends JpaRepository<GroupClosure, GroupClosure.Key> {
+
+    // ==================== Queries ====================
+
+    @Query("SELECT g FROM Group g, GroupClosure c " +
+           "WHERE c.ancestorId = g.id AND c.descendantId = :groupId AND c.depth > 0 " +
+           "ORDER BY c.depth")
+    List<Group> findAncestors(@Param("groupId") Long groupId);
+
+    @Query("SELECT g FROM Group g, GroupClosure c " +
+           "WHERE c.descendantId = g.id AND c.ancestorId = :groupId AND c.depth > 0 " +
+           "AND (:maxDepth IS NULL OR c.depth <= :maxDepth) " +
+           "ORDER BY c.depth, g.name")
+    List<Group> findDescendants(@Param("groupId") Long groupId, @Param("maxDepth") Integer maxDepth);
+
+    @Query("SELECT c.descendantId FROM GroupClosure c WHERE c.ancestorId = :groupId")
+    List<Long> findSubtreeIds(@Param("groupId") Long groupId);
+
+    // Permissions of the group itself plus everything inherited from enabled ancestors
+    @Query("SELECT DISTINCT p FROM Permission p JOIN p.groups g, GroupClosure c " +
+           "WHERE c.ancestorId = g.id AND c.descendantId = :groupId " +
+           "AND g.enabled = true AND p.enabled = true")
+    List<Permission> findInheritedPermissions(@Param("groupId") Long groupId);
+
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM GroupClosure c WHERE c.ancestorId = :ancestorId AND c.descendantId = :descendantId")
+    boolean isAncestor(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
+    @Query("SELECT COALESCE(MAX(c.depth), 0) FROM GroupClosure c WHERE c.descendantId = :groupId")
+    int findDepth(@Param("groupId") Long groupId);
+
+    @Query("SELECT COUNT(c) FROM GroupClosure c WHERE c.depth = 0")
+    long countSelfPaths();
+
+    // ==================== Maintenance ====================
+
+    /** Add the self row for a new root group */
+    @Modifying
+    @Query(value = "INSERT INTO group_closure (ancestor_id, descendant_id, depth) VALUES (:groupId, :groupId, 0)",
+           nativeQuery = true)
+    int insertRoot(@Param("groupId") Long groupId);
+
+    /** Add the self row plus one row per ancestor of the parent for a new leaf */
+    @Modifying
+    @Query(value = "INSERT INTO group_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT :groupId, :groupId, 0 " +
+                   "UNION ALL " +
+                   "SELECT c.ancestor_id, :groupId, c.depth + 1 FROM group_closure c WHERE c.descendant_id = :parentId",
+           nativeQuery = true)
+    int insertLeaf(@Param("groupId") Long groupId, @Param("parentId") Long parentId);
+
+    /** Cut the subtree rooted at the group loose from all of its current ancestors */
+    @Modifying
+    @Query(value = "DELETE FROM group_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM group_closure WHERE ancestor_id = :groupId) " +
+                   "AND ancestor_id IN (SELECT ancestor_id FROM group_closure WHERE descendant_id = :groupId AND ancestor_id <> :groupId)",
+           nativeQuery = true)
+    int detachSubtree(@Param("groupId") Long groupId);
+
+    /** Connect every ancestor of the new parent to every node of the subtree */
+    @Modifying
+    @Query(value = "INSERT INTO group_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT sup.ancestor_id, sub.descendant_id, sup.depth + sub.depth + 1 " +
+                   "FROM group_closure sup CROSS JOIN group_closure sub " +
+                   "WHERE sup.descendant_id = :parentId AND sub.ancestor_id = :groupId",
+           nativeQuery = true)
+    int attachSubtree(@Param("groupId") Long groupId, @Param("parentId") Long parentId);
+
+    @Modifying
+    @Query(value = "DELETE FROM group_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM group_closure WHERE ancestor_id = :groupId)",
+           nativeQuery = true)
+    int deleteSubtree(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query(value = "TRUNCATE TABLE group_closure", nativeQuery = true)
+    void truncate();
+
+    /** Rebuild every path from the parent pointers on the groups table */
+    @Modifying
+    @Query(value = "WITH RECURSIVE paths(ancestor_id, descendant_id, depth) AS (" +
+                   "  SELECT id, id, 0 FROM groups " +
+                   "  UNION ALL " +
+                   "  SELECT p.ancestor_id, g.id, p.depth + 1 FROM paths p JOIN groups g ON g.parent_group_id = p.descendant_id) " +
+                   "INSERT INTO group_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT ancestor_id, descendant_id, depth FROM paths",
+           nativeQuery = true)
+    int rebuildFromParentLinks();
+}
@@ -5,6 +5,7 @@ import com.codestorykh.alpha.common.repository.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -36,6 +37,34 @@ public interface PermissionRepository extends BaseRepository<Permission, Long>,
            "SELECT DISTINCT p FROM Permission p " +
            "JOIN p.groups g JOIN g.users u WHERE u.username = :username")
     List<Permission> findByUser(@Param("username") String username);
+
+    // Enabled permissions granted through enabled roles, enabled groups and every ancestor of those groups
+    @Query(value = "SELECT rp.permission_id FROM user_roles ur " +
+           "JOIN roles r ON r.id = ur.role_id AND r.enabled = true " +
+           "JOIN role_permissions rp ON rp.role_id = r.id " +
+           "JOIN permissions p ON p.id = rp.permission_id AND p.enabled = true " +
+           "WHERE ur.user_id = :userId " +
+           "UNION " +
+           "SELECT gp.permission_id FROM user_groups ug " +
+           "JOIN group_closure c ON c.descendant_id = ug.group_id " +
+           "JOIN groups g ON g.id = c.ancestor_id AND g.enabled = true " +
+           "JOIN group_permissions gp ON gp.group_id = g.id " +
+           "JOIN permissions p ON p.id = gp.permission_id AND p.enabled = true " +
+           "WHERE ug.user_id = :userId",
+           nativeQuery = true)
+    List<Long> findEffectivePermissionIds(@Param("userId") Long userId);
+    
+    // role_permissions and group_permissions are owned by Role and Group, so deleting a permission leaves its grants
+    @Modifying
+    @Query(value = "DELETE FROM role_permissions WHERE permission_id = :permissionId", nativeQuery = true)
+    int deleteRoleGrants(@Param("permissionId") Long permissionId);
+
+    @Modifying
+    @Query(value = "DELETE FROM group_permissions WHERE permission_id = :permissionId", nativeQuery = true)
+    int deleteGroupGrants(@Param("permissionId") Long permissionId);
+
+    @Query("SELECT p.name FROM Permission p")
+    List<String> findAllNames();
     
     @Query("SELECT p FROM Permission p WHERE " +
            "(:searchTerm IS NULL OR p.name LIKE %:searchTerm% OR p.description LIKE %:searchTerm%) AND " +
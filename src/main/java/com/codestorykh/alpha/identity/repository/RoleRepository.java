@@ -5,6 +5,7 @@ import com.codestorykh.alpha.common.repository.BaseRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -26,6 +27,14 @@ public interface RoleRepository extends BaseRepository<Role, Long>, JpaSpecifica
     @Query("SELECT r FROM Role r JOIN r.users u WHERE u.username = :username")
     List<Role> findByUser(@Param("username") String username);
     
+    @Query("SELECT r.name FROM Role r")
+    List<String> findAllNames();
+
+    // user_roles is owned by User, so deleting a role does not remove its assignments
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE role_id = :roleId", nativeQuery = true)
+    int deleteUserAssignments(@Param("roleId") Long roleId);
+    
     @Query("SELECT r FROM Role r WHERE " +
            "(:searchTerm IS NULL OR r.name LIKE %:searchTerm% OR r.description LIKE %:searchTerm%) AND " +
            "(:enabled IS NULL OR r.enabled = :enabled) AND " +
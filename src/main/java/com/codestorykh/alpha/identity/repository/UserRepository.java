@@ -11,8 +11,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends BaseRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -27,6 +29,16 @@ public interface UserRepository extends BaseRepository<User, Long>, JpaSpecifica
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Just what the security principal needs; permissions come from the effective-permission cache
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<User> findForPrincipalByUsername(@Param("username") String username);
+
     @Query("SELECT u FROM User u WHERE u.status = :status")
     List<User> findByStatus(@Param("status") UserStatus status);
 
@@ -48,6 +60,19 @@ public interface UserRepository extends BaseRepository<User, Long>, JpaSpecifica
     @Query("SELECT u FROM User u JOIN u.groups g WHERE g.name = :groupName")
     List<User> findByGroupName(@Param("groupName") String groupName);
 
+    @Query("SELECT u.username FROM User u WHERE u.id IN :ids")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r.id = :roleId")
+    List<Long> findIdsByRoleId(@Param("roleId") Long roleId, Pageable pageable);
+
+    // Members of the group and of every group below it
+    @Query(value = "SELECT DISTINCT ug.user_id FROM group_closure c " +
+           "JOIN user_groups ug ON ug.group_id = c.descendant_id " +
+           "WHERE c.ancestor_id = :groupId",
+           nativeQuery = true)
+    List<Long> findIdsInGroupSubtree(@Param("groupId") Long groupId, Pageable pageable);
+
     @Query("SELECT u FROM User u WHERE u.username LIKE %:searchTerm% OR u.email LIKE %:searchTerm% OR u.firstName LIKE %:searchTerm% OR u.lastName LIKE %:searchTerm%")
     Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
 
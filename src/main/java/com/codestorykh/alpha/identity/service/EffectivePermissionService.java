@@ -0,0 +1,29 @@
+package com.codestorykh.alpha.identity.service;
+
+import com.codestorykh.alpha.identity.dto.EffectivePermissions;
+
+import java.util.Set;
+
+public interface EffectivePermissionService {
+
+    /** Get (or compute) the flattened permission bitset of a user */
+    EffectivePermissions getEffectivePermissions(Long userId);
+
+    boolean hasPermission(Long userId, String permissionName);
+
+    boolean hasPermission(Long userId, String resource, String action);
+
+    Set<String> getPermissionNames(Long userId);
+
+    /** Membership of a single user changed */
+    void invalidateUser(Long userId);
+
+    /** A role's permissions or status changed */
+    void invalidateUsersWithRole(Long roleId);
+
+    /** A group's permissions, status or parent changed; affects the whole subtree */
+    void invalidateUsersInGroup(Long groupId);
+
+    /** A permission itself changed (renamed, enabled, disabled) */
+    void invalidateAll();
+}
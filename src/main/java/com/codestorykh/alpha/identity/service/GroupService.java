@@ -2,6 +2,7 @@ package com.codestorykh.alpha.identity.service;
 
 import com.codestorykh.alpha.common.service.BaseService;
 import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.Permission;
 import com.codestorykh.alpha.identity.dto.GroupDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -40,4 +41,18 @@ public interface GroupService extends BaseService<Group, Long> {
     Page<Group> searchGroups(String searchTerm, Boolean enabled, Boolean systemGroup, Pageable pageable);
 
     boolean hasPermission(Long groupId, String permissionName);
+
+    // ==================== Hierarchy (closure table) ====================
+
+    /** All ancestors of the group, nearest first */
+    List<Group> findAncestors(Long groupId);
+
+    /** All descendants of the group, optionally limited to {@code maxDepth} levels */
+    List<Group> findDescendants(Long groupId, Integer maxDepth);
+
+    /** Own permissions plus those inherited from every enabled ancestor */
+    List<Permission> findInheritedPermissions(Long groupId);
+
+    /** Rebuild the closure table from the parent links; returns the number of paths written */
+    int rebuildHierarchy();
 } 
\ No newline at end of file
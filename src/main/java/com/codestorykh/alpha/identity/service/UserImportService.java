@@ -0,0 +1,25 @@
+package com.codestorykh.alpha.identity.service;
+
+import com.codestorykh.alpha.identity.dto.UserImportResult;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserImportService {
+
+    /**
+     * Import users from a CSV stream with the header
+     * {@code username,email,password,firstName,lastName,phoneNumber}.
+     * Rows are processed in chunks; each chunk commits independently.
+     */
+    UserImportResult importUsers(InputStream inputStream, String fileName, String defaultRole);
+
+    /** Run an import from a spooled file in the background; the file is deleted when done */
+    UserImportResult submitImport(Path file, String fileName, String defaultRole);
+
+    Optional<UserImportResult> getImportStatus(String jobId);
+
+    List<UserImportResult> getRecentImports();
+}
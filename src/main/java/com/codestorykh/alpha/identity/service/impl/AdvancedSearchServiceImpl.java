@@ -386,11 +386,11 @@ public class AdvancedSearchServiceImpl {
     }
 
     /**
-     * Find groups in hierarchy with specific permissions
+     * Find groups anywhere below the named group with specific permissions
      */
     public List<Group> findGroupsInHierarchyWithPermissions(String parentGroupName, List<String> permissions) {
         Specification<Group> specification = SpecificationBuilder.<Group>create()
-            .andIfHasText(parentGroupName, GroupSpecification::withParentGroupName)
+            .andIfHasText(parentGroupName, GroupSpecification::withAncestorName)
             .andIfNotEmpty(permissions, permissionList -> {
                 // Create OR specification for permissions
                 return permissionList.stream()
@@ -0,0 +1,316 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.identity.domain.Permission;
+import com.codestorykh.alpha.identity.dto.EffectivePermissions;
+import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
+import com.codestorykh.alpha.security.principal.AuthenticatedUserCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EffectivePermissionServiceImpl implements EffectivePermissionService {
+
+    private static final String CACHE_NAME = "effective-permissions";
+    private static final String ALL = "*";
+
+    private final UserRepository userRepository;
+    private final PermissionRepository permissionRepository;
+    private final CacheService cacheService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${identity.permissions.local-cache-size:100000}")
+    private long localCacheSize;
+
+    @Value("${identity.permissions.local-cache-ttl:60s}")
+    private Duration localCacheTtl;
+
+    @Value("${identity.permissions.redis-ttl:1h}")
+    private Duration redisTtl;
+
+    @Value("${identity.permissions.max-targeted-invalidations:10000}")
+    private int maxTargetedInvalidations;
+
+    @Value("${identity.permissions.index-refresh-interval:5s}")
+    private Duration indexRefreshInterval;
+
+    @Value("${identity.permissions.invalidation-channel:permissions:invalidations}")
+    private String channel;
+
+    private Cache<Long, EffectivePermissions> localCache;
+
+    // Replaced as a whole when permissions change
+    private volatile PermissionIndex index = PermissionIndex.EMPTY;
+
+    // Bumped by every eviction, local or remote; a lookup that overlapped one must not cache what it read
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Dense bit positions of all permissions in id order. The version is derived from the ids alone,
+     * so every node loading the same permissions agrees on it, and a bitset built against another
+     * index (permissions added or deleted since) is recomputed instead of misread.
+     */
+    private record PermissionIndex(long version, Map<Long, Integer> bitsById, Map<String, Integer> bitsByName,
+                                   List<String> names, long loadedAt) {
+
+        static final PermissionIndex EMPTY = new PermissionIndex(0, Map.of(), Map.of(), List.of(), 0);
+    }
+
+    @PostConstruct
+    public void init() {
+        localCache = CacheBuilder.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfterWrite(localCacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        invalidationBus.subscribe(channel, this::onInvalidation);
+    }
+
+    @Override
+    public EffectivePermissions getEffectivePermissions(Long userId) {
+        return getEffectivePermissions(userId, currentIndex());
+    }
+
+    @Override
+    public boolean hasPermission(Long userId, String permissionName) {
+        if (userId == null || permissionName == null) {
+            return false;
+        }
+        PermissionIndex current = currentIndex();
+        Integer bit = current.bitsByName().get(permissionName);
+        if (bit == null && isStale(current)) {
+            // Possibly a permission created since the last load
+            current = reloadIndex();
+            bit = current.bitsByName().get(permissionName);
+        }
+        return bit != null && getEffectivePermissions(userId, current).has(bit);
+    }
+
+    @Override
+    public boolean hasPermission(Long userId, String resource, String action) {
+        return hasPermission(userId, resource + ":" + action);
+    }
+
+    @Override
+    public Set<String> getPermissionNames(Long userId) {
+        PermissionIndex current = currentIndex();
+        BitSet bits = getEffectivePermissions(userId, current).toBitSet();
+        Set<String> result = new TreeSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0 && i < current.names().size(); i = bits.nextSetBit(i + 1)) {
+            result.add(current.names().get(i));
+        }
+        return result;
+    }
+
+    // ==================== Invalidation ====================
+
+    @Override
+    public void invalidateUser(Long userId) {
+        List<Long> userIds = List.of(userId);
+        List<String> usernames = userRepository.findUsernamesByIdIn(userIds);
+        afterCommit(() -> evict(userIds, usernames));
+    }
+
+    @Override
+    public void invalidateUsersWithRole(Long roleId) {
+        // Resolve the affected users now (the role or group may be gone after commit), evict afterwards
+        List<Long> userIds = userRepository.findIdsByRoleId(roleId, affectedUsersLimit());
+        List<String> usernames = usernamesOf(userIds);
+        afterCommit(() -> evictOrClear(userIds, usernames, "role " + roleId));
+    }
+
+    @Override
+    public void invalidateUsersInGroup(Long groupId) {
+        List<Long> userIds = userRepository.findIdsInGroupSubtree(groupId, affectedUsersLimit());
+        List<String> usernames = usernamesOf(userIds);
+        afterCommit(() -> evictOrClear(userIds, usernames, "group " + groupId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        afterCommit(() -> {
+            // Dropped rather than left to refresh on a miss, so deleted or renamed permissions stop resolving
+            index = PermissionIndex.EMPTY;
+            clear();
+            log.info("Invalidated all effective permissions");
+        });
+    }
+
+    // ==================== Internals ====================
+
+    private EffectivePermissions getEffectivePermissions(Long userId, PermissionIndex current) {
+        EffectivePermissions permissions = localCache.getIfPresent(userId);
+        if (permissions != null && permissions.getIndexVersion() == current.version()) {
+            return permissions;
+        }
+
+        long epoch = evictions.get();
+        Optional<EffectivePermissions> cached = cacheService.get(CACHE_NAME, String.valueOf(userId), EffectivePermissions.class)
+                .filter(value -> value.getIndexVersion() == current.version());
+        if (cached.isEmpty()) {
+            return compute(userId, current, epoch);
+        }
+        if (evictions.get() == epoch) {
+            localCache.put(userId, cached.get());
+        }
+        return cached.get();
+    }
+
+    /**
+     * Cached locally before Redis so that a remote eviction arriving after the epoch check below
+     * finds the entry and deletes what was written; one arriving earlier fails the check.
+     */
+    private EffectivePermissions compute(Long userId, PermissionIndex current, long epoch) {
+        BitSet bits = new BitSet(current.names().size());
+        for (Long permissionId : permissionRepository.findEffectivePermissionIds(userId)) {
+            Integer bit = current.bitsById().get(permissionId);
+            // A permission newer than the index is picked up once a lookup of it reloads the index
+            if (bit != null) {
+                bits.set(bit);
+            }
+        }
+        EffectivePermissions permissions = EffectivePermissions.of(userId, bits, current.version());
+        localCache.put(userId, permissions);
+        cacheService.set(CACHE_NAME, String.valueOf(userId), permissions, redisTtl);
+        if (evictions.get() != epoch) {
+            // The permissions may have been read before the change the eviction was for
+            localCache.invalidate(userId);
+            cacheService.delete(CACHE_NAME, String.valueOf(userId));
+        }
+        log.debug("Computed effective permissions for user {}: {} permissions", userId, bits.cardinality());
+        return permissions;
+    }
+
+    private PermissionIndex currentIndex() {
+        PermissionIndex current = index;
+        return current == PermissionIndex.EMPTY ? reloadIndex() : current;
+    }
+
+    private boolean isStale(PermissionIndex current) {
+        return System.currentTimeMillis() - current.loadedAt() > indexRefreshInterval.toMillis();
+    }
+
+    private synchronized PermissionIndex reloadIndex() {
+        PermissionIndex current = index;
+        if (current != PermissionIndex.EMPTY && !isStale(current)) {
+            return current;
+        }
+        List<Permission> permissions = new ArrayList<>(permissionRepository.findAll());
+        permissions.sort(Comparator.comparing(Permission::getId));
+        Map<Long, Integer> bitsById = new HashMap<>();
+        Map<String, Integer> bitsByName = new HashMap<>();
+        List<String> names = new ArrayList<>(permissions.size());
+        long version = 1;
+        for (Permission permission : permissions) {
+            int bit = names.size();
+            bitsById.put(permission.getId(), bit);
+            bitsByName.put(permission.getName(), bit);
+            bitsByName.putIfAbsent(permission.getFullPermission(), bit);
+            names.add(permission.getName());
+            version = 31 * version + permission.getId();
+        }
+        current = new PermissionIndex(version, Map.copyOf(bitsById), Map.copyOf(bitsByName), List.copyOf(names),
+                System.currentTimeMillis());
+        index = current;
+        log.debug("Loaded permission index with {} permissions", names.size());
+        return current;
+    }
+
+    private PageRequest affectedUsersLimit() {
+        return PageRequest.of(0, maxTargetedInvalidations + 1);
+    }
+
+    /** Principals are keyed and stamped by username; past the targeted limit everything is cleared anyway */
+    private List<String> usernamesOf(List<Long> userIds) {
+        if (userIds.isEmpty() || userIds.size() > maxTargetedInvalidations) {
+            return List.of();
+        }
+        return userRepository.findUsernamesByIdIn(userIds);
+    }
+
+    private void evictOrClear(List<Long> userIds, List<String> usernames, String reason) {
+        if (userIds.size() > maxTargetedInvalidations) {
+            log.info("{} affects more than {} users, clearing all effective permissions", reason, maxTargetedInvalidations);
+            clear();
+            return;
+        }
+        evict(userIds, usernames);
+        log.debug("Invalidated effective permissions of {} users after change to {}", userIds.size(), reason);
+    }
+
+    private void evict(Collection<Long> userIds, Collection<String> usernames) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        evictions.incrementAndGet();
+        for (Long userId : userIds) {
+            localCache.invalidate(userId);
+            cacheService.delete(CACHE_NAME, String.valueOf(userId));
+        }
+        invalidationBus.publish(channel, userIds.stream().map(String::valueOf).collect(Collectors.joining("\n")));
+        // Principals carry the permission names, so they go stale together
+        authenticatedUserCache.invalidateUsers(usernames);
+    }
+
+    private void clear() {
+        evictions.incrementAndGet();
+        localCache.invalidateAll();
+        cacheService.clearCache(CACHE_NAME);
+        invalidationBus.publish(channel, ALL);
+        authenticatedUserCache.invalidateAll();
+    }
+
+    /**
+     * Another node evicted these users. A bitset this node computed concurrently may have reached
+     * Redis after that node deleted it, so entries still held here are deleted from Redis again.
+     */
+    void onInvalidation(String payload) {
+        evictions.incrementAndGet();
+        Collection<Long> userIds;
+        if (ALL.equals(payload)) {
+            index = PermissionIndex.EMPTY;
+            userIds = List.copyOf(localCache.asMap().keySet());
+        } else {
+            userIds = payload.lines().map(Long::valueOf).toList();
+        }
+        for (Long userId : userIds) {
+            if (localCache.getIfPresent(userId) != null) {
+                localCache.invalidate(userId);
+                cacheService.delete(CACHE_NAME, String.valueOf(userId));
+            }
+        }
+    }
+
+    /** Evict only once the change is visible to other transactions, so a concurrent recompute can't cache stale data */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
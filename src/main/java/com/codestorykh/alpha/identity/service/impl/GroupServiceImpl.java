@@ -4,8 +4,10 @@ import com.codestorykh.alpha.common.service.BaseServiceImpl;
 import com.codestorykh.alpha.identity.domain.Group;
 import com.codestorykh.alpha.identity.domain.Permission;
 import com.codestorykh.alpha.identity.dto.GroupDTO;
+import com.codestorykh.alpha.identity.repository.GroupClosureRepository;
 import com.codestorykh.alpha.identity.repository.GroupRepository;
 import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
 import com.codestorykh.alpha.identity.service.GroupService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -14,6 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,12 +27,18 @@ import java.util.stream.Collectors;
 public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements GroupService {
 
     private final GroupRepository groupRepository;
+    private final GroupClosureRepository groupClosureRepository;
     private final PermissionRepository permissionRepository;
+    private final EffectivePermissionService effectivePermissionService;
 
-    public GroupServiceImpl(GroupRepository groupRepository, PermissionRepository permissionRepository) {
+    public GroupServiceImpl(GroupRepository groupRepository, GroupClosureRepository groupClosureRepository,
+                            PermissionRepository permissionRepository,
+                            EffectivePermissionService effectivePermissionService) {
         super(groupRepository);
         this.groupRepository = groupRepository;
+        this.groupClosureRepository = groupClosureRepository;
         this.permissionRepository = permissionRepository;
+        this.effectivePermissionService = effectivePermissionService;
     }
 
     @Override
@@ -72,7 +81,14 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
             group.setPermissions(permissions);
         }
 
-        return save(group);
+        Group savedGroup = save(group);
+        // Separate statements, so no parameter is ever bound as an untyped null
+        if (savedGroup.getParentGroup() != null) {
+            groupClosureRepository.insertLeaf(savedGroup.getId(), savedGroup.getParentGroup().getId());
+        } else {
+            groupClosureRepository.insertRoot(savedGroup.getId());
+        }
+        return savedGroup;
     }
 
     @Override
@@ -91,6 +107,7 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
         existingGroup.setSystemGroup(groupDTO.isSystemGroup());
 
         // Update parent group if provided
+        Long currentParentId = existingGroup.getParentGroup() != null ? existingGroup.getParentGroup().getId() : null;
         if (groupDTO.getParentGroupId() != null) {
             Group parentGroup = findById(groupDTO.getParentGroupId())
                     .orElseThrow(() -> new IllegalArgumentException("Parent group not found with id: " + groupDTO.getParentGroupId()));
@@ -98,6 +115,9 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
         } else {
             existingGroup.setParentGroup(null);
         }
+        if (!Objects.equals(currentParentId, groupDTO.getParentGroupId())) {
+            reparent(id, groupDTO.getParentGroupId());
+        }
 
         // Update permissions if provided
         if (groupDTO.getPermissionIds() != null) {
@@ -109,15 +129,25 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
             existingGroup.setPermissions(permissions);
         }
 
+        effectivePermissionService.invalidateUsersInGroup(id);
         return save(existingGroup);
     }
 
+    @Override
+    public void deleteById(Long id) {
+        // Child groups are cascaded by JPA, so the whole subtree goes
+        effectivePermissionService.invalidateUsersInGroup(id);
+        groupClosureRepository.deleteSubtree(id);
+        super.deleteById(id);
+    }
+
     @Override
     public void enableGroup(Long id) {
         Group group = findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + id));
         group.setEnabled(true);
         save(group);
+        effectivePermissionService.invalidateUsersInGroup(id);
     }
 
     @Override
@@ -126,6 +156,7 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
                 .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + id));
         group.setEnabled(false);
         save(group);
+        effectivePermissionService.invalidateUsersInGroup(id);
     }
 
     @Override
@@ -137,6 +168,7 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
         
         group.addPermission(permission);
         save(group);
+        effectivePermissionService.invalidateUsersInGroup(groupId);
     }
 
     @Override
@@ -148,6 +180,7 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
         
         group.removePermission(permission);
         save(group);
+        effectivePermissionService.invalidateUsersInGroup(groupId);
     }
 
     @Override
@@ -187,4 +220,46 @@ public class GroupServiceImpl extends BaseServiceImpl<Group, Long> implements Gr
                         .anyMatch(permission -> permission.getName().equals(permissionName)))
                 .orElse(false);
     }
+
+    // ==================== Hierarchy (closure table) ====================
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Group> findAncestors(Long groupId) {
+        return groupClosureRepository.findAncestors(groupId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Group> findDescendants(Long groupId, Integer maxDepth) {
+        return groupClosureRepository.findDescendants(groupId, maxDepth);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Permission> findInheritedPermissions(Long groupId) {
+        return groupClosureRepository.findInheritedPermissions(groupId);
+    }
+
+    @Override
+    public int rebuildHierarchy() {
+        groupClosureRepository.truncate();
+        int paths = groupClosureRepository.rebuildFromParentLinks();
+        log.info("Rebuilt group hierarchy closure table with {} paths", paths);
+        return paths;
+    }
+
+    /**
+     * Move the subtree rooted at {@code groupId} under {@code newParentId} (or to the top level).
+     * Runs in the caller's transaction together with the parent_group_id update.
+     */
+    private void reparent(Long groupId, Long newParentId) {
+        if (newParentId != null && groupClosureRepository.isAncestor(groupId, newParentId)) {
+            throw new IllegalArgumentException("Group " + newParentId + " is inside the subtree of group " + groupId);
+        }
+
+        int removed = groupClosureRepository.detachSubtree(groupId);
+        int added = newParentId != null ? groupClosureRepository.attachSubtree(groupId, newParentId) : 0;
+        log.debug("Reparented group {} under {}: {} paths removed, {} added", groupId, newParentId, removed, added);
+    }
 } 
\ No newline at end of file
@@ -4,7 +4,9 @@ import com.codestorykh.alpha.common.service.BaseServiceImpl;
 import com.codestorykh.alpha.identity.domain.Permission;
 import com.codestorykh.alpha.identity.dto.PermissionDTO;
 import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
 import com.codestorykh.alpha.identity.service.PermissionService;
+import com.codestorykh.alpha.security.authority.AuthorityCatalog;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,10 +22,13 @@ import java.util.Optional;
 public class PermissionServiceImpl extends BaseServiceImpl<Permission, Long> implements PermissionService {
 
     private final PermissionRepository permissionRepository;
+    private final EffectivePermissionService effectivePermissionService;
 
-    public PermissionServiceImpl(PermissionRepository permissionRepository) {
+    public PermissionServiceImpl(PermissionRepository permissionRepository,
+                                 EffectivePermissionService effectivePermissionService) {
         super(permissionRepository);
         this.permissionRepository = permissionRepository;
+        this.effectivePermissionService = effectivePermissionService;
     }
 
     @Override
@@ -51,6 +56,7 @@ public class PermissionServiceImpl extends BaseServiceImpl<Permission, Long> imp
                 .systemPermission(permissionDTO.isSystemPermission())
                 .build();
 
+        AuthorityCatalog.register(permission.getName());
         return save(permission);
     }
 
@@ -71,15 +77,26 @@ public class PermissionServiceImpl extends BaseServiceImpl<Permission, Long> imp
         existingPermission.setEnabled(permissionDTO.isEnabled());
         existingPermission.setSystemPermission(permissionDTO.isSystemPermission());
 
+        AuthorityCatalog.register(existingPermission.getName());
+        effectivePermissionService.invalidateAll();
         return save(existingPermission);
     }
 
+    @Override
+    public void deleteById(Long id) {
+        permissionRepository.deleteRoleGrants(id);
+        permissionRepository.deleteGroupGrants(id);
+        super.deleteById(id);
+        effectivePermissionService.invalidateAll();
+    }
+
     @Override
     public void enablePermission(Long id) {
         Permission permission = findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Permission not found with id: " + id));
         permission.setEnabled(true);
         save(permission);
+        effectivePermissionService.invalidateAll();
     }
 
     @Override
@@ -88,6 +105,7 @@ public class PermissionServiceImpl extends BaseServiceImpl<Permission, Long> imp
                 .orElseThrow(() -> new IllegalArgumentException("Permission not found with id: " + id));
         permission.setEnabled(false);
         save(permission);
+        effectivePermissionService.invalidateAll();
     }
 
     @Override
@@ -6,7 +6,9 @@ import com.codestorykh.alpha.identity.domain.Role;
 import com.codestorykh.alpha.identity.dto.RoleDTO;
 import com.codestorykh.alpha.identity.repository.PermissionRepository;
 import com.codestorykh.alpha.identity.repository.RoleRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
 import com.codestorykh.alpha.identity.service.RoleService;
+import com.codestorykh.alpha.security.authority.AuthorityCatalog;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,11 +27,14 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final EffectivePermissionService effectivePermissionService;
 
-    public RoleServiceImpl(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, PermissionRepository permissionRepository,
+                           EffectivePermissionService effectivePermissionService) {
         super(roleRepository);
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.effectivePermissionService = effectivePermissionService;
     }
 
     @Override
@@ -65,6 +70,7 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
             role.setPermissions(permissions);
         }
 
+        AuthorityCatalog.registerRole(role.getName());
         return save(role);
     }
 
@@ -93,15 +99,26 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
             existingRole.setPermissions(permissions);
         }
 
+        AuthorityCatalog.registerRole(existingRole.getName());
+        effectivePermissionService.invalidateUsersWithRole(id);
         return save(existingRole);
     }
 
+    @Override
+    public void deleteById(Long id) {
+        // Resolves the holders before their assignments go
+        effectivePermissionService.invalidateUsersWithRole(id);
+        roleRepository.deleteUserAssignments(id);
+        super.deleteById(id);
+    }
+
     @Override
     public void enableRole(Long id) {
         Role role = findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + id));
         role.setEnabled(true);
         save(role);
+        effectivePermissionService.invalidateUsersWithRole(id);
     }
 
     @Override
@@ -110,6 +127,7 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
                 .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + id));
         role.setEnabled(false);
         save(role);
+        effectivePermissionService.invalidateUsersWithRole(id);
     }
 
     @Override
@@ -121,6 +139,7 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
         
         role.addPermission(permission);
         save(role);
+        effectivePermissionService.invalidateUsersWithRole(roleId);
     }
 
     @Override
@@ -132,6 +151,7 @@ public class RoleServiceImpl extends BaseServiceImpl<Role, Long> implements Role
         
         role.removePermission(permission);
         save(role);
+        effectivePermissionService.invalidateUsersWithRole(roleId);
     }
 
     @Override
@@ -0,0 +1,520 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.common.repository.SequenceIdAllocator;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.dto.UserImportResult;
+import com.codestorykh.alpha.identity.dto.UserImportResult.ChunkReport;
+import com.codestorykh.alpha.identity.dto.UserImportResult.ImportStatus;
+import com.codestorykh.alpha.identity.dto.UserImportResult.RowError;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import com.codestorykh.alpha.identity.service.UserImportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String USERS_TABLE = "users";
+
+    // One statement per chunk; a row whose username or email was taken since the existence check is skipped
+    private static final String INSERT_USERS_SQL =
+            "INSERT INTO users (id, username, email, password, first_name, last_name, phone_number, status, " +
+            "enabled, account_non_expired, account_non_locked, credentials_non_expired, email_verified, " +
+            "phone_verified, failed_login_attempts, created_at, updated_at, version, active) " +
+            "SELECT u.id, u.username, u.email, u.password, u.first_name, u.last_name, u.phone_number, ?, " +
+            "true, true, true, true, false, false, 0, ?, ?, 0, true " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[]) " +
+            "AS u(id, username, email, password, first_name, last_name, phone_number) " +
+            "ON CONFLICT DO NOTHING RETURNING id";
+
+    private static final String INSERT_USER_ROLES_SQL =
+            "INSERT INTO user_roles (user_id, role_id) SELECT unnest(?::bigint[]), ?";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("username", "email", "password");
+
+    private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SequenceIdAllocator idAllocator;
+
+    @Value("${identity.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${identity.import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${identity.import.hash-queue-capacity:2000}")
+    private int hashQueueCapacity;
+
+    @Value("${identity.import.max-errors-per-chunk:100}")
+    private int maxErrorsPerChunk;
+
+    @Value("${identity.import.concurrent-jobs:1}")
+    private int concurrentJobs;
+
+    @Value("${identity.import.retained-jobs:20}")
+    private int retainedJobs;
+
+    private ThreadPoolExecutor hashExecutor;
+    private ExecutorService jobExecutor;
+    private TransactionTemplate transactionTemplate;
+    private Map<String, UserImportResult> jobs;
+
+    @PostConstruct
+    public void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        hashExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueueCapacity), namedThreadFactory("user-import-hash"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        jobExecutor = Executors.newFixedThreadPool(Math.max(1, concurrentJobs), namedThreadFactory("user-import-job"));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserImportResult> eldest) {
+                // Oldest finished jobs go first; queued and running ones stay so their status can be polled
+                Iterator<UserImportResult> iterator = values().iterator();
+                while (size() > retainedJobs && iterator.hasNext()) {
+                    if (isFinished(iterator.next())) {
+                        iterator.remove();
+                    }
+                }
+                return false;
+            }
+        });
+        log.info("User import initialized - chunk size: {}, hash threads: {}", chunkSize, threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResult importUsers(InputStream inputStream, String fileName, String defaultRole) {
+        UserImportResult result = registerJob(fileName);
+        runImport(inputStream, result, defaultRole);
+        return snapshot(result);
+    }
+
+    @Override
+    public UserImportResult submitImport(Path file, String fileName, String defaultRole) {
+        UserImportResult result = registerJob(fileName);
+        jobExecutor.submit(() -> {
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                runImport(inputStream, result, defaultRole);
+            } catch (IOException e) {
+                log.error("Failed to open import file {}: {}", file, e.getMessage());
+                markFailed(result, e.getMessage());
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Failed to delete import file {}: {}", file, e.getMessage());
+                }
+            }
+        });
+        return snapshot(result);
+    }
+
+    @Override
+    public Optional<UserImportResult> getImportStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(this::snapshot);
+    }
+
+    @Override
+    public List<UserImportResult> getRecentImports() {
+        List<UserImportResult> results;
+        synchronized (jobs) {
+            results = new ArrayList<>(jobs.values());
+        }
+        return results.stream().map(this::snapshot).toList();
+    }
+
+    // ==================== Import pipeline ====================
+
+    private void runImport(InputStream inputStream, UserImportResult result, String defaultRole) {
+        synchronized (result) {
+            result.setStatus(ImportStatus.RUNNING);
+            result.setStartedAt(LocalDateTime.now());
+        }
+        log.info("Starting user import {} ({})", result.getJobId(), result.getFileName());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Long roleId = resolveRoleId(defaultRole);
+            Map<String, Integer> columns = parseHeader(reader.readLine());
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            int chunkIndex = 0;
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(ImportRow.from(lineNumber, parseCsvLine(line), columns));
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunkIndex++, chunk, roleId, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunkIndex, chunk, roleId, result);
+            }
+
+            synchronized (result) {
+                result.setStatus(result.getFailed() > 0 || result.getInvalid() > 0
+                        ? ImportStatus.COMPLETED_WITH_ERRORS : ImportStatus.COMPLETED);
+                result.setCompletedAt(LocalDateTime.now());
+            }
+            log.info("User import {} finished - read: {}, inserted: {}, duplicates: {}, invalid: {}, failed: {}",
+                    result.getJobId(), result.getRowsRead(), result.getInserted(), result.getDuplicates(),
+                    result.getInvalid(), result.getFailed());
+        } catch (Exception e) {
+            log.error("User import {} aborted: {}", result.getJobId(), e.getMessage(), e);
+            markFailed(result, e.getMessage());
+        }
+    }
+
+    private void processChunk(int chunkIndex, List<ImportRow> rows, Long roleId, UserImportResult result) {
+        ChunkReport report = ChunkReport.builder()
+                .chunkIndex(chunkIndex)
+                .firstLine(rows.get(0).line())
+                .lastLine(rows.get(rows.size() - 1).line())
+                .rowsRead(rows.size())
+                .build();
+
+        List<ImportRow> candidates = filterValidAndUnique(rows, report);
+
+        if (!candidates.isEmpty()) {
+            long hashStart = System.nanoTime();
+            List<String> hashes = hashPasswords(candidates, report);
+            report.setHashTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - hashStart));
+
+            List<ImportRow> hashed = new ArrayList<>(candidates.size());
+            List<String> hashedPasswords = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                if (hashes.get(i) != null) {
+                    hashed.add(candidates.get(i));
+                    hashedPasswords.add(hashes.get(i));
+                }
+            }
+
+            long insertStart = System.nanoTime();
+            insertChunk(hashed, hashedPasswords, roleId, report);
+            report.setInsertTimeMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - insertStart));
+        }
+
+        synchronized (result) {
+            result.getChunks().add(report);
+            result.setRowsRead(result.getRowsRead() + report.getRowsRead());
+            result.setInserted(result.getInserted() + report.getInserted());
+            result.setDuplicates(result.getDuplicates() + report.getDuplicates());
+            result.setInvalid(result.getInvalid() + report.getInvalid());
+            result.setFailed(result.getFailed() + report.getFailed());
+        }
+        log.debug("Import {} chunk {} (lines {}-{}): inserted {}, duplicates {}, invalid {}, failed {}, hash {}ms, insert {}ms",
+                result.getJobId(), chunkIndex, report.getFirstLine(), report.getLastLine(), report.getInserted(),
+                report.getDuplicates(), report.getInvalid(), report.getFailed(), report.getHashTimeMs(),
+                report.getInsertTimeMs());
+    }
+
+    /**
+     * Drop invalid rows, rows repeated within the chunk and rows whose username or email
+     * already exists. Earlier chunks are committed before this runs, so the existence
+     * lookup also covers duplicates across chunks without holding the whole file in memory.
+     */
+    private List<ImportRow> filterValidAndUnique(List<ImportRow> rows, ChunkReport report) {
+        Map<String, ImportRow> byUsername = new LinkedHashMap<>();
+        Set<String> emails = new HashSet<>();
+
+        for (ImportRow row : rows) {
+            String problem = row.validate();
+            if (problem != null) {
+                report.setInvalid(report.getInvalid() + 1);
+                addError(report, row, problem);
+            } else if (byUsername.containsKey(row.username()) || !emails.add(row.email())) {
+                report.setDuplicates(report.getDuplicates() + 1);
+                addError(report, row, "Duplicate username or email within file");
+            } else {
+                byUsername.put(row.username(), row);
+            }
+        }
+
+        if (byUsername.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> existingUsernames = userRepository.findExistingUsernames(byUsername.keySet());
+        Set<String> existingEmails = userRepository.findExistingEmails(emails);
+
+        List<ImportRow> candidates = new ArrayList<>(byUsername.size());
+        for (ImportRow row : byUsername.values()) {
+            if (existingUsernames.contains(row.username())) {
+                report.setDuplicates(report.getDuplicates() + 1);
+                addError(report, row, "Username already exists");
+            } else if (existingEmails.contains(row.email())) {
+                report.setDuplicates(report.getDuplicates() + 1);
+                addError(report, row, "Email already exists");
+            } else {
+                candidates.add(row);
+            }
+        }
+        return candidates;
+    }
+
+    /** Encode passwords on the bounded hash pool; a null entry marks a row that failed */
+    private List<String> hashPasswords(List<ImportRow> rows, ChunkReport report) {
+        List<Future<String>> futures = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            futures.add(hashExecutor.submit(() -> passwordEncoder.encode(row.password())));
+        }
+
+        List<String> hashes = new ArrayList<>(rows.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                hashes.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("User import interrupted", e);
+            } catch (ExecutionException e) {
+                hashes.add(null);
+                report.setFailed(report.getFailed() + 1);
+                addError(report, rows.get(i), "Password hashing failed: " + e.getCause().getMessage());
+            }
+        }
+        return hashes;
+    }
+
+    private void insertChunk(List<ImportRow> rows, List<String> passwordHashes, Long roleId, ChunkReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            long[] ids = idAllocator.allocate(USERS_TABLE, rows.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            Set<Long> inserted = transactionTemplate.execute(status -> {
+                Set<Long> insertedIds = new HashSet<>(jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(INSERT_USERS_SQL);
+                    statement.setString(1, UserStatus.ACTIVE.name());
+                    statement.setTimestamp(2, now);
+                    statement.setTimestamp(3, now);
+                    statement.setArray(4, connection.createArrayOf("bigint", Arrays.stream(ids).boxed().toArray()));
+                    statement.setArray(5, column(connection, rows, ImportRow::username));
+                    statement.setArray(6, column(connection, rows, ImportRow::email));
+                    statement.setArray(7, connection.createArrayOf("varchar", passwordHashes.toArray()));
+                    statement.setArray(8, column(connection, rows, ImportRow::firstName));
+                    statement.setArray(9, column(connection, rows, ImportRow::lastName));
+                    statement.setArray(10, column(connection, rows, ImportRow::phoneNumber));
+                    return statement;
+                }, (resultSet, rowNum) -> resultSet.getLong(1)));
+                if (roleId != null && !insertedIds.isEmpty()) {
+                    jdbcTemplate.update(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(INSERT_USER_ROLES_SQL);
+                        statement.setArray(1, connection.createArrayOf("bigint", insertedIds.toArray()));
+                        statement.setLong(2, roleId);
+                        return statement;
+                    });
+                }
+                return insertedIds;
+            });
+
+            report.setInserted(report.getInserted() + inserted.size());
+            for (int i = 0; i < rows.size(); i++) {
+                if (!inserted.contains(ids[i])) {
+                    report.setDuplicates(report.getDuplicates() + 1);
+                    addError(report, rows.get(i), "Username or email was taken during the import");
+                }
+            }
+        } catch (DataAccessException e) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Import chunk {} rolled back: {}", report.getChunkIndex(), reason);
+            report.setFailed(report.getFailed() + rows.size());
+            addError(report, rows.get(0), "Chunk rolled back (" + rows.size() + " rows): " + reason);
+        }
+    }
+
+    private static Array column(Connection connection, List<ImportRow> rows, Function<ImportRow, String> field)
+            throws SQLException {
+        return connection.createArrayOf("varchar", rows.stream().map(field).toArray());
+    }
+
+    // ==================== Helpers ====================
+
+    private Long resolveRoleId(String roleName) {
+        if (roleName == null || roleName.isBlank()) {
+            return null;
+        }
+        return roleRepository.findByName(roleName)
+                .map(Role::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found: " + roleName));
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        List<String> names = parseCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    /** Split one CSV line, honouring double-quoted fields and escaped quotes */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private void addError(ChunkReport report, ImportRow row, String reason) {
+        if (report.getErrors().size() < maxErrorsPerChunk) {
+            report.getErrors().add(RowError.builder()
+                    .line(row.line())
+                    .username(row.username())
+                    .reason(reason)
+                    .build());
+        }
+    }
+
+    private UserImportResult registerJob(String fileName) {
+        UserImportResult result = UserImportResult.builder()
+                .jobId(UUID.randomUUID().toString())
+                .fileName(fileName)
+                .status(ImportStatus.QUEUED)
+                .build();
+        jobs.put(result.getJobId(), result);
+        return result;
+    }
+
+    private static boolean isFinished(UserImportResult result) {
+        synchronized (result) {
+            return result.getStatus() != ImportStatus.QUEUED && result.getStatus() != ImportStatus.RUNNING;
+        }
+    }
+
+    private void markFailed(UserImportResult result, String message) {
+        synchronized (result) {
+            result.setStatus(ImportStatus.FAILED);
+            result.setErrorMessage(message);
+            result.setCompletedAt(LocalDateTime.now());
+        }
+    }
+
+    private UserImportResult snapshot(UserImportResult result) {
+        synchronized (result) {
+            return result.toBuilder().chunks(new ArrayList<>(result.getChunks())).build();
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record ImportRow(long line, String username, String email, String password,
+                             String firstName, String lastName, String phoneNumber) {
+
+        static ImportRow from(long line, List<String> fields, Map<String, Integer> columns) {
+            return new ImportRow(line,
+                    field(fields, columns, "username"),
+                    field(fields, columns, "email"),
+                    field(fields, columns, "password"),
+                    field(fields, columns, "firstname"),
+                    field(fields, columns, "lastname"),
+                    field(fields, columns, "phonenumber"));
+        }
+
+        private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+            Integer index = columns.get(name);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        String validate() {
+            if (username == null || username.length() < 3 || username.length() > 50) {
+                return "Username must be between 3 and 50 characters";
+            }
+            if (email == null || !email.contains("@")) {
+                return "Invalid email";
+            }
+            if (password == null || password.length() < 8) {
+                return "Password must be at least 8 characters";
+            }
+            return null;
+        }
+    }
+}
@@ -5,11 +5,21 @@ import com.codestorykh.alpha.common.service.BaseServiceImpl;
 import com.codestorykh.alpha.exception.InvalidPasswordException;
 import com.codestorykh.alpha.exception.UserAlreadyExistsException;
 import com.codestorykh.alpha.exception.UserNotFoundException;
+import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.Role;
 import com.codestorykh.alpha.identity.domain.User;
 import com.codestorykh.alpha.identity.domain.UserStatus;
 import com.codestorykh.alpha.identity.dto.UserDTO;
+import com.codestorykh.alpha.identity.repository.GroupRepository;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
 import com.codestorykh.alpha.identity.repository.UserRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
 import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.authority.AuthorityCatalog;
+import com.codestorykh.alpha.security.authority.AuthoritySet;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.principal.AuthenticatedUser;
+import com.codestorykh.alpha.security.principal.AuthenticatedUserCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,9 +27,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,11 +48,24 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final RoleRepository roleRepository;
+    private final GroupRepository groupRepository;
+    private final EffectivePermissionService effectivePermissionService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final SecurityMetrics securityMetrics;
+
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           RoleRepository roleRepository, GroupRepository groupRepository,
+                           EffectivePermissionService effectivePermissionService,
+                           AuthenticatedUserCache authenticatedUserCache, SecurityMetrics securityMetrics) {
         super(userRepository);
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.roleRepository = roleRepository;
+        this.groupRepository = groupRepository;
+        this.effectivePermissionService = effectivePermissionService;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.securityMetrics = securityMetrics;
     }
 
     @Override
@@ -118,6 +146,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
             user.setStatus(userDTO.getStatus());
         }
 
+        invalidatePrincipal(user.getUsername());
         return save(user);
     }
 
@@ -133,6 +162,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setPasswordChangedAt(LocalDateTime.now());
         save(user);
+        invalidatePrincipal(user.getUsername());
     }
 
     @Override
@@ -144,6 +174,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
         user.setPasswordChangedAt(LocalDateTime.now());
         user.resetFailedLoginAttempts();
         save(user);
+        invalidatePrincipal(user.getUsername());
     }
 
     @Override
@@ -152,6 +183,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
                 .orElseThrow(() -> new UserNotFoundException("id", id.toString()));
         user.setEnabled(true);
         save(user);
+        invalidatePrincipal(user.getUsername());
     }
 
     @Override
@@ -160,6 +192,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
                 .orElseThrow(() -> new UserNotFoundException("id", id.toString()));
         user.setEnabled(false);
         save(user);
+        invalidatePrincipal(user.getUsername());
     }
 
     @Override
@@ -170,28 +203,62 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
         save(user);
     }
 
+    @Override
+    public void deleteById(Long id) {
+        findById(id).ifPresent(user -> invalidatePrincipal(user.getUsername()));
+        super.deleteById(id);
+    }
+
     @Override
     public void addRole(Long userId, Long roleId) {
-        // Implementation would require RoleService
-        throw new UnsupportedOperationException("Not implemented yet");
+        User user = findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("id", userId.toString()));
+        Role role = roleRepository.findById(roleId)
+                .orElseThrow(() -> new IllegalArgumentException("Role not found with id: " + roleId));
+
+        if (user.getRoles() == null) {
+            user.setRoles(new HashSet<>());
+        }
+        user.getRoles().add(role);
+        save(user);
+        effectivePermissionService.invalidateUser(userId);
     }
 
     @Override
     public void removeRole(Long userId, Long roleId) {
-        // Implementation would require RoleService
-        throw new UnsupportedOperationException("Not implemented yet");
+        User user = findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("id", userId.toString()));
+
+        if (user.getRoles() != null && user.getRoles().removeIf(role -> role.getId().equals(roleId))) {
+            save(user);
+            effectivePermissionService.invalidateUser(userId);
+        }
     }
 
     @Override
     public void addGroup(Long userId, Long groupId) {
-        // Implementation would require GroupService
-        throw new UnsupportedOperationException("Not implemented yet");
+        User user = findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("id", userId.toString()));
+        Group group = groupRepository.findById(groupId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + groupId));
+
+        if (user.getGroups() == null) {
+            user.setGroups(new HashSet<>());
+        }
+        user.getGroups().add(group);
+        save(user);
+        effectivePermissionService.invalidateUser(userId);
     }
 
     @Override
     public void removeGroup(Long userId, Long groupId) {
-        // Implementation would require GroupService
-        throw new UnsupportedOperationException("Not implemented yet");
+        User user = findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("id", userId.toString()));
+
+        if (user.getGroups() != null && user.getGroups().removeIf(group -> group.getId().equals(groupId))) {
+            save(user);
+            effectivePermissionService.invalidateUser(userId);
+        }
     }
 
     @Override
@@ -218,8 +285,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
 
     @Override
     public boolean hasPermission(Long userId, String resource, String action) {
-        // Implementation would require permission checking logic
-        return false;
+        return effectivePermissionService.hasPermission(userId, resource, action);
     }
 
     @Override
@@ -253,6 +319,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
         findByUsername(username).ifPresent(user -> {
             user.incrementFailedLoginAttempts();
             save(user);
+            invalidatePrincipal(username);
         });
     }
 
@@ -261,6 +328,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
         findByUsername(username).ifPresent(user -> {
             user.resetFailedLoginAttempts();
             save(user);
+            invalidatePrincipal(username);
         });
     }
 
@@ -303,23 +371,76 @@ public class UserServiceImpl extends BaseServiceImpl<User, Long> implements User
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Cache hits never touch Hibernate (or a connection); misses build a detached snapshot
+        long start = System.nanoTime();
+        SecurityMetrics.UserLoad outcome = SecurityMetrics.UserLoad.ERROR;
+        try {
+            UserDetails userDetails = authenticatedUserCache.get(username, () -> loadAuthenticatedUser(username));
+            outcome = SecurityMetrics.UserLoad.FOUND;
+            return userDetails;
+        } catch (UsernameNotFoundException e) {
+            // Lookup failures are rethrown as UsernameNotFoundException with the cause attached
+            outcome = e.getCause() == null ? SecurityMetrics.UserLoad.NOT_FOUND : SecurityMetrics.UserLoad.ERROR;
+            throw e;
+        } finally {
+            securityMetrics.userLoaded(outcome, start);
+        }
+    }
+
+    private AuthenticatedUser loadAuthenticatedUser(String username) {
         log.debug("Loading user by username: {}", username);
         try {
-            User user = findByUsernameForAuthentication(username)
+            User user = userRepository.findForPrincipalByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-            
-            log.debug("User loaded successfully: {} with {} roles and {} groups", 
-                     username, user.getRoles().size(), user.getGroups().size());
-            
-            return user;
+
+            List<String> authorities = new ArrayList<>();
+            for (Role role : user.getRoles()) {
+                if (role.isEnabled()) {
+                    authorities.add(AuthorityCatalog.ROLE_PREFIX + role.getName());
+                }
+            }
+            // Role, group and inherited group permissions, already resolved by the effective-permission cache
+            authorities.addAll(effectivePermissionService.getPermissionNames(user.getId()));
+
+            AuthenticatedUser principal = AuthenticatedUser.builder()
+                    .id(user.getId())
+                    .username(user.getUsername())
+                    .password(user.getPassword())
+                    .status(user.getStatus())
+                    .enabled(user.isEnabled())
+                    .accountNonExpired(user.isAccountNonExpired())
+                    .accountNonLocked(user.isAccountNonLocked())
+                    .credentialsNonExpired(user.isCredentialsNonExpired())
+                    .version(user.getVersion())
+                    .authorities(AuthoritySet.of(authorities))
+                    .build();
+
+            log.debug("User loaded successfully: {} with {} authorities", username, principal.getAuthorities().size());
+            return principal;
+        } catch (UsernameNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error loading user by username: {}", username, e);
             throw new UsernameNotFoundException("Error loading user with username: " + username, e);
         }
     }
 
+    /** Drop the cached principal once the change is committed, so a concurrent load can't re-cache the old state */
+    private void invalidatePrincipal(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    authenticatedUserCache.invalidate(username);
+                }
+            });
+        } else {
+            authenticatedUserCache.invalidate(username);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<User> findByUsernameForAuthentication(String username) {
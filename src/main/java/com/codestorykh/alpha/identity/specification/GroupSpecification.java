@@ -1,6 +1,7 @@
 package com.codestorykh.alpha.identity.specification;
 
 import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.domain.GroupClosure;
 import com.codestorykh.alpha.identity.dto.GroupSearchCriteria;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
@@ -61,20 +62,12 @@ public class GroupSpecification {
             }
 
             if (criteria.getHasChildren() != null) {
-                if (criteria.getHasChildren()) {
-                    predicates.add(criteriaBuilder.isNotEmpty(root.get("childGroups")));
-                } else {
-                    predicates.add(criteriaBuilder.isEmpty(root.get("childGroups")));
-                }
+                Predicate hasChildren = criteriaBuilder.exists(childPaths(root, query, criteriaBuilder));
+                predicates.add(criteria.getHasChildren() ? hasChildren : criteriaBuilder.not(hasChildren));
             }
 
             if (criteria.getMinChildCount() != null || criteria.getMaxChildCount() != null) {
-                Subquery<Long> childCountSubquery = query.subquery(Long.class);
-                Root<Group> groupSubquery = childCountSubquery.from(Group.class);
-                Join<Group, Group> childJoin = groupSubquery.join("childGroups");
-                
-                childCountSubquery.select(criteriaBuilder.count(childJoin))
-                    .where(criteriaBuilder.equal(groupSubquery.get("id"), root.get("id")));
+                Subquery<Long> childCountSubquery = childCount(root, query, criteriaBuilder);
                 
                 if (criteria.getMinChildCount() != null) {
                     predicates.add(criteriaBuilder.greaterThanOrEqualTo(childCountSubquery, criteria.getMinChildCount().longValue()));
@@ -232,6 +225,30 @@ public class GroupSpecification {
         };
     }
 
+    /**
+     * Groups anywhere below a group whose name matches, resolved through the closure table
+     */
+    public static Specification<Group> withAncestorName(String ancestorName) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(ancestorName)) {
+                return criteriaBuilder.conjunction();
+            }
+            Subquery<Long> subtree = query.subquery(Long.class);
+            Root<GroupClosure> closure = subtree.from(GroupClosure.class);
+            Root<Group> ancestor = subtree.from(Group.class);
+            subtree.select(closure.get("descendantId"))
+                .where(
+                    criteriaBuilder.equal(closure.get("ancestorId"), ancestor.get("id")),
+                    criteriaBuilder.greaterThan(closure.get("depth"), 0),
+                    criteriaBuilder.like(
+                        criteriaBuilder.lower(ancestor.get("name")),
+                        "%" + ancestorName.toLowerCase() + "%"
+                    )
+                );
+            return root.get("id").in(subtree);
+        };
+    }
+
     public static Specification<Group> hasParent() {
         return (root, query, criteriaBuilder) -> criteriaBuilder.isNotNull(root.get("parentGroup"));
     }
@@ -241,11 +258,36 @@ public class GroupSpecification {
     }
 
     public static Specification<Group> hasChildren() {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.isNotEmpty(root.get("childGroups"));
+        return (root, query, criteriaBuilder) -> criteriaBuilder.exists(childPaths(root, query, criteriaBuilder));
     }
 
     public static Specification<Group> hasNoChildren() {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.isEmpty(root.get("childGroups"));
+        return (root, query, criteriaBuilder) -> criteriaBuilder.not(
+            criteriaBuilder.exists(childPaths(root, query, criteriaBuilder)));
+    }
+
+    /**
+     * Depth-one closure rows of the group, one per direct child: an index range read on the closure
+     * key instead of a join back to the groups table
+     */
+    private static Subquery<Long> childPaths(Root<Group> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Subquery<Long> children = query.subquery(Long.class);
+        Root<GroupClosure> closure = children.from(GroupClosure.class);
+        return children.select(closure.get("descendantId"))
+            .where(
+                criteriaBuilder.equal(closure.get("ancestorId"), root.get("id")),
+                criteriaBuilder.equal(closure.get("depth"), 1)
+            );
+    }
+
+    private static Subquery<Long> childCount(Root<Group> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Subquery<Long> count = query.subquery(Long.class);
+        Root<GroupClosure> closure = count.from(GroupClosure.class);
+        return count.select(criteriaBuilder.count(closure))
+            .where(
+                criteriaBuilder.equal(closure.get("ancestorId"), root.get("id")),
+                criteriaBuilder.equal(closure.get("depth"), 1)
+            );
     }
 
     public static Specification<Group> withPermission(String permissionName) {
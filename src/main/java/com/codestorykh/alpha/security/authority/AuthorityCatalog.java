@@ -0,0 +1,158 @@
+package com.codestorykh.alpha.security.authority;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Process-wide intern table for authority names (roles as {@code ROLE_X} and permission names).
+ * Every name gets a small, dense, never-reused int id and one shared {@link GrantedAuthority}
+ * instance, so authority sets can be stored as bitsets and compared without string scans.
+ * <p>
+ * Ids are local to this JVM; never persist them. Use names for anything that leaves the process.
+ * <p>
+ * Only names that exist as roles or permissions get an id. Services {@link #register} the names they
+ * save; anything else met on the request path is checked against the tables by the resolver the
+ * {@link AuthorityCatalogLoader} installs, and names that are not there are left out of authority sets.
+ * Misses are remembered briefly in a bounded cache, and the catalog itself stops at {@link #MAX_SIZE}.
+ */
+public final class AuthorityCatalog {
+
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    /** Hard cap on interned names, far above any real role and permission count */
+    public static final int MAX_SIZE = 1 << 16;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> ROLE_IDS = new ConcurrentHashMap<>();
+    private static final Object LOCK = new Object();
+    private static final Cache<String, Boolean> UNKNOWN = CacheBuilder.newBuilder()
+            .maximumSize(1024)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+    private static final Predicate<String> ACCEPT_ALL = name -> true;
+
+    private static volatile Predicate<String> resolver = ACCEPT_ALL;
+
+    private static volatile GrantedAuthority[] authorities = new GrantedAuthority[64];
+    private static volatile int size;
+
+    private AuthorityCatalog() {
+    }
+
+    /**
+     * Decide which unseen names are real authorities. Until one is installed (plain unit tests,
+     * benchmarks) every name is accepted; {@code null} restores that.
+     */
+    static void useResolver(Predicate<String> knownName) {
+        resolver = knownName != null ? knownName : ACCEPT_ALL;
+        UNKNOWN.invalidateAll();
+    }
+
+    /**
+     * Id of an authority name, assigning one on first sight if the resolver knows the name.
+     * Returns -1 for names that are not roles or permissions.
+     */
+    public static int intern(String authority) {
+        Integer id = IDS.get(authority);
+        if (id != null) {
+            return id;
+        }
+        if (UNKNOWN.getIfPresent(authority) != null) {
+            return -1;
+        }
+
+        boolean known;
+        try {
+            known = resolver.test(authority);
+        } catch (RuntimeException e) {
+            // Not remembered: the lookup failed, it did not say no
+            return -1;
+        }
+        if (!known) {
+            UNKNOWN.put(authority, Boolean.TRUE);
+            return -1;
+        }
+        return register(authority);
+    }
+
+    /** Intern a name that is known to exist as a role or permission */
+    public static int register(String authority) {
+        Integer id = IDS.get(authority);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (LOCK) {
+            id = IDS.get(authority);
+            if (id != null) {
+                return id;
+            }
+            int next = size;
+            if (next == MAX_SIZE) {
+                throw new IllegalStateException("Authority catalog is full (" + MAX_SIZE + " names)");
+            }
+            GrantedAuthority[] current = authorities;
+            if (next == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[next] = new SimpleGrantedAuthority(authority);
+            authorities = current;
+            size = next + 1;
+            // Publish the id last so readers that see it also see the array slot
+            IDS.put(authority, next);
+            if (authority.startsWith(ROLE_PREFIX)) {
+                ROLE_IDS.put(authority.substring(ROLE_PREFIX.length()), next);
+            }
+            UNKNOWN.invalidate(authority);
+            return next;
+        }
+    }
+
+    /** Register a role that is known to exist, by its bare name (without the ROLE_ prefix) */
+    public static int registerRole(String role) {
+        Integer id = ROLE_IDS.get(role);
+        return id != null ? id : register(ROLE_PREFIX + role);
+    }
+
+    /** Id of an authority name, or -1 if it was never interned (and so nobody in a set holds it) */
+    public static int idOf(String authority) {
+        Integer id = IDS.get(authority);
+        return id != null ? id : -1;
+    }
+
+    /** Id of a role by its bare name, or -1 */
+    public static int roleIdOf(String role) {
+        Integer id = ROLE_IDS.get(role);
+        return id != null ? id : -1;
+    }
+
+    /** Shared authority instance for an id */
+    public static GrantedAuthority authority(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown authority id: " + id);
+        }
+        return authorities[id];
+    }
+
+    /** Shared authority instance for a name, or a fresh one for names that are not interned */
+    public static GrantedAuthority authority(String name) {
+        int id = intern(name);
+        return id >= 0 ? authority(id) : new SimpleGrantedAuthority(name);
+    }
+
+    public static String name(int id) {
+        return authority(id).getAuthority();
+    }
+
+    public static int size() {
+        return size;
+    }
+}
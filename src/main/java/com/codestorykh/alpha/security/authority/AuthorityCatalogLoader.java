@@ -0,0 +1,53 @@
+package com.codestorykh.alpha.security.authority;
+
+import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interns every known role and permission name once startup is done, so ids are dense
+ * and request threads rarely need to take the catalog lock. Also tells the catalog how to
+ * check a name it has not seen, e.g. a role created on another node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorityCatalogLoader {
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+
+    @PostConstruct
+    public void init() {
+        AuthorityCatalog.useResolver(this::exists);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        AuthorityCatalog.useResolver(null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        try {
+            roleRepository.findAllNames().forEach(AuthorityCatalog::registerRole);
+            permissionRepository.findAllNames().forEach(AuthorityCatalog::register);
+            log.info("Authority catalog loaded with {} authorities", AuthorityCatalog.size());
+        } catch (Exception e) {
+            log.error("Failed to load authority catalog", e);
+        }
+    }
+
+    boolean exists(String authority) {
+        if (authority.startsWith(AuthorityCatalog.ROLE_PREFIX)) {
+            return roleRepository.existsByName(authority.substring(AuthorityCatalog.ROLE_PREFIX.length()));
+        }
+        return permissionRepository.existsByName(authority);
+    }
+}
@@ -0,0 +1,202 @@
+package com.codestorykh.alpha.security.authority;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.*;
+
+/**
+ * Immutable set of authorities backed by a bitset over {@link AuthorityCatalog} ids.
+ * Membership checks are a bit test; iteration yields the catalog's shared authority instances.
+ */
+public final class AuthoritySet extends AbstractCollection<GrantedAuthority> {
+
+    private static final AuthoritySet EMPTY = new AuthoritySet(new long[0], 0);
+
+    private final long[] bits;
+    private final int size;
+
+    private AuthoritySet(long[] bits, int size) {
+        this.bits = bits;
+        this.size = size;
+    }
+
+    public static AuthoritySet empty() {
+        return EMPTY;
+    }
+
+    /** Build from authority names, interning any that are new; names that are not roles or permissions are dropped */
+    public static AuthoritySet of(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return EMPTY;
+        }
+        BitSet bitSet = new BitSet(AuthorityCatalog.size());
+        for (String name : names) {
+            int id = name != null ? AuthorityCatalog.intern(name) : -1;
+            if (id >= 0) {
+                bitSet.set(id);
+            }
+        }
+        return of(bitSet);
+    }
+
+    public static AuthoritySet fromAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        if (authorities instanceof AuthoritySet authoritySet) {
+            return authoritySet;
+        }
+        if (authorities == null || authorities.isEmpty()) {
+            return EMPTY;
+        }
+        BitSet bitSet = new BitSet(AuthorityCatalog.size());
+        for (GrantedAuthority authority : authorities) {
+            int id = authority != null && authority.getAuthority() != null
+                    ? AuthorityCatalog.intern(authority.getAuthority()) : -1;
+            if (id >= 0) {
+                bitSet.set(id);
+            }
+        }
+        return of(bitSet);
+    }
+
+    public static AuthoritySet of(BitSet bitSet) {
+        int cardinality = bitSet.cardinality();
+        return cardinality == 0 ? EMPTY : new AuthoritySet(bitSet.toLongArray(), cardinality);
+    }
+
+    // ==================== Membership ====================
+
+    public boolean containsId(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    /** Check a full authority name, e.g. {@code ROLE_ADMIN} or {@code user:read} */
+    public boolean containsAuthority(String authority) {
+        return authority != null && containsId(AuthorityCatalog.idOf(authority));
+    }
+
+    /** Check a role by its bare name, e.g. {@code ADMIN} */
+    public boolean hasRole(String role) {
+        return role != null && containsId(AuthorityCatalog.roleIdOf(role));
+    }
+
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAllRoles(String... roles) {
+        for (String role : roles) {
+            if (!hasRole(role)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean containsAny(AuthoritySet other) {
+        int words = Math.min(bits.length, other.bits.length);
+        for (int i = 0; i < words; i++) {
+            if ((bits[i] & other.bits[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean containsAll(AuthoritySet other) {
+        for (int i = 0; i < other.bits.length; i++) {
+            long mine = i < bits.length ? bits[i] : 0L;
+            if ((other.bits[i] & ~mine) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public AuthoritySet union(AuthoritySet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        BitSet merged = BitSet.valueOf(bits);
+        merged.or(BitSet.valueOf(other.bits));
+        return of(merged);
+    }
+
+    /** Authority names in this set */
+    public Set<String> names() {
+        Set<String> names = new LinkedHashSet<>(size * 2);
+        for (GrantedAuthority authority : this) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    // ==================== Collection ====================
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof GrantedAuthority authority) {
+            return containsAuthority(authority.getAuthority());
+        }
+        if (o instanceof String name) {
+            return containsAuthority(name);
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<GrantedAuthority> iterator() {
+        BitSet bitSet = BitSet.valueOf(bits);
+        return new Iterator<>() {
+            private int next = bitSet.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public GrantedAuthority next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                GrantedAuthority authority = AuthorityCatalog.authority(next);
+                next = bitSet.nextSetBit(next + 1);
+                return authority;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof AuthoritySet other && Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bits);
+    }
+}
@@ -0,0 +1,45 @@
+package com.codestorykh.alpha.security.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The part of a stored token that validation needs: a handful of small fields read on every check.
+ * Everything else (scopes, device and audit data) lives in the cold {@link TokenInfo} record, which
+ * only the admin and search APIs load.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenHotRecord {
+
+    /** "ACCESS" or "REFRESH", so one kind of token never validates as the other */
+    private String tokenType;
+    private TokenInfo.TokenStatus status;
+    /** Epoch millis */
+    private long expiresAt;
+    /** Epoch millis, 0 if unknown; compared against the revocation watermarks */
+    private long issuedAt;
+    private String username;
+    private String userId;
+    private String clientId;
+    /** Bumped on every status change */
+    private long version;
+
+    public boolean isExpired() {
+        return expiresAt > 0 && System.currentTimeMillis() >= expiresAt;
+    }
+
+    public boolean isActive() {
+        return status == TokenInfo.TokenStatus.ACTIVE && !isExpired();
+    }
+
+    public Instant issuedAtInstant() {
+        return issuedAt > 0 ? Instant.ofEpochMilli(issuedAt) : null;
+    }
+}
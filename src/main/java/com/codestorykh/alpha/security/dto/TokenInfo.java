@@ -1,10 +1,9 @@
 package com.codestorykh.alpha.security.dto;
 
+import com.codestorykh.alpha.security.authority.AuthoritySet;
 import com.fasterxml.jackson.annotation.JsonFormat;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,7 +13,7 @@ import java.util.Set;
  * DTO for storing comprehensive token information in Redis
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TokenInfo {
@@ -88,6 +87,20 @@ public class TokenInfo {
     // Custom Claims
     private String customClaims;
     
+    // Interned views of roles/permissions, built on first check and reset by the setters
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient AuthoritySet roleSet;
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient AuthoritySet permissionSet;
+    
     public enum TokenStatus {
         ACTIVE,
         EXPIRED,
@@ -172,14 +185,32 @@ public class TokenInfo {
      * Check if token has specific role
      */
     public boolean hasRole(String role) {
-        return roles != null && roles.contains(role);
+        AuthoritySet set = roleSet;
+        if (set == null) {
+            roleSet = set = AuthoritySet.of(roles);
+        }
+        return set.containsAuthority(role);
     }
     
     /**
      * Check if token has specific permission
      */
     public boolean hasPermission(String permission) {
-        return permissions != null && permissions.contains(permission);
+        AuthoritySet set = permissionSet;
+        if (set == null) {
+            permissionSet = set = AuthoritySet.of(permissions);
+        }
+        return set.containsAuthority(permission);
+    }
+    
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+        this.roleSet = null;
+    }
+    
+    public void setPermissions(List<String> permissions) {
+        this.permissions = permissions;
+        this.permissionSet = null;
     }
     
     /**
@@ -0,0 +1,186 @@
+package com.codestorykh.alpha.security.expiry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Expiry-ordered index of stored tokens: sorted sets scored by {@code expiresAt}, one shard per
+ * time bucket, plus a small registry of live shards so the sweeper never has to SCAN.
+ * <p>
+ * A member carries everything needed to clean up after the token (type, hash, user, client and
+ * session), because the token entry itself may already be gone when the sweeper gets to it.
+ * Every command and script touches a single key, so shards spread freely over a Redis Cluster.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenExpiryIndex {
+
+    private static final String SHARD_KEY_PREFIX = "token:expiry:";
+    private static final String SHARDS_KEY = "token:expiry:shards";
+    // ASCII unit separator; cannot appear in usernames, client ids or session ids
+    private static final char SEPARATOR = '\u001F';
+    private static final int PAGE_SIZE = 1000;
+
+    // Pop up to ARGV[2] members scored at or before ARGV[1], atomically so two nodes never sweep the same entry
+    private static final RedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local members = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            if #members > 0 then
+                redis.call('ZREM', KEYS[1], unpack(members))
+            end
+            return members
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${security.token-expiry.shard-width:1h}")
+    private Duration shardWidth;
+
+    public record Entry(String tokenType, String tokenHash, String username, String clientId, String sessionId) {
+
+        String encode() {
+            return String.join(String.valueOf(SEPARATOR), tokenType, tokenHash,
+                    nullToEmpty(username), nullToEmpty(clientId), nullToEmpty(sessionId));
+        }
+
+        static Entry decode(String member) {
+            String[] parts = member.split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("Malformed expiry index member: " + member);
+            }
+            return new Entry(parts[0], parts[1], emptyToNull(parts[2]), emptyToNull(parts[3]), emptyToNull(parts[4]));
+        }
+    }
+
+    // ==================== Indexing ====================
+
+    public void add(Entry entry, Instant expiresAt) {
+        long shard = shardOf(expiresAt);
+        stringRedisTemplate.opsForZSet().add(shardKey(shard), entry.encode(), expiresAt.toEpochMilli());
+        stringRedisTemplate.opsForZSet().add(SHARDS_KEY, String.valueOf(shard), shard);
+    }
+
+    /** Drop an entry that was deleted explicitly, so the sweeper does not count it a second time */
+    public boolean remove(Entry entry, Instant expiresAt) {
+        Long removed = stringRedisTemplate.opsForZSet().remove(shardKey(shardOf(expiresAt)), entry.encode());
+        return removed != null && removed > 0;
+    }
+
+    // ==================== Sweeping ====================
+
+    /**
+     * Claim up to {@code limit} entries that expired at or before {@code now}, oldest shard first.
+     * Claimed entries are removed from the index; the caller owns their cleanup.
+     */
+    public List<Entry> claimExpired(Instant now, int limit) {
+        List<Entry> claimed = new ArrayList<>();
+        if (limit <= 0) {
+            return claimed;
+        }
+        long currentShard = shardOf(now);
+        Set<String> shards = stringRedisTemplate.opsForZSet().rangeByScore(SHARDS_KEY, Double.NEGATIVE_INFINITY, currentShard);
+        if (shards == null) {
+            return claimed;
+        }
+        for (String shard : shards) {
+            int remaining = limit - claimed.size();
+            if (remaining <= 0) {
+                break;
+            }
+            String key = shardKey(Long.parseLong(shard));
+            List<?> members = stringRedisTemplate.execute(CLAIM_SCRIPT, List.of(key),
+                    String.valueOf(now.toEpochMilli()), String.valueOf(remaining));
+            if (members != null) {
+                for (Object member : members) {
+                    try {
+                        claimed.add(Entry.decode((String) member));
+                    } catch (IllegalArgumentException e) {
+                        log.warn(e.getMessage());
+                    }
+                }
+            }
+            // Past shards never receive new entries, so an empty one can leave the registry
+            if (Long.parseLong(shard) < currentShard && Long.valueOf(0).equals(stringRedisTemplate.opsForZSet().zCard(key))) {
+                stringRedisTemplate.opsForZSet().remove(SHARDS_KEY, shard);
+            }
+        }
+        return claimed;
+    }
+
+    // ==================== Enumeration ====================
+
+    /**
+     * Visit every indexed entry, shard by shard in pages of ZRANGE. This is the scan-free way to
+     * enumerate all live tokens; entries may be visited twice or missed if they move while paging.
+     */
+    public void forEach(Consumer<Entry> action) {
+        Set<String> shards = stringRedisTemplate.opsForZSet().range(SHARDS_KEY, 0, -1);
+        if (shards == null) {
+            return;
+        }
+        for (String shard : shards) {
+            String key = shardKey(Long.parseLong(shard));
+            for (long start = 0; ; start += PAGE_SIZE) {
+                Set<String> page = stringRedisTemplate.opsForZSet().range(key, start, start + PAGE_SIZE - 1);
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                for (String member : page) {
+                    try {
+                        action.accept(Entry.decode(member));
+                    } catch (IllegalArgumentException e) {
+                        log.warn(e.getMessage());
+                    }
+                }
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Expiry of the oldest entry still in the index, or null if the index is empty */
+    public Instant oldestExpiry() {
+        Set<String> first = stringRedisTemplate.opsForZSet().range(SHARDS_KEY, 0, 0);
+        if (first == null || first.isEmpty()) {
+            return null;
+        }
+        Set<ZSetOperations.TypedTuple<String>> oldest = stringRedisTemplate.opsForZSet()
+                .rangeWithScores(shardKey(Long.parseLong(first.iterator().next())), 0, 0);
+        if (oldest == null || oldest.isEmpty() || oldest.iterator().next().getScore() == null) {
+            return null;
+        }
+        return Instant.ofEpochMilli(oldest.iterator().next().getScore().longValue());
+    }
+
+    // ==================== Internals ====================
+
+    private long shardOf(Instant expiresAt) {
+        return expiresAt.toEpochMilli() / shardWidth.toMillis();
+    }
+
+    private static String shardKey(long shard) {
+        return SHARD_KEY_PREFIX + shard;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.codestorykh.alpha.security.expiry;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Drives expired-token cleanup off the {@link TokenExpiryIndex}. Each pass claims a bounded batch,
+ * further capped by a rate limiter so a backlog (e.g. after an outage) drains gradually instead of
+ * competing with foreground Redis traffic. The limiter is only ever polled, never waited on, so a
+ * pass never blocks the shared scheduler thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenExpirySweeper {
+
+    private final TokenExpiryIndex expiryIndex;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.token-expiry.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${security.token-expiry.max-per-second:500}")
+    private double maxPerSecond;
+
+    private RateLimiter rateLimiter;
+    private Counter swept;
+    private Counter failed;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        rateLimiter = RateLimiter.create(maxPerSecond);
+        swept = Counter.builder("token.expiry.swept")
+                .description("Expired tokens removed by the sweeper")
+                .register(meterRegistry);
+        failed = Counter.builder("token.expiry.sweep.failures")
+                .description("Expired tokens whose cleanup failed")
+                .register(meterRegistry);
+        Gauge.builder("token.expiry.sweep.lag", lagMillis, AtomicLong::get)
+                .description("How long the oldest unswept token has been expired")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run one sweep pass.
+     *
+     * @param cleanup removes the token and its secondary mappings; runs once per claimed entry
+     * @return number of entries cleaned up
+     */
+    public int sweep(Consumer<TokenExpiryIndex.Entry> cleanup) {
+        int allowance = 0;
+        while (allowance < batchSize && rateLimiter.tryAcquire()) {
+            allowance++;
+        }
+
+        Instant now = Instant.now();
+        List<TokenExpiryIndex.Entry> entries = expiryIndex.claimExpired(now, allowance);
+        int cleaned = 0;
+        for (TokenExpiryIndex.Entry entry : entries) {
+            try {
+                cleanup.accept(entry);
+                cleaned++;
+            } catch (Exception e) {
+                // Claimed entries are not re-queued; whatever is left behind still expires by TTL
+                failed.increment();
+                log.debug("Failed to sweep expired {} token {}: {}", entry.tokenType(), entry.tokenHash(), e.getMessage());
+            }
+        }
+        swept.increment(cleaned);
+
+        Instant oldest = expiryIndex.oldestExpiry();
+        lagMillis.set(oldest != null && oldest.isBefore(now) ? now.toEpochMilli() - oldest.toEpochMilli() : 0L);
+        if (cleaned > 0) {
+            log.debug("Swept {} expired tokens, lag {} ms", cleaned, lagMillis.get());
+        }
+        return cleaned;
+    }
+}
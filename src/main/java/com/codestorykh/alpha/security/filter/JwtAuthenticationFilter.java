@@ -1,7 +1,9 @@
 package com.codestorykh.alpha.security.filter;
 
 import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
 import com.codestorykh.alpha.security.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,10 +26,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final RevocationWatermarks revocationWatermarks;
 
-    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserService userService) {
+    public JwtAuthenticationFilter(JwtService jwtService, @Lazy UserService userService,
+                                   RevocationWatermarks revocationWatermarks) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.revocationWatermarks = revocationWatermarks;
     }
 
     @Override
@@ -47,10 +52,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
+            // Verified once; everything below reads these claims instead of parsing the token again
+            Claims claims = jwtService.parseClaims(jwt);
+            username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 UserDetails userDetails = userService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)
+                        && !revocationWatermarks.isRevoked(username, null, JwtService.issuedAt(claims))) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -0,0 +1,113 @@
+package com.codestorykh.alpha.security.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the authentication hot path, all registered at startup:
+ * <ul>
+ *     <li>{@code auth.jwt.sign} by {@code type} (access, refresh) and {@code outcome}</li>
+ *     <li>{@code auth.jwt.verify} by {@code outcome} (valid, expired, invalid)</li>
+ *     <li>{@code auth.user.load} ({@code loadUserByUsername}) by {@code outcome} (found, not_found, error)</li>
+ *     <li>{@code auth.password.hash} by {@code operation} (encode, matches) and {@code outcome}</li>
+ * </ul>
+ * Callers take {@link System#nanoTime()} before the operation and hand it over with the outcome.
+ */
+@Component
+public class SecurityMetrics {
+
+    public enum JwtVerification {
+        VALID, EXPIRED, INVALID
+    }
+
+    public enum UserLoad {
+        FOUND, NOT_FOUND, ERROR
+    }
+
+    private static final Duration[] JWT_SLOS = {
+            Duration.ofNanos(50_000), Duration.ofNanos(100_000), Duration.ofNanos(250_000),
+            Duration.ofMillis(1), Duration.ofMillis(5)
+    };
+    private static final Duration[] USER_LOAD_SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100), Duration.ofMillis(250)
+    };
+    private static final Duration[] PASSWORD_SLOS = {
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500)
+    };
+
+    private final Timer accessSigned;
+    private final Timer accessSignFailed;
+    private final Timer refreshSigned;
+    private final Timer refreshSignFailed;
+    private final Timer[] verified = new Timer[JwtVerification.values().length];
+    private final Timer[] userLoaded = new Timer[UserLoad.values().length];
+    private final Timer passwordEncoded;
+    private final Timer passwordMatched;
+    private final Timer passwordMismatched;
+
+    public SecurityMetrics(MeterRegistry meterRegistry) {
+        accessSigned = timer(meterRegistry, "auth.jwt.sign", "JWT signing", JWT_SLOS, "type", "access", "outcome", "success");
+        refreshSigned = timer(meterRegistry, "auth.jwt.sign", "JWT signing", JWT_SLOS, "type", "refresh", "outcome", "success");
+        accessSignFailed = timer(meterRegistry, "auth.jwt.sign", "JWT signing", JWT_SLOS, "type", "access", "outcome", "failure");
+        refreshSignFailed = timer(meterRegistry, "auth.jwt.sign", "JWT signing", JWT_SLOS, "type", "refresh", "outcome", "failure");
+        for (JwtVerification outcome : JwtVerification.values()) {
+            verified[outcome.ordinal()] = timer(meterRegistry, "auth.jwt.verify", "JWT signature and claim verification",
+                    JWT_SLOS, "outcome", outcome.name().toLowerCase());
+        }
+        for (UserLoad outcome : UserLoad.values()) {
+            userLoaded[outcome.ordinal()] = timer(meterRegistry, "auth.user.load", "loadUserByUsername",
+                    USER_LOAD_SLOS, "outcome", outcome.name().toLowerCase());
+        }
+        passwordEncoded = timer(meterRegistry, "auth.password.hash", "Password hashing", PASSWORD_SLOS,
+                "operation", "encode", "outcome", "success");
+        passwordMatched = timer(meterRegistry, "auth.password.hash", "Password hashing", PASSWORD_SLOS,
+                "operation", "matches", "outcome", "match");
+        passwordMismatched = timer(meterRegistry, "auth.password.hash", "Password hashing", PASSWORD_SLOS,
+                "operation", "matches", "outcome", "mismatch");
+    }
+
+    // ==================== JWT ====================
+
+    public void jwtSigned(boolean refresh, boolean success, long startNanos) {
+        if (refresh) {
+            record(success ? refreshSigned : refreshSignFailed, startNanos);
+        } else {
+            record(success ? accessSigned : accessSignFailed, startNanos);
+        }
+    }
+
+    public void jwtVerified(JwtVerification outcome, long startNanos) {
+        record(verified[outcome.ordinal()], startNanos);
+    }
+
+    // ==================== Users and passwords ====================
+
+    public void userLoaded(UserLoad outcome, long startNanos) {
+        record(userLoaded[outcome.ordinal()], startNanos);
+    }
+
+    public void passwordEncoded(long startNanos) {
+        record(passwordEncoded, startNanos);
+    }
+
+    public void passwordMatched(boolean matched, long startNanos) {
+        record(matched ? passwordMatched : passwordMismatched, startNanos);
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String description, Duration[] slos,
+                               String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .serviceLevelObjectives(slos)
+                .register(meterRegistry);
+    }
+}
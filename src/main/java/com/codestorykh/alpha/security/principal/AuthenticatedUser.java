@@ -0,0 +1,47 @@
+package com.codestorykh.alpha.security.principal;
+
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.security.authority.AuthoritySet;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Immutable, Hibernate-free snapshot of a user used as the security principal.
+ * Built once per user from the entity and shared between requests until invalidated.
+ * <p>
+ * Deliberately not a {@code CredentialsContainer}: instances are cached, so erasing the
+ * password after one login would break the next.
+ */
+@Getter
+@Builder
+@ToString(exclude = "password")
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public final class AuthenticatedUser implements UserDetails {
+
+    @EqualsAndHashCode.Include
+    private final Long id;
+    @EqualsAndHashCode.Include
+    private final String username;
+    private final String password;
+    private final UserStatus status;
+    /** Already folds in the status, as {@code User.isEnabled()} does */
+    private final boolean enabled;
+    private final boolean accountNonExpired;
+    private final boolean accountNonLocked;
+    private final boolean credentialsNonExpired;
+    /** Entity version the snapshot was taken from */
+    private final Long version;
+    /** Roles (ROLE_X) plus effective permission names */
+    private final AuthoritySet authorities;
+
+    public boolean hasRole(String role) {
+        return authorities.hasRole(role);
+    }
+
+    public boolean hasAuthority(String authority) {
+        return authorities.containsAuthority(authority);
+    }
+}
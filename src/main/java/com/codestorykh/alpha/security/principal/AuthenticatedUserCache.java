@@ -0,0 +1,107 @@
+package com.codestorykh.alpha.security.principal;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Node-local cache of {@link AuthenticatedUser} snapshots by username.
+ * <p>
+ * Invalidations apply locally at once and are published on the {@link InvalidationBus}, so every
+ * other node drops its copy too. A message lost while a node is unsubscribed (or Redis is down) is
+ * covered by the TTL. Every invalidation also bumps the matching {@link PrincipalVersionStamps} stamp.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuthenticatedUserCache {
+
+    private static final String ALL = "*";
+    private static final char SEPARATOR = '\n';
+
+    private final PrincipalVersionStamps versionStamps;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${identity.principal.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${identity.principal.cache-ttl:60s}")
+    private Duration cacheTtl;
+
+    @Value("${identity.principal.invalidation-channel:principal:invalidations}")
+    private String channel;
+
+    private Cache<String, AuthenticatedUser> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        invalidationBus.subscribe(channel, this::onInvalidation);
+    }
+
+    /** Cached snapshot, loading it at most once per username when absent */
+    public AuthenticatedUser get(String username, Supplier<AuthenticatedUser> loader) {
+        try {
+            return cache.get(username, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // Let UsernameNotFoundException and friends through unwrapped
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load principal for " + username, e.getCause());
+        }
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        versionStamps.bumpUser(username);
+        invalidationBus.publish(channel, username);
+    }
+
+    /** Users whose roles or effective permissions changed; each gets its own stamp bump */
+    public void invalidateUsers(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        for (String username : usernames) {
+            cache.invalidate(username);
+            versionStamps.bumpUser(username);
+        }
+        invalidationBus.publish(channel, String.join(String.valueOf(SEPARATOR), usernames));
+    }
+
+    /** Only for changes that affect everyone, such as a permission or role definition edit */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        versionStamps.bumpAll();
+        invalidationBus.publish(channel, ALL);
+        log.debug("Invalidated all cached principals");
+    }
+
+    // ==================== Internals ====================
+
+    private void onInvalidation(String payload) {
+        if (ALL.equals(payload)) {
+            cache.invalidateAll();
+            return;
+        }
+        for (String username : payload.split(String.valueOf(SEPARATOR))) {
+            cache.invalidate(username);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.codestorykh.alpha.security.principal;
+
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.codestorykh.alpha.utils.redis.RedisKeyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cluster-visible version stamps for principals. A per-user stamp is bumped whenever that user's
+ * principal is invalidated, and a global stamp whenever many principals go stale at once (role or
+ * group changes). Anything that snapshots a principal outside the database, such as a refresh-token
+ * family, records both stamps and treats the snapshot as stale once either one moves.
+ * <p>
+ * Users are spread over {@value #STRIPES} stripes, and the global stamp is kept once per stripe. The
+ * user stamp and the user's copy of the global stamp share the stripe's hash tag ({@link #tag}), so
+ * a script can read both, together with other keys carrying that tag, on a Redis Cluster. A global
+ * bump increments every copy; it is rare next to reads.
+ * <p>
+ * Bumps go through {@link RedisGuard}. One that cannot reach Redis is kept and retried once the
+ * breaker closes, so a snapshot taken before an outage still goes stale after it; past
+ * {@code security.degraded.max-deferred-writes} pending keys they collapse into a global bump.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalVersionStamps {
+
+    public static final int STRIPES = 64;
+    private static final String KEY_PREFIX = "principal:stamp:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisGuard redisGuard;
+
+    @Value("${security.degraded.max-deferred-writes:10000}")
+    private int maxPendingBumps;
+
+    private final Set<String> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    /** Hash tag of the user's stripe, for keys that must be read together with the user's stamps */
+    public static String tag(String username) {
+        return RedisKeyUtils.stripeTag("p", username, STRIPES);
+    }
+
+    public static String userKey(String username) {
+        return KEY_PREFIX + tag(username) + ":" + username;
+    }
+
+    /** The copy of the global stamp in the user's stripe */
+    public static String globalKey(String username) {
+        return KEY_PREFIX + "global:" + tag(username);
+    }
+
+    public void bumpUser(String username) {
+        bump(userKey(username));
+    }
+
+    public void bumpAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            bump(globalKey(stripe));
+        }
+    }
+
+    /** Retry bumps that failed while Redis was unavailable */
+    @Scheduled(fixedDelayString = "${security.degraded.reconcile-interval:5000}")
+    public void retryPendingBumps() {
+        if (pendingBumps.isEmpty() || !redisGuard.isAvailable()) {
+            return;
+        }
+        int retried = 0;
+        for (String key : pendingBumps) {
+            if (!increment(key)) {
+                break;
+            }
+            pendingBumps.remove(key);
+            retried++;
+        }
+        log.info("Applied {} principal stamp bumps deferred while Redis was unavailable, {} left", retried, pendingBumps.size());
+    }
+
+    // ==================== Internals ====================
+
+    private static String globalKey(int stripe) {
+        return KEY_PREFIX + "global:" + RedisKeyUtils.stripeTag("p", stripe);
+    }
+
+    private void bump(String key) {
+        if (redisGuard.isAvailable() && increment(key)) {
+            return;
+        }
+        if (pendingBumps.size() >= maxPendingBumps) {
+            // Every snapshot goes stale either way; the global copies are a bounded set of keys
+            pendingBumps.clear();
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                pendingBumps.add(globalKey(stripe));
+            }
+        }
+        pendingBumps.add(key);
+    }
+
+    private boolean increment(String key) {
+        try {
+            redisGuard.run(() -> stringRedisTemplate.opsForValue().increment(key));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to bump principal stamp {}, retrying once Redis is available: {}", key, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.codestorykh.alpha.security.refresh;
+
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.codestorykh.alpha.security.authority.AuthoritySet;
+import com.codestorykh.alpha.security.principal.AuthenticatedUser;
+import com.codestorykh.alpha.security.principal.PrincipalVersionStamps;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Refresh-token families: every login starts a family, and each refresh atomically swaps the
+ * family's current token for its successor. Presenting any other token of the family means a
+ * rotated token was replayed, so the whole family is revoked.
+ * <p>
+ * A family also keeps a snapshot of the principal (id, username, authority names) stamped with the
+ * {@link PrincipalVersionStamps} at the time it was taken. A rotation is one script call that also
+ * compares the stamps, so refreshing needs neither a database read nor a second round trip unless
+ * the user changed since the snapshot.
+ * <p>
+ * A family key carries its user's stripe tag ({@link PrincipalVersionStamps#tag}), like the user stamp
+ * and the stripe's copy of the global stamp, so both scripts read every stamp themselves and only touch
+ * keys of one slot on a Redis Cluster.
+ * <p>
+ * Every call goes through {@link RedisGuard}, so while Redis is down logins and refreshes fail or
+ * degrade at once instead of waiting for the command timeout. {@code security.degraded.refresh-families}
+ * decides which: FAIL_CLOSED rejects them, FAIL_OPEN lets a login through without a family (its
+ * refresh token can not be rotated later) and answers a rotation with {@link Outcome#UNVERIFIED}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenFamilies {
+
+    private static final String KEY_PREFIX = "refresh:family:";
+    // Authority names are catalog names; a newline never appears in one
+    private static final String AUTHORITY_SEPARATOR = "\n";
+
+    // KEYS[2] is the user stamp, KEYS[3] the global stamp
+    private static final String STAMP = """
+            local stamp = (redis.call('GET', KEYS[2]) or '0') .. ':' .. (redis.call('GET', KEYS[3]) or '0')
+            """;
+
+    // ARGV: token hash, user id, username, authorities, ttl millis
+    private static final RedisScript<Long> START_SCRIPT = new DefaultRedisScript<>(STAMP + """
+            redis.call('HSET', KEYS[1], 'current', ARGV[1], 'uid', ARGV[2], 'user', ARGV[3], 'auth', ARGV[4],
+                    'stamp', stamp, 'revoked', '0')
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return 1
+            """, Long.class);
+
+    // ARGV: presented token hash, successor token hash, ttl millis
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local f = redis.call('HMGET', KEYS[1], 'current', 'revoked', 'stamp', 'uid', 'user', 'auth')
+            if not f[1] then
+                return {'MISSING'}
+            end
+            if f[2] == '1' then
+                return {'REVOKED'}
+            end
+            if f[1] ~= ARGV[1] then
+                redis.call('HSET', KEYS[1], 'revoked', '1')
+                return {'REUSED'}
+            end
+            redis.call('HSET', KEYS[1], 'current', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            """ + STAMP + """
+            if stamp ~= f[3] then
+                return {'STALE', stamp, f[4], f[5], f[6]}
+            end
+            return {'ROTATED', stamp, f[4], f[5], f[6]}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisGuard redisGuard;
+
+    // Answer while Redis is unavailable
+    @Value("${security.degraded.refresh-families:FAIL_CLOSED}")
+    private FailurePolicy degradedPolicy;
+
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpiration;
+
+    public enum Outcome {
+        /** Swapped, and the snapshot is current */
+        ROTATED,
+        /** Swapped, but the user changed since the snapshot; reload it and call {@link #updateSnapshot} */
+        STALE,
+        /** A rotated token was presented again; the family is now revoked */
+        REUSED,
+        REVOKED,
+        MISSING,
+        /** Redis unavailable under FAIL_OPEN: nothing swapped and reuse not checked; load the user from the database */
+        UNVERIFIED
+    }
+
+    public record Snapshot(Long userId, String username, Set<String> authorities) {
+
+        public static Snapshot of(UserDetails userDetails) {
+            Long userId = userDetails instanceof AuthenticatedUser user ? user.getId() : null;
+            return new Snapshot(userId, userDetails.getUsername(),
+                    AuthoritySet.fromAuthorities(userDetails.getAuthorities()).names());
+        }
+
+        /** Principal rebuilt from the snapshot; only valid while the stamps match */
+        public AuthenticatedUser toPrincipal() {
+            return AuthenticatedUser.builder()
+                    .id(userId)
+                    .username(username)
+                    .enabled(true)
+                    .accountNonExpired(true)
+                    .accountNonLocked(true)
+                    .credentialsNonExpired(true)
+                    .authorities(AuthoritySet.of(authorities))
+                    .build();
+        }
+    }
+
+    public record Rotation(Outcome outcome, String stamp, Snapshot snapshot) {
+    }
+
+    // ==================== Operations ====================
+
+    /**
+     * @return false if Redis was unavailable and FAIL_OPEN let the login through without a family
+     */
+    public boolean start(String familyId, Snapshot snapshot, String tokenHash) {
+        try {
+            redisGuard.run(() -> stringRedisTemplate.execute(START_SCRIPT, keys(familyId, snapshot.username()),
+                    tokenHash, userIdOf(snapshot), snapshot.username(), authoritiesOf(snapshot), String.valueOf(refreshExpiration)));
+            return true;
+        } catch (RuntimeException e) {
+            if (!RedisGuard.isUnavailable(e) || !degradedPolicy.allows()) {
+                throw e;
+            }
+            log.warn("Redis unavailable, refresh family {} of user {} not recorded", familyId, snapshot.username());
+            return false;
+        }
+    }
+
+    /**
+     * Swap the family's current token for its successor, in one round trip.
+     *
+     * @param username subject of the presented token; selects the user stamp to compare
+     */
+    public Rotation rotate(String familyId, String username, String presentedHash, String successorHash) {
+        List<?> result;
+        try {
+            result = redisGuard.execute(() -> stringRedisTemplate.execute(ROTATE_SCRIPT, keys(familyId, username),
+                    presentedHash, successorHash, String.valueOf(refreshExpiration)));
+        } catch (RuntimeException e) {
+            if (!RedisGuard.isUnavailable(e) || !degradedPolicy.allows()) {
+                throw e;
+            }
+            log.warn("Redis unavailable, refreshing user {} without rotating family {}", username, familyId);
+            return new Rotation(Outcome.UNVERIFIED, null, null);
+        }
+        if (result == null || result.isEmpty()) {
+            return new Rotation(Outcome.MISSING, null, null);
+        }
+        Outcome outcome = Outcome.valueOf((String) result.get(0));
+        if (outcome == Outcome.REUSED) {
+            log.warn("Refresh token reuse detected for user {}, revoked family {}", username, familyId);
+        }
+        if (outcome != Outcome.ROTATED && outcome != Outcome.STALE) {
+            return new Rotation(outcome, null, null);
+        }
+        String userId = (String) result.get(2);
+        String authorities = (String) result.get(4);
+        Snapshot snapshot = new Snapshot(
+                userId == null || userId.isEmpty() ? null : Long.valueOf(userId),
+                (String) result.get(3),
+                authorities == null || authorities.isEmpty()
+                        ? Set.of()
+                        : new LinkedHashSet<>(Arrays.asList(authorities.split(AUTHORITY_SEPARATOR))));
+        return new Rotation(outcome, (String) result.get(1), snapshot);
+    }
+
+    /**
+     * Replace a stale snapshot.
+     *
+     * @param stamp the stamp returned by {@link #rotate}, read before the user was reloaded, so a
+     *              change racing with the reload still marks the snapshot stale next time
+     */
+    public void updateSnapshot(String familyId, Snapshot snapshot, String stamp) {
+        try {
+            redisGuard.run(() -> stringRedisTemplate.opsForHash().putAll(key(familyId, snapshot.username()), Map.of(
+                    "uid", userIdOf(snapshot),
+                    "user", snapshot.username(),
+                    "auth", authoritiesOf(snapshot),
+                    "stamp", stamp)));
+        } catch (RuntimeException e) {
+            // The old snapshot stays stale, so the next refresh reloads the user again
+            log.warn("Failed to update snapshot of refresh family {}: {}", familyId, e.getMessage());
+        }
+    }
+
+    /**
+     * Best effort: a family whose user may no longer sign in is only revoked after its snapshot went
+     * stale, and stays stale, so every later refresh rechecks the user in any case
+     */
+    public void revoke(String familyId, String username) {
+        try {
+            redisGuard.run(() -> stringRedisTemplate.opsForHash().put(key(familyId, username), "revoked", "1"));
+        } catch (RuntimeException e) {
+            log.warn("Failed to revoke refresh family {}: {}", familyId, e.getMessage());
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private static List<String> keys(String familyId, String username) {
+        return List.of(key(familyId, username), PrincipalVersionStamps.userKey(username),
+                PrincipalVersionStamps.globalKey(username));
+    }
+
+    private static String key(String familyId, String username) {
+        return KEY_PREFIX + PrincipalVersionStamps.tag(username) + ":" + familyId;
+    }
+
+    private static String userIdOf(Snapshot snapshot) {
+        return snapshot.userId() != null ? String.valueOf(snapshot.userId()) : "";
+    }
+
+    private static String authoritiesOf(Snapshot snapshot) {
+        return String.join(AUTHORITY_SEPARATOR, snapshot.authorities());
+    }
+}
@@ -0,0 +1,155 @@
+package com.codestorykh.alpha.security.revocation;
+
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Tokens valid after" watermarks per user and per client. Any token issued at or before the
+ * watermark millisecond counts as revoked, so revoking every session is one Redis write instead of
+ * one blacklist entry per token.
+ * <p>
+ * Watermarks live in Redis and are mirrored in a short-lived local cache; the cache TTL bounds how
+ * long another node keeps accepting tokens after a mass revocation. JWT {@code iat} only has second
+ * precision, so tokens carry their issue millisecond as well (see {@code JwtService#issuedAt}) and
+ * a login right after a revocation is not rejected with it.
+ * While Redis is unavailable, a watermark that is not cached follows
+ * {@code security.degraded.revocation-checks}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationWatermarks {
+
+    private static final String USER_KEY_PREFIX = "revocation:watermark:user:";
+    private static final String CLIENT_KEY_PREFIX = "revocation:watermark:client:";
+    private static final Long NONE = 0L;
+
+    // Only ever moves the watermark forward, whichever node's clock is ahead; returns the watermark in force
+    private static final RedisScript<Long> RAISE_SCRIPT = new DefaultRedisScript<>("""
+            local current = tonumber(redis.call('GET', KEYS[1]))
+            local raised = tonumber(ARGV[1])
+            if current and current >= raised then
+                return current
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return raised
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisGuard redisGuard;
+
+    // Answer while Redis is unavailable and the watermark is not cached
+    @Value("${security.degraded.revocation-checks:FAIL_OPEN}")
+    private FailurePolicy revocationPolicy;
+
+    @Value("${security.revocation.watermark-cache-ttl:5s}")
+    private Duration cacheTtl;
+
+    @Value("${security.revocation.watermark-cache-size:100000}")
+    private long cacheSize;
+
+    // Once every token older than this has expired the watermark is no longer needed
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpiration;
+
+    private Cache<String, Long> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    // ==================== Revocation ====================
+
+    /** Revoke every token issued to the user so far */
+    public void revokeAllForUser(String username) {
+        raise(USER_KEY_PREFIX + username);
+        log.info("Revoked all tokens of user {}", username);
+    }
+
+    /** Revoke every token issued to the client so far */
+    public void revokeAllForClient(String clientId) {
+        raise(CLIENT_KEY_PREFIX + clientId);
+        log.info("Revoked all tokens of client {}", clientId);
+    }
+
+    // ==================== Checks ====================
+
+    /**
+     * @param username  token subject, may be null
+     * @param clientId  client the token was issued to, may be null
+     * @param issuedAt  when the token was issued; a token without it is revoked as soon as any watermark applies
+     */
+    public boolean isRevoked(String username, String clientId, Instant issuedAt) {
+        long watermark = Math.max(
+                username != null ? watermark(USER_KEY_PREFIX + username) : 0L,
+                clientId != null ? watermark(CLIENT_KEY_PREFIX + clientId) : 0L);
+        if (watermark == 0L) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.toEpochMilli() <= watermark;
+    }
+
+    public long getUserWatermark(String username) {
+        return watermark(USER_KEY_PREFIX + username);
+    }
+
+    public long getClientWatermark(String clientId) {
+        return watermark(CLIENT_KEY_PREFIX + clientId);
+    }
+
+    // ==================== Internals ====================
+
+    /** Fails rather than pretending to revoke while Redis is unavailable */
+    private void raise(String key) {
+        String now = String.valueOf(System.currentTimeMillis());
+        Long watermark = redisGuard.execute(() -> stringRedisTemplate.execute(RAISE_SCRIPT, List.of(key), now,
+                String.valueOf(refreshExpiration)));
+        if (watermark != null) {
+            cache.put(key, watermark);
+        }
+    }
+
+    private long watermark(String key) {
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!redisGuard.isAvailable()) {
+            return unavailable();
+        }
+        try {
+            String value = redisGuard.execute(() -> stringRedisTemplate.opsForValue().get(key));
+            long watermark = value != null ? Long.parseLong(value) : NONE;
+            cache.put(key, watermark);
+            return watermark;
+        } catch (RuntimeException e) {
+            // Not cached, so the next request retries Redis
+            log.warn("Failed to read revocation watermark {}: {}", key, e.getMessage());
+            return unavailable();
+        }
+    }
+
+    /** Watermark assumed while Redis cannot be read: none, or one that revokes everything */
+    private long unavailable() {
+        return revocationPolicy.allows() ? NONE : Long.MAX_VALUE;
+    }
+}
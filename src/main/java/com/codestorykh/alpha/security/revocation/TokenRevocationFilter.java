@@ -0,0 +1,313 @@
+package com.codestorykh.alpha.security.revocation;
+
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.stream.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-node negative cache in front of the Redis token blacklist.
+ * <p>
+ * Revoked token fingerprints go into Bloom filters bucketed by token expiry, so a whole bucket
+ * can be dropped once every token in it has expired. Revocations are appended to a Redis stream
+ * that every node replays on startup and tails afterwards. A filter miss means "definitely not
+ * revoked" and skips Redis; a hit (real or false positive) falls through to the authoritative check.
+ * Until the stream has been replayed, or while tailing it fails, every check falls through.
+ * <p>
+ * A check cannot tell which bucket a token's revocation went into, so it asks every live bucket.
+ * Each bucket is therefore sized for the configured false positive rate divided by the most
+ * buckets that can be live at once, which keeps the rate of the whole check at the target. The
+ * stream keeps every entry younger than the longest token lifetime, since an older revocation
+ * only concerns a token that has expired.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationFilter {
+
+    private static final String FIELD_HASH = "h";
+    private static final String FIELD_EXPIRES = "exp";
+    private static final int REPLAY_PAGE_SIZE = 10_000;
+
+    // Drop entries older than ARGV[1] (a stream id); approximate, so whole macro nodes go at once
+    private static final RedisScript<Long> TRIM_SCRIPT = new DefaultRedisScript<>(
+            "return redis.call('XTRIM', KEYS[1], 'MINID', '~', ARGV[1])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ConfigurationService configurationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.revocation.filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.revocation.stream-key:token:revocations}")
+    private String streamKey;
+
+    // Longest a revocation stays relevant; defaults to the longer of the access and refresh token lifetimes
+    @Value("${security.revocation.retention:}")
+    private Duration retention;
+
+    @Value("${security.revocation.bucket-width:1h}")
+    private Duration bucketWidth;
+
+    @Value("${security.revocation.expected-per-bucket:100000}")
+    private long expectedPerBucket;
+
+    @Value("${security.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${security.revocation.poll-timeout:1s}")
+    private Duration pollTimeout;
+
+    // Bucket index (expiry / bucket width) -> filter
+    private final ConcurrentMap<Long, RevocationBloomFilter> buckets = new ConcurrentHashMap<>();
+
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> container;
+    private volatile boolean ready;
+    private volatile long lastStreamErrorAt;
+
+    private Counter negatives;
+    private Counter positives;
+    private Counter bypasses;
+
+    @PostConstruct
+    public void init() {
+        negatives = counter("negative");
+        positives = counter("positive");
+        bypasses = counter("bypass");
+        Gauge.builder("token.revocation.filter.buckets", buckets, Map::size)
+                .description("Live revocation filter buckets")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            bootstrap();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    // ==================== Checks ====================
+
+    /**
+     * @param tokenHash hex SHA-256 of the token
+     * @return false only if the token is certainly not revoked
+     */
+    public boolean mightBeRevoked(String tokenHash) {
+        if (!isTrusted()) {
+            bypasses.increment();
+            return true;
+        }
+        return mightContain(tokenHash);
+    }
+
+    /**
+     * Answer from this node's filters even when they may be behind the stream. Only for degraded
+     * mode, where Redis cannot be asked and a possibly incomplete answer beats none.
+     */
+    public boolean mightBeRevokedLocally(String tokenHash) {
+        return enabled && mightContain(tokenHash);
+    }
+
+    private boolean mightContain(String tokenHash) {
+        long h1 = Long.parseUnsignedLong(tokenHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(tokenHash, 16, 32, 16);
+        long currentBucket = bucketOf(System.currentTimeMillis());
+        for (Map.Entry<Long, RevocationBloomFilter> bucket : buckets.entrySet()) {
+            // Buckets behind the current one only hold expired tokens, rotate() just hasn't run yet
+            if (bucket.getKey() >= currentBucket && bucket.getValue().mightContain(h1, h2)) {
+                positives.increment();
+                return true;
+            }
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Record a revocation locally and announce it to the other nodes. Call this before writing the
+     * blacklist entry: if the announcement fails the revocation must fail too, otherwise other nodes
+     * would keep answering "not revoked" from their filters.
+     */
+    public void revoked(String tokenHash, Instant expiresAt) {
+        revokedLocally(tokenHash, expiresAt);
+        if (enabled) {
+            stringRedisTemplate.opsForStream().add(StreamRecords.string(Map.of(
+                    FIELD_HASH, tokenHash,
+                    FIELD_EXPIRES, String.valueOf(expiresAt.toEpochMilli())
+            )).withStreamKey(streamKey));
+        }
+    }
+
+    /**
+     * Record a revocation in this node's filters only, for when the stream is unreachable; it must be
+     * announced with {@link #revoked} once Redis is back
+     */
+    public void revokedLocally(String tokenHash, Instant expiresAt) {
+        add(tokenHash, expiresAt.toEpochMilli());
+    }
+
+    public boolean isTrusted() {
+        return enabled && ready && System.currentTimeMillis() - lastStreamErrorAt > pollTimeout.toMillis() * 2;
+    }
+
+    // ==================== Maintenance ====================
+
+    /** Drop buckets whose tokens have all expired, trim the stream and retry a failed bootstrap */
+    @Scheduled(fixedDelayString = "${security.revocation.rotate-interval:60000}")
+    public void rotate() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long currentBucket = bucketOf(now);
+        buckets.keySet().removeIf(bucket -> bucket < currentBucket);
+        buckets.forEach((bucket, filter) -> {
+            if (filter.isSaturated()) {
+                log.warn("Revocation filter bucket {} holds {} entries (sized for {}), false positives will rise",
+                        bucket, filter.insertions(), expectedPerBucket);
+            }
+        });
+
+        if (!ready) {
+            bootstrap();
+            return;
+        }
+        try {
+            // Stream ids start with the append time, and nothing appended before now - retention is still live
+            String minId = (now - retention().toMillis()) + "-0";
+            stringRedisTemplate.execute(TRIM_SCRIPT, List.of(streamKey), minId);
+        } catch (Exception e) {
+            log.debug("Failed to trim revocation stream: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void bootstrap() {
+        if (ready) {
+            return;
+        }
+        try {
+            String lastId = replay();
+            container = StreamMessageListenerContainer.create(connectionFactory,
+                    StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
+                            .pollTimeout(pollTimeout)
+                            .build());
+            container.register(StreamMessageListenerContainer.StreamReadRequest
+                            .builder(StreamOffset.create(streamKey, ReadOffset.from(lastId)))
+                            .cancelOnError(e -> false)
+                            .errorHandler(this::markStreamError)
+                            .build(),
+                    message -> add(message.getValue().get(FIELD_HASH), Long.parseLong(message.getValue().get(FIELD_EXPIRES))));
+            container.start();
+            ready = true;
+            log.info("Token revocation filter ready: {} live buckets, tailing {} from {}", buckets.size(), streamKey, lastId);
+        } catch (Exception e) {
+            if (container != null) {
+                container.stop();
+                container = null;
+            }
+            log.warn("Token revocation filter not ready, blacklist checks go to Redis: {}", e.getMessage());
+        }
+    }
+
+    /** Load every revocation that is still relevant, returning the last stream id seen */
+    private String replay() {
+        String lastId = "0-0";
+        Range<String> range = Range.unbounded();
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        while (true) {
+            List<MapRecord<String, Object, Object>> page = stringRedisTemplate.opsForStream()
+                    .range(streamKey, range, Limit.limit().count(REPLAY_PAGE_SIZE));
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            for (MapRecord<String, Object, Object> record : page) {
+                long expiresAt = Long.parseLong((String) record.getValue().get(FIELD_EXPIRES));
+                if (expiresAt > now) {
+                    add((String) record.getValue().get(FIELD_HASH), expiresAt);
+                    loaded++;
+                }
+                lastId = record.getId().getValue();
+            }
+            if (page.size() < REPLAY_PAGE_SIZE) {
+                break;
+            }
+            range = Range.from(Range.Bound.exclusive(lastId)).to(Range.Bound.unbounded());
+        }
+        log.debug("Replayed {} live revocations from {}", loaded, streamKey);
+        return lastId;
+    }
+
+    private void add(String tokenHash, long expiresAtMillis) {
+        if (tokenHash == null || tokenHash.length() < 32 || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        long h1 = Long.parseUnsignedLong(tokenHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(tokenHash, 16, 32, 16);
+        buckets.computeIfAbsent(bucketOf(expiresAtMillis),
+                        bucket -> new RevocationBloomFilter(expectedPerBucket, falsePositiveRate / maxLiveBuckets()))
+                .put(h1, h2);
+    }
+
+    private Duration retention() {
+        if (retention != null) {
+            return retention;
+        }
+        return Duration.ofMillis(Math.max(configurationService.getJwtExpiration(),
+                configurationService.getJwtRefreshExpiration()));
+    }
+
+    /** Buckets a check can hit: the current one plus every one a live revocation can expire in */
+    int maxLiveBuckets() {
+        return Math.toIntExact(Math.ceilDiv(retention().toMillis(), bucketWidth.toMillis()) + 1);
+    }
+
+    private void markStreamError(Throwable e) {
+        lastStreamErrorAt = System.currentTimeMillis();
+        log.warn("Revocation stream unavailable, blacklist checks go to Redis: {}", e.getMessage());
+    }
+
+    private long bucketOf(long epochMillis) {
+        return epochMillis / bucketWidth.toMillis();
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("token.revocation.filter")
+                .description("Blacklist checks answered by the revocation filter")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
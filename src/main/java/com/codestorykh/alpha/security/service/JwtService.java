@@ -2,29 +2,42 @@ package com.codestorykh.alpha.security.service;
 
 import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
 import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics.JwtVerification;
 import io.jsonwebtoken.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
 
+    /** Refresh-token family id, see {@code RefreshTokenFamilies} */
+    public static final String FAMILY_CLAIM = "fid";
+
+    /** Issue time in epoch milliseconds; {@code iat} only has seconds, too coarse for revocation watermarks */
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
     private final ConfigurationService configurationService;
     private final JwtConfigurationProperties jwtConfigurationProperties;
     private final SecretKey signingKey;
+    private final SecurityMetrics securityMetrics;
 
-    public JwtService(ConfigurationService configurationService, JwtConfigurationProperties jwtConfigurationProperties, SecretKey signingKey) {
+    public JwtService(ConfigurationService configurationService, JwtConfigurationProperties jwtConfigurationProperties,
+                      SecretKey signingKey, SecurityMetrics securityMetrics) {
         this.configurationService = configurationService;
         this.jwtConfigurationProperties = jwtConfigurationProperties;
         this.signingKey = signingKey;
+        this.securityMetrics = securityMetrics;
         log.info("🔐 JWT Service initialized with configuration: {}", jwtConfigurationProperties.getJwtConfigSummary());
     }
 
@@ -36,19 +49,46 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    public Date extractIssuedAt(String token) {
+        return extractClaim(token, Claims::getIssuedAt);
+    }
+
+    /**
+     * When the token was issued, to the millisecond if it says so; null when it carries no issue time
+     */
+    public static Instant issuedAt(Claims claims) {
+        Long millis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (millis != null) {
+            return Instant.ofEpochMilli(millis);
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify the token and return all of its claims in one parse
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private Claims extractAllClaims(String token) {
+        long start = System.nanoTime();
+        JwtVerification outcome = JwtVerification.INVALID;
         try {
-            return Jwts.parserBuilder()
+            Claims claims = Jwts.parserBuilder()
                     .setSigningKey(signingKey)
                     .build()
                     .parseClaimsJws(token)
                     .getBody();
+            outcome = JwtVerification.VALID;
+            return claims;
         } catch (ExpiredJwtException e) {
+            outcome = JwtVerification.EXPIRED;
             log.error("❌ JWT token is expired: {}", e.getMessage());
             throw new JwtException("Token is expired", e);
         } catch (UnsupportedJwtException e) {
@@ -68,6 +108,8 @@ public class JwtService {
         } catch (Exception e) {
             log.error("❌ Unexpected error while parsing JWT token: {}", e.getMessage());
             throw new JwtException("Token parsing error", e);
+        } finally {
+            securityMetrics.jwtVerified(outcome, start);
         }
     }
 
@@ -76,124 +118,103 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        String token = buildToken(extraClaims, userDetails, jwtConfigurationProperties.getJwtExpiration());
+        String token = buildToken(extraClaims, userDetails, jwtConfigurationProperties.getJwtExpiration(), false);
         log.debug("✅ Generated JWT token for user: {}", userDetails.getUsername());
         return token;
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        String token = buildToken(new HashMap<>(), userDetails, jwtConfigurationProperties.getJwtRefreshExpiration());
-        log.debug("✅ Generated refresh token for user: {}", userDetails.getUsername());
+    /**
+     * Generate a refresh token belonging to a rotation family. It carries no authorities (the family
+     * snapshot does) and a unique id, so two tokens issued in the same second never collide.
+     */
+    public String generateRefreshToken(String username, String familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(FAMILY_CLAIM, familyId);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        String token = buildToken(claims, username, null, jwtConfigurationProperties.getJwtRefreshExpiration(), true);
+        log.debug("✅ Generated refresh token for user: {} in family: {}", username, familyId);
         return token;
     }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
-        log.debug("🔐 Building JWT token with expiration: {}ms", expiration);
+    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration, boolean refresh) {
         log.debug("🔐 User details: username={}, authorities={}", userDetails.getUsername(), userDetails.getAuthorities());
+        return buildToken(extraClaims, userDetails.getUsername(), userDetails.getAuthorities(), expiration, refresh);
+    }
+
+    private String buildToken(Map<String, Object> extraClaims, String username, Object authorities, long expiration,
+                              boolean refresh) {
+        log.debug("🔐 Building JWT token with expiration: {}ms", expiration);
         
+        long start = System.nanoTime();
         try {
-            // Validate signing key before use
-            validateSigningKeyForUse();
-            
-            String token = Jwts.builder()
+            // The key was proven with a sign and parse round trip at startup (JwtConfigurationValidator);
+            // re-checking it, or parsing the token just built, would triple the cost of every sign
+            if (signingKey == null) {
+                throw new IllegalStateException("Signing key is null");
+            }
+
+            long now = System.currentTimeMillis();
+            JwtBuilder builder = Jwts.builder()
                     .setClaims(extraClaims)
-                    .setSubject(userDetails.getUsername())
-                    .setIssuedAt(new Date(System.currentTimeMillis()))
-                    .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                    .setSubject(username)
+                    .setIssuedAt(new Date(now))
+                    .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                    .setExpiration(new Date(now + expiration))
                     .setIssuer(jwtConfigurationProperties.getJwtIssuer())
-                    .setAudience(jwtConfigurationProperties.getJwtAudience())
-                    .claim("authorities", userDetails.getAuthorities())
+                    .setAudience(jwtConfigurationProperties.getJwtAudience());
+            if (authorities != null) {
+                builder.claim("authorities", authorities);
+            }
+            String token = builder
                     .signWith(signingKey, SignatureAlgorithm.HS256)
                     .compact();
-            
-            // Validate the generated token immediately
-            validateGeneratedToken(token, userDetails.getUsername());
-            
-            log.debug("✅ JWT token generated and validated successfully for user: {}", userDetails.getUsername());
+
+            securityMetrics.jwtSigned(refresh, true, start);
+            log.debug("✅ JWT token generated successfully for user: {}", username);
             return token;
         } catch (Exception e) {
-            log.error("❌ Failed to generate JWT token for user: {}", userDetails.getUsername(), e);
+            securityMetrics.jwtSigned(refresh, false, start);
+            log.error("❌ Failed to generate JWT token for user: {}", username, e);
             throw new RuntimeException("Failed to generate JWT token", e);
         }
     }
 
-    /**
-     * Validate the signing key before using it
-     */
-    private void validateSigningKeyForUse() {
-        if (signingKey == null) {
-            throw new RuntimeException("Signing key is null");
-        }
-        
+    public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            // Quick validation by generating a test token
-            String testToken = Jwts.builder()
-                    .setSubject("validation-test")
-                    .setIssuedAt(new Date())
-                    .setExpiration(new Date(System.currentTimeMillis() + 1000))
-                    .signWith(signingKey, SignatureAlgorithm.HS256)
-                    .compact();
-            
-            // Parse it back to ensure it works
-            Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(testToken);
-                    
-            log.debug("✅ Signing key validation successful");
+            return isTokenValid(extractAllClaims(token), userDetails);
         } catch (Exception e) {
-            log.error("❌ Signing key validation failed", e);
-            throw new RuntimeException("Signing key is invalid", e);
+            log.error("❌ Token validation failed: {}", e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Validate the generated token immediately after creation
+     * Validate claims already verified by {@link #parseClaims}, without parsing the token again
      */
-    private void validateGeneratedToken(String token, String expectedUsername) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(signingKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            if (!expectedUsername.equals(claims.getSubject())) {
-                throw new RuntimeException("Generated token subject mismatch");
-            }
-            
-            log.debug("✅ Generated token validation successful for user: {}", expectedUsername);
-        } catch (Exception e) {
-            log.error("❌ Generated token validation failed for user: {}", expectedUsername, e);
-            throw new RuntimeException("Generated token validation failed", e);
-        }
-    }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            boolean isValid = (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-            log.debug("🔐 Token validation for user {}: {}", username, isValid);
-            return isValid;
-        } catch (Exception e) {
-            log.error("❌ Token validation failed: {}", e.getMessage());
-            return false;
-        }
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        boolean isValid = userDetails.getUsername().equals(username) && !isTokenExpired(claims);
+        log.debug("🔐 Token validation for user {}: {}", username, isValid);
+        return isValid;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() == null || claims.getExpiration().before(new Date());
     }
 
     public boolean validateToken(String token) {
+        long start = System.nanoTime();
+        JwtVerification outcome = JwtVerification.INVALID;
         try {
             Jwts.parserBuilder()
                     .setSigningKey(signingKey)
                     .build()
                     .parseClaimsJws(token);
+            outcome = JwtVerification.VALID;
             log.debug("✅ Token validation successful");
             return true;
         } catch (ExpiredJwtException e) {
+            outcome = JwtVerification.EXPIRED;
             log.error("❌ Token is expired: {}", e.getMessage());
             return false;
         } catch (UnsupportedJwtException e) {
@@ -211,6 +232,8 @@ public class JwtService {
         } catch (Exception e) {
             log.error("❌ Unexpected error during token validation: {}", e.getMessage());
             return false;
+        } finally {
+            securityMetrics.jwtVerified(outcome, start);
         }
     }
 
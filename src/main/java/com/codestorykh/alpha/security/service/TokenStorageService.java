@@ -166,13 +166,19 @@ public interface TokenStorageService {
      */
     void incrementTokenUsage(String token, String tokenType);
 
+    /**
+     * Increment token usage count when the caller already holds the token info (e.g. from validateToken),
+     * so the use is also counted for the token's user and client
+     */
+    void incrementTokenUsage(String token, TokenInfo tokenInfo);
+
     /**
      * Get token usage statistics
      */
     TokenUsageStats getTokenUsageStats(String username);
 
     /**
-     * Get token usage statistics for all users
+     * Get token usage statistics of every user, by username
      */
     Map<String, TokenUsageStats> getAllTokenUsageStats();
 
@@ -193,6 +199,16 @@ public interface TokenStorageService {
      */
     void cleanupAllTokensForUser(String username);
 
+    /**
+     * Revoke every token issued to a user so far with a single watermark write
+     */
+    void revokeAllTokensForUser(String username, String reason);
+
+    /**
+     * Revoke every token issued to a client so far with a single watermark write
+     */
+    void revokeAllTokensForClient(String clientId, String reason);
+
     /**
      * Clean up all tokens for a session
      */
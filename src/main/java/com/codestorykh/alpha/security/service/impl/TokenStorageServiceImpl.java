@@ -1,19 +1,44 @@
 package com.codestorykh.alpha.security.service.impl;
 
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
 import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.common.metrics.OperationTimers;
 import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.security.dto.TokenHotRecord;
 import com.codestorykh.alpha.security.dto.TokenInfo;
+import com.codestorykh.alpha.security.expiry.TokenExpiryIndex;
+import com.codestorykh.alpha.security.expiry.TokenExpirySweeper;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.revocation.TokenRevocationFilter;
 import com.codestorykh.alpha.security.service.TokenStorageService;
+import com.codestorykh.alpha.security.stats.TokenCounters;
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import com.codestorykh.alpha.security.stats.TokenUsageBuffer;
+import com.codestorykh.alpha.security.storage.LocalTokenStore;
+import com.codestorykh.alpha.security.storage.TokenHotStore;
+import com.codestorykh.alpha.security.storage.TokenIndexStore;
+import com.codestorykh.alpha.utils.encryption.EncryptionUtils;
+import com.codestorykh.alpha.utils.redis.RedisKeyUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,26 +49,62 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     private final CacheService cacheService;
     private final RedisTemplate<String, Object> redisTemplate;
     private final ConfigurationService configurationService;
+    private final TokenRevocationFilter revocationFilter;
+    private final RevocationWatermarks revocationWatermarks;
+    private final TokenStatisticsRecorder tokenStatistics;
+    private final TokenExpiryIndex expiryIndex;
+    private final TokenExpirySweeper expirySweeper;
+    private final TokenUsageBuffer usageBuffer;
+    private final TokenHotStore hotStore;
+    private final TokenIndexStore indexStore;
+    private final RedisGuard redisGuard;
+    private final LocalTokenStore localStore;
+    private final MeterRegistry meterRegistry;
+
+    // Degraded mode: answers while Redis is unavailable, and writes replayed once it is back
+    @Value("${security.degraded.unknown-tokens:FAIL_CLOSED}")
+    private FailurePolicy unknownTokenPolicy;
+
+    @Value("${security.degraded.revocation-checks:FAIL_OPEN}")
+    private FailurePolicy revocationPolicy;
+
+    @Value("${security.degraded.max-deferred-writes:10000}")
+    private int maxDeferredWrites;
+
+    private final Queue<Runnable> deferredWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deferredCount = new AtomicInteger();
 
     // Cache names
     private static final String ACCESS_TOKEN_CACHE = "access-tokens";
     private static final String REFRESH_TOKEN_CACHE = "refresh-tokens";
     private static final String TOKEN_BLACKLIST_CACHE = "token-blacklist";
     private static final String TOKEN_STATS_CACHE = "token-stats";
-    private static final String USER_TOKENS_CACHE = "user-tokens";
+    // RedisCacheManager key layout: "<cache name>::<key>"
+    private static final String CACHE_KEY_SEPARATOR = "::";
 
     // Key prefixes
     private static final String ACCESS_TOKEN_PREFIX = "access:";
     private static final String REFRESH_TOKEN_PREFIX = "refresh:";
     private static final String BLACKLIST_PREFIX = "blacklist:";
-    private static final String USER_TOKENS_PREFIX = "user:";
-    private static final String CLIENT_TOKENS_PREFIX = "client:";
-    private static final String SESSION_TOKENS_PREFIX = "session:";
 
-    // Metrics tracking
-    private final Map<String, AtomicLong> operationCounters = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> successCounters = new ConcurrentHashMap<>();
-    private final Map<String, AtomicLong> failureCounters = new ConcurrentHashMap<>();
+    // Metrics: one timer per operation and outcome, registered at startup
+    private enum TokenOperation {
+        STORE_ACCESS_TOKEN, GET_ACCESS_TOKEN_INFO, IS_ACCESS_TOKEN_VALID, INVALIDATE_ACCESS_TOKEN, DELETE_ACCESS_TOKEN,
+        GET_USER_ACCESS_TOKENS, STORE_REFRESH_TOKEN, GET_REFRESH_TOKEN_INFO, IS_REFRESH_TOKEN_VALID,
+        INVALIDATE_REFRESH_TOKEN, DELETE_REFRESH_TOKEN, GET_USER_REFRESH_TOKENS, STORE_TOKEN_PAIR, GET_TOKEN_PAIR_INFO,
+        INVALIDATE_TOKEN_PAIR, DELETE_TOKEN_PAIR, VALIDATE_TOKEN, IS_TOKEN_BLACKLISTED, BLACKLIST_TOKEN,
+        INCREMENT_TOKEN_USAGE, GET_TOKEN_USAGE_STATS, GET_ALL_TOKEN_USAGE_STATS, CLEANUP_EXPIRED_TOKENS,
+        CLEANUP_EXPIRED_TOKENS_FOR_USER, REVOKE_ALL_TOKENS_FOR_USER, REVOKE_ALL_TOKENS_FOR_CLIENT, CLEANUP_TOKENS_FOR_SESSION
+    }
+
+    private OperationTimers<TokenOperation> operationTimers;
+
+    @PostConstruct
+    public void initMetrics() {
+        operationTimers = new OperationTimers<>(meterRegistry, "token.storage.operation",
+                "Token storage operations", TokenOperation.class,
+                Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100), Duration.ofMillis(500));
+    }
 
     // ==================== ACCESS TOKEN OPERATIONS ====================
 
@@ -55,36 +116,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void storeAccessToken(String token, TokenInfo tokenInfo, Duration ttl) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = ACCESS_TOKEN_PREFIX + tokenHash;
-            
-            // Set token info
-            cacheService.set(ACCESS_TOKEN_CACHE, key, tokenInfo, ttl);
-            
-            // Store user token mapping
-            if (tokenInfo.getUsername() != null) {
-                String userKey = USER_TOKENS_PREFIX + tokenInfo.getUsername() + ":access:" + tokenHash;
-                cacheService.set(USER_TOKENS_CACHE, userKey, tokenInfo, ttl);
-            }
-            
-            // Store client token mapping
-            if (tokenInfo.getClientId() != null) {
-                String clientKey = CLIENT_TOKENS_PREFIX + tokenInfo.getClientId() + ":access";
-                cacheService.set(USER_TOKENS_CACHE, clientKey + ":" + tokenHash, tokenInfo, ttl);
-            }
-            
-            // Store session token mapping
-            if (tokenInfo.getSessionId() != null) {
-                String sessionKey = SESSION_TOKENS_PREFIX + tokenInfo.getSessionId() + ":access";
-                cacheService.set(USER_TOKENS_CACHE, sessionKey + ":" + tokenHash, tokenInfo, ttl);
-            }
-            
-            incrementOperationCounter("storeAccessToken", true);
+            storeToken(TokenStatisticsRecorder.ACCESS, token, tokenInfo, ttl);
+            operationTimers.record(TokenOperation.STORE_ACCESS_TOKEN, true, start);
             log.debug("Stored access token for user: {}", tokenInfo.getUsername());
             
         } catch (Exception e) {
-            incrementOperationCounter("storeAccessToken", false);
+            operationTimers.record(TokenOperation.STORE_ACCESS_TOKEN, false, start);
             log.error("Failed to store access token for user: {}", tokenInfo.getUsername(), e);
             throw new RuntimeException("Failed to store access token", e);
         }
@@ -92,16 +131,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public Optional<TokenInfo> getAccessTokenInfo(String token) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = ACCESS_TOKEN_PREFIX + tokenHash;
-            
-            Optional<TokenInfo> tokenInfo = cacheService.get(ACCESS_TOKEN_CACHE, key, TokenInfo.class);
-            incrementOperationCounter("getAccessTokenInfo", tokenInfo.isPresent());
+            Optional<TokenInfo> tokenInfo = getTokenInfo(TokenStatisticsRecorder.ACCESS, generateTokenHash(token));
+            operationTimers.record(TokenOperation.GET_ACCESS_TOKEN_INFO, tokenInfo.isPresent(), start);
             
             return tokenInfo;
         } catch (Exception e) {
-            incrementOperationCounter("getAccessTokenInfo", false);
+            operationTimers.record(TokenOperation.GET_ACCESS_TOKEN_INFO, false, start);
             log.error("Failed to get access token info", e);
             return Optional.empty();
         }
@@ -109,20 +146,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public boolean isAccessTokenValid(String token) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo = getAccessTokenInfo(token);
-            if (tokenInfo.isEmpty()) {
-                return false;
-            }
-            
-            TokenInfo info = tokenInfo.get();
-            boolean isValid = info.isActive() && !isTokenBlacklisted(token);
+            boolean isValid = validHotRecord(TokenStatisticsRecorder.ACCESS, token).isPresent();
             
-            incrementOperationCounter("isAccessTokenValid", isValid);
+            operationTimers.record(TokenOperation.IS_ACCESS_TOKEN_VALID, isValid, start);
             return isValid;
             
         } catch (Exception e) {
-            incrementOperationCounter("isAccessTokenValid", false);
+            operationTimers.record(TokenOperation.IS_ACCESS_TOKEN_VALID, false, start);
             log.error("Failed to validate access token", e);
             return false;
         }
@@ -130,27 +162,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void invalidateAccessToken(String token, String reason) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo = getAccessTokenInfo(token);
-            if (tokenInfo.isPresent()) {
-                TokenInfo info = tokenInfo.get();
-                info.setStatus(TokenInfo.TokenStatus.REVOKED);
-                info.setStatusReason(reason);
-                info.setUpdatedAt(LocalDateTime.now());
-                
-                // Update the stored token info
-                Duration ttl = Duration.ofMillis(configurationService.getJwtExpiration());
-                cacheService.set(ACCESS_TOKEN_CACHE, ACCESS_TOKEN_PREFIX + generateTokenHash(token), info, ttl);
-                
-                // Add to blacklist
-                blacklistToken(token, reason, ttl);
-            }
+            Duration ttl = Duration.ofMillis(configurationService.getJwtExpiration());
+            Optional<TokenHotRecord> record = invalidateToken(TokenStatisticsRecorder.ACCESS, token, reason, ttl);
             
-            incrementOperationCounter("invalidateAccessToken", true);
-            log.debug("Invalidated access token for user: {}", tokenInfo.map(TokenInfo::getUsername).orElse("unknown"));
+            operationTimers.record(TokenOperation.INVALIDATE_ACCESS_TOKEN, true, start);
+            log.debug("Invalidated access token for user: {}", record.map(TokenHotRecord::getUsername).orElse("unknown"));
             
         } catch (Exception e) {
-            incrementOperationCounter("invalidateAccessToken", false);
+            operationTimers.record(TokenOperation.INVALIDATE_ACCESS_TOKEN, false, start);
             log.error("Failed to invalidate access token", e);
             throw new RuntimeException("Failed to invalidate access token", e);
         }
@@ -158,27 +179,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void deleteAccessToken(String token) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = ACCESS_TOKEN_PREFIX + tokenHash;
-            
-            cacheService.delete(ACCESS_TOKEN_CACHE, key);
-            
-            // Clean up user mapping
-            Optional<TokenInfo> tokenInfo = getAccessTokenInfo(token);
-            if (tokenInfo.isPresent()) {
-                TokenInfo info = tokenInfo.get();
-                if (info.getUsername() != null) {
-                    String userKey = USER_TOKENS_PREFIX + info.getUsername() + ":access:" + tokenHash;
-                    cacheService.delete(USER_TOKENS_CACHE, userKey);
-                }
-            }
+            deleteToken(TokenStatisticsRecorder.ACCESS, generateTokenHash(token));
             
-            incrementOperationCounter("deleteAccessToken", true);
+            operationTimers.record(TokenOperation.DELETE_ACCESS_TOKEN, true, start);
             log.debug("Deleted access token");
             
         } catch (Exception e) {
-            incrementOperationCounter("deleteAccessToken", false);
+            operationTimers.record(TokenOperation.DELETE_ACCESS_TOKEN, false, start);
             log.error("Failed to delete access token", e);
             throw new RuntimeException("Failed to delete access token", e);
         }
@@ -186,21 +195,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public List<TokenInfo> getUserAccessTokens(String username) {
+        long start = System.nanoTime();
         try {
-            String pattern = USER_TOKENS_PREFIX + username + ":access:*";
-            Set<String> keys = cacheService.getKeys(pattern);
+            List<TokenInfo> tokens = loadColdRecords(TokenStatisticsRecorder.ACCESS,
+                indexStore.userTokens(TokenStatisticsRecorder.ACCESS, username));
             
-            List<TokenInfo> tokens = new ArrayList<>();
-            for (String key : keys) {
-                Optional<TokenInfo> tokenInfo = cacheService.get(USER_TOKENS_CACHE, key, TokenInfo.class);
-                tokenInfo.ifPresent(tokens::add);
-            }
-            
-            incrementOperationCounter("getUserAccessTokens", true);
+            operationTimers.record(TokenOperation.GET_USER_ACCESS_TOKENS, true, start);
             return tokens;
             
         } catch (Exception e) {
-            incrementOperationCounter("getUserAccessTokens", false);
+            operationTimers.record(TokenOperation.GET_USER_ACCESS_TOKENS, false, start);
             log.error("Failed to get user access tokens for: {}", username, e);
             return new ArrayList<>();
         }
@@ -210,6 +214,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     public List<TokenInfo> getUserActiveAccessTokens(String username) {
         return getUserAccessTokens(username).stream()
             .filter(TokenInfo::isActive)
+            .filter(token -> !isRevokedByWatermark(token))
             .collect(Collectors.toList());
     }
 
@@ -223,24 +228,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void storeRefreshToken(String token, TokenInfo tokenInfo, Duration ttl) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = REFRESH_TOKEN_PREFIX + tokenHash;
-            
-            // Set token info
-            cacheService.set(REFRESH_TOKEN_CACHE, key, tokenInfo, ttl);
-            
-            // Store user token mapping
-            if (tokenInfo.getUsername() != null) {
-                String userKey = USER_TOKENS_PREFIX + tokenInfo.getUsername() + ":refresh:" + tokenHash;
-                cacheService.set(USER_TOKENS_CACHE, userKey, tokenInfo, ttl);
-            }
-            
-            incrementOperationCounter("storeRefreshToken", true);
+            storeToken(TokenStatisticsRecorder.REFRESH, token, tokenInfo, ttl);
+            operationTimers.record(TokenOperation.STORE_REFRESH_TOKEN, true, start);
             log.debug("Stored refresh token for user: {}", tokenInfo.getUsername());
             
         } catch (Exception e) {
-            incrementOperationCounter("storeRefreshToken", false);
+            operationTimers.record(TokenOperation.STORE_REFRESH_TOKEN, false, start);
             log.error("Failed to store refresh token for user: {}", tokenInfo.getUsername(), e);
             throw new RuntimeException("Failed to store refresh token", e);
         }
@@ -248,16 +243,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public Optional<TokenInfo> getRefreshTokenInfo(String token) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = REFRESH_TOKEN_PREFIX + tokenHash;
-            
-            Optional<TokenInfo> tokenInfo = cacheService.get(REFRESH_TOKEN_CACHE, key, TokenInfo.class);
-            incrementOperationCounter("getRefreshTokenInfo", tokenInfo.isPresent());
+            Optional<TokenInfo> tokenInfo = getTokenInfo(TokenStatisticsRecorder.REFRESH, generateTokenHash(token));
+            operationTimers.record(TokenOperation.GET_REFRESH_TOKEN_INFO, tokenInfo.isPresent(), start);
             
             return tokenInfo;
         } catch (Exception e) {
-            incrementOperationCounter("getRefreshTokenInfo", false);
+            operationTimers.record(TokenOperation.GET_REFRESH_TOKEN_INFO, false, start);
             log.error("Failed to get refresh token info", e);
             return Optional.empty();
         }
@@ -265,20 +258,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public boolean isRefreshTokenValid(String token) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo = getRefreshTokenInfo(token);
-            if (tokenInfo.isEmpty()) {
-                return false;
-            }
+            boolean isValid = validHotRecord(TokenStatisticsRecorder.REFRESH, token).isPresent();
             
-            TokenInfo info = tokenInfo.get();
-            boolean isValid = info.isActive() && !isTokenBlacklisted(token);
-            
-            incrementOperationCounter("isRefreshTokenValid", isValid);
+            operationTimers.record(TokenOperation.IS_REFRESH_TOKEN_VALID, isValid, start);
             return isValid;
             
         } catch (Exception e) {
-            incrementOperationCounter("isRefreshTokenValid", false);
+            operationTimers.record(TokenOperation.IS_REFRESH_TOKEN_VALID, false, start);
             log.error("Failed to validate refresh token", e);
             return false;
         }
@@ -286,27 +274,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void invalidateRefreshToken(String token, String reason) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo = getRefreshTokenInfo(token);
-            if (tokenInfo.isPresent()) {
-                TokenInfo info = tokenInfo.get();
-                info.setStatus(TokenInfo.TokenStatus.REVOKED);
-                info.setStatusReason(reason);
-                info.setUpdatedAt(LocalDateTime.now());
-                
-                // Update the stored token info
-                Duration ttl = Duration.ofMillis(configurationService.getJwtRefreshExpiration());
-                cacheService.set(REFRESH_TOKEN_CACHE, REFRESH_TOKEN_PREFIX + generateTokenHash(token), info, ttl);
-                
-                // Add to blacklist
-                blacklistToken(token, reason, ttl);
-            }
+            Duration ttl = Duration.ofMillis(configurationService.getJwtRefreshExpiration());
+            Optional<TokenHotRecord> record = invalidateToken(TokenStatisticsRecorder.REFRESH, token, reason, ttl);
             
-            incrementOperationCounter("invalidateRefreshToken", true);
-            log.debug("Invalidated refresh token for user: {}", tokenInfo.map(TokenInfo::getUsername).orElse("unknown"));
+            operationTimers.record(TokenOperation.INVALIDATE_REFRESH_TOKEN, true, start);
+            log.debug("Invalidated refresh token for user: {}", record.map(TokenHotRecord::getUsername).orElse("unknown"));
             
         } catch (Exception e) {
-            incrementOperationCounter("invalidateRefreshToken", false);
+            operationTimers.record(TokenOperation.INVALIDATE_REFRESH_TOKEN, false, start);
             log.error("Failed to invalidate refresh token", e);
             throw new RuntimeException("Failed to invalidate refresh token", e);
         }
@@ -314,27 +291,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void deleteRefreshToken(String token) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = REFRESH_TOKEN_PREFIX + tokenHash;
-            
-            cacheService.delete(REFRESH_TOKEN_CACHE, key);
+            deleteToken(TokenStatisticsRecorder.REFRESH, generateTokenHash(token));
             
-            // Clean up user mapping
-            Optional<TokenInfo> tokenInfo = getRefreshTokenInfo(token);
-            if (tokenInfo.isPresent()) {
-                TokenInfo info = tokenInfo.get();
-                if (info.getUsername() != null) {
-                    String userKey = USER_TOKENS_PREFIX + info.getUsername() + ":refresh:" + tokenHash;
-                    cacheService.delete(USER_TOKENS_CACHE, userKey);
-                }
-            }
-            
-            incrementOperationCounter("deleteRefreshToken", true);
+            operationTimers.record(TokenOperation.DELETE_REFRESH_TOKEN, true, start);
             log.debug("Deleted refresh token");
             
         } catch (Exception e) {
-            incrementOperationCounter("deleteRefreshToken", false);
+            operationTimers.record(TokenOperation.DELETE_REFRESH_TOKEN, false, start);
             log.error("Failed to delete refresh token", e);
             throw new RuntimeException("Failed to delete refresh token", e);
         }
@@ -342,21 +307,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public List<TokenInfo> getUserRefreshTokens(String username) {
+        long start = System.nanoTime();
         try {
-            String pattern = USER_TOKENS_PREFIX + username + ":refresh:*";
-            Set<String> keys = cacheService.getKeys(pattern);
-            
-            List<TokenInfo> tokens = new ArrayList<>();
-            for (String key : keys) {
-                Optional<TokenInfo> tokenInfo = cacheService.get(USER_TOKENS_CACHE, key, TokenInfo.class);
-                tokenInfo.ifPresent(tokens::add);
-            }
+            List<TokenInfo> tokens = loadColdRecords(TokenStatisticsRecorder.REFRESH,
+                indexStore.userTokens(TokenStatisticsRecorder.REFRESH, username));
             
-            incrementOperationCounter("getUserRefreshTokens", true);
+            operationTimers.record(TokenOperation.GET_USER_REFRESH_TOKENS, true, start);
             return tokens;
             
         } catch (Exception e) {
-            incrementOperationCounter("getUserRefreshTokens", false);
+            operationTimers.record(TokenOperation.GET_USER_REFRESH_TOKENS, false, start);
             log.error("Failed to get user refresh tokens for: {}", username, e);
             return new ArrayList<>();
         }
@@ -366,6 +326,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     public List<TokenInfo> getUserActiveRefreshTokens(String username) {
         return getUserRefreshTokens(username).stream()
             .filter(TokenInfo::isActive)
+            .filter(token -> !isRevokedByWatermark(token))
             .collect(Collectors.toList());
     }
 
@@ -382,6 +343,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public void storeTokenPair(String accessToken, TokenInfo accessTokenInfo, Duration accessTokenTtl,
                               String refreshToken, TokenInfo refreshTokenInfo, Duration refreshTokenTtl) {
+        long start = System.nanoTime();
         try {
             // Store access token
             storeAccessToken(accessToken, accessTokenInfo, accessTokenTtl);
@@ -398,15 +360,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
             refreshTokenInfo.setParentTokenId(accessTokenHash);
             refreshTokenInfo.setParentTokenHash(accessTokenHash);
             
-            // Update stored tokens with links
-            cacheService.set(ACCESS_TOKEN_CACHE, ACCESS_TOKEN_PREFIX + accessTokenHash, accessTokenInfo, accessTokenTtl);
-            cacheService.set(REFRESH_TOKEN_CACHE, REFRESH_TOKEN_PREFIX + refreshTokenHash, refreshTokenInfo, refreshTokenTtl);
+            // Update stored cold records with links
+            cacheService.set(ACCESS_TOKEN_CACHE, ACCESS_TOKEN_PREFIX + accessTokenHash, coldRecord(accessTokenInfo, accessTokenHash), accessTokenTtl);
+            cacheService.set(REFRESH_TOKEN_CACHE, REFRESH_TOKEN_PREFIX + refreshTokenHash, coldRecord(refreshTokenInfo, refreshTokenHash), refreshTokenTtl);
             
-            incrementOperationCounter("storeTokenPair", true);
+            operationTimers.record(TokenOperation.STORE_TOKEN_PAIR, true, start);
             log.debug("Stored token pair for user: {}", accessTokenInfo.getUsername());
             
         } catch (Exception e) {
-            incrementOperationCounter("storeTokenPair", false);
+            operationTimers.record(TokenOperation.STORE_TOKEN_PAIR, false, start);
             log.error("Failed to store token pair for user: {}", accessTokenInfo.getUsername(), e);
             throw new RuntimeException("Failed to store token pair", e);
         }
@@ -414,21 +376,22 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public Optional<TokenPairInfo> getTokenPairInfo(String accessToken, String refreshToken) {
+        long start = System.nanoTime();
         try {
             Optional<TokenInfo> accessTokenInfo = getAccessTokenInfo(accessToken);
             Optional<TokenInfo> refreshTokenInfo = getRefreshTokenInfo(refreshToken);
             
             if (accessTokenInfo.isPresent() && refreshTokenInfo.isPresent()) {
                 TokenPairInfo pairInfo = new TokenPairInfo(accessTokenInfo.get(), refreshTokenInfo.get());
-                incrementOperationCounter("getTokenPairInfo", true);
+                operationTimers.record(TokenOperation.GET_TOKEN_PAIR_INFO, true, start);
                 return Optional.of(pairInfo);
             }
             
-            incrementOperationCounter("getTokenPairInfo", false);
+            operationTimers.record(TokenOperation.GET_TOKEN_PAIR_INFO, false, start);
             return Optional.empty();
             
         } catch (Exception e) {
-            incrementOperationCounter("getTokenPairInfo", false);
+            operationTimers.record(TokenOperation.GET_TOKEN_PAIR_INFO, false, start);
             log.error("Failed to get token pair info", e);
             return Optional.empty();
         }
@@ -436,15 +399,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void invalidateTokenPair(String accessToken, String refreshToken, String reason) {
+        long start = System.nanoTime();
         try {
             invalidateAccessToken(accessToken, reason);
             invalidateRefreshToken(refreshToken, reason);
             
-            incrementOperationCounter("invalidateTokenPair", true);
+            operationTimers.record(TokenOperation.INVALIDATE_TOKEN_PAIR, true, start);
             log.debug("Invalidated token pair");
             
         } catch (Exception e) {
-            incrementOperationCounter("invalidateTokenPair", false);
+            operationTimers.record(TokenOperation.INVALIDATE_TOKEN_PAIR, false, start);
             log.error("Failed to invalidate token pair", e);
             throw new RuntimeException("Failed to invalidate token pair", e);
         }
@@ -452,15 +416,16 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void deleteTokenPair(String accessToken, String refreshToken) {
+        long start = System.nanoTime();
         try {
             deleteAccessToken(accessToken);
             deleteRefreshToken(refreshToken);
             
-            incrementOperationCounter("deleteTokenPair", true);
+            operationTimers.record(TokenOperation.DELETE_TOKEN_PAIR, true, start);
             log.debug("Deleted token pair");
             
         } catch (Exception e) {
-            incrementOperationCounter("deleteTokenPair", false);
+            operationTimers.record(TokenOperation.DELETE_TOKEN_PAIR, false, start);
             log.error("Failed to delete token pair", e);
             throw new RuntimeException("Failed to delete token pair", e);
         }
@@ -470,27 +435,30 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public Optional<TokenInfo> validateToken(String token, String tokenType) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo;
-            if ("ACCESS".equals(tokenType)) {
-                tokenInfo = getAccessTokenInfo(token);
-            } else if ("REFRESH".equals(tokenType)) {
-                tokenInfo = getRefreshTokenInfo(token);
-            } else {
+            if (!TokenStatisticsRecorder.ACCESS.equals(tokenType) && !TokenStatisticsRecorder.REFRESH.equals(tokenType)) {
                 log.warn("Invalid token type: {}", tokenType);
                 return Optional.empty();
             }
             
-            if (tokenInfo.isPresent() && tokenInfo.get().isActive() && !isTokenBlacklisted(token)) {
-                incrementOperationCounter("validateToken", true);
+            // Decide on the hot record; the cold one is only loaded for tokens that pass
+            Optional<TokenHotRecord> record = validHotRecord(tokenType, token);
+            if (record.isPresent()) {
+                String tokenHash = generateTokenHash(token);
+                Optional<TokenInfo> tokenInfo = getTokenInfo(tokenType, tokenHash);
+                if (tokenInfo.isEmpty() && !redisGuard.isAvailable()) {
+                    tokenInfo = Optional.of(degradedTokenInfo(tokenHash, record.get()));
+                }
+                operationTimers.record(TokenOperation.VALIDATE_TOKEN, tokenInfo.isPresent(), start);
                 return tokenInfo;
             }
             
-            incrementOperationCounter("validateToken", false);
+            operationTimers.record(TokenOperation.VALIDATE_TOKEN, false, start);
             return Optional.empty();
             
         } catch (Exception e) {
-            incrementOperationCounter("validateToken", false);
+            operationTimers.record(TokenOperation.VALIDATE_TOKEN, false, start);
             log.error("Failed to validate token", e);
             return Optional.empty();
         }
@@ -525,16 +493,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public boolean isTokenBlacklisted(String token) {
+        long start = System.nanoTime();
         try {
-            String tokenHash = generateTokenHash(token);
-            String key = BLACKLIST_PREFIX + tokenHash;
-            
-            boolean isBlacklisted = cacheService.exists(TOKEN_BLACKLIST_CACHE, key);
-            incrementOperationCounter("isTokenBlacklisted", true);
+            boolean isBlacklisted = isHashBlacklisted(generateTokenHash(token));
+            operationTimers.record(TokenOperation.IS_TOKEN_BLACKLISTED, true, start);
             return isBlacklisted;
             
         } catch (Exception e) {
-            incrementOperationCounter("isTokenBlacklisted", false);
+            operationTimers.record(TokenOperation.IS_TOKEN_BLACKLISTED, false, start);
             log.error("Failed to check token blacklist", e);
             return false;
         }
@@ -542,6 +508,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void blacklistToken(String token, String reason, Duration ttl) {
+        long start = System.nanoTime();
         try {
             String tokenHash = generateTokenHash(token);
             String key = BLACKLIST_PREFIX + tokenHash;
@@ -551,13 +518,14 @@ public class TokenStorageServiceImpl implements TokenStorageService {
             blacklistEntry.put("reason", reason);
             blacklistEntry.put("blacklistedAt", LocalDateTime.now());
             
+            revocationFilter.revoked(tokenHash, Instant.now().plus(ttl));
             cacheService.set(TOKEN_BLACKLIST_CACHE, key, blacklistEntry, ttl);
             
-            incrementOperationCounter("blacklistToken", true);
+            operationTimers.record(TokenOperation.BLACKLIST_TOKEN, true, start);
             log.debug("Blacklisted token: {}", tokenHash);
             
         } catch (Exception e) {
-            incrementOperationCounter("blacklistToken", false);
+            operationTimers.record(TokenOperation.BLACKLIST_TOKEN, false, start);
             log.error("Failed to blacklist token", e);
             throw new RuntimeException("Failed to blacklist token", e);
         }
@@ -567,64 +535,44 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public void incrementTokenUsage(String token, String tokenType) {
+        if (!TokenStatisticsRecorder.ACCESS.equals(tokenType) && !TokenStatisticsRecorder.REFRESH.equals(tokenType)) {
+            log.warn("Invalid token type for usage tracking: {}", tokenType);
+            return;
+        }
+        recordUsage(token, null, null);
+    }
+
+    @Override
+    public void incrementTokenUsage(String token, TokenInfo tokenInfo) {
+        recordUsage(token, tokenInfo.getUsername(), tokenInfo.getClientId());
+    }
+
+    /**
+     * Uses are buffered in memory and flushed as HINCRBY on a small per-token hash; the stored
+     * TokenInfo is never rewritten, so concurrent uses no longer overwrite each other
+     */
+    private void recordUsage(String token, String username, String clientId) {
+        long start = System.nanoTime();
         try {
-            Optional<TokenInfo> tokenInfo;
-            if ("ACCESS".equals(tokenType)) {
-                tokenInfo = getAccessTokenInfo(token);
-            } else if ("REFRESH".equals(tokenType)) {
-                tokenInfo = getRefreshTokenInfo(token);
-            } else {
-                log.warn("Invalid token type for usage tracking: {}", tokenType);
-                return;
-            }
-            
-            if (tokenInfo.isPresent()) {
-                TokenInfo info = tokenInfo.get();
-                info.incrementUsage();
-                
-                // Update stored token
-                Duration ttl = "ACCESS".equals(tokenType) ? 
-                    Duration.ofMillis(configurationService.getJwtExpiration()) :
-                    Duration.ofMillis(configurationService.getJwtRefreshExpiration());
-                
-                String cacheName = "ACCESS".equals(tokenType) ? ACCESS_TOKEN_CACHE : REFRESH_TOKEN_CACHE;
-                String prefix = "ACCESS".equals(tokenType) ? ACCESS_TOKEN_PREFIX : REFRESH_TOKEN_PREFIX;
-                
-                cacheService.set(cacheName, prefix + generateTokenHash(token), info, ttl);
-                
-                incrementOperationCounter("incrementTokenUsage", true);
-                log.debug("Incremented usage for token: {}", info.getTokenId());
-            }
-            
+            usageBuffer.record(generateTokenHash(token));
+            tokenStatistics.recordUsage(username, clientId, 1);
+            operationTimers.record(TokenOperation.INCREMENT_TOKEN_USAGE, true, start);
         } catch (Exception e) {
-            incrementOperationCounter("incrementTokenUsage", false);
+            operationTimers.record(TokenOperation.INCREMENT_TOKEN_USAGE, false, start);
             log.error("Failed to increment token usage", e);
         }
     }
 
     @Override
     public TokenUsageStats getTokenUsageStats(String username) {
+        long start = System.nanoTime();
         try {
-            List<TokenInfo> accessTokens = getUserAccessTokens(username);
-            List<TokenInfo> refreshTokens = getUserRefreshTokens(username);
-            
-            long totalAccessTokens = accessTokens.size();
-            long activeAccessTokens = accessTokens.stream().filter(TokenInfo::isActive).count();
-            long totalRefreshTokens = refreshTokens.size();
-            long activeRefreshTokens = refreshTokens.stream().filter(TokenInfo::isActive).count();
-            
-            long totalUsageCount = accessTokens.stream()
-                .mapToLong(token -> token.getUsageCount() != null ? token.getUsageCount() : 0)
-                .sum();
-            
-            long averageUsagePerToken = totalAccessTokens > 0 ? totalUsageCount / totalAccessTokens : 0;
-            
-            incrementOperationCounter("getTokenUsageStats", true);
-            return new TokenUsageStats(username, totalAccessTokens, activeAccessTokens,
-                totalRefreshTokens, activeRefreshTokens, totalUsageCount, averageUsagePerToken);
+            TokenUsageStats stats = toUsageStats(username, tokenStatistics.forUser(username));
+            operationTimers.record(TokenOperation.GET_TOKEN_USAGE_STATS, true, start);
+            return stats;
             
         } catch (Exception e) {
-            incrementOperationCounter("getTokenUsageStats", false);
+            operationTimers.record(TokenOperation.GET_TOKEN_USAGE_STATS, false, start);
             log.error("Failed to get token usage stats for user: {}", username, e);
             return new TokenUsageStats(username, 0, 0, 0, 0, 0, 0);
         }
@@ -632,86 +580,111 @@ public class TokenStorageServiceImpl implements TokenStorageService {
 
     @Override
     public Map<String, TokenUsageStats> getAllTokenUsageStats() {
-        // This would require scanning all user tokens, which could be expensive
-        // For now, return empty map - implement based on your specific needs
-        log.warn("getAllTokenUsageStats not implemented - would be expensive operation");
-        return new HashMap<>();
+        long start = System.nanoTime();
+        try {
+            Map<String, TokenUsageStats> stats = new HashMap<>();
+            tokenStatistics.allUsers().forEach((username, counters) -> stats.put(username, toUsageStats(username, counters)));
+            operationTimers.record(TokenOperation.GET_ALL_TOKEN_USAGE_STATS, true, start);
+            return stats;
+            
+        } catch (Exception e) {
+            operationTimers.record(TokenOperation.GET_ALL_TOKEN_USAGE_STATS, false, start);
+            log.error("Failed to get token usage stats", e);
+            return new HashMap<>();
+        }
     }
 
     // ==================== TOKEN CLEANUP OPERATIONS ====================
 
     @Override
+    @Scheduled(fixedDelayString = "${security.token-expiry.sweep-interval:5000}")
     public void cleanupExpiredTokens() {
+        long start = System.nanoTime();
         try {
-            // This would require scanning all tokens and checking expiration
-            // For now, rely on Redis TTL for automatic cleanup
-            log.info("Token cleanup relies on Redis TTL for automatic expiration");
-            incrementOperationCounter("cleanupExpiredTokens", true);
+            int swept = expirySweeper.sweep(this::sweepExpiredToken);
+            operationTimers.record(TokenOperation.CLEANUP_EXPIRED_TOKENS, true, start);
+            if (swept > 0) {
+                log.debug("Cleaned up {} expired tokens", swept);
+            }
             
         } catch (Exception e) {
-            incrementOperationCounter("cleanupExpiredTokens", false);
+            operationTimers.record(TokenOperation.CLEANUP_EXPIRED_TOKENS, false, start);
             log.error("Failed to cleanup expired tokens", e);
         }
     }
 
     @Override
     public void cleanupExpiredTokensForUser(String username) {
+        long start = System.nanoTime();
         try {
             List<TokenInfo> accessTokens = getUserAccessTokens(username);
             List<TokenInfo> refreshTokens = getUserRefreshTokens(username);
             
             // Remove expired tokens
             accessTokens.stream()
-                .filter(token -> token.isExpired())
-                .forEach(token -> deleteAccessToken(token.getToken()));
+                .filter(token -> token.isExpired() && token.getTokenHash() != null)
+                .forEach(token -> deleteToken(TokenStatisticsRecorder.ACCESS, token.getTokenHash()));
             
             refreshTokens.stream()
-                .filter(token -> token.isExpired())
-                .forEach(token -> deleteRefreshToken(token.getToken()));
+                .filter(token -> token.isExpired() && token.getTokenHash() != null)
+                .forEach(token -> deleteToken(TokenStatisticsRecorder.REFRESH, token.getTokenHash()));
             
-            incrementOperationCounter("cleanupExpiredTokensForUser", true);
+            operationTimers.record(TokenOperation.CLEANUP_EXPIRED_TOKENS_FOR_USER, true, start);
             log.debug("Cleaned up expired tokens for user: {}", username);
             
         } catch (Exception e) {
-            incrementOperationCounter("cleanupExpiredTokensForUser", false);
+            operationTimers.record(TokenOperation.CLEANUP_EXPIRED_TOKENS_FOR_USER, false, start);
             log.error("Failed to cleanup expired tokens for user: {}", username, e);
         }
     }
 
     @Override
     public void cleanupAllTokensForUser(String username) {
+        // Stored entries are left to their TTL; the watermark already makes every one of them invalid
+        revokeAllTokensForUser(username, "logout");
+    }
+
+    @Override
+    public void revokeAllTokensForUser(String username, String reason) {
+        long start = System.nanoTime();
         try {
-            List<TokenInfo> accessTokens = getUserAccessTokens(username);
-            List<TokenInfo> refreshTokens = getUserRefreshTokens(username);
-            
-            // Remove all tokens
-            accessTokens.forEach(token -> deleteAccessToken(token.getToken()));
-            refreshTokens.forEach(token -> deleteRefreshToken(token.getToken()));
+            revocationWatermarks.revokeAllForUser(username);
+            operationTimers.record(TokenOperation.REVOKE_ALL_TOKENS_FOR_USER, true, start);
+            log.debug("Revoked all tokens for user: {} ({})", username, reason);
             
-            incrementOperationCounter("cleanupAllTokensForUser", true);
-            log.debug("Cleaned up all tokens for user: {}", username);
+        } catch (Exception e) {
+            operationTimers.record(TokenOperation.REVOKE_ALL_TOKENS_FOR_USER, false, start);
+            log.error("Failed to revoke all tokens for user: {}", username, e);
+            throw new RuntimeException("Failed to revoke all tokens for user", e);
+        }
+    }
+
+    @Override
+    public void revokeAllTokensForClient(String clientId, String reason) {
+        long start = System.nanoTime();
+        try {
+            revocationWatermarks.revokeAllForClient(clientId);
+            operationTimers.record(TokenOperation.REVOKE_ALL_TOKENS_FOR_CLIENT, true, start);
+            log.debug("Revoked all tokens for client: {} ({})", clientId, reason);
             
         } catch (Exception e) {
-            incrementOperationCounter("cleanupAllTokensForUser", false);
-            log.error("Failed to cleanup all tokens for user: {}", username, e);
+            operationTimers.record(TokenOperation.REVOKE_ALL_TOKENS_FOR_CLIENT, false, start);
+            log.error("Failed to revoke all tokens for client: {}", clientId, e);
+            throw new RuntimeException("Failed to revoke all tokens for client", e);
         }
     }
 
     @Override
     public void cleanupTokensForSession(String sessionId) {
+        long start = System.nanoTime();
         try {
-            String pattern = SESSION_TOKENS_PREFIX + sessionId + ":*";
-            Set<String> keys = cacheService.getKeys(pattern);
+            indexStore.deleteSession(sessionId);
             
-            for (String key : keys) {
-                cacheService.delete(USER_TOKENS_CACHE, key);
-            }
-            
-            incrementOperationCounter("cleanupTokensForSession", true);
+            operationTimers.record(TokenOperation.CLEANUP_TOKENS_FOR_SESSION, true, start);
             log.debug("Cleaned up tokens for session: {}", sessionId);
             
         } catch (Exception e) {
-            incrementOperationCounter("cleanupTokensForSession", false);
+            operationTimers.record(TokenOperation.CLEANUP_TOKENS_FOR_SESSION, false, start);
             log.error("Failed to cleanup tokens for session: {}", sessionId, e);
         }
     }
@@ -721,24 +694,10 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public List<TokenInfo> searchTokens(TokenSearchCriteria criteria) {
         try {
-            List<TokenInfo> allTokens = new ArrayList<>();
-            
-            // Search access tokens
-            Set<String> accessTokenKeys = cacheService.getKeys(ACCESS_TOKEN_PREFIX + "*");
-            for (String key : accessTokenKeys) {
-                Optional<TokenInfo> tokenInfo = cacheService.get(ACCESS_TOKEN_CACHE, key, TokenInfo.class);
-                tokenInfo.ifPresent(allTokens::add);
-            }
-            
-            // Search refresh tokens
-            Set<String> refreshTokenKeys = cacheService.getKeys(REFRESH_TOKEN_PREFIX + "*");
-            for (String key : refreshTokenKeys) {
-                Optional<TokenInfo> tokenInfo = cacheService.get(REFRESH_TOKEN_CACHE, key, TokenInfo.class);
-                tokenInfo.ifPresent(allTokens::add);
-            }
+            List<TokenInfo> allTokens = candidateTokens(criteria);
             
             // Apply filters
-            return allTokens.stream()
+            List<TokenInfo> matches = allTokens.stream()
                 .filter(token -> criteria.getUsername() == null || criteria.getUsername().equals(token.getUsername()))
                 .filter(token -> criteria.getClientId() == null || criteria.getClientId().equals(token.getClientId()))
                 .filter(token -> criteria.getStatus() == null || criteria.getStatus().equals(token.getStatus()))
@@ -746,6 +705,8 @@ public class TokenStorageServiceImpl implements TokenStorageService {
                 .filter(token -> criteria.getScopes() == null || token.hasAllScopes(criteria.getScopes()))
                 .filter(token -> criteria.getSessionId() == null || criteria.getSessionId().equals(token.getSessionId()))
                 .collect(Collectors.toList());
+            applyUsage(matches);
+            return matches;
                 
         } catch (Exception e) {
             log.error("Failed to search tokens", e);
@@ -773,28 +734,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public TokenStatistics getTokenStatistics() {
         try {
-            List<TokenInfo> allTokens = searchTokens(new TokenSearchCriteria());
-            
-            long totalTokens = allTokens.size();
-            long activeTokens = allTokens.stream().filter(TokenInfo::isActive).count();
-            long expiredTokens = allTokens.stream().filter(TokenInfo::isExpired).count();
-            long revokedTokens = allTokens.stream()
-                .filter(token -> TokenInfo.TokenStatus.REVOKED.equals(token.getStatus())).count();
-            
-            long accessTokens = allTokens.stream()
-                .filter(token -> "ACCESS".equals(token.getTokenType())).count();
-            long refreshTokens = allTokens.stream()
-                .filter(token -> "REFRESH".equals(token.getTokenType())).count();
-            
-            long totalUsageCount = allTokens.stream()
-                .mapToLong(token -> token.getUsageCount() != null ? token.getUsageCount() : 0)
-                .sum();
-            
-            double averageUsagePerToken = totalTokens > 0 ? (double) totalUsageCount / totalTokens : 0.0;
-            
-            return new TokenStatistics(totalTokens, activeTokens, expiredTokens, revokedTokens,
-                accessTokens, refreshTokens, totalUsageCount, averageUsagePerToken);
-                
+            return toStatistics(tokenStatistics.global());
         } catch (Exception e) {
             log.error("Failed to get token statistics", e);
             return new TokenStatistics(0, 0, 0, 0, 0, 0, 0, 0.0);
@@ -804,30 +744,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public TokenStatistics getTokenStatisticsForUser(String username) {
         try {
-            List<TokenInfo> userTokens = new ArrayList<>();
-            userTokens.addAll(getUserAccessTokens(username));
-            userTokens.addAll(getUserRefreshTokens(username));
-            
-            long totalTokens = userTokens.size();
-            long activeTokens = userTokens.stream().filter(TokenInfo::isActive).count();
-            long expiredTokens = userTokens.stream().filter(TokenInfo::isExpired).count();
-            long revokedTokens = userTokens.stream()
-                .filter(token -> TokenInfo.TokenStatus.REVOKED.equals(token.getStatus())).count();
-            
-            long accessTokens = userTokens.stream()
-                .filter(token -> "ACCESS".equals(token.getTokenType())).count();
-            long refreshTokens = userTokens.stream()
-                .filter(token -> "REFRESH".equals(token.getTokenType())).count();
-            
-            long totalUsageCount = userTokens.stream()
-                .mapToLong(token -> token.getUsageCount() != null ? token.getUsageCount() : 0)
-                .sum();
-            
-            double averageUsagePerToken = totalTokens > 0 ? (double) totalUsageCount / totalTokens : 0.0;
-            
-            return new TokenStatistics(totalTokens, activeTokens, expiredTokens, revokedTokens,
-                accessTokens, refreshTokens, totalUsageCount, averageUsagePerToken);
-                
+            return toStatistics(tokenStatistics.forUser(username));
         } catch (Exception e) {
             log.error("Failed to get token statistics for user: {}", username, e);
             return new TokenStatistics(0, 0, 0, 0, 0, 0, 0, 0.0);
@@ -837,28 +754,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public TokenStatistics getTokenStatisticsForClient(String clientId) {
         try {
-            List<TokenInfo> clientTokens = getTokensByClientId(clientId);
-            
-            long totalTokens = clientTokens.size();
-            long activeTokens = clientTokens.stream().filter(TokenInfo::isActive).count();
-            long expiredTokens = clientTokens.stream().filter(TokenInfo::isExpired).count();
-            long revokedTokens = clientTokens.stream()
-                .filter(token -> TokenInfo.TokenStatus.REVOKED.equals(token.getStatus())).count();
-            
-            long accessTokens = clientTokens.stream()
-                .filter(token -> "ACCESS".equals(token.getTokenType())).count();
-            long refreshTokens = clientTokens.stream()
-                .filter(token -> "REFRESH".equals(token.getTokenType())).count();
-            
-            long totalUsageCount = clientTokens.stream()
-                .mapToLong(token -> token.getUsageCount() != null ? token.getUsageCount() : 0)
-                .sum();
-            
-            double averageUsagePerToken = totalTokens > 0 ? (double) totalUsageCount / totalTokens : 0.0;
-            
-            return new TokenStatistics(totalTokens, activeTokens, expiredTokens, revokedTokens,
-                accessTokens, refreshTokens, totalUsageCount, averageUsagePerToken);
-                
+            return toStatistics(tokenStatistics.forClient(clientId));
         } catch (Exception e) {
             log.error("Failed to get token statistics for client: {}", clientId, e);
             return new TokenStatistics(0, 0, 0, 0, 0, 0, 0, 0.0);
@@ -870,8 +766,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public long getActiveTokenCount() {
         try {
-            List<TokenInfo> allTokens = searchTokens(new TokenSearchCriteria());
-            return allTokens.stream().filter(TokenInfo::isActive).count();
+            return tokenStatistics.global().countByStatus(TokenInfo.TokenStatus.ACTIVE);
         } catch (Exception e) {
             log.error("Failed to get active token count", e);
             return 0;
@@ -881,10 +776,7 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public long getActiveTokenCountForUser(String username) {
         try {
-            List<TokenInfo> userTokens = new ArrayList<>();
-            userTokens.addAll(getUserAccessTokens(username));
-            userTokens.addAll(getUserRefreshTokens(username));
-            return userTokens.stream().filter(TokenInfo::isActive).count();
+            return tokenStatistics.forUser(username).countByStatus(TokenInfo.TokenStatus.ACTIVE);
         } catch (Exception e) {
             log.error("Failed to get active token count for user: {}", username, e);
             return 0;
@@ -894,9 +786,15 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public Map<TokenInfo.TokenStatus, Long> getTokenCountByStatus() {
         try {
-            List<TokenInfo> allTokens = searchTokens(new TokenSearchCriteria());
-            return allTokens.stream()
-                .collect(Collectors.groupingBy(TokenInfo::getStatus, Collectors.counting()));
+            TokenCounters counters = tokenStatistics.global();
+            Map<TokenInfo.TokenStatus, Long> counts = new EnumMap<>(TokenInfo.TokenStatus.class);
+            for (TokenInfo.TokenStatus status : TokenInfo.TokenStatus.values()) {
+                long count = counters.countByStatus(status);
+                if (count > 0) {
+                    counts.put(status, count);
+                }
+            }
+            return counts;
         } catch (Exception e) {
             log.error("Failed to get token count by status", e);
             return new HashMap<>();
@@ -906,9 +804,11 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public Map<String, Long> getTokenCountByType() {
         try {
-            List<TokenInfo> allTokens = searchTokens(new TokenSearchCriteria());
-            return allTokens.stream()
-                .collect(Collectors.groupingBy(TokenInfo::getTokenType, Collectors.counting()));
+            TokenCounters counters = tokenStatistics.global();
+            Map<String, Long> counts = new HashMap<>();
+            counts.put(TokenStatisticsRecorder.ACCESS, counters.countByType(TokenStatisticsRecorder.ACCESS));
+            counts.put(TokenStatisticsRecorder.REFRESH, counters.countByType(TokenStatisticsRecorder.REFRESH));
+            return counts;
         } catch (Exception e) {
             log.error("Failed to get token count by type", e);
             return new HashMap<>();
@@ -942,15 +842,12 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     @Override
     public TokenStorageMetrics getTokenStorageMetrics() {
         try {
-            long totalOperations = operationCounters.values().stream()
-                .mapToLong(AtomicLong::get).sum();
-            long successfulOperations = successCounters.values().stream()
-                .mapToLong(AtomicLong::get).sum();
-            long failedOperations = failureCounters.values().stream()
-                .mapToLong(AtomicLong::get).sum();
+            long successfulOperations = operationTimers.totalCount(true);
+            long failedOperations = operationTimers.totalCount(false);
+            long totalOperations = successfulOperations + failedOperations;
             
             double successRate = totalOperations > 0 ? (double) successfulOperations / totalOperations : 0.0;
-            long averageResponseTime = 0; // Would need to track response times
+            long averageResponseTime = Math.round(operationTimers.meanMillis());
             long cacheHits = successfulOperations;
             long cacheMisses = failedOperations;
             double hitRate = totalOperations > 0 ? (double) cacheHits / totalOperations : 0.0;
@@ -967,21 +864,444 @@ public class TokenStorageServiceImpl implements TokenStorageService {
     // ==================== UTILITY METHODS ====================
 
     /**
-     * Generate a hash for the token
+     * Generate a hash for the token (hex SHA-256, stable so lookups find what was stored)
      */
     private String generateTokenHash(String token) {
-        return UUID.randomUUID().toString().replace("-", "");
+        return EncryptionUtils.generateSHA256(token);
+    }
+
+    private TokenStatistics toStatistics(TokenCounters counters) {
+        long totalTokens = counters.total();
+        long totalUsageCount = counters.usage();
+        double averageUsagePerToken = totalTokens > 0 ? (double) totalUsageCount / totalTokens : 0.0;
+        return new TokenStatistics(totalTokens,
+            counters.countByStatus(TokenInfo.TokenStatus.ACTIVE),
+            counters.expired(),
+            counters.countByStatus(TokenInfo.TokenStatus.REVOKED),
+            counters.countByType(TokenStatisticsRecorder.ACCESS),
+            counters.countByType(TokenStatisticsRecorder.REFRESH),
+            totalUsageCount, averageUsagePerToken);
+    }
+
+    private TokenUsageStats toUsageStats(String username, TokenCounters counters) {
+        long totalAccessTokens = counters.countByType(TokenStatisticsRecorder.ACCESS);
+        long totalUsageCount = counters.usage();
+        long averageUsagePerToken = totalAccessTokens > 0 ? totalUsageCount / totalAccessTokens : 0;
+        return new TokenUsageStats(username, totalAccessTokens,
+            counters.count(TokenStatisticsRecorder.ACCESS, TokenInfo.TokenStatus.ACTIVE),
+            counters.countByType(TokenStatisticsRecorder.REFRESH),
+            counters.count(TokenStatisticsRecorder.REFRESH, TokenInfo.TokenStatus.ACTIVE),
+            totalUsageCount, averageUsagePerToken);
+    }
+
+    /**
+     * Fill usageCount and lastUsedAt from the usage buffer, which owns them since uses stopped rewriting the stored info
+     */
+    private void applyUsage(List<TokenInfo> tokens) {
+        Map<String, TokenInfo> byHash = new HashMap<>();
+        for (TokenInfo token : tokens) {
+            if (token.getTokenHash() != null) {
+                byHash.put(token.getTokenHash(), token);
+            }
+        }
+        usageBuffer.usageOf(byHash.keySet()).forEach((hash, usage) -> {
+            TokenInfo token = byHash.get(hash);
+            token.setUsageCount((int) Math.min(usage.count(), Integer.MAX_VALUE));
+            if (usage.lastUsedAt() != null) {
+                token.setLastUsedAt(LocalDateTime.ofInstant(usage.lastUsedAt(), ZoneId.systemDefault()));
+            }
+        });
+    }
+
+    private boolean isHashBlacklisted(String tokenHash) {
+        // Almost no token is ever revoked; only filter hits need the Redis round trip
+        if (!revocationFilter.mightBeRevoked(tokenHash)) {
+            return false;
+        }
+        if (!redisGuard.isAvailable()) {
+            return isRevokedLocally(tokenHash);
+        }
+        return cacheService.exists(TOKEN_BLACKLIST_CACHE, BLACKLIST_PREFIX + tokenHash);
+    }
+
+    /**
+     * Expiry used for the expiry index; fills in {@code expiresAt} when the caller left it empty
+     */
+    private Instant resolveExpiry(TokenInfo tokenInfo, Duration ttl) {
+        if (tokenInfo.getExpiresAt() == null) {
+            tokenInfo.setExpiresAt(LocalDateTime.now().plus(ttl));
+        }
+        return tokenInfo.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private TokenExpiryIndex.Entry expiryEntry(String tokenType, String tokenHash, TokenInfo info) {
+        return new TokenExpiryIndex.Entry(tokenType, tokenHash, info.getUsername(), info.getClientId(), info.getSessionId());
+    }
+
+    /**
+     * Remove an expired token and its user, client and session mappings
+     */
+    private void sweepExpiredToken(TokenExpiryIndex.Entry entry) {
+        TokenInfo.TokenStatus status = isHashBlacklisted(entry.tokenHash())
+            ? TokenInfo.TokenStatus.REVOKED : TokenInfo.TokenStatus.ACTIVE;
+        deleteTokenEntries(entry.tokenType(), entry.tokenHash(), entry.username(), entry.clientId(), entry.sessionId());
+        tokenStatistics.recordRemoved(entry.tokenType(), entry.username(), entry.clientId(), status, true);
+    }
+
+    // ==================== HOT / COLD STORAGE ====================
+
+    /**
+     * Store the hot record (read on validation) and the cold record (metadata and audit, read by
+     * admin and search APIs). The raw token is never persisted, only its hash.
+     */
+    private void storeToken(String tokenType, String token, TokenInfo tokenInfo, Duration ttl) {
+        String tokenHash = generateTokenHash(token);
+        Instant expiresAt = resolveExpiry(tokenInfo, ttl);
+        localStore.putActive(tokenType, tokenHash, expiresAt.toEpochMilli());
+        if (!runGuarded(() -> storeTokenInRedis(tokenType, tokenHash, tokenInfo, expiresAt, ttl))) {
+            deferUntilAvailable(() -> {
+                Duration remaining = Duration.between(Instant.now(), expiresAt);
+                if (!remaining.isNegative() && !remaining.isZero()) {
+                    storeTokenInRedis(tokenType, tokenHash, tokenInfo, expiresAt, remaining);
+                }
+            });
+        }
+    }
+
+    private void storeTokenInRedis(String tokenType, String tokenHash, TokenInfo tokenInfo, Instant expiresAt, Duration ttl) {
+        TokenInfo cold = coldRecord(tokenInfo, tokenHash);
+
+        hotStore.put(tokenHash, hotRecord(tokenType, tokenInfo, expiresAt), ttl);
+        cacheService.set(coldCache(tokenType), coldKey(tokenType, tokenHash), cold, ttl);
+        indexStore.add(tokenType, tokenHash, tokenInfo.getUsername(), tokenInfo.getClientId(), tokenInfo.getSessionId());
+
+        expiryIndex.add(expiryEntry(tokenType, tokenHash, tokenInfo), expiresAt);
+        tokenStatistics.recordStored(tokenType, tokenInfo);
+    }
+
+    /**
+     * Cold record with the status taken from the hot record, which is authoritative for it
+     */
+    private Optional<TokenInfo> getTokenInfo(String tokenType, String tokenHash) {
+        Optional<TokenInfo> cold = cacheService.get(coldCache(tokenType), coldKey(tokenType, tokenHash), TokenInfo.class);
+        cold.ifPresent(info -> hotStore.get(tokenHash).ifPresent(hot -> info.setStatus(hot.getStatus())));
+        return cold;
+    }
+
+    /**
+     * Validation reads nothing but the hot record (plus the blacklist on a revocation filter hit)
+     */
+    private Optional<TokenHotRecord> validHotRecord(String tokenType, String token) {
+        String tokenHash = generateTokenHash(token);
+        if (!redisGuard.isAvailable()) {
+            return degradedHotRecord(tokenType, tokenHash);
+        }
+        Optional<TokenHotRecord> hotRecord;
+        try {
+            hotRecord = redisGuard.execute(() -> hotStore.get(tokenHash));
+        } catch (RuntimeException e) {
+            if (!RedisGuard.isUnavailable(e)) {
+                throw e;
+            }
+            return degradedHotRecord(tokenType, tokenHash);
+        }
+        return hotRecord
+            .filter(record -> tokenType.equals(record.getTokenType()))
+            .filter(TokenHotRecord::isActive)
+            .filter(record -> !revocationWatermarks.isRevoked(record.getUsername(), record.getClientId(), record.issuedAtInstant()))
+            .filter(record -> !isHashBlacklisted(tokenHash));
+    }
+
+    private Optional<TokenHotRecord> invalidateToken(String tokenType, String token, String reason, Duration ttl) {
+        String tokenHash = generateTokenHash(token);
+        Instant revokedUntil = Instant.now().plus(ttl);
+        localStore.putRevoked(tokenType, tokenHash, revokedUntil.toEpochMilli());
+        try {
+            if (redisGuard.isAvailable()) {
+                return redisGuard.execute(() -> invalidateTokenInRedis(tokenType, token, reason, ttl));
+            }
+        } catch (RuntimeException e) {
+            if (!RedisGuard.isUnavailable(e)) {
+                throw e;
+            }
+        }
+        // Rejected on this node right away; the other nodes learn about it when the write is replayed
+        revocationFilter.revokedLocally(tokenHash, revokedUntil);
+        deferUntilAvailable(() -> invalidateTokenInRedis(tokenType, token, reason, ttl));
+        return Optional.empty();
+    }
+
+    private Optional<TokenHotRecord> invalidateTokenInRedis(String tokenType, String token, String reason, Duration ttl) {
+        String tokenHash = generateTokenHash(token);
+        Optional<TokenHotRecord> record = hotStore.get(tokenHash);
+        if (record.isEmpty()) {
+            return record;
+        }
+        Optional<TokenInfo.TokenStatus> previous = hotStore.updateStatus(tokenHash, TokenInfo.TokenStatus.REVOKED);
+        
+        // Revocations are rare, so the cold record is rewritten to keep the reason for the admin APIs
+        cacheService.get(coldCache(tokenType), coldKey(tokenType, tokenHash), TokenInfo.class).ifPresent(info -> {
+            info.setStatus(TokenInfo.TokenStatus.REVOKED);
+            info.setStatusReason(reason);
+            info.setUpdatedAt(LocalDateTime.now());
+            cacheService.set(coldCache(tokenType), coldKey(tokenType, tokenHash), info, ttl);
+        });
+        
+        // Add to blacklist
+        blacklistToken(token, reason, ttl);
+        previous.ifPresent(status -> tokenStatistics.recordStatusChange(tokenType,
+            record.get().getUsername(), record.get().getClientId(), status, TokenInfo.TokenStatus.REVOKED));
+        return record;
+    }
+
+    private void deleteToken(String tokenType, String tokenHash) {
+        localStore.remove(tokenHash);
+        if (!runGuarded(() -> deleteTokenInRedis(tokenType, tokenHash))) {
+            deferUntilAvailable(() -> deleteTokenInRedis(tokenType, tokenHash));
+        }
+    }
+
+    private void deleteTokenInRedis(String tokenType, String tokenHash) {
+        // Read the info before deleting it, the mapping cleanup and the counters need it
+        Optional<TokenInfo> tokenInfo = getTokenInfo(tokenType, tokenHash);
+        if (tokenInfo.isEmpty()) {
+            hotStore.delete(tokenHash);
+            cacheService.delete(coldCache(tokenType), coldKey(tokenType, tokenHash));
+            return;
+        }
+        TokenInfo info = tokenInfo.get();
+        deleteTokenEntries(tokenType, tokenHash, info.getUsername(), info.getClientId(), info.getSessionId());
+        
+        // Only count it if the sweeper has not already done so
+        if (info.getExpiresAt() == null || expiryIndex.remove(expiryEntry(tokenType, tokenHash, info),
+                info.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant())) {
+            tokenStatistics.recordRemoved(tokenType, info, false);
+        }
+    }
+
+    /**
+     * Remove the hot and cold records and the user, client and session index entries
+     */
+    private void deleteTokenEntries(String tokenType, String tokenHash, String username, String clientId, String sessionId) {
+        hotStore.delete(tokenHash);
+        cacheService.delete(coldCache(tokenType), coldKey(tokenType, tokenHash));
+        indexStore.remove(tokenType, tokenHash, username, clientId, sessionId);
+    }
+
+    /**
+     * Tokens that can match the criteria, read from the narrowest index that applies. Only a search
+     * without user, session or client walks the expiry index, which holds every live token.
+     */
+    private List<TokenInfo> candidateTokens(TokenSearchCriteria criteria) {
+        List<TokenInfo> tokens = new ArrayList<>();
+        for (String tokenType : List.of(TokenStatisticsRecorder.ACCESS, TokenStatisticsRecorder.REFRESH)) {
+            if (criteria.getUsername() != null) {
+                tokens.addAll(loadColdRecords(tokenType, indexStore.userTokens(tokenType, criteria.getUsername())));
+            } else if (criteria.getSessionId() != null) {
+                tokens.addAll(loadColdRecords(tokenType, indexStore.sessionTokens(tokenType, criteria.getSessionId())));
+            } else if (criteria.getClientId() != null) {
+                tokens.addAll(loadColdRecords(tokenType, indexStore.clientTokens(tokenType, criteria.getClientId())));
+            }
+        }
+        if (criteria.getUsername() != null || criteria.getSessionId() != null || criteria.getClientId() != null) {
+            return tokens;
+        }
+
+        Map<String, Set<String>> hashesByType = new HashMap<>();
+        expiryIndex.forEach(entry -> hashesByType.computeIfAbsent(entry.tokenType(), type -> new HashSet<>()).add(entry.tokenHash()));
+        hashesByType.forEach((tokenType, hashes) -> tokens.addAll(loadColdRecords(tokenType, hashes)));
+        return tokens;
     }
 
     /**
-     * Increment operation counters for metrics
+     * Cold records of many tokens in one round trip: the keys are grouped by cluster slot and each
+     * group is one MGET, all in a single pipeline. Hashes whose record is gone are skipped.
+     */
+    private List<TokenInfo> loadColdRecords(String tokenType, Collection<String> tokenHashes) {
+        List<TokenInfo> records = new ArrayList<>();
+        if (tokenHashes.isEmpty()) {
+            return records;
+        }
+        List<String> keys = tokenHashes.stream()
+            .map(hash -> coldCache(tokenType) + CACHE_KEY_SEPARATOR + coldKey(tokenType, hash))
+            .toList();
+        Collection<List<String>> groups = RedisKeyUtils.groupBySlot(keys, Function.identity()).values();
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            for (List<String> group : groups) {
+                connection.stringCommands().mGet(group.stream().map(serializer::serialize).toArray(byte[][]::new));
+            }
+            return null;
+        });
+        for (Object result : results) {
+            if (result instanceof List<?> values) {
+                for (Object value : values) {
+                    toTokenInfo(value).ifPresent(records::add);
+                }
+            }
+        }
+        return records;
+    }
+
+    private Optional<TokenInfo> toTokenInfo(Object value) {
+        if (value instanceof TokenInfo info) {
+            return Optional.of(info);
+        }
+        if (value instanceof Map) {
+            try {
+                return Optional.of(cacheService.getRedisObjectMapper().convertValue(value, TokenInfo.class));
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping unreadable token record: {}", e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    // ==================== DEGRADED MODE ====================
+
+    /**
+     * Replay writes made while Redis was unavailable, oldest first. A write that fails because Redis
+     * is still unavailable stays queued for the next run.
      */
-    private void incrementOperationCounter(String operation, boolean success) {
-        operationCounters.computeIfAbsent(operation, k -> new AtomicLong()).incrementAndGet();
-        if (success) {
-            successCounters.computeIfAbsent(operation, k -> new AtomicLong()).incrementAndGet();
-        } else {
-            failureCounters.computeIfAbsent(operation, k -> new AtomicLong()).incrementAndGet();
+    @Scheduled(fixedDelayString = "${security.degraded.reconcile-interval:5000}")
+    public void reconcileDeferredWrites() {
+        Runnable write;
+        int replayed = 0;
+        while (redisGuard.isAvailable() && (write = deferredWrites.peek()) != null) {
+            try {
+                redisGuard.run(write);
+                replayed++;
+            } catch (RuntimeException e) {
+                if (RedisGuard.isUnavailable(e)) {
+                    break;
+                }
+                log.warn("Dropping deferred token write: {}", e.getMessage());
+            }
+            deferredWrites.poll();
+            deferredCount.decrementAndGet();
+        }
+        if (replayed > 0) {
+            log.info("Reconciled {} token writes made while Redis was unavailable, {} left", replayed, deferredCount.get());
+        }
+    }
+
+    /**
+     * Run a group of Redis writes through the circuit breaker
+     *
+     * @return false if Redis was unavailable, in which case the writes must be replayed later
+     */
+    private boolean runGuarded(Runnable writes) {
+        if (!redisGuard.isAvailable()) {
+            return false;
+        }
+        try {
+            redisGuard.run(writes);
+            return true;
+        } catch (RuntimeException e) {
+            if (!RedisGuard.isUnavailable(e)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private void deferUntilAvailable(Runnable write) {
+        if (deferredCount.incrementAndGet() > maxDeferredWrites) {
+            deferredCount.decrementAndGet();
+            log.warn("Deferred token write queue is full ({}), dropping a write", maxDeferredWrites);
+            return;
         }
+        deferredWrites.add(write);
+    }
+
+    /**
+     * Stand-in for the hot record while Redis is unavailable: this node's own copy of the token if it
+     * has one, otherwise whatever the unknown-token policy says
+     */
+    private Optional<TokenHotRecord> degradedHotRecord(String tokenType, String tokenHash) {
+        if (isRevokedLocally(tokenHash)) {
+            return Optional.empty();
+        }
+        Optional<LocalTokenStore.Entry> local = localStore.get(tokenHash);
+        if (local.isPresent()) {
+            return local.filter(entry -> tokenType.equals(entry.tokenType()) && entry.isActive())
+                .map(entry -> TokenHotRecord.builder()
+                    .tokenType(tokenType)
+                    .status(TokenInfo.TokenStatus.ACTIVE)
+                    .expiresAt(entry.expiresAt())
+                    .build());
+        }
+        if (!unknownTokenPolicy.allows()) {
+            return Optional.empty();
+        }
+        return Optional.of(TokenHotRecord.builder()
+            .tokenType(tokenType)
+            .status(TokenInfo.TokenStatus.ACTIVE)
+            .build());
+    }
+
+    /**
+     * Revocation answer without Redis: this node's revocations and its (possibly lagging) revocation
+     * filter, or a blanket "revoked" when the policy is fail-closed
+     */
+    private boolean isRevokedLocally(String tokenHash) {
+        if (!revocationPolicy.allows()) {
+            return true;
+        }
+        return localStore.get(tokenHash).map(LocalTokenStore.Entry::revoked).orElse(false)
+            || revocationFilter.mightBeRevokedLocally(tokenHash);
+    }
+
+    /**
+     * Minimal info for a token validated in degraded mode, when the cold record cannot be read
+     */
+    private TokenInfo degradedTokenInfo(String tokenHash, TokenHotRecord record) {
+        return TokenInfo.builder()
+            .tokenHash(tokenHash)
+            .tokenType(record.getTokenType())
+            .status(record.getStatus())
+            .username(record.getUsername())
+            .clientId(record.getClientId())
+            .expiresAt(record.getExpiresAt() > 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getExpiresAt()), ZoneId.systemDefault()) : null)
+            .build();
+    }
+
+    private TokenHotRecord hotRecord(String tokenType, TokenInfo tokenInfo, Instant expiresAt) {
+        return TokenHotRecord.builder()
+            .tokenType(tokenType)
+            .status(tokenInfo.getStatus() != null ? tokenInfo.getStatus() : TokenInfo.TokenStatus.ACTIVE)
+            .expiresAt(expiresAt.toEpochMilli())
+            .issuedAt(tokenInfo.getIssuedAt() != null ? tokenInfo.getIssuedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L)
+            .username(tokenInfo.getUsername())
+            .userId(tokenInfo.getUserId())
+            .clientId(tokenInfo.getClientId())
+            .build();
+    }
+
+    /**
+     * Copy of the info without the raw token, identified by its hash instead
+     */
+    private TokenInfo coldRecord(TokenInfo tokenInfo, String tokenHash) {
+        return tokenInfo.toBuilder()
+            .token(null)
+            .tokenHash(tokenHash)
+            .build();
+    }
+
+    private static String coldCache(String tokenType) {
+        return TokenStatisticsRecorder.ACCESS.equals(tokenType) ? ACCESS_TOKEN_CACHE : REFRESH_TOKEN_CACHE;
+    }
+
+    private static String coldKey(String tokenType, String tokenHash) {
+        return (TokenStatisticsRecorder.ACCESS.equals(tokenType) ? ACCESS_TOKEN_PREFIX : REFRESH_TOKEN_PREFIX) + tokenHash;
+    }
+
+    /**
+     * Check the token against the user and client "valid after" watermarks
+     */
+    private boolean isRevokedByWatermark(TokenInfo info) {
+        return revocationWatermarks.isRevoked(info.getUsername(), info.getClientId(),
+                info.getIssuedAt() != null ? info.getIssuedAt().atZone(ZoneId.systemDefault()).toInstant() : null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.codestorykh.alpha.security.stats;
+
+import com.codestorykh.alpha.security.dto.TokenInfo;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of one statistics slice (global, a user or a client).
+ * Fields are {@code TYPE:STATUS} for stored tokens, {@code expired:TYPE} for tokens
+ * swept after expiry and {@code usage} for recorded uses.
+ */
+public final class TokenCounters {
+
+    public static final String USAGE = "usage";
+    private static final String EXPIRED_PREFIX = "expired:";
+
+    private final Map<String, Long> fields;
+
+    TokenCounters(Map<String, Long> fields) {
+        this.fields = Map.copyOf(fields);
+    }
+
+    static String field(String tokenType, TokenInfo.TokenStatus status) {
+        return tokenType + ":" + status.name();
+    }
+
+    static String expiredField(String tokenType) {
+        return EXPIRED_PREFIX + tokenType;
+    }
+
+    public long count(String tokenType, TokenInfo.TokenStatus status) {
+        return fields.getOrDefault(field(tokenType, status), 0L);
+    }
+
+    public long countByType(String tokenType) {
+        long total = 0;
+        for (TokenInfo.TokenStatus status : TokenInfo.TokenStatus.values()) {
+            total += count(tokenType, status);
+        }
+        return total;
+    }
+
+    public long countByStatus(TokenInfo.TokenStatus status) {
+        return count(TokenStatisticsRecorder.ACCESS, status) + count(TokenStatisticsRecorder.REFRESH, status);
+    }
+
+    /** Tokens currently stored, whatever their status */
+    public long total() {
+        return countByType(TokenStatisticsRecorder.ACCESS) + countByType(TokenStatisticsRecorder.REFRESH);
+    }
+
+    /** Tokens removed by the sweeper after they expired (cumulative) */
+    public long expired() {
+        return fields.getOrDefault(expiredField(TokenStatisticsRecorder.ACCESS), 0L)
+                + fields.getOrDefault(expiredField(TokenStatisticsRecorder.REFRESH), 0L);
+    }
+
+    public long usage() {
+        return fields.getOrDefault(USAGE, 0L);
+    }
+
+    public Map<String, Long> asMap() {
+        return fields;
+    }
+}
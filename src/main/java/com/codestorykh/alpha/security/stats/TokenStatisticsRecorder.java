@@ -0,0 +1,259 @@
+package com.codestorykh.alpha.security.stats;
+
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.security.dto.TokenInfo;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incrementally maintained token statistics, sliced globally, per user and per client.
+ * <p>
+ * Every store, status change, removal and use adjusts counters in a local striped buffer;
+ * a scheduled flush moves the deltas into small Redis hashes with pipelined HINCRBY.
+ * Reads are one HGETALL plus this node's not-yet-flushed deltas, so the admin endpoints
+ * no longer need to load the token population to count it.
+ * <p>
+ * Per-user and per-client hashes expire {@code principal-ttl} after their last change. That has to
+ * outlast the longest token lifetime, so a hash only goes once none of its tokens can still be live
+ * and every further change is history nobody decrements.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenStatisticsRecorder {
+
+    public static final String ACCESS = "ACCESS";
+    public static final String REFRESH = "REFRESH";
+
+    private static final String GLOBAL_KEY = "token:stats";
+    private static final String USER_KEY_PREFIX = "token:stats:user:";
+    private static final String CLIENT_KEY_PREFIX = "token:stats:client:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheService cacheService;
+
+    @Value("${security.token-stats.principal-ttl:7d}")
+    private Duration principalTtl;
+
+    // Redis key -> field -> pending delta. The global slice is never removed; principal slices are
+    // only added to and removed under the map's per-key lock, see add() and flush()
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> pending = new ConcurrentHashMap<>();
+
+    // ==================== Recording ====================
+
+    public void recordStored(String tokenType, TokenInfo info) {
+        add(info, TokenCounters.field(tokenType, statusOf(info)), 1);
+    }
+
+    public void recordStatusChange(String tokenType, TokenInfo info, TokenInfo.TokenStatus from, TokenInfo.TokenStatus to) {
+        recordStatusChange(tokenType, info.getUsername(), info.getClientId(), from, to);
+    }
+
+    public void recordStatusChange(String tokenType, String username, String clientId,
+                                   TokenInfo.TokenStatus from, TokenInfo.TokenStatus to) {
+        TokenInfo.TokenStatus previous = from != null ? from : TokenInfo.TokenStatus.ACTIVE;
+        TokenInfo.TokenStatus current = to != null ? to : TokenInfo.TokenStatus.ACTIVE;
+        if (previous == current) {
+            return;
+        }
+        add(username, clientId, TokenCounters.field(tokenType, previous), -1);
+        add(username, clientId, TokenCounters.field(tokenType, current), 1);
+    }
+
+    /**
+     * @param expired true when the sweeper removes the token after expiry, false for explicit deletes
+     */
+    public void recordRemoved(String tokenType, TokenInfo info, boolean expired) {
+        recordRemoved(tokenType, info.getUsername(), info.getClientId(), statusOf(info), expired);
+    }
+
+    /** Variant for callers that no longer have the token info, such as the expiry sweeper */
+    public void recordRemoved(String tokenType, String username, String clientId, TokenInfo.TokenStatus status, boolean expired) {
+        add(username, clientId, TokenCounters.field(tokenType, status), -1);
+        if (expired) {
+            add(username, clientId, TokenCounters.expiredField(tokenType), 1);
+        }
+    }
+
+    /**
+     * @param username may be null when the caller only has the token, in which case only the global slice counts the use
+     * @param clientId may be null
+     */
+    public void recordUsage(String username, String clientId, long uses) {
+        add(username, clientId, TokenCounters.USAGE, uses);
+    }
+
+    // ==================== Reading ====================
+
+    public TokenCounters global() {
+        return read(GLOBAL_KEY);
+    }
+
+    public TokenCounters forUser(String username) {
+        return read(USER_KEY_PREFIX + username);
+    }
+
+    public TokenCounters forClient(String clientId) {
+        return read(CLIENT_KEY_PREFIX + clientId);
+    }
+
+    /**
+     * Counters of every user with statistics, by username. One SCAN and one pipelined HGETALL per
+     * user, so it is meant for the admin API only.
+     */
+    public Map<String, TokenCounters> allUsers() {
+        Set<String> keySet = new HashSet<>(cacheService.getKeys(USER_KEY_PREFIX + "*"));
+        // Users whose first deltas have not been flushed yet
+        pending.keySet().stream().filter(key -> key.startsWith(USER_KEY_PREFIX)).forEach(keySet::add);
+        List<String> keys = List.copyOf(keySet);
+        List<Object> entries;
+        try {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            entries = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                keys.forEach(key -> connection.hashCommands().hGetAll(serializer.serialize(key)));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to read token statistics of all users: {}", e.getMessage());
+            entries = Collections.nCopies(keys.size(), Map.of());
+        }
+        Map<String, TokenCounters> result = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            result.put(key.substring(USER_KEY_PREFIX.length()), withPending(key, (Map<?, ?>) entries.get(i)));
+        }
+        return result;
+    }
+
+    // ==================== Flushing ====================
+
+    @Scheduled(fixedDelayString = "${security.token-stats.flush-interval:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Snapshot the deltas first; they are only subtracted once Redis has taken them
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        pending.forEach((key, fields) -> fields.forEach((field, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                deltas.computeIfAbsent(key, k -> new HashMap<>()).put(field, delta);
+            }
+        }));
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            long ttlMillis = principalTtl.toMillis();
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                deltas.forEach((key, fields) -> {
+                    byte[] rawKey = serializer.serialize(key);
+                    fields.forEach((field, delta) -> connection.hashCommands().hIncrBy(rawKey, serializer.serialize(field), delta));
+                    if (!GLOBAL_KEY.equals(key)) {
+                        connection.keyCommands().pExpire(rawKey, ttlMillis);
+                    }
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to flush token statistics, keeping {} slices for the next run: {}", deltas.size(), e.getMessage());
+            return;
+        }
+
+        // Subtracting (rather than resetting) keeps increments that raced with the flush
+        deltas.forEach((key, fields) -> {
+            ConcurrentMap<String, LongAdder> adders = pending.get(key);
+            fields.forEach((field, delta) -> adders.get(field).add(-delta));
+        });
+        // Drop drained principal slices. The check runs under the same lock as add(), so a delta is
+        // either in the slice when it is checked or goes into a new one
+        for (String key : pending.keySet()) {
+            if (!GLOBAL_KEY.equals(key)) {
+                pending.computeIfPresent(key, (k, fields) -> isDrained(fields) ? null : fields);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // ==================== Internals ====================
+
+    private void add(TokenInfo info, String field, long delta) {
+        add(info.getUsername(), info.getClientId(), field, delta);
+    }
+
+    private void add(String username, String clientId, String field, long delta) {
+        add(GLOBAL_KEY, field, delta);
+        if (username != null) {
+            add(USER_KEY_PREFIX + username, field, delta);
+        }
+        if (clientId != null) {
+            add(CLIENT_KEY_PREFIX + clientId, field, delta);
+        }
+    }
+
+    private void add(String key, String field, long delta) {
+        if (GLOBAL_KEY.equals(key)) {
+            // Every operation lands here; the slice is never removed, so it needs no lock
+            pending.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(field, f -> new LongAdder())
+                    .add(delta);
+            return;
+        }
+        pending.compute(key, (k, fields) -> {
+            ConcurrentMap<String, LongAdder> slice = fields != null ? fields : new ConcurrentHashMap<>();
+            slice.computeIfAbsent(field, f -> new LongAdder()).add(delta);
+            return slice;
+        });
+    }
+
+    private static boolean isDrained(Map<String, LongAdder> fields) {
+        return fields.values().stream().allMatch(adder -> adder.sum() == 0);
+    }
+
+    private TokenCounters read(String key) {
+        Map<?, ?> stored;
+        try {
+            stored = stringRedisTemplate.opsForHash().entries(key);
+        } catch (Exception e) {
+            log.warn("Failed to read token statistics {}: {}", key, e.getMessage());
+            stored = Map.of();
+        }
+        return withPending(key, stored);
+    }
+
+    /** Counters as stored in Redis plus this node's deltas not flushed yet */
+    private TokenCounters withPending(String key, Map<?, ?> stored) {
+        Map<String, Long> fields = new HashMap<>();
+        if (stored != null) {
+            stored.forEach((field, value) -> fields.put((String) field, Long.parseLong((String) value)));
+        }
+        Map<String, LongAdder> local = pending.get(key);
+        if (local != null) {
+            local.forEach((field, adder) -> fields.merge(field, adder.sum(), Long::sum));
+        }
+        return new TokenCounters(fields);
+    }
+
+    private static TokenInfo.TokenStatus statusOf(TokenInfo info) {
+        return info.getStatus() != null ? info.getStatus() : TokenInfo.TokenStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,255 @@
+package com.codestorykh.alpha.security.stats;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-token usage counts and last-used times, aggregated in memory and flushed periodically.
+ * <p>
+ * Recording a use never touches Redis. The flush turns everything recorded since the last one into
+ * one pipelined script call per token on a small hash: {@code count} is incremented and
+ * {@code lastUsedAt} only ever moves forward, so concurrent flushes from any number of nodes add up
+ * instead of overwriting each other, whatever order they arrive in. Each call's outcome is checked
+ * on its own, so only the tokens whose call failed are retried and none is counted twice. The buffer is
+ * lossy by design: a node that dies loses at most one interval, and once it holds
+ * {@code max-entries} tokens new ones are dropped (and counted) until the next flush.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenUsageBuffer {
+
+    private static final String KEY_PREFIX = "token:usage:";
+    private static final String COUNT_FIELD = "count";
+    private static final String LAST_USED_FIELD = "lastUsedAt";
+
+    // ARGV: uses to add, last use (epoch millis), ttl millis
+    private static final RedisScript<Long> FLUSH_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HINCRBY', KEYS[1], 'count', ARGV[1])
+            local last = tonumber(redis.call('HGET', KEYS[1], 'lastUsedAt'))
+            if not last or last < tonumber(ARGV[2]) then
+                redis.call('HSET', KEYS[1], 'lastUsedAt', ARGV[2])
+            end
+            return redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.token-usage.max-entries:100000}")
+    private int maxEntries;
+
+    // Usage keys live as long as the longest-lived token they can describe
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpiration;
+
+    private final ConcurrentMap<String, Usage> pending = new ConcurrentHashMap<>();
+    private Counter dropped;
+
+    private static final class Usage {
+        final LongAdder count = new LongAdder();
+        final LongAccumulator lastUsedAt = new LongAccumulator(Math::max, 0L);
+    }
+
+    public record TokenUsage(long count, Instant lastUsedAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        dropped = Counter.builder("token.usage.dropped")
+                .description("Token uses not recorded because the usage buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("token.usage.pending", pending, Map::size)
+                .description("Tokens with usage waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    // ==================== Recording ====================
+
+    public void record(String tokenHash) {
+        long now = System.currentTimeMillis();
+        // Under the map's per-key lock, like flush() removing a drained entry, so no use lands on a removed one
+        pending.compute(tokenHash, (hash, usage) -> {
+            if (usage == null) {
+                if (pending.size() >= maxEntries) {
+                    dropped.increment();
+                    return null;
+                }
+                usage = new Usage();
+            }
+            usage.count.increment();
+            usage.lastUsedAt.accumulate(now);
+            return usage;
+        });
+    }
+
+    // ==================== Reading ====================
+
+    /** Flushed usage plus this node's pending uses, one pipelined round trip for all tokens */
+    public Map<String, TokenUsage> usageOf(Collection<String> tokenHashes) {
+        List<String> hashes = new ArrayList<>(tokenHashes);
+        Map<String, TokenUsage> result = new HashMap<>();
+        if (hashes.isEmpty()) {
+            return result;
+        }
+        List<Object> rows = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            for (String hash : hashes) {
+                connection.hashCommands().hMGet(serializer.serialize(KEY_PREFIX + hash),
+                        serializer.serialize(COUNT_FIELD), serializer.serialize(LAST_USED_FIELD));
+            }
+            return null;
+        });
+        for (int i = 0; i < hashes.size(); i++) {
+            List<?> fields = rows.get(i) instanceof List<?> list ? list : List.of();
+            long count = parse(fields, 0);
+            long lastUsedAt = parse(fields, 1);
+            Usage local = pending.get(hashes.get(i));
+            if (local != null) {
+                count += local.count.sum();
+                lastUsedAt = Math.max(lastUsedAt, local.lastUsedAt.get());
+            }
+            if (count > 0) {
+                result.put(hashes.get(i), new TokenUsage(count, lastUsedAt > 0 ? Instant.ofEpochMilli(lastUsedAt) : null));
+            }
+        }
+        return result;
+    }
+
+    // ==================== Flushing ====================
+
+    @Scheduled(fixedDelayString = "${security.token-usage.flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, long[]> batch = new HashMap<>();
+        pending.forEach((hash, usage) -> {
+            long count = usage.count.sum();
+            if (count != 0) {
+                batch.put(hash, new long[]{count, usage.lastUsedAt.get()});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<String> written;
+        try {
+            written = write(batch);
+        } catch (Exception e) {
+            log.warn("Failed to flush usage of {} tokens, retrying next run: {}", batch.size(), e.getMessage());
+            return;
+        }
+        if (written.size() < batch.size()) {
+            log.warn("Failed to flush usage of {} of {} tokens, retrying next run", batch.size() - written.size(), batch.size());
+        }
+
+        // Subtracting (rather than resetting) keeps uses that raced with the flush
+        for (String hash : written) {
+            long flushed = batch.get(hash)[0];
+            pending.computeIfPresent(hash, (h, usage) -> {
+                usage.count.add(-flushed);
+                return usage.count.sum() == 0 ? null : usage;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Runs the flush script once per token, by SHA unless the node has lost the script. The calls go
+     * out back to back on the native async connection, which pipelines them, and each one's outcome
+     * is read on its own.
+     *
+     * @return the tokens whose call succeeded
+     */
+    private Set<String> write(Map<String, long[]> batch) {
+        RedisSerializer<String> serializer = RedisSerializer.string();
+        byte[] ttl = serializer.serialize(String.valueOf(refreshExpiration));
+        return stringRedisTemplate.execute((RedisCallback<Set<String>>) connection -> {
+            @SuppressWarnings("unchecked")
+            RedisClusterAsyncCommands<byte[], byte[]> commands =
+                    (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            Map<String, RedisFuture<Long>> calls = new HashMap<>();
+            batch.forEach((hash, values) -> calls.put(hash, commands.evalsha(FLUSH_SCRIPT.getSha1(),
+                    ScriptOutputType.INTEGER, keys(serializer, hash), args(serializer, values, ttl))));
+
+            Set<String> written = new HashSet<>();
+            Map<String, RedisFuture<Long>> retries = new HashMap<>();
+            calls.forEach((hash, call) -> {
+                Throwable failure = outcome(call);
+                if (failure == null) {
+                    written.add(hash);
+                } else if (failure instanceof RedisNoScriptException) {
+                    // This node lost its script cache (restart, failover), so this call did not run and is safe to
+                    // resend. EVAL caches the script again for the next flush
+                    retries.put(hash, commands.eval(FLUSH_SCRIPT.getScriptAsString(), ScriptOutputType.INTEGER,
+                            keys(serializer, hash), args(serializer, batch.get(hash), ttl)));
+                } else {
+                    log.debug("Failed to flush usage of token {}: {}", hash, failure.getMessage());
+                }
+            });
+            retries.forEach((hash, call) -> {
+                if (outcome(call) == null) {
+                    written.add(hash);
+                }
+            });
+            return written;
+        });
+    }
+
+    /** Null once the call succeeded, else why it failed; the client's command timeout bounds the wait */
+    private static Throwable outcome(RedisFuture<Long> call) {
+        try {
+            call.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+    }
+
+    private static byte[][] keys(RedisSerializer<String> serializer, String hash) {
+        return new byte[][]{serializer.serialize(KEY_PREFIX + hash)};
+    }
+
+    private static byte[][] args(RedisSerializer<String> serializer, long[] values, byte[] ttl) {
+        return new byte[][]{serializer.serialize(String.valueOf(values[0])), serializer.serialize(String.valueOf(values[1])), ttl};
+    }
+
+    private static long parse(List<?> fields, int index) {
+        Object value = index < fields.size() ? fields.get(index) : null;
+        return value instanceof String text ? Long.parseLong(text) : 0L;
+    }
+}
@@ -0,0 +1,220 @@
+package com.codestorykh.alpha.security.storage;
+
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Bounded, off-heap copy of the token state this node has seen, used to answer validations while
+ * Redis is unavailable.
+ * <p>
+ * Every token this node stores, revokes or deletes is mirrored here, so during an outage it still
+ * knows its own tokens and every revocation it made. The table is one direct buffer of fixed-size
+ * slots (hash, expiry, type, status), split into regions with one lock each and linear probing
+ * inside a region, so it adds nothing to the heap or to GC work however many tokens it holds. When a
+ * probe window is full the entry closest to expiry is overwritten; losing an entry only means the
+ * token falls under the unknown-token policy during an outage.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocalTokenStore {
+
+    private static final int HASH_BYTES = 32;
+    private static final int EXPIRES_OFFSET = 32;
+    private static final int TYPE_OFFSET = 40;
+    private static final int STATE_OFFSET = 41;
+    private static final int SLOT_SIZE = 48;
+
+    private static final byte EMPTY = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte REVOKED = 2;
+    private static final byte DELETED = 3;
+
+    private static final byte TYPE_ACCESS = 1;
+    private static final byte TYPE_REFRESH = 2;
+
+    private static final int REGIONS = 64;
+    private static final int MAX_PROBES = 16;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.degraded.local-store.max-entries:262144}")
+    private int maxEntries;
+
+    private ByteBuffer table;
+    private int slotsPerRegion;
+    private final Object[] locks = new Object[REGIONS];
+    private Counter evictions;
+
+    public record Entry(String tokenType, boolean revoked, long expiresAt) {
+
+        public boolean isActive() {
+            return !revoked && System.currentTimeMillis() < expiresAt;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        slotsPerRegion = Math.max(MAX_PROBES, (maxEntries + REGIONS - 1) / REGIONS);
+        table = ByteBuffer.allocateDirect(REGIONS * slotsPerRegion * SLOT_SIZE);
+        for (int i = 0; i < REGIONS; i++) {
+            locks[i] = new Object();
+        }
+        evictions = Counter.builder("token.local-store.evictions")
+                .description("Live entries overwritten because the local token store was full")
+                .register(meterRegistry);
+        Gauge.builder("token.local-store.capacity", () -> REGIONS * slotsPerRegion)
+                .description("Slots in the local token store")
+                .register(meterRegistry);
+    }
+
+    // ==================== Writes ====================
+
+    public void putActive(String tokenType, String tokenHash, long expiresAt) {
+        write(tokenHash, tokenType, ACTIVE, expiresAt);
+    }
+
+    /**
+     * Record a revocation; kept until {@code expiresAt} even if the token itself was never seen here
+     */
+    public void putRevoked(String tokenType, String tokenHash, long expiresAt) {
+        write(tokenHash, tokenType, REVOKED, expiresAt);
+    }
+
+    public void remove(String tokenHash) {
+        byte[] hash = hashBytes(tokenHash);
+        int region = regionOf(hash);
+        synchronized (locks[region]) {
+            int slot = find(hash, region);
+            if (slot >= 0) {
+                table.put(slot * SLOT_SIZE + STATE_OFFSET, DELETED);
+            }
+        }
+    }
+
+    // ==================== Reads ====================
+
+    public Optional<Entry> get(String tokenHash) {
+        byte[] hash = hashBytes(tokenHash);
+        int region = regionOf(hash);
+        synchronized (locks[region]) {
+            int slot = find(hash, region);
+            if (slot < 0) {
+                return Optional.empty();
+            }
+            int base = slot * SLOT_SIZE;
+            return Optional.of(new Entry(
+                    table.get(base + TYPE_OFFSET) == TYPE_ACCESS ? TokenStatisticsRecorder.ACCESS : TokenStatisticsRecorder.REFRESH,
+                    table.get(base + STATE_OFFSET) == REVOKED,
+                    table.getLong(base + EXPIRES_OFFSET)));
+        }
+    }
+
+    // ==================== Internals ====================
+
+    private void write(String tokenHash, String tokenType, byte state, long expiresAt) {
+        byte[] hash = hashBytes(tokenHash);
+        int region = regionOf(hash);
+        synchronized (locks[region]) {
+            int slot = find(hash, region);
+            if (slot < 0) {
+                slot = freeSlot(hash, region);
+            } else if (table.get(slot * SLOT_SIZE + STATE_OFFSET) == REVOKED) {
+                // A revocation is never downgraded back to active
+                state = REVOKED;
+            }
+            int base = slot * SLOT_SIZE;
+            table.put(base, hash, 0, HASH_BYTES);
+            table.putLong(base + EXPIRES_OFFSET, expiresAt);
+            table.put(base + TYPE_OFFSET, TokenStatisticsRecorder.ACCESS.equals(tokenType) ? TYPE_ACCESS : TYPE_REFRESH);
+            table.put(base + STATE_OFFSET, state);
+        }
+    }
+
+    /** Slot holding the hash, or -1; expired entries count as absent */
+    private int find(byte[] hash, int region) {
+        long now = System.currentTimeMillis();
+        int home = homeOf(hash);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = region * slotsPerRegion + (home + probe) % slotsPerRegion;
+            int base = slot * SLOT_SIZE;
+            byte state = table.get(base + STATE_OFFSET);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state != DELETED && matches(base, hash)) {
+                return table.getLong(base + EXPIRES_OFFSET) > now ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    /** First empty, deleted or expired slot of the probe window, else the one closest to expiry */
+    private int freeSlot(byte[] hash, int region) {
+        long now = System.currentTimeMillis();
+        int home = homeOf(hash);
+        int victim = -1;
+        long victimExpiry = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = region * slotsPerRegion + (home + probe) % slotsPerRegion;
+            int base = slot * SLOT_SIZE;
+            byte state = table.get(base + STATE_OFFSET);
+            long expiresAt = table.getLong(base + EXPIRES_OFFSET);
+            if (state == EMPTY || state == DELETED || expiresAt <= now) {
+                return slot;
+            }
+            if (expiresAt < victimExpiry) {
+                victim = slot;
+                victimExpiry = expiresAt;
+            }
+        }
+        evictions.increment();
+        return victim;
+    }
+
+    private boolean matches(int base, byte[] hash) {
+        for (int i = 0; i < HASH_BYTES; i++) {
+            if (table.get(base + i) != hash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int regionOf(byte[] hash) {
+        return hash[0] & (REGIONS - 1);
+    }
+
+    private int homeOf(byte[] hash) {
+        int value = ((hash[1] & 0xFF) << 24) | ((hash[2] & 0xFF) << 16) | ((hash[3] & 0xFF) << 8) | (hash[4] & 0xFF);
+        return Math.floorMod(value, slotsPerRegion);
+    }
+
+    /** Token hashes are hex SHA-256; anything else is digested so it still fits a slot */
+    private static byte[] hashBytes(String tokenHash) {
+        if (tokenHash.length() == HASH_BYTES * 2) {
+            try {
+                return HexFormat.of().parseHex(tokenHash);
+            } catch (IllegalArgumentException e) {
+                // fall through
+            }
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(tokenHash.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.codestorykh.alpha.security.storage;
+
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import com.codestorykh.alpha.utils.redis.RedisKeyUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Per-user, per-client and per-session sets of token hashes.
+ * <p>
+ * Each set is one key whose hash tag is the owner ({@code token:idx:{u:alice}:access}), so listing a
+ * user's tokens is one SMEMBERS on one cluster node instead of a KEYS over the whole keyspace, and
+ * all of a user's index keys share a slot with their other user-tagged keys. A set expires after the
+ * longest token lifetime without additions; members of deleted or swept tokens are removed with the
+ * token, and stale members are tolerated because readers skip hashes whose record is gone.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenIndexStore {
+
+    private static final String KEY_PREFIX = "token:idx:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpiration;
+
+    // ==================== Indexing ====================
+
+    public void add(String tokenType, String tokenHash, String username, String clientId, String sessionId) {
+        List<String> keys = keysOf(tokenType, username, clientId, sessionId);
+        if (keys.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            byte[] member = serializer.serialize(tokenHash);
+            for (String key : keys) {
+                byte[] rawKey = serializer.serialize(key);
+                connection.setCommands().sAdd(rawKey, member);
+                connection.keyCommands().pExpire(rawKey, refreshExpiration);
+            }
+            return null;
+        });
+    }
+
+    public void remove(String tokenType, String tokenHash, String username, String clientId, String sessionId) {
+        List<String> keys = keysOf(tokenType, username, clientId, sessionId);
+        if (keys.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisSerializer<String> serializer = RedisSerializer.string();
+            byte[] member = serializer.serialize(tokenHash);
+            for (String key : keys) {
+                connection.setCommands().sRem(serializer.serialize(key), member);
+            }
+            return null;
+        });
+    }
+
+    // ==================== Reading ====================
+
+    public Set<String> userTokens(String tokenType, String username) {
+        return members(userKey(tokenType, username));
+    }
+
+    public Set<String> clientTokens(String tokenType, String clientId) {
+        return members(clientKey(tokenType, clientId));
+    }
+
+    public Set<String> sessionTokens(String tokenType, String sessionId) {
+        return members(sessionKey(tokenType, sessionId));
+    }
+
+    /** Drop a session's index; the tokens themselves are left to their TTL */
+    public void deleteSession(String sessionId) {
+        stringRedisTemplate.delete(sessionKey(TokenStatisticsRecorder.ACCESS, sessionId));
+        stringRedisTemplate.delete(sessionKey(TokenStatisticsRecorder.REFRESH, sessionId));
+    }
+
+    // ==================== Internals ====================
+
+    private Set<String> members(String key) {
+        Set<String> members = stringRedisTemplate.opsForSet().members(key);
+        return members != null ? members : Set.of();
+    }
+
+    private static List<String> keysOf(String tokenType, String username, String clientId, String sessionId) {
+        List<String> keys = new ArrayList<>(3);
+        if (username != null) {
+            keys.add(userKey(tokenType, username));
+        }
+        if (clientId != null) {
+            keys.add(clientKey(tokenType, clientId));
+        }
+        if (sessionId != null) {
+            keys.add(sessionKey(tokenType, sessionId));
+        }
+        return keys;
+    }
+
+    private static String userKey(String tokenType, String username) {
+        return KEY_PREFIX + RedisKeyUtils.userTag(username) + ":" + kind(tokenType);
+    }
+
+    private static String clientKey(String tokenType, String clientId) {
+        return KEY_PREFIX + RedisKeyUtils.clientTag(clientId) + ":" + kind(tokenType);
+    }
+
+    private static String sessionKey(String tokenType, String sessionId) {
+        return KEY_PREFIX + RedisKeyUtils.sessionTag(sessionId) + ":" + kind(tokenType);
+    }
+
+    private static String kind(String tokenType) {
+        return TokenStatisticsRecorder.ACCESS.equals(tokenType) ? "access" : "refresh";
+    }
+}
@@ -0,0 +1,77 @@
+package com.codestorykh.alpha.utils.redis;
+
+import io.lettuce.core.cluster.SlotHash;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Key layout helpers for Redis Cluster.
+ * <p>
+ * Redis only hashes the part of a key between the first {@code {} and the following {@code }}, so
+ * every key built with the same tag lands in the same slot and can be used together in one script,
+ * transaction or multi-key command. On a single node the tags are just part of the key.
+ */
+public class RedisKeyUtils {
+
+    private RedisKeyUtils() {
+    }
+
+    /**
+     * Hash tag shared by every key of one user
+     */
+    public static String userTag(String username) {
+        return tag("u", username);
+    }
+
+    /**
+     * Hash tag shared by every key of one client
+     */
+    public static String clientTag(String clientId) {
+        return tag("c", clientId);
+    }
+
+    /**
+     * Hash tag shared by every key of one session
+     */
+    public static String sessionTag(String sessionId) {
+        return tag("s", sessionId);
+    }
+
+    /**
+     * Hash tag of one of {@code stripes} fixed groups, chosen by {@code id}. For state that is shared by
+     * everyone but read together with per-id keys: one copy per stripe lives in each stripe's slot.
+     */
+    public static String stripeTag(String kind, String id, int stripes) {
+        return stripeTag(kind, Math.floorMod(id.hashCode(), stripes));
+    }
+
+    /**
+     * Hash tag of stripe number {@code stripe}
+     */
+    public static String stripeTag(String kind, int stripe) {
+        return tag(kind, String.valueOf(stripe));
+    }
+
+    /**
+     * Cluster slot of a key, honouring hash tags
+     */
+    public static int slot(String key) {
+        return SlotHash.getSlot(key);
+    }
+
+    /**
+     * Group items by the slot of their key, so each group can go into one multi-key command
+     */
+    public static <T> Map<Integer, List<T>> groupBySlot(Collection<T> items, Function<T, String> keyOf) {
+        Map<Integer, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(slot(keyOf.apply(item)), slot -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    private static String tag(String kind, String id) {
+        return "{" + kind + ":" + id + "}";
+    }
+}
@@ -1,5 +1,6 @@
 package com.codestorykh.alpha.utils.security;
 
+import com.codestorykh.alpha.security.authority.AuthoritySet;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -48,27 +49,14 @@ public class SecurityUtils {
      * Check if current user has a specific role
      */
     public static boolean hasRole(String role) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        return authentication != null && authentication.getAuthorities().stream()
-                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+        return currentAuthorities().hasRole(role);
     }
 
     /**
      * Check if current user has any of the specified roles
      */
     public static boolean hasAnyRole(String... roles) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) {
-            return false;
-        }
-        
-        for (String role : roles) {
-            if (authentication.getAuthorities().stream()
-                    .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role))) {
-                return true;
-            }
-        }
-        return false;
+        return currentAuthorities().hasAnyRole(roles);
     }
 
     /**
@@ -76,17 +64,24 @@ public class SecurityUtils {
      */
     public static boolean hasAllRoles(String... roles) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) {
-            return false;
-        }
-        
-        for (String role : roles) {
-            if (authentication.getAuthorities().stream()
-                    .noneMatch(authority -> authority.getAuthority().equals("ROLE_" + role))) {
-                return false;
-            }
+        return authentication != null && authoritiesOf(authentication).hasAllRoles(roles);
+    }
+
+    /**
+     * Get current user's authorities as an interned set
+     */
+    public static AuthoritySet currentAuthorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authoritiesOf(authentication) : AuthoritySet.empty();
+    }
+
+    private static AuthoritySet authoritiesOf(Authentication authentication) {
+        // The token copies authorities into a plain list; prefer the principal's set when it already is one
+        if (authentication.getPrincipal() instanceof UserDetails userDetails
+                && userDetails.getAuthorities() instanceof AuthoritySet authoritySet) {
+            return authoritySet;
         }
-        return true;
+        return AuthoritySet.fromAuthorities(authentication.getAuthorities());
     }
 
     /**
@@ -0,0 +1,225 @@
+-- Baseline: the schema Hibernate generated from the entities (ddl-auto) before migrations took over,
+-- with IDENTITY ids as they were then; V2 moves them to sequences.
+-- Databases created by ddl-auto already have all of this and are baselined at version 1
+-- (spring.flyway.baseline-on-migrate), so they start at V2.
+
+-- ==================== Identity ====================
+
+CREATE TABLE permissions (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                 VARCHAR(100) NOT NULL,
+    description          VARCHAR(255),
+    resource             VARCHAR(50)  NOT NULL,
+    action               VARCHAR(50)  NOT NULL,
+    enabled              BOOLEAN      NOT NULL,
+    is_system_permission BOOLEAN      NOT NULL,
+    created_at           TIMESTAMP(6) NOT NULL,
+    updated_at           TIMESTAMP(6),
+    version              BIGINT,
+    active               BOOLEAN      NOT NULL,
+    CONSTRAINT uk_permissions_name UNIQUE (name)
+);
+CREATE INDEX idx_permission_name ON permissions (name);
+CREATE INDEX idx_permission_resource ON permissions (resource);
+CREATE INDEX idx_permission_action ON permissions (action);
+
+CREATE TABLE roles (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name           VARCHAR(50)  NOT NULL,
+    description    VARCHAR(255),
+    enabled        BOOLEAN      NOT NULL,
+    is_system_role BOOLEAN      NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6),
+    version        BIGINT,
+    active         BOOLEAN      NOT NULL,
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+CREATE INDEX idx_role_name ON roles (name);
+CREATE INDEX idx_role_enabled ON roles (enabled);
+
+CREATE TABLE role_permissions (
+    role_id       BIGINT NOT NULL,
+    permission_id BIGINT NOT NULL,
+    PRIMARY KEY (role_id, permission_id),
+    CONSTRAINT fk_role_permissions_role FOREIGN KEY (role_id) REFERENCES roles (id),
+    CONSTRAINT fk_role_permissions_permission FOREIGN KEY (permission_id) REFERENCES permissions (id)
+);
+
+CREATE TABLE groups (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(50)  NOT NULL,
+    description     VARCHAR(255),
+    enabled         BOOLEAN      NOT NULL,
+    is_system_group BOOLEAN      NOT NULL,
+    parent_group_id BIGINT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    version         BIGINT,
+    active          BOOLEAN      NOT NULL,
+    CONSTRAINT uk_groups_name UNIQUE (name),
+    CONSTRAINT fk_groups_parent FOREIGN KEY (parent_group_id) REFERENCES groups (id)
+);
+CREATE INDEX idx_group_name ON groups (name);
+CREATE INDEX idx_group_enabled ON groups (enabled);
+
+CREATE TABLE group_permissions (
+    group_id      BIGINT NOT NULL,
+    permission_id BIGINT NOT NULL,
+    PRIMARY KEY (group_id, permission_id),
+    CONSTRAINT fk_group_permissions_group FOREIGN KEY (group_id) REFERENCES groups (id),
+    CONSTRAINT fk_group_permissions_permission FOREIGN KEY (permission_id) REFERENCES permissions (id)
+);
+
+CREATE TABLE group_closure (
+    ancestor_id   BIGINT  NOT NULL,
+    descendant_id BIGINT  NOT NULL,
+    depth         INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+CREATE INDEX idx_group_closure_descendant ON group_closure (descendant_id, depth);
+
+CREATE TABLE users (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username                VARCHAR(50)  NOT NULL,
+    email                   VARCHAR(255) NOT NULL,
+    password                VARCHAR(255) NOT NULL,
+    first_name              VARCHAR(255),
+    last_name               VARCHAR(255),
+    phone_number            VARCHAR(255),
+    status                  VARCHAR(255) NOT NULL
+        CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'PENDING_VERIFICATION', 'DELETED')),
+    enabled                 BOOLEAN      NOT NULL,
+    account_non_expired     BOOLEAN      NOT NULL,
+    account_non_locked      BOOLEAN      NOT NULL,
+    credentials_non_expired BOOLEAN      NOT NULL,
+    email_verified          BOOLEAN      NOT NULL,
+    phone_verified          BOOLEAN      NOT NULL,
+    last_login              TIMESTAMP(6),
+    password_changed_at     TIMESTAMP(6),
+    failed_login_attempts   INTEGER      NOT NULL,
+    locked_until            TIMESTAMP(6),
+    created_at              TIMESTAMP(6) NOT NULL,
+    updated_at              TIMESTAMP(6),
+    version                 BIGINT,
+    active                  BOOLEAN      NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+CREATE INDEX idx_user_email ON users (email);
+CREATE INDEX idx_user_username ON users (username);
+CREATE INDEX idx_user_enabled ON users (enabled);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE user_groups (
+    user_id  BIGINT NOT NULL,
+    group_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, group_id),
+    CONSTRAINT fk_user_groups_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_groups_group FOREIGN KEY (group_id) REFERENCES groups (id)
+);
+
+-- ==================== OAuth2 ====================
+
+CREATE TABLE oauth2_clients (
+    id                             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    client_id                      VARCHAR(100) NOT NULL,
+    client_secret                  VARCHAR(255) NOT NULL,
+    client_name                    VARCHAR(255),
+    description                    VARCHAR(500),
+    enabled                        BOOLEAN      NOT NULL,
+    require_proof_key              BOOLEAN      NOT NULL,
+    require_authorization_consent  BOOLEAN      NOT NULL,
+    access_token_validity_seconds  INTEGER,
+    refresh_token_validity_seconds INTEGER,
+    token_endpoint_auth_method     VARCHAR(255) NOT NULL
+        CHECK (token_endpoint_auth_method IN
+               ('CLIENT_SECRET_BASIC', 'CLIENT_SECRET_POST', 'CLIENT_SECRET_JWT', 'PRIVATE_KEY_JWT', 'NONE')),
+    last_used                      TIMESTAMP(6),
+    usage_count                    BIGINT,
+    created_at                     TIMESTAMP(6) NOT NULL,
+    updated_at                     TIMESTAMP(6),
+    version                        BIGINT,
+    active                         BOOLEAN      NOT NULL,
+    CONSTRAINT uk_oauth2_clients_client_id UNIQUE (client_id)
+);
+CREATE INDEX idx_client_id ON oauth2_clients (client_id);
+CREATE INDEX idx_client_enabled ON oauth2_clients (enabled);
+
+CREATE TABLE oauth2_client_scopes (
+    client_id BIGINT       NOT NULL,
+    scope     VARCHAR(255) NOT NULL,
+    PRIMARY KEY (client_id, scope),
+    CONSTRAINT fk_oauth2_client_scopes_client FOREIGN KEY (client_id) REFERENCES oauth2_clients (id)
+);
+
+CREATE TABLE oauth2_client_redirect_uris (
+    client_id    BIGINT       NOT NULL,
+    redirect_uri VARCHAR(255) NOT NULL,
+    PRIMARY KEY (client_id, redirect_uri),
+    CONSTRAINT fk_oauth2_client_redirect_uris_client FOREIGN KEY (client_id) REFERENCES oauth2_clients (id)
+);
+
+CREATE TABLE oauth2_client_grant_types (
+    client_id  BIGINT       NOT NULL,
+    grant_type VARCHAR(255) NOT NULL
+        CHECK (grant_type IN ('AUTHORIZATION_CODE', 'CLIENT_CREDENTIALS', 'REFRESH_TOKEN', 'PASSWORD', 'IMPLICIT')),
+    PRIMARY KEY (client_id, grant_type),
+    CONSTRAINT fk_oauth2_client_grant_types_client FOREIGN KEY (client_id) REFERENCES oauth2_clients (id)
+);
+
+-- ==================== Configuration ====================
+
+CREATE TABLE configurations (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    config_key   VARCHAR(100)  NOT NULL,
+    config_value VARCHAR(1000) NOT NULL,
+    category     VARCHAR(100),
+    description  VARCHAR(255),
+    is_encrypted BOOLEAN       NOT NULL,
+    is_system    BOOLEAN       NOT NULL,
+    is_readonly  BOOLEAN       NOT NULL,
+    value_type   VARCHAR(255)  NOT NULL
+        CHECK (value_type IN ('STRING', 'INTEGER', 'LONG', 'DOUBLE', 'BOOLEAN', 'JSON', 'ENCRYPTED')),
+    created_at   TIMESTAMP(6)  NOT NULL,
+    updated_at   TIMESTAMP(6),
+    version      BIGINT,
+    active       BOOLEAN       NOT NULL,
+    CONSTRAINT uk_configurations_config_key UNIQUE (config_key)
+);
+CREATE INDEX idx_config_key ON configurations (config_key);
+CREATE INDEX idx_config_category ON configurations (category);
+
+CREATE TABLE application_jwt_configs (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    application_name      VARCHAR(100)  NOT NULL,
+    environment           VARCHAR(50),
+    secret                VARCHAR(512)  NOT NULL,
+    expiration_ms         BIGINT        NOT NULL,
+    refresh_expiration_ms BIGINT        NOT NULL,
+    issuer                VARCHAR(100)  NOT NULL,
+    audience              VARCHAR(100)  NOT NULL,
+    enabled               BOOLEAN       NOT NULL,
+    description           VARCHAR(255),
+    is_default            BOOLEAN       NOT NULL,
+    is_system             BOOLEAN       NOT NULL,
+    is_readonly           BOOLEAN       NOT NULL,
+    algorithm             VARCHAR(255)  NOT NULL
+        CHECK (algorithm IN ('HS256', 'HS384', 'HS512', 'RS256', 'RS384', 'RS512', 'ES256', 'ES384', 'ES512')),
+    key_id                VARCHAR(255),
+    additional_claims     VARCHAR(1000),
+    created_at            TIMESTAMP(6)  NOT NULL,
+    updated_at            TIMESTAMP(6),
+    version               BIGINT,
+    active                BOOLEAN       NOT NULL
+);
+CREATE INDEX idx_app_jwt_config_app_name ON application_jwt_configs (application_name);
+CREATE INDEX idx_app_jwt_config_enabled ON application_jwt_configs (enabled);
+CREATE INDEX idx_app_jwt_config_environment ON application_jwt_configs (environment);
@@ -0,0 +1,30 @@
+-- Moves BaseEntity tables from IDENTITY ids to the pooled sequences the entities now use.
+--
+-- Applies on top of the V1 baseline, and to databases created by ddl-auto while BaseEntity.id was
+-- IDENTITY (baselined at version 1). A schema ddl-auto created after the switch already has the
+-- sequences; the statements below are idempotent, so it comes through unchanged apart from the
+-- sequence restart.
+--
+-- For every table the identity is dropped and <table>_id_seq is recreated with increment 50 (one
+-- nextval reserves a block of 50 ids for Hibernate's pooled-lo optimizer), owned by the id column,
+-- starting above the current maximum. The column keeps nextval as its default, so plain INSERTs
+-- without an id (psql, other tools) still work; they simply use up a block each.
+-- Flyway runs the script in a single transaction.
+
+DO $$
+DECLARE
+    t        text;
+    seq      text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['permissions', 'roles', 'groups', 'users', 'configurations',
+                             'application_jwt_configs', 'oauth2_clients']
+    LOOP
+        seq := t || '_id_seq';
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', seq);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', seq, t);
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(max(id), 0) + 1 FROM %I), false)', seq, t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, seq);
+        RAISE NOTICE '% now draws ids from % (increment 50)', t, seq;
+    END LOOP;
+END $$;
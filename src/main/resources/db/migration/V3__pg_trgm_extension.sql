@@ -0,0 +1,3 @@
+-- Trigram operator classes for the GIN indexes behind the substring user search (V4).
+-- Needs CREATE privilege on the database; on managed PostgreSQL pg_trgm is on the trusted list.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,48 @@
+package com.codestorykh.alpha.admin.accounting;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Endpoint entries stay bounded by the route table, whatever method or path a client sends.
+ */
+class RequestAccountingTest {
+
+    private final RequestAccounting accounting = accounting();
+
+    @Test
+    void endpointsAreKeyedByMethodAndRoute() {
+        complete("GET", "/api/users/{id}");
+        complete("GET", "/api/users/{id}");
+        complete("DELETE", "/api/users/{id}");
+
+        assertThat(accounting.endpoints()).containsOnlyKeys("GET /api/users/{id}", "DELETE /api/users/{id}");
+    }
+
+    @Test
+    void madeUpMethodsShareOneEntry() {
+        for (int i = 0; i < 100; i++) {
+            complete("FOO" + i, null);
+            complete("BAR" + i, "/api/users/{id}");
+        }
+
+        assertThat(accounting.endpoints()).containsOnlyKeys("OTHER UNMATCHED", "OTHER /api/users/{id}");
+        assertThat(accounting.all().total()).isEqualTo(200);
+    }
+
+    private void complete(String method, String pattern) {
+        accounting.requestStarted();
+        accounting.requestCompleted(method, pattern, 200, 100);
+    }
+
+    private static RequestAccounting accounting() {
+        RequestAccounting accounting = new RequestAccounting();
+        ReflectionTestUtils.setField(accounting, "loginPaths", Set.of("/api/auth/login"));
+        ReflectionTestUtils.setField(accounting, "tokenPaths", Set.of("/oauth2/token"));
+        return accounting;
+    }
+}
@@ -0,0 +1,153 @@
+package com.codestorykh.alpha.auth.service;
+
+import com.codestorykh.alpha.auth.dto.AuthenticationRequest;
+import com.codestorykh.alpha.cache.EmbeddedRedisTest;
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.principal.PrincipalVersionStamps;
+import com.codestorykh.alpha.security.refresh.RefreshTokenFamilies;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh token rotation against a real Redis: each refresh swaps the token, and replaying a
+ * rotated one, even concurrently with its rotation, ends the whole family.
+ */
+class AuthenticationServiceTest extends EmbeddedRedisTest {
+
+    private final SecretKey key = Keys.hmacShaKeyFor("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+    private final UserService userService = mock(UserService.class);
+    private final RevocationWatermarks revocationWatermarks = mock(RevocationWatermarks.class);
+    private final UserDetails alice = User.withUsername("alice").password("x").authorities("ROLE_USER").build();
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfigurationProperties properties = mock(JwtConfigurationProperties.class);
+        when(properties.getJwtExpiration()).thenReturn(60_000L);
+        when(properties.getJwtRefreshExpiration()).thenReturn(120_000L);
+        when(properties.getJwtIssuer()).thenReturn("alpha-identity-server");
+        when(properties.getJwtAudience()).thenReturn("alpha-clients");
+        JwtService jwtService = new JwtService(mock(ConfigurationService.class), properties, key,
+                new SecurityMetrics(new SimpleMeterRegistry()));
+
+        RefreshTokenFamilies families = new RefreshTokenFamilies(redisTemplate, redisGuard);
+        ReflectionTestUtils.setField(families, "degradedPolicy", FailurePolicy.FAIL_CLOSED);
+        ReflectionTestUtils.setField(families, "refreshExpiration", 120_000L);
+
+        authenticationService = new AuthenticationService(userService, jwtService, mock(AuthenticationManager.class),
+                mock(ConfigurationService.class), revocationWatermarks, families);
+        when(userService.loadUserByUsername("alice")).thenReturn(alice);
+    }
+
+    @Test
+    void refreshRotatesTheToken() {
+        String first = login();
+
+        String second = authenticationService.refreshToken(first).getRefreshToken();
+        String third = authenticationService.refreshToken(second).getRefreshToken();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(third).isNotEqualTo(second);
+        // Served from the family snapshot: only the login read the user
+        verify(userService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheFamily() {
+        String first = login();
+        String second = authenticationService.refreshToken(first).getRefreshToken();
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(first)).hasMessage("Invalid refresh token");
+        assertThatThrownBy(() -> authenticationService.refreshToken(second)).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenRotateItOnce() throws Exception {
+        String first = login();
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<String> refresh = () -> {
+            start.await();
+            return authenticationService.refreshToken(first).getRefreshToken();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<String> rotated = new ArrayList<>();
+        try {
+            List<Future<String>> results = List.of(executor.submit(refresh), executor.submit(refresh));
+            start.countDown();
+            for (Future<String> result : results) {
+                try {
+                    rotated.add(result.get());
+                } catch (Exception e) {
+                    assertThat(e).hasRootCauseMessage("Invalid refresh token");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // One wins the swap; the other presents a token that is no longer current, which ends the family
+        assertThat(rotated).hasSize(1);
+        assertThatThrownBy(() -> authenticationService.refreshToken(rotated.get(0))).hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    void userChangedSinceTheSnapshotIsReloaded() {
+        String first = login();
+        redisTemplate.opsForValue().increment(PrincipalVersionStamps.userKey("alice"));
+
+        authenticationService.refreshToken(first);
+
+        verify(userService, times(2)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void refreshTokenWithoutIssueTimeIsCheckedAgainstWatermarks() {
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .claim(JwtService.FAMILY_CLAIM, "unknown")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThatThrownBy(() -> authenticationService.refreshToken(token)).hasMessage("Invalid refresh token");
+        verify(revocationWatermarks).isRevoked(eq("alice"), isNull(), isNull());
+    }
+
+    private String login() {
+        return authenticationService.authenticate(new AuthenticationRequest("alice", "secret")).getRefreshToken();
+    }
+}
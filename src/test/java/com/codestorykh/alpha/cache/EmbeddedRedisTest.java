@@ -0,0 +1,66 @@
+package com.codestorykh.alpha.cache;
+
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * Base for tests against a real Redis: one embedded server per test run, flushed before each test,
+ * so Lua scripts and their atomicity are exercised as they ship.
+ */
+public abstract class EmbeddedRedisTest {
+
+    private static final LettuceConnectionFactory CONNECTION_FACTORY = start();
+
+    protected final StringRedisTemplate redisTemplate = new StringRedisTemplate(CONNECTION_FACTORY);
+    protected final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    protected final RedisGuard redisGuard = new RedisGuard(circuitBreakerRegistry);
+
+    @BeforeEach
+    void flushRedis() {
+        redisGuard.init();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+
+    protected static LettuceConnectionFactory connectionFactory() {
+        return CONNECTION_FACTORY;
+    }
+
+    private static LettuceConnectionFactory start() {
+        try {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            RedisServer server = new RedisServer(port);
+            server.start();
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                    new RedisStandaloneConfiguration("localhost", port));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                connectionFactory.destroy();
+                try {
+                    server.stop();
+                } catch (IOException ignored) {
+                    // Exiting anyway
+                }
+            }));
+            return connectionFactory;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Redis", e);
+        }
+    }
+}
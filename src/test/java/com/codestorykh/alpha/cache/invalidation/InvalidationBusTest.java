@@ -0,0 +1,83 @@
+package com.codestorykh.alpha.cache.invalidation;
+
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Payloads reach listeners on other nodes only: one node's publish is fed to another's container.
+ */
+class InvalidationBusTest {
+
+    private static final String CHANNEL = "test:invalidations";
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisGuard redisGuard = mock(RedisGuard.class);
+    private final InvalidationBus local = new InvalidationBus(redisTemplate, mock(RedisConnectionFactory.class), redisGuard);
+    private final InvalidationBus remote = new InvalidationBus(redisTemplate, mock(RedisConnectionFactory.class), redisGuard);
+
+    @BeforeEach
+    void setUp() {
+        when(redisGuard.isAvailable()).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(redisGuard).run(any());
+    }
+
+    @Test
+    void payloadsReachOtherNodes() {
+        List<String> received = new ArrayList<>();
+
+        local.publish(CHANNEL, "alice\nbob");
+        remote.deliver(message(lastPublished()), received::add);
+
+        assertThat(received).containsExactly("alice\nbob");
+    }
+
+    @Test
+    void ownMessagesAreIgnored() {
+        List<String> received = new ArrayList<>();
+
+        local.publish(CHANNEL, "alice");
+        local.deliver(message(lastPublished()), received::add);
+
+        assertThat(received).isEmpty();
+    }
+
+    @Test
+    void nothingIsPublishedWhileRedisIsUnavailable() {
+        when(redisGuard.isAvailable()).thenReturn(false);
+
+        local.publish(CHANNEL, "alice");
+
+        verify(redisTemplate, never()).convertAndSend(any(), any());
+    }
+
+    private String lastPublished() {
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        return (String) message.getValue();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
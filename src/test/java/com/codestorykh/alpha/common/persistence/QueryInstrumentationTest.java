@@ -0,0 +1,87 @@
+package com.codestorykh.alpha.common.persistence;
+
+import com.codestorykh.alpha.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+class QueryInstrumentationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void failOnExceedRejectsATransactionOverItsBudget() {
+        QueryInstrumentation instrumentation = instrumentation(true, "");
+
+        assertThatThrownBy(() -> instrumentation.transactionCompleted("UserServiceImpl.findAll", statements(3, "select u")))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("UserServiceImpl.findAll ran 3 SQL statements, budget is 2")
+                .hasMessageContaining("select u");
+        assertThat(meterRegistry.get("db.scope.budget.exceeded").tag("name", "UserServiceImpl.findAll").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void withoutFailOnExceedAnOverrunIsOnlyCounted() {
+        QueryInstrumentation instrumentation = instrumentation(false, "");
+
+        assertThatNoException().isThrownBy(() -> instrumentation.requestCompleted("GET /api/users", statements(5, "select u")));
+        assertThat(meterRegistry.get("db.scope.budget.exceeded").tag("name", "GET /api/users").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void overridesRaiseTheBudgetOfOneScope() {
+        QueryInstrumentation instrumentation = instrumentation(true, "UserImportServiceImpl.importUsers=10");
+
+        assertThatNoException().isThrownBy(() ->
+                instrumentation.transactionCompleted("UserImportServiceImpl.importUsers", statements(10, "insert")));
+        assertThatThrownBy(() -> instrumentation.transactionCompleted("UserServiceImpl.findAll", statements(10, "select")))
+                .isInstanceOf(QueryBudgetExceededException.class);
+    }
+
+    @Test
+    void assertAtMostCountsOnlyItsOwnScope() {
+        try (QueryScope outer = QueryScope.open("outer")) {
+            QueryScope.statementPrepared("select 1");
+            try (QueryScope inner = QueryScope.open("inner")) {
+                QueryScope.statementPrepared("select 2");
+                QueryScope.statementPrepared("select 2");
+                inner.assertAtMost(2);
+                assertThatThrownBy(() -> inner.assertAtMost(1))
+                        .isInstanceOf(QueryBudgetExceededException.class)
+                        .hasMessageContaining("select 2");
+            }
+            // Closing the inner scope rolls its statements up
+            outer.assertAtMost(3);
+            assertThat(outer.stats().statements()).isEqualTo(3);
+        }
+    }
+
+    private QueryInstrumentation instrumentation(boolean failOnExceed, String overrides) {
+        QueryInstrumentation instrumentation = new QueryInstrumentation(meterRegistry);
+        ReflectionTestUtils.setField(instrumentation, "enabled", false);
+        ReflectionTestUtils.setField(instrumentation, "requestBudget", 4);
+        ReflectionTestUtils.setField(instrumentation, "transactionBudget", 2);
+        ReflectionTestUtils.setField(instrumentation, "overrides", overrides);
+        ReflectionTestUtils.setField(instrumentation, "failOnExceed", failOnExceed);
+        ReflectionTestUtils.setField(instrumentation, "slowQueryThreshold", Duration.ofMillis(200));
+        instrumentation.init();
+        return instrumentation;
+    }
+
+    private static QueryStats statements(int count, String sql) {
+        try (QueryScope scope = QueryScope.open("test")) {
+            for (int i = 0; i < count; i++) {
+                QueryScope.statementPrepared(sql);
+            }
+            return scope.stats();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.codestorykh.alpha.identity.repository;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.common.persistence.EmbeddedPostgresTest;
+import com.codestorykh.alpha.common.persistence.QueryInstrumentation;
+import com.codestorykh.alpha.common.persistence.QueryScope;
+import com.codestorykh.alpha.identity.domain.Permission;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.User;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
+import com.codestorykh.alpha.identity.service.impl.EffectivePermissionServiceImpl;
+import com.codestorykh.alpha.security.principal.AuthenticatedUserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts of the identity lookups every authenticated request depends on. A failure here
+ * usually means a new association is loaded eagerly or one query turned into N+1.
+ */
+@DataJpaTest
+@Import({QueryInstrumentation.class, EffectivePermissionServiceImpl.class, IdentityQueryBudgetTest.Metrics.class})
+// Each lookup runs in its own transaction, as it does when a request hits it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdentityQueryBudgetTest extends EmbeddedPostgresTest {
+
+    private static final int ROLES = 3;
+    private static final int PERMISSIONS_PER_ROLE = 4;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private EffectivePermissionService effectivePermissionService;
+
+    @MockitoBean
+    private CacheService cacheService;
+
+    @MockitoBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @MockitoBean
+    private InvalidationBus invalidationBus;
+
+    private User user;
+    private String permissionName;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Set<Role> roles = new HashSet<>();
+        for (int r = 0; r < ROLES; r++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int p = 0; p < PERMISSIONS_PER_ROLE; p++) {
+                String name = "budget" + r + ":action" + p + ":" + suffix;
+                permissions.add(permissionRepository.save(Permission.builder()
+                        .name(name)
+                        .resource("budget" + r)
+                        .action("action" + p)
+                        .enabled(true)
+                        .build()));
+                permissionName = name;
+            }
+            roles.add(roleRepository.save(Role.builder()
+                    .name("BUDGET_" + r + "_" + suffix)
+                    .enabled(true)
+                    .permissions(permissions)
+                    .build()));
+        }
+        user = userRepository.save(User.builder()
+                .username("budget-" + suffix)
+                .email("budget-" + suffix + "@example.com")
+                .password("{noop}secret")
+                .firstName("Budget")
+                .lastName(suffix)
+                .status(UserStatus.ACTIVE)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .emailVerified(true)
+                .roles(roles)
+                .groups(Set.of())
+                .build());
+    }
+
+    @Test
+    void principalLoadDoesNotGrowWithTheRoles() {
+        try (QueryScope scope = QueryScope.open("principal load")) {
+            User loaded = userRepository.findForPrincipalByUsername(user.getUsername()).orElseThrow();
+
+            assertThat(loaded.getRoles()).hasSize(ROLES);
+            // The user with its roles, then the (eager) permissions of every role in one batch
+            scope.assertAtMost(2);
+        }
+    }
+
+    @Test
+    void permissionResolutionIsOneStatementPerCacheMiss() {
+        // Load the permission name index, which is shared by every user, with this test's permissions
+        effectivePermissionService.invalidateAll();
+        effectivePermissionService.hasPermission(user.getId(), permissionName);
+        effectivePermissionService.invalidateUser(user.getId());
+
+        try (QueryScope scope = QueryScope.open("permission resolution")) {
+            assertThat(effectivePermissionService.getPermissionNames(user.getId())).hasSize(ROLES * PERMISSIONS_PER_ROLE);
+
+            scope.assertAtMost(1);
+        }
+    }
+
+    @Test
+    void cachedPermissionChecksDoNotQuery() {
+        effectivePermissionService.invalidateAll();
+        effectivePermissionService.hasPermission(user.getId(), permissionName);
+
+        try (QueryScope scope = QueryScope.open("cached permission check")) {
+            assertThat(effectivePermissionService.hasPermission(user.getId(), permissionName)).isTrue();
+            assertThat(effectivePermissionService.hasPermission(user.getId(), "budget:unknown")).isFalse();
+            assertThat(effectivePermissionService.getPermissionNames(user.getId())).contains(permissionName);
+
+            scope.assertAtMost(0);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.common.persistence.EmbeddedPostgresTest;
+import com.codestorykh.alpha.identity.domain.Permission;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.User;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import com.codestorykh.alpha.security.principal.AuthenticatedUserCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Bit positions of the effective-permission bitsets: dense whatever the ids, and never misread
+ * after the set of permissions changes. Also eviction of the node-local copies across nodes.
+ */
+@DataJpaTest
+@Import(EffectivePermissionServiceImpl.class)
+// Lookups of unknown permissions reload the index straight away
+@TestPropertySource(properties = "identity.permissions.index-refresh-interval=0s")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EffectivePermissionServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private EffectivePermissionServiceImpl effectivePermissionService;
+
+    @MockitoSpyBean
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private CacheService cacheService;
+
+    @MockitoBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @MockitoBean
+    private InvalidationBus invalidationBus;
+
+    @Test
+    void bitsetGrowsWithPermissionCountNotIds() {
+        String suffix = suffix();
+        long farId = 1_000_000 + Math.abs(suffix.hashCode() % 1_000_000);
+        jdbcTemplate.update("INSERT INTO permissions (id, name, resource, action, enabled, is_system_permission, " +
+                "created_at, version, active) VALUES (?, ?, 'far', 'read', true, false, now(), 0, true)",
+                farId, "far:read:" + suffix);
+        Permission far = permissionRepository.findById(farId).orElseThrow();
+        User user = userRepository.save(user("far-" + suffix, roleRepository.save(role("FAR_" + suffix, far))));
+
+        assertThat(effectivePermissionService.hasPermission(user.getId(), far.getName())).isTrue();
+        long[] words = effectivePermissionService.getEffectivePermissions(user.getId()).getBits();
+        assertThat(words.length).isLessThanOrEqualTo((int) (permissionRepository.count() / 64) + 1);
+    }
+
+    @Test
+    void bitsetsBuiltAgainstAnOlderIndexAreRecomputed() {
+        String suffix = suffix();
+        Permission earlier = permissionRepository.save(permission("earlier:read:" + suffix));
+        Permission granted = permissionRepository.save(permission("granted:read:" + suffix));
+        User user = userRepository.save(user("shift-" + suffix, roleRepository.save(role("SHIFT_" + suffix, granted))));
+        // As PermissionService does on create, other tests may have loaded the index already
+        effectivePermissionService.invalidateAll();
+        assertThat(effectivePermissionService.getPermissionNames(user.getId())).containsExactly(granted.getName());
+
+        // Removed behind the service's back: every later permission moves down one bit
+        jdbcTemplate.update("DELETE FROM permissions WHERE id = ?", earlier.getId());
+        assertThat(effectivePermissionService.hasPermission(user.getId(), "unknown:" + suffix)).isFalse();
+
+        assertThat(effectivePermissionService.getPermissionNames(user.getId())).containsExactly(granted.getName());
+        assertThat(effectivePermissionService.hasPermission(user.getId(), granted.getName())).isTrue();
+    }
+
+    @Test
+    void evictionsAreBroadcastToOtherNodes() {
+        String suffix = suffix();
+        Permission granted = permissionRepository.save(permission("broadcast:read:" + suffix));
+        User user = userRepository.save(user("broadcast-" + suffix, roleRepository.save(role("BROADCAST_" + suffix, granted))));
+
+        effectivePermissionService.invalidateUser(user.getId());
+
+        verify(invalidationBus).publish("permissions:invalidations", String.valueOf(user.getId()));
+    }
+
+    @Test
+    void remoteEvictionDropsTheLocalCopyAndWhatItWroteToRedis() {
+        String suffix = suffix();
+        Permission granted = permissionRepository.save(permission("remote:read:" + suffix));
+        User user = userRepository.save(user("remote-" + suffix, roleRepository.save(role("REMOTE_" + suffix, granted))));
+        String key = String.valueOf(user.getId());
+        effectivePermissionService.getEffectivePermissions(user.getId());
+
+        effectivePermissionService.onInvalidation(key);
+
+        verify(cacheService).delete("effective-permissions", key);
+        effectivePermissionService.getEffectivePermissions(user.getId());
+        verify(permissionRepository, times(2)).findEffectivePermissionIds(user.getId());
+    }
+
+    @Test
+    void computeOverlappingAnEvictionIsNotLeftCached() {
+        String suffix = suffix();
+        Permission granted = permissionRepository.save(permission("overlap:read:" + suffix));
+        User user = userRepository.save(user("overlap-" + suffix, roleRepository.save(role("OVERLAP_" + suffix, granted))));
+        String key = String.valueOf(user.getId());
+        // Another node commits a change and evicts while this node is still reading the old grants
+        doAnswer(invocation -> {
+            effectivePermissionService.onInvalidation(key);
+            return List.of(granted.getId());
+        }).doReturn(List.of(granted.getId())).when(permissionRepository).findEffectivePermissionIds(user.getId());
+
+        effectivePermissionService.getEffectivePermissions(user.getId());
+
+        var inOrder = inOrder(cacheService);
+        inOrder.verify(cacheService).set(eq("effective-permissions"), eq(key), any(), any());
+        inOrder.verify(cacheService).delete("effective-permissions", key);
+        effectivePermissionService.getEffectivePermissions(user.getId());
+        verify(permissionRepository, times(2)).findEffectivePermissionIds(user.getId());
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static Permission permission(String name) {
+        String[] parts = name.split(":");
+        return Permission.builder()
+                .name(name)
+                .resource(parts[0])
+                .action(parts[1])
+                .enabled(true)
+                .build();
+    }
+
+    private static Role role(String name, Permission permission) {
+        return Role.builder()
+                .name(name)
+                .enabled(true)
+                .permissions(Set.of(permission))
+                .build();
+    }
+
+    private static User user(String username, Role role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .status(UserStatus.ACTIVE)
+                .enabled(true)
+                .roles(Set.of(role))
+                .groups(Set.of())
+                .build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.common.persistence.EmbeddedPostgresTest;
+import com.codestorykh.alpha.identity.domain.Group;
+import com.codestorykh.alpha.identity.dto.GroupDTO;
+import com.codestorykh.alpha.identity.dto.GroupSearchCriteria;
+import com.codestorykh.alpha.identity.repository.GroupClosureRepository;
+import com.codestorykh.alpha.identity.repository.GroupRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
+import com.codestorykh.alpha.identity.service.GroupService;
+import com.codestorykh.alpha.identity.specification.GroupSpecification;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Creating, moving and deleting groups keeps the closure table in step with the parent links, for
+ * root groups as well as for children.
+ */
+@DataJpaTest
+@Import(GroupServiceImpl.class)
+class GroupHierarchyTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private GroupClosureRepository groupClosureRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private EffectivePermissionService effectivePermissionService;
+
+    @Test
+    void rootGroupGetsOnlyItsSelfPath() {
+        Group root = groupService.createGroup(group("root", null));
+
+        assertThat(groupClosureRepository.isAncestor(root.getId(), root.getId())).isTrue();
+        assertThat(groupClosureRepository.findDepth(root.getId())).isZero();
+        assertThat(groupService.findAncestors(root.getId())).isEmpty();
+        assertThat(groupService.findDescendants(root.getId(), null)).isEmpty();
+    }
+
+    @Test
+    void childGroupIsLinkedToEveryAncestor() {
+        Group root = groupService.createGroup(group("root", null));
+        Group child = groupService.createGroup(group("child", root.getId()));
+        Group grandchild = groupService.createGroup(group("grandchild", child.getId()));
+
+        assertThat(groupService.findAncestors(grandchild.getId())).extracting(Group::getId)
+                .containsExactly(child.getId(), root.getId());
+        assertThat(groupService.findDescendants(root.getId(), null)).extracting(Group::getId)
+                .containsExactly(child.getId(), grandchild.getId());
+        assertThat(groupService.findDescendants(root.getId(), 1)).extracting(Group::getId)
+                .containsExactly(child.getId());
+        assertThat(groupClosureRepository.findDepth(grandchild.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void reparentMovesTheWholeSubtree() {
+        Group oldRoot = groupService.createGroup(group("old-root", null));
+        Group newRoot = groupService.createGroup(group("new-root", null));
+        Group child = groupService.createGroup(group("child", oldRoot.getId()));
+        Group grandchild = groupService.createGroup(group("grandchild", child.getId()));
+
+        groupService.updateGroup(child.getId(), moved(child, newRoot.getId()));
+
+        assertThat(groupService.findAncestors(grandchild.getId())).extracting(Group::getId)
+                .containsExactly(child.getId(), newRoot.getId());
+        assertThat(groupService.findDescendants(newRoot.getId(), null)).extracting(Group::getId)
+                .containsExactly(child.getId(), grandchild.getId());
+        assertThat(groupService.findDescendants(oldRoot.getId(), null)).isEmpty();
+        assertThat(groupClosureRepository.findDepth(grandchild.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void reparentToTheTopLevelKeepsTheSubtree() {
+        Group root = groupService.createGroup(group("root", null));
+        Group child = groupService.createGroup(group("child", root.getId()));
+        Group grandchild = groupService.createGroup(group("grandchild", child.getId()));
+
+        groupService.updateGroup(child.getId(), moved(child, null));
+
+        assertThat(groupService.findAncestors(grandchild.getId())).extracting(Group::getId)
+                .containsExactly(child.getId());
+        assertThat(groupService.findAncestors(child.getId())).isEmpty();
+        assertThat(groupService.findDescendants(root.getId(), null)).isEmpty();
+    }
+
+    @Test
+    void moveUnderItsOwnSubtreeIsRejected() {
+        Group root = groupService.createGroup(group("root", null));
+        Group child = groupService.createGroup(group("child", root.getId()));
+        Group grandchild = groupService.createGroup(group("grandchild", child.getId()));
+
+        assertThatThrownBy(() -> groupService.updateGroup(root.getId(), moved(root, grandchild.getId())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> groupService.updateGroup(child.getId(), moved(child, child.getId())))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(groupService.findAncestors(grandchild.getId())).extracting(Group::getId)
+                .containsExactly(child.getId(), root.getId());
+    }
+
+    @Test
+    void deletingAGroupRemovesThePathsOfItsSubtree() {
+        Group root = groupService.createGroup(group("root", null));
+        Group child = groupService.createGroup(group("child", root.getId()));
+        Group grandchild = groupService.createGroup(group("grandchild", child.getId()));
+        // Load the child collections from the database, so the cascade sees them
+        entityManager.flush();
+        entityManager.clear();
+
+        groupService.deleteById(child.getId());
+        entityManager.flush();
+
+        assertThat(groupService.findDescendants(root.getId(), null)).isEmpty();
+        assertThat(groupClosureRepository.isAncestor(grandchild.getId(), grandchild.getId())).isFalse();
+        assertThat(groupClosureRepository.isAncestor(root.getId(), root.getId())).isTrue();
+    }
+
+    @Test
+    void childCountsComeFromTheClosureTable() {
+        Group root = groupService.createGroup(group("root", null));
+        Group child = groupService.createGroup(group("child", root.getId()));
+        groupService.createGroup(group("grandchild", child.getId()));
+        Group sibling = groupService.createGroup(group("sibling", root.getId()));
+        List<Long> family = List.of(root.getId(), child.getId(), sibling.getId());
+
+        assertThat(search(GroupSearchCriteria.builder().minChildCount(2).build(), family)).containsExactly(root.getId());
+        assertThat(search(GroupSearchCriteria.builder().minChildCount(1).maxChildCount(1).build(), family))
+                .containsExactly(child.getId());
+        assertThat(search(GroupSearchCriteria.builder().hasChildren(false).build(), family)).containsExactly(sibling.getId());
+        assertThat(groupRepository.findAll(GroupSpecification.hasChildren())).extracting(Group::getId)
+                .contains(root.getId(), child.getId()).doesNotContain(sibling.getId());
+    }
+
+    private List<Long> search(GroupSearchCriteria criteria, List<Long> among) {
+        return groupRepository.findAll(GroupSpecification.withSearchCriteria(criteria)).stream()
+                .map(Group::getId)
+                .filter(among::contains)
+                .toList();
+    }
+
+    private static GroupDTO moved(Group group, Long parentGroupId) {
+        return GroupDTO.builder()
+                .name(group.getName())
+                .enabled(true)
+                .parentGroupId(parentGroupId)
+                .build();
+    }
+
+    private static GroupDTO group(String name, Long parentGroupId) {
+        return GroupDTO.builder()
+                .name(name + "-" + UUID.randomUUID().toString().substring(0, 8))
+                .enabled(true)
+                .parentGroupId(parentGroupId)
+                .build();
+    }
+}
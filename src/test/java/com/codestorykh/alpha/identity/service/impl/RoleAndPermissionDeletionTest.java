@@ -0,0 +1,143 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.common.persistence.EmbeddedPostgresTest;
+import com.codestorykh.alpha.identity.domain.Permission;
+import com.codestorykh.alpha.identity.domain.Role;
+import com.codestorykh.alpha.identity.domain.User;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.repository.PermissionRepository;
+import com.codestorykh.alpha.identity.repository.RoleRepository;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import com.codestorykh.alpha.identity.service.EffectivePermissionService;
+import com.codestorykh.alpha.identity.service.PermissionService;
+import com.codestorykh.alpha.identity.service.RoleService;
+import com.codestorykh.alpha.security.principal.AuthenticatedUserCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Deleting a role or permission takes its authorities away from users straight after the commit,
+ * with nothing left in the effective-permission caches.
+ */
+@DataJpaTest
+@Import({RoleServiceImpl.class, PermissionServiceImpl.class, EffectivePermissionServiceImpl.class})
+// Permissions created by one test resolve in the next without waiting out the index refresh throttle
+@TestPropertySource(properties = "identity.permissions.index-refresh-interval=0s")
+// Eviction runs after commit, so every service call commits its own transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoleAndPermissionDeletionTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private EffectivePermissionService effectivePermissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @MockitoBean
+    private CacheService cacheService;
+
+    @MockitoBean
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @MockitoBean
+    private InvalidationBus invalidationBus;
+
+    @Test
+    void deletedRoleTakesItsAuthoritiesAway() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Permission permission = permissionRepository.save(permission("report:read:" + suffix));
+        Role role = roleRepository.save(role("REPORTER_" + suffix, permission));
+        User user = userRepository.save(user("reporter-" + suffix, role));
+
+        assertThat(effectivePermissionService.hasPermission(user.getId(), permission.getName())).isTrue();
+        assertThat(effectivePermissionService.getPermissionNames(user.getId())).containsExactly(permission.getName());
+
+        roleService.deleteById(role.getId());
+
+        assertThat(roleRepository.findById(role.getId())).isEmpty();
+        assertThat(effectivePermissionService.hasPermission(user.getId(), permission.getName())).isFalse();
+        assertThat(effectivePermissionService.getPermissionNames(user.getId())).isEmpty();
+        verify(authenticatedUserCache).invalidateUsers(argThat(names -> names.contains(user.getUsername())));
+    }
+
+    @Test
+    void deletedPermissionStopsResolving() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Permission permission = permissionRepository.save(permission("audit:export:" + suffix));
+        Role role = roleRepository.save(role("AUDITOR_" + suffix, permission));
+        User user = userRepository.save(user("auditor-" + suffix, role));
+
+        assertThat(effectivePermissionService.hasPermission(user.getId(), permission.getName())).isTrue();
+
+        permissionService.deleteById(permission.getId());
+
+        assertThat(permissionRepository.findById(permission.getId())).isEmpty();
+        assertThat(effectivePermissionService.hasPermission(user.getId(), permission.getName())).isFalse();
+        assertThat(effectivePermissionService.getPermissionNames(user.getId())).isEmpty();
+        verify(authenticatedUserCache).invalidateAll();
+    }
+
+    private static Permission permission(String name) {
+        String[] parts = name.split(":");
+        return Permission.builder()
+                .name(name)
+                .resource(parts[0])
+                .action(parts[1])
+                .enabled(true)
+                .build();
+    }
+
+    private static Role role(String name, Permission permission) {
+        return Role.builder()
+                .name(name)
+                .enabled(true)
+                .permissions(Set.of(permission))
+                .build();
+    }
+
+    private static User user(String username, Role role) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .firstName("Test")
+                .lastName(username)
+                .status(UserStatus.ACTIVE)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .emailVerified(true)
+                .roles(Set.of(role))
+                .groups(Set.of())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.codestorykh.alpha.identity.service.impl;
+
+import com.codestorykh.alpha.common.persistence.EmbeddedPostgresTest;
+import com.codestorykh.alpha.common.repository.SequenceIdAllocator;
+import com.codestorykh.alpha.identity.domain.User;
+import com.codestorykh.alpha.identity.domain.UserStatus;
+import com.codestorykh.alpha.identity.dto.UserImportResult;
+import com.codestorykh.alpha.identity.dto.UserImportResult.ImportStatus;
+import com.codestorykh.alpha.identity.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * CSV parsing, dedupe and per-chunk reporting of the bulk import, against PostgreSQL.
+ */
+@DataJpaTest
+@Import({UserImportServiceImpl.class, SequenceIdAllocator.class, UserImportServiceTest.Encoder.class})
+@TestPropertySource(properties = "identity.import.chunk-size=2")
+// The import commits chunk by chunk in its own transactions
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserImportServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserImportServiceImpl userImportService;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    @TestConfiguration
+    static class Encoder {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+
+    @Test
+    void parsesQuotedFields() {
+        assertThat(UserImportServiceImpl.parseCsvLine("a,\"b,c\",\"say \"\"hi\"\"\",,e"))
+                .containsExactly("a", "b,c", "say \"hi\"", "", "e");
+        assertThat(UserImportServiceImpl.parseCsvLine("")).containsExactly("");
+    }
+
+    @Test
+    void reportsEveryRowOncePerChunk() {
+        String id = suffix();
+        userRepository.save(existing("taken-" + id));
+        String csv = """
+                username,email,password,first_name
+                alice-%1$s,alice-%1$s@example.com,Password1,Alice
+                x,bad-email,short,
+                alice-%1$s,other-%1$s@example.com,Password1,
+                bob-%1$s,bob-%1$s@example.com,Password1,Bob
+
+                taken-%1$s,taken2-%1$s@example.com,Password1,
+                """.formatted(id);
+
+        UserImportResult result = userImportService.importUsers(stream(csv), "users.csv", null);
+
+        assertThat(result.getStatus()).isEqualTo(ImportStatus.COMPLETED_WITH_ERRORS);
+        assertThat(result.getRowsRead()).isEqualTo(5);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getInvalid()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getChunks()).hasSize(3);
+        assertThat(result.getChunks().get(2).getFirstLine()).isEqualTo(7);
+        assertThat(userRepository.findByUsername("bob-" + id)).get()
+                .extracting(User::getFirstName).isEqualTo("Bob");
+    }
+
+    @Test
+    void rowTakenAfterTheExistenceCheckIsSkippedNotTheChunk() {
+        String id = suffix();
+        userRepository.save(existing("raced-" + id));
+        // As if a concurrent createUser committed between the existence check and the insert
+        doReturn(Set.of()).when(userRepository).findExistingUsernames(any());
+        doReturn(Set.of()).when(userRepository).findExistingEmails(any());
+        String csv = """
+                username,email,password
+                raced-%1$s,raced-%1$s@example.com,Password1
+                carol-%1$s,carol-%1$s@example.com,Password1
+                """.formatted(id);
+
+        UserImportResult result = userImportService.importUsers(stream(csv), "users.csv", null);
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getFailed()).isZero();
+        assertThat(userRepository.findByUsername("carol-" + id)).isPresent();
+    }
+
+    @Test
+    void finishedJobsAreRetainedUpToTheLimit() {
+        for (int i = 0; i < 25; i++) {
+            userImportService.importUsers(stream("username,email,password\n"), "empty-" + i + ".csv", null);
+        }
+
+        List<UserImportResult> recent = userImportService.getRecentImports();
+        assertThat(recent).hasSize(20);
+        assertThat(recent.get(0).getFileName()).isEqualTo("empty-5.csv");
+    }
+
+    private static User existing(String username) {
+        return User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("{noop}secret")
+                .status(UserStatus.ACTIVE)
+                .enabled(true)
+                .build();
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
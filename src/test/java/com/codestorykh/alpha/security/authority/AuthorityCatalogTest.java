@@ -0,0 +1,73 @@
+package com.codestorykh.alpha.security.authority;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Only names the tables know get an id; the rest are looked up once and left out of sets.
+ */
+class AuthorityCatalogTest {
+
+    @AfterEach
+    void tearDown() {
+        AuthorityCatalog.useResolver(null);
+    }
+
+    @Test
+    void namesTheTablesDoNotKnowAreNotInterned() {
+        String known = unique("doc:read");
+        String unknown = unique("doc:forged");
+        AuthorityCatalog.useResolver(known::equals);
+        int before = AuthorityCatalog.size();
+
+        AuthoritySet set = AuthoritySet.of(List.of(known, unknown));
+
+        assertThat(set.names()).containsExactly(known);
+        assertThat(AuthorityCatalog.idOf(unknown)).isEqualTo(-1);
+        assertThat(AuthorityCatalog.size()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void missesAreRememberedUntilTheNameIsRegistered() {
+        String role = unique("AUDITOR");
+        AtomicInteger lookups = new AtomicInteger();
+        AuthorityCatalog.useResolver(name -> {
+            lookups.incrementAndGet();
+            return false;
+        });
+
+        AuthorityCatalog.intern(AuthorityCatalog.ROLE_PREFIX + role);
+        AuthorityCatalog.intern(AuthorityCatalog.ROLE_PREFIX + role);
+        assertThat(lookups).hasValue(1);
+
+        AuthorityCatalog.registerRole(role);
+
+        assertThat(AuthoritySet.of(Set.of(AuthorityCatalog.ROLE_PREFIX + role)).hasRole(role)).isTrue();
+    }
+
+    @Test
+    void failedLookupsAreRetried() {
+        String name = unique("doc:write");
+        AtomicInteger lookups = new AtomicInteger();
+        AuthorityCatalog.useResolver(candidate -> {
+            if (lookups.incrementAndGet() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            return true;
+        });
+
+        assertThat(AuthorityCatalog.intern(name)).isEqualTo(-1);
+        assertThat(AuthorityCatalog.intern(name)).isGreaterThanOrEqualTo(0);
+    }
+
+    private static String unique(String name) {
+        return name + "-" + UUID.randomUUID();
+    }
+}
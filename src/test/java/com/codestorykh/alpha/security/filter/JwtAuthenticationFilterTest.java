@@ -0,0 +1,93 @@
+package com.codestorykh.alpha.security.filter;
+
+import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.identity.service.UserService;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A bearer token is verified once per request, whatever the filter reads from it.
+ */
+class JwtAuthenticationFilterTest {
+
+    private final SecretKey key = Keys.hmacShaKeyFor("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserService userService = mock(UserService.class);
+    private final RevocationWatermarks revocationWatermarks = mock(RevocationWatermarks.class);
+    private final UserDetails alice = User.withUsername("alice").password("x").authorities(List.of()).build();
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfigurationProperties properties = mock(JwtConfigurationProperties.class);
+        when(properties.getJwtExpiration()).thenReturn(60_000L);
+        when(properties.getJwtIssuer()).thenReturn("alpha-identity-server");
+        when(properties.getJwtAudience()).thenReturn("alpha-clients");
+        jwtService = new JwtService(mock(ConfigurationService.class), properties, key, new SecurityMetrics(meterRegistry));
+        filter = new JwtAuthenticationFilter(jwtService, userService, revocationWatermarks);
+        when(userService.loadUserByUsername("alice")).thenReturn(alice);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenIsVerifiedOncePerRequest() throws Exception {
+        filter.doFilter(request(jwtService.generateToken(alice)), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("alice");
+        assertThat(meterRegistry.get("auth.jwt.verify").timers().stream().mapToLong(Timer::count).sum()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenWithoutIssueTimeIsCheckedAgainstWatermarks() throws Exception {
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        when(revocationWatermarks.isRevoked(eq("alice"), isNull(), isNull())).thenReturn(true);
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(revocationWatermarks).isRevoked(eq("alice"), isNull(), isNull());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package com.codestorykh.alpha.security.principal;
+
+import com.codestorykh.alpha.cache.invalidation.InvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Invalidations reach the other nodes: one node's publish is fed to another's listener.
+ */
+class AuthenticatedUserCacheTest {
+
+    private static final String CHANNEL = "principal:invalidations";
+
+    private final InvalidationBus localBus = mock(InvalidationBus.class);
+    private final InvalidationBus remoteBus = mock(InvalidationBus.class);
+    private AuthenticatedUserCache local;
+    private AuthenticatedUserCache remote;
+
+    @BeforeEach
+    void setUp() {
+        local = node(localBus);
+        remote = node(remoteBus);
+    }
+
+    @Test
+    void invalidatingAUserDropsItOnOtherNodes() {
+        AtomicInteger loads = new AtomicInteger();
+        remote.get("alice", () -> load(loads));
+        remote.get("bob", () -> load(loads));
+
+        local.invalidate("alice");
+        deliver(lastPublished());
+
+        remote.get("alice", () -> load(loads));
+        remote.get("bob", () -> load(loads));
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void batchAndGlobalInvalidationsReachOtherNodes() {
+        AtomicInteger loads = new AtomicInteger();
+        for (String username : List.of("alice", "bob", "carol")) {
+            remote.get(username, () -> load(loads));
+        }
+
+        local.invalidateUsers(List.of("alice", "bob"));
+        deliver(lastPublished());
+        remote.get("alice", () -> load(loads));
+        remote.get("bob", () -> load(loads));
+        remote.get("carol", () -> load(loads));
+        assertThat(loads).hasValue(5);
+
+        local.invalidateAll();
+        deliver(lastPublished());
+        remote.get("carol", () -> load(loads));
+        assertThat(loads).hasValue(6);
+    }
+
+    private static AuthenticatedUserCache node(InvalidationBus bus) {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(mock(PrincipalVersionStamps.class), bus);
+        ReflectionTestUtils.setField(cache, "cacheSize", 100L);
+        ReflectionTestUtils.setField(cache, "cacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cache, "channel", CHANNEL);
+        cache.init();
+        return cache;
+    }
+
+    private String lastPublished() {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(localBus, atLeastOnce()).publish(eq(CHANNEL), payload.capture());
+        return payload.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(String payload) {
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(remoteBus).subscribe(eq(CHANNEL), listener.capture());
+        listener.getValue().accept(payload);
+    }
+
+    private static AuthenticatedUser load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return mock(AuthenticatedUser.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.codestorykh.alpha.security.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationBloomFilterTest {
+
+    private static final int EXPECTED = 10_000;
+    private static final double RATE = 0.01;
+
+    @Test
+    void containsEverythingPut() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(EXPECTED, RATE);
+        SplittableRandom random = new SplittableRandom(1);
+        long[][] hashes = new long[EXPECTED][];
+        for (int i = 0; i < EXPECTED; i++) {
+            hashes[i] = new long[]{random.nextLong(), random.nextLong()};
+            filter.put(hashes[i][0], hashes[i][1]);
+        }
+
+        for (long[] hash : hashes) {
+            assertThat(filter.mightContain(hash[0], hash[1])).isTrue();
+        }
+        assertThat(filter.insertions()).isEqualTo(EXPECTED);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void falsePositivesStayNearTheTargetRateAtCapacity() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(EXPECTED, RATE);
+        SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < EXPECTED; i++) {
+            filter.put(random.nextLong(), random.nextLong());
+        }
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        // Expected about 2000; the bound leaves room for sampling noise, not for a mis-sized filter
+        assertThat((double) falsePositives / probes).isLessThan(RATE * 1.5);
+    }
+
+    @Test
+    void reportsSaturationPastTheExpectedInsertions() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(10, RATE);
+        for (int i = 0; i <= 10; i++) {
+            filter.put(i, i * 31L + 7);
+        }
+
+        assertThat(filter.isSaturated()).isTrue();
+    }
+}
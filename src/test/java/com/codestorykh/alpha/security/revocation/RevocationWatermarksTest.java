@@ -0,0 +1,87 @@
+package com.codestorykh.alpha.security.revocation;
+
+import com.codestorykh.alpha.cache.EmbeddedRedisTest;
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Watermarks revoke exactly the tokens issued up to the revocation, and only ever move forward.
+ */
+class RevocationWatermarksTest extends EmbeddedRedisTest {
+
+    private RevocationWatermarks watermarks;
+
+    @BeforeEach
+    void setUp() {
+        watermarks = node();
+    }
+
+    @Test
+    void tokensIssuedUpToTheRevocationAreRevoked() {
+        Instant before = Instant.now();
+
+        watermarks.revokeAllForUser("alice");
+
+        long watermark = watermarks.getUserWatermark("alice");
+        assertThat(watermarks.isRevoked("alice", null, before)).isTrue();
+        assertThat(watermarks.isRevoked("alice", null, Instant.ofEpochMilli(watermark))).isTrue();
+        assertThat(watermarks.isRevoked("bob", null, before)).isFalse();
+    }
+
+    @Test
+    void loginInTheSameSecondAsTheRevocationIsNotRevoked() {
+        watermarks.revokeAllForUser("alice");
+
+        Instant reissued = Instant.ofEpochMilli(watermarks.getUserWatermark("alice") + 1);
+        assertThat(watermarks.isRevoked("alice", null, reissued)).isFalse();
+    }
+
+    @Test
+    void tokensWithoutAnIssueTimeAreRevokedOnceAWatermarkApplies() {
+        assertThat(watermarks.isRevoked(null, "web", null)).isFalse();
+
+        watermarks.revokeAllForClient("web");
+
+        assertThat(watermarks.isRevoked(null, "web", null)).isTrue();
+    }
+
+    @Test
+    void watermarkNeverMovesBackwards() {
+        // Raised by a node whose clock runs a minute ahead
+        long ahead = System.currentTimeMillis() + 60_000;
+        redisTemplate.opsForValue().set("revocation:watermark:user:alice", String.valueOf(ahead));
+
+        watermarks.revokeAllForUser("alice");
+
+        assertThat(redisTemplate.opsForValue().get("revocation:watermark:user:alice")).isEqualTo(String.valueOf(ahead));
+        assertThat(watermarks.getUserWatermark("alice")).isEqualTo(ahead);
+        assertThat(node().getUserWatermark("alice")).isEqualTo(ahead);
+    }
+
+    @Test
+    void revokingFailsWhileRedisIsUnavailable() {
+        circuitBreakerRegistry.circuitBreaker(RedisGuard.BREAKER_NAME).transitionToForcedOpenState();
+
+        assertThatThrownBy(() -> watermarks.revokeAllForUser("alice")).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    private RevocationWatermarks node() {
+        RevocationWatermarks node = new RevocationWatermarks(redisTemplate, redisGuard);
+        ReflectionTestUtils.setField(node, "revocationPolicy", FailurePolicy.FAIL_OPEN);
+        ReflectionTestUtils.setField(node, "cacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(node, "cacheSize", 100L);
+        ReflectionTestUtils.setField(node, "refreshExpiration", 86_400_000L);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,147 @@
+package com.codestorykh.alpha.security.revocation;
+
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bucketing and sizing of the revocation filter, through the local (degraded mode) entry points
+ * that do not need the stream.
+ */
+class TokenRevocationFilterTest {
+
+    private static final Duration ACCESS_TTL = Duration.ofHours(1);
+    private static final Duration REFRESH_TTL = Duration.ofHours(24);
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SplittableRandom random = new SplittableRandom(3);
+    private TokenRevocationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(configurationService.getJwtExpiration()).thenReturn(ACCESS_TTL.toMillis());
+        when(configurationService.getJwtRefreshExpiration()).thenReturn(REFRESH_TTL.toMillis());
+        filter = new TokenRevocationFilter(redisTemplate, mock(RedisConnectionFactory.class), configurationService,
+                meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "streamKey", "token:revocations");
+        ReflectionTestUtils.setField(filter, "bucketWidth", Duration.ofHours(1));
+        ReflectionTestUtils.setField(filter, "expectedPerBucket", 1_000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(filter, "pollTimeout", Duration.ofSeconds(1));
+        filter.init();
+    }
+
+    @Test
+    void revokedTokensAreReported() {
+        String hash = randomHash();
+
+        filter.revokedLocally(hash, Instant.now().plus(ACCESS_TTL));
+
+        assertThat(filter.mightBeRevokedLocally(hash)).isTrue();
+    }
+
+    @Test
+    void bucketsCoverTheLongestTokenLifetime() {
+        assertThat(filter.maxLiveBuckets()).isEqualTo(25);
+
+        ReflectionTestUtils.setField(filter, "retention", Duration.ofMinutes(90));
+        assertThat(filter.maxLiveBuckets()).isEqualTo(3);
+    }
+
+    @Test
+    void falsePositiveRateHoldsAcrossEveryLiveBucket() {
+        // Fill every bucket a check can hit to capacity
+        Instant now = Instant.now();
+        for (int bucket = 0; bucket < filter.maxLiveBuckets() - 1; bucket++) {
+            Instant expiresAt = now.plus(Duration.ofHours(bucket)).plus(Duration.ofMinutes(30));
+            for (int i = 0; i < 1_000; i++) {
+                filter.revokedLocally(randomHash(), expiresAt);
+            }
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightBeRevokedLocally(randomHash())) {
+                falsePositives++;
+            }
+        }
+        // Per-bucket sizing would let this reach 24 x 0.01 without the division
+        assertThat((double) falsePositives / probes).isLessThan(0.01 * 1.5);
+    }
+
+    @Test
+    void expiredBucketsStopAnsweringAndAreDropped() throws InterruptedException {
+        ReflectionTestUtils.setField(filter, "bucketWidth", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(filter, "retention", Duration.ofMillis(500));
+        String expiring = randomHash();
+        String live = randomHash();
+        filter.revokedLocally(expiring, Instant.now().plusMillis(60));
+        filter.revokedLocally(live, Instant.now().plusSeconds(60));
+        assertThat(buckets()).isEqualTo(2);
+
+        Thread.sleep(200);
+
+        assertThat(filter.mightBeRevokedLocally(expiring)).isFalse();
+        assertThat(filter.mightBeRevokedLocally(live)).isTrue();
+        filter.rotate();
+        assertThat(buckets()).isEqualTo(1);
+    }
+
+    @Test
+    void alreadyExpiredRevocationsAreIgnored() {
+        String hash = randomHash();
+
+        filter.revokedLocally(hash, Instant.now().minusSeconds(1));
+
+        assertThat(filter.mightBeRevokedLocally(hash)).isFalse();
+        assertThat(buckets()).isZero();
+    }
+
+    @Test
+    void streamIsTrimmedByAgeNotLength() {
+        ReflectionTestUtils.setField(filter, "ready", true);
+        long before = System.currentTimeMillis();
+
+        filter.rotate();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("token:revocations")),
+                argThat((String minId) -> {
+                    long millis = Long.parseLong(minId.substring(0, minId.indexOf('-')));
+                    return millis >= before - REFRESH_TTL.toMillis()
+                            && millis <= System.currentTimeMillis() - REFRESH_TTL.toMillis();
+                }));
+    }
+
+    private double buckets() {
+        return meterRegistry.get("token.revocation.filter.buckets").gauge().value();
+    }
+
+    private String randomHash() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
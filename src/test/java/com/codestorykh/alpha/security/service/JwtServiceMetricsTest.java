@@ -0,0 +1,69 @@
+package com.codestorykh.alpha.security.service;
+
+import com.codestorykh.alpha.config.properties.JwtConfigurationProperties;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.security.metrics.SecurityMetrics;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Signing and verification land in their own timers; signing a token does not parse it back.
+ */
+class JwtServiceMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfigurationProperties properties = mock(JwtConfigurationProperties.class);
+        when(properties.getJwtExpiration()).thenReturn(60_000L);
+        when(properties.getJwtRefreshExpiration()).thenReturn(120_000L);
+        when(properties.getJwtIssuer()).thenReturn("alpha-identity-server");
+        when(properties.getJwtAudience()).thenReturn("alpha-clients");
+        jwtService = new JwtService(mock(ConfigurationService.class), properties,
+                Keys.hmacShaKeyFor("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8)),
+                new SecurityMetrics(meterRegistry));
+    }
+
+    @Test
+    void signingRecordsNoVerification() {
+        UserDetails user = User.withUsername("alice").password("x").authorities(List.of()).build();
+
+        jwtService.generateToken(user);
+        jwtService.generateRefreshToken("alice", "family-1");
+
+        assertThat(signed("access")).isEqualTo(1);
+        assertThat(signed("refresh")).isEqualTo(1);
+        assertThat(verified()).isZero();
+    }
+
+    @Test
+    void parsingRecordsOneVerification() {
+        String token = jwtService.generateToken(User.withUsername("alice").password("x").authorities(List.of()).build());
+
+        assertThat(jwtService.parseClaims(token).getSubject()).isEqualTo("alice");
+
+        assertThat(verified()).isEqualTo(1);
+    }
+
+    private long signed(String type) {
+        return meterRegistry.get("auth.jwt.sign").tags("type", type, "outcome", "success").timer().count();
+    }
+
+    private long verified() {
+        return meterRegistry.get("auth.jwt.verify").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
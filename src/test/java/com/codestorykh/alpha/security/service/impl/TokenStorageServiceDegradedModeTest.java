@@ -0,0 +1,147 @@
+package com.codestorykh.alpha.security.service.impl;
+
+import com.codestorykh.alpha.cache.resilience.FailurePolicy;
+import com.codestorykh.alpha.cache.resilience.RedisGuard;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.config.service.ConfigurationService;
+import com.codestorykh.alpha.security.dto.TokenHotRecord;
+import com.codestorykh.alpha.security.dto.TokenInfo;
+import com.codestorykh.alpha.security.expiry.TokenExpiryIndex;
+import com.codestorykh.alpha.security.expiry.TokenExpirySweeper;
+import com.codestorykh.alpha.security.revocation.RevocationWatermarks;
+import com.codestorykh.alpha.security.revocation.TokenRevocationFilter;
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import com.codestorykh.alpha.security.stats.TokenUsageBuffer;
+import com.codestorykh.alpha.security.storage.LocalTokenStore;
+import com.codestorykh.alpha.security.storage.TokenHotStore;
+import com.codestorykh.alpha.security.storage.TokenIndexStore;
+import com.codestorykh.alpha.utils.encryption.EncryptionUtils;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Token storage while the Redis circuit breaker is open: answers come from the local token store,
+ * and writes are replayed in order once Redis is back.
+ */
+class TokenStorageServiceDegradedModeTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    private final TokenHotStore hotStore = mock(TokenHotStore.class);
+    private final ConfigurationService configurationService = mock(ConfigurationService.class);
+    private final TokenRevocationFilter revocationFilter = mock(TokenRevocationFilter.class);
+    private CircuitBreaker circuitBreaker;
+    private TokenStorageServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        RedisGuard redisGuard = new RedisGuard(circuitBreakerRegistry);
+        redisGuard.init();
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker(RedisGuard.BREAKER_NAME);
+
+        LocalTokenStore localStore = new LocalTokenStore(meterRegistry);
+        ReflectionTestUtils.setField(localStore, "maxEntries", 1024);
+        localStore.init();
+
+        when(configurationService.getJwtExpiration()).thenReturn(TTL.toMillis());
+        when(hotStore.get(any())).thenReturn(Optional.empty());
+
+        service = new TokenStorageServiceImpl(mock(CacheService.class), mock(RedisTemplate.class), configurationService,
+                revocationFilter, mock(RevocationWatermarks.class), mock(TokenStatisticsRecorder.class),
+                mock(TokenExpiryIndex.class), mock(TokenExpirySweeper.class), mock(TokenUsageBuffer.class), hotStore,
+                mock(TokenIndexStore.class), redisGuard, localStore, meterRegistry);
+        ReflectionTestUtils.setField(service, "unknownTokenPolicy", FailurePolicy.FAIL_CLOSED);
+        ReflectionTestUtils.setField(service, "revocationPolicy", FailurePolicy.FAIL_OPEN);
+        ReflectionTestUtils.setField(service, "maxDeferredWrites", 100);
+        service.initMetrics();
+    }
+
+    @Test
+    void validatesFromTheLocalStoreWhileRedisIsDown() {
+        circuitBreaker.transitionToForcedOpenState();
+
+        service.storeAccessToken("token-a", tokenInfo(), TTL);
+
+        assertThat(service.isAccessTokenValid("token-a")).isTrue();
+        // Unknown to this node, and unknown tokens fail closed
+        assertThat(service.isAccessTokenValid("token-b")).isFalse();
+        verifyNoInteractions(hotStore);
+    }
+
+    @Test
+    void revocationDuringTheOutageTakesEffectLocallyAtOnce() {
+        circuitBreaker.transitionToForcedOpenState();
+        service.storeAccessToken("token-a", tokenInfo(), TTL);
+
+        service.invalidateAccessToken("token-a", "logout");
+
+        assertThat(service.isAccessTokenValid("token-a")).isFalse();
+        verify(revocationFilter).revokedLocally(eq(hash("token-a")), any());
+    }
+
+    @Test
+    void replaysDeferredWritesInOrderOnceRedisIsBack() {
+        circuitBreaker.transitionToForcedOpenState();
+        service.storeAccessToken("token-a", tokenInfo(), TTL);
+        service.invalidateAccessToken("token-a", "logout");
+
+        service.reconcileDeferredWrites();
+        verifyNoInteractions(hotStore);
+
+        circuitBreaker.transitionToClosedState();
+        service.reconcileDeferredWrites();
+
+        InOrder order = inOrder(hotStore);
+        order.verify(hotStore).put(eq(hash("token-a")), any(TokenHotRecord.class), any(Duration.class));
+        order.verify(hotStore).get(hash("token-a"));
+
+        // Nothing is replayed twice
+        service.reconcileDeferredWrites();
+        verify(hotStore, times(1)).put(any(), any(), any());
+    }
+
+    @Test
+    void writeFailingAgainStaysQueued() {
+        circuitBreaker.transitionToForcedOpenState();
+        service.storeAccessToken("token-a", tokenInfo(), TTL);
+        circuitBreaker.transitionToClosedState();
+        doThrow(new RedisConnectionFailureException("down"))
+                .doNothing()
+                .when(hotStore).put(any(), any(), any());
+
+        service.reconcileDeferredWrites();
+        service.reconcileDeferredWrites();
+
+        verify(hotStore, times(2)).put(eq(hash("token-a")), any(TokenHotRecord.class), any(Duration.class));
+    }
+
+    private static TokenInfo tokenInfo() {
+        return TokenInfo.builder()
+                .username("alice")
+                .clientId("web")
+                .issuedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static String hash(String token) {
+        return EncryptionUtils.generateSHA256(token);
+    }
+}
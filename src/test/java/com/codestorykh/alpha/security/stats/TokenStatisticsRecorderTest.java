@@ -0,0 +1,132 @@
+package com.codestorykh.alpha.security.stats;
+
+import com.codestorykh.alpha.cache.EmbeddedRedisTest;
+import com.codestorykh.alpha.cache.service.CacheService;
+import com.codestorykh.alpha.security.dto.TokenInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deltas are counted once: readable before the flush, moved to Redis by it, and kept when they
+ * race with it or the flush fails.
+ */
+class TokenStatisticsRecorderTest extends EmbeddedRedisTest {
+
+    private StringRedisTemplate template;
+    private TokenStatisticsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        template = spy(redisTemplate);
+        recorder = node(template);
+    }
+
+    @Test
+    void deltasAreReadableBeforeAndAfterTheFlush() {
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token("alice", "web"));
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token("alice", "web"));
+        recorder.recordUsage("alice", "web", 3);
+        assertThat(recorder.forUser("alice").total()).isEqualTo(2);
+        assertThat(redisTemplate.hasKey("token:stats:user:alice")).isFalse();
+
+        recorder.flush();
+
+        assertThat(recorder.forUser("alice").total()).isEqualTo(2);
+        assertThat(recorder.forClient("web").usage()).isEqualTo(3);
+        TokenStatisticsRecorder other = node(redisTemplate);
+        assertThat(other.forUser("alice").total()).isEqualTo(2);
+        assertThat(other.global().usage()).isEqualTo(3);
+    }
+
+    @Test
+    void removalsAndStatusChangesMoveTheCounters() {
+        TokenInfo token = token("alice", null);
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token);
+        recorder.recordStored(TokenStatisticsRecorder.REFRESH, token);
+        recorder.flush();
+
+        recorder.recordStatusChange(TokenStatisticsRecorder.REFRESH, token, TokenInfo.TokenStatus.ACTIVE,
+                TokenInfo.TokenStatus.REVOKED);
+        recorder.recordRemoved(TokenStatisticsRecorder.ACCESS, token, true);
+        recorder.flush();
+
+        TokenCounters counters = node(redisTemplate).forUser("alice");
+        assertThat(counters.total()).isEqualTo(1);
+        assertThat(counters.countByStatus(TokenInfo.TokenStatus.REVOKED)).isEqualTo(1);
+        assertThat(counters.expired()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementsRacingAFlushAreKeptForTheNext() {
+        recorder.recordUsage("alice", null, 1);
+        doAnswer(invocation -> {
+            recorder.recordUsage("alice", null, 5);
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(template).executePipelined(any(RedisCallback.class));
+
+        recorder.flush();
+        assertThat(recorder.forUser("alice").usage()).isEqualTo(6);
+        assertThat(node(redisTemplate).forUser("alice").usage()).isEqualTo(1);
+
+        recorder.flush();
+        assertThat(node(redisTemplate).forUser("alice").usage()).isEqualTo(6);
+    }
+
+    @Test
+    void failedFlushKeepsTheDeltas() {
+        recorder.recordUsage("alice", null, 2);
+        doThrow(new IllegalStateException("Redis down")).doCallRealMethod()
+                .when(template).executePipelined(any(RedisCallback.class));
+
+        recorder.flush();
+        assertThat(recorder.forUser("alice").usage()).isEqualTo(2);
+
+        recorder.flush();
+        assertThat(node(redisTemplate).forUser("alice").usage()).isEqualTo(2);
+        assertThat(recorder.forUser("alice").usage()).isEqualTo(2);
+    }
+
+    @Test
+    void allUsersListsFlushedAndPendingUsers() {
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token("alice", null));
+        recorder.flush();
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token("alice", null));
+        recorder.recordStored(TokenStatisticsRecorder.ACCESS, token("bob", null));
+
+        Map<String, TokenCounters> users = recorder.allUsers();
+
+        assertThat(users).containsOnlyKeys("alice", "bob");
+        assertThat(users.get("alice").total()).isEqualTo(2);
+        assertThat(users.get("bob").total()).isEqualTo(1);
+    }
+
+    private TokenStatisticsRecorder node(StringRedisTemplate template) {
+        CacheService cacheService = mock(CacheService.class);
+        when(cacheService.getKeys(any())).thenAnswer(invocation -> redisTemplate.keys(invocation.getArgument(0)));
+        TokenStatisticsRecorder node = new TokenStatisticsRecorder(template, cacheService);
+        ReflectionTestUtils.setField(node, "principalTtl", Duration.ofDays(7));
+        return node;
+    }
+
+    private static TokenInfo token(String username, String clientId) {
+        return TokenInfo.builder()
+                .username(username)
+                .clientId(clientId)
+                .status(TokenInfo.TokenStatus.ACTIVE)
+                .build();
+    }
+}
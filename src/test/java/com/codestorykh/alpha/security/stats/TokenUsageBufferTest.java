@@ -0,0 +1,110 @@
+package com.codestorykh.alpha.security.stats;
+
+import com.codestorykh.alpha.cache.EmbeddedRedisTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every recorded use reaches Redis exactly once: across flushes, when the server lost the flush
+ * script, and when uses race with a flush.
+ */
+class TokenUsageBufferTest extends EmbeddedRedisTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenUsageBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = node(100);
+    }
+
+    @Test
+    void usesAreReadableBeforeAndAfterTheFlush() {
+        buffer.record("a");
+        buffer.record("a");
+        assertThat(buffer.usageOf(List.of("a")).get("a").count()).isEqualTo(2);
+
+        buffer.flush();
+        buffer.record("a");
+        buffer.flush();
+
+        assertThat(buffer.usageOf(List.of("a")).get("a").count()).isEqualTo(3);
+        assertThat(node(100).usageOf(List.of("a")).get("a").count()).isEqualTo(3);
+    }
+
+    @Test
+    void lostScriptIsResentWithoutCountingTwice() {
+        buffer.record("a");
+        buffer.flush();
+        buffer.record("a");
+        buffer.record("b");
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        });
+
+        buffer.flush();
+
+        TokenUsageBuffer other = node(100);
+        assertThat(other.usageOf(List.of("a")).get("a").count()).isEqualTo(2);
+        assertThat(other.usageOf(List.of("b")).get("b").count()).isEqualTo(1);
+    }
+
+    @Test
+    void usesRacingFlushesAreAllCounted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                writers.add(executor.submit(() -> IntStream.range(0, 5_000).forEach(i -> buffer.record("t" + i % 10))));
+            }
+            while (!writers.stream().allMatch(Future::isDone)) {
+                buffer.flush();
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        buffer.flush();
+
+        List<String> hashes = IntStream.range(0, 10).mapToObj(i -> "t" + i).toList();
+        long total = node(100).usageOf(hashes).values().stream().mapToLong(TokenUsageBuffer.TokenUsage::count).sum();
+        assertThat(total).isEqualTo(20_000);
+    }
+
+    @Test
+    void fullBufferDropsNewTokensUntilTheNextFlush() {
+        TokenUsageBuffer small = node(2);
+        small.record("a");
+        small.record("b");
+        small.record("c");
+        small.record("a");
+
+        assertThat(meterRegistry.get("token.usage.dropped").counter().count()).isEqualTo(1);
+        small.flush();
+        small.record("c");
+        assertThat(small.usageOf(List.of("a", "c"))).containsOnlyKeys("a", "c");
+    }
+
+    private TokenUsageBuffer node(int maxEntries) {
+        TokenUsageBuffer node = new TokenUsageBuffer(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(node, "maxEntries", maxEntries);
+        ReflectionTestUtils.setField(node, "refreshExpiration", 86_400_000L);
+        node.init();
+        return node;
+    }
+}
@@ -0,0 +1,110 @@
+package com.codestorykh.alpha.security.storage;
+
+import com.codestorykh.alpha.security.stats.TokenStatisticsRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenStoreTest {
+
+    private static final long IN_ONE_HOUR = System.currentTimeMillis() + 3_600_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new LocalTokenStore(meterRegistry);
+        // 64 regions of 16 slots: one probe window covers a whole region
+        ReflectionTestUtils.setField(store, "maxEntries", 1024);
+        store.init();
+    }
+
+    @Test
+    void returnsWhatWasStored() {
+        store.putActive(TokenStatisticsRecorder.ACCESS, hash(0, 1), IN_ONE_HOUR);
+        store.putActive(TokenStatisticsRecorder.REFRESH, hash(0, 2), IN_ONE_HOUR);
+
+        assertThat(store.get(hash(0, 1))).contains(new LocalTokenStore.Entry(TokenStatisticsRecorder.ACCESS, false, IN_ONE_HOUR));
+        assertThat(store.get(hash(0, 2))).contains(new LocalTokenStore.Entry(TokenStatisticsRecorder.REFRESH, false, IN_ONE_HOUR));
+        assertThat(store.get(hash(0, 3))).isEmpty();
+    }
+
+    @Test
+    void revocationIsNeverDowngraded() {
+        store.putRevoked(TokenStatisticsRecorder.ACCESS, hash(1, 1), IN_ONE_HOUR);
+        store.putActive(TokenStatisticsRecorder.ACCESS, hash(1, 1), IN_ONE_HOUR);
+
+        Optional<LocalTokenStore.Entry> entry = store.get(hash(1, 1));
+        assertThat(entry).hasValueSatisfying(e -> {
+            assertThat(e.revoked()).isTrue();
+            assertThat(e.isActive()).isFalse();
+        });
+    }
+
+    @Test
+    void expiredAndRemovedEntriesAreAbsent() {
+        store.putActive(TokenStatisticsRecorder.ACCESS, hash(2, 1), System.currentTimeMillis() - 1);
+        store.putActive(TokenStatisticsRecorder.ACCESS, hash(2, 2), IN_ONE_HOUR);
+        store.remove(hash(2, 2));
+
+        assertThat(store.get(hash(2, 1))).isEmpty();
+        assertThat(store.get(hash(2, 2))).isEmpty();
+    }
+
+    @Test
+    void removedSlotDoesNotHideLaterEntriesOfTheProbeChain() {
+        // Same region and home slot, so the second entry probes past the first
+        String first = hash(3, 0, 1);
+        String second = hash(3, 0, 2);
+        store.putActive(TokenStatisticsRecorder.ACCESS, first, IN_ONE_HOUR);
+        store.putActive(TokenStatisticsRecorder.ACCESS, second, IN_ONE_HOUR);
+        store.remove(first);
+
+        assertThat(store.get(second)).isPresent();
+    }
+
+    @Test
+    void fullRegionOverwritesTheEntryClosestToExpiry() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 16; i++) {
+            store.putActive(TokenStatisticsRecorder.ACCESS, hash(4, i), now + 60_000 + i * 1_000L);
+        }
+        store.putActive(TokenStatisticsRecorder.ACCESS, hash(4, 100), now + 120_000);
+
+        // hash(4, 0) expired soonest and made room
+        assertThat(store.get(hash(4, 0))).isEmpty();
+        assertThat(store.get(hash(4, 1))).isPresent();
+        assertThat(store.get(hash(4, 100))).isPresent();
+        assertThat(meterRegistry.counter("token.local-store.evictions").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void nonHexKeysAreDigested() {
+        store.putActive(TokenStatisticsRecorder.ACCESS, "not-a-sha256", IN_ONE_HOUR);
+
+        assertThat(store.get("not-a-sha256")).isPresent();
+        assertThat(store.get("not-a-sha257")).isEmpty();
+    }
+
+    /** Hex SHA-256 shaped hash whose first byte (the region) is {@code region} */
+    private static String hash(int region, int id) {
+        return hash(region, id, id);
+    }
+
+    /** Bytes 1-4 pick the home slot, the last byte tells entries apart */
+    private static String hash(int region, int home, int id) {
+        byte[] bytes = new byte[32];
+        bytes[0] = (byte) region;
+        bytes[4] = (byte) home;
+        bytes[31] = (byte) id;
+        return HexFormat.of().formatHex(bytes);
+    }
+}
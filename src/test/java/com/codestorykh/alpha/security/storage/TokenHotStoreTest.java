@@ -0,0 +1,62 @@
+package com.codestorykh.alpha.security.storage;
+
+import com.codestorykh.alpha.cache.EmbeddedRedisTest;
+import com.codestorykh.alpha.security.dto.TokenHotRecord;
+import com.codestorykh.alpha.security.dto.TokenInfo;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hot records round-trip through their hash, and storing one again replaces the old one whole.
+ */
+class TokenHotStoreTest extends EmbeddedRedisTest {
+
+    private final TokenHotStore store = new TokenHotStore(redisTemplate);
+
+    @Test
+    void recordRoundTripsWithItsTtl() {
+        TokenHotRecord record = record("alice", "web");
+
+        store.put("h1", record, Duration.ofMinutes(5));
+
+        assertThat(store.get("h1")).contains(record);
+        assertThat(redisTemplate.getExpire("token:hot:h1", TimeUnit.SECONDS)).isBetween(290L, 300L);
+    }
+
+    @Test
+    void storingAgainDropsFieldsOfThePreviousRecord() {
+        store.put("h1", record("alice", "web"), Duration.ofMinutes(5));
+
+        TokenHotRecord replacement = record(null, "web");
+        store.put("h1", replacement, Duration.ofMinutes(1));
+
+        assertThat(store.get("h1")).contains(replacement);
+        assertThat(redisTemplate.getExpire("token:hot:h1", TimeUnit.SECONDS)).isBetween(50L, 60L);
+    }
+
+    @Test
+    void statusUpdatesBumpTheVersion() {
+        store.put("h1", record("alice", "web"), Duration.ofMinutes(5));
+
+        assertThat(store.updateStatus("h1", TokenInfo.TokenStatus.REVOKED)).contains(TokenInfo.TokenStatus.ACTIVE);
+        assertThat(store.get("h1").orElseThrow().getVersion()).isEqualTo(2);
+        assertThat(store.updateStatus("h2", TokenInfo.TokenStatus.REVOKED)).isEmpty();
+    }
+
+    private static TokenHotRecord record(String username, String clientId) {
+        return TokenHotRecord.builder()
+                .tokenType("ACCESS")
+                .status(TokenInfo.TokenStatus.ACTIVE)
+                .expiresAt(2_000_000_000_000L)
+                .issuedAt(1_700_000_000_000L)
+                .username(username)
+                .userId(username != null ? "42" : null)
+                .clientId(clientId)
+                .version(1)
+                .build();
+    }
+}